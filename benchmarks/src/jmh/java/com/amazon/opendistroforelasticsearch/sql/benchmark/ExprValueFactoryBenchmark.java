@@ -0,0 +1,66 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.benchmark;
+
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchExprValueFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of constructing tuple value from document source returned by Elasticsearch. The score
+ * is number of batches constructed per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExprValueFactoryBenchmark {
+
+  @Param({"1024"})
+  private int rowCount;
+
+  private List<String> sources;
+
+  private ElasticsearchExprValueFactory factory;
+
+  /**
+   * Generate document source once per trial.
+   */
+  @Setup
+  public void setUp() {
+    sources = SyntheticData.jsonRows(rowCount, 100);
+    factory = new ElasticsearchExprValueFactory(SyntheticData.TYPE_MAPPING);
+  }
+
+  /**
+   * Construct tuple value from each document source in the batch.
+   */
+  @Benchmark
+  public void construct(Blackhole blackhole) {
+    for (String source : sources) {
+      blackhole.consume(factory.construct(source));
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.benchmark;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ExpressionCompiler;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of function expressions generated by FunctionDSL, evaluated against every row of a
+ * batch. The score is number of batches evaluated per second. The expressions are either
+ * interpreted or compiled by {@link ExpressionCompiler}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ExpressionBenchmark {
+
+  @Param({"1024"})
+  private int rowCount;
+
+  @Param({"false", "true"})
+  private boolean compiled;
+
+  private List<BindingTuple> rows;
+
+  private Expression arithmetic;
+
+  private Expression predicate;
+
+  private Expression mathematical;
+
+  /**
+   * Generate rows and build expressions once per trial.
+   */
+  @Setup
+  public void setUp() {
+    ExpressionConfig config = new ExpressionConfig();
+    DSL dsl = config.dsl(config.functionRepository());
+
+    rows = SyntheticData.rows(rowCount, 100).stream()
+        .map(ExprValue::bindingTuples)
+        .collect(Collectors.toList());
+    arithmetic = dsl.add(
+        dsl.multiply(ref("bytes", LONG), literal(8L)),
+        dsl.divide(ref("bytes", LONG), literal(1024L)));
+    predicate = dsl.and(
+        dsl.greater(ref("status", INTEGER), literal(300)),
+        dsl.less(ref("latency", DOUBLE), literal(500.0)));
+    mathematical = dsl.abs(dsl.subtract(ref("latency", DOUBLE), literal(500.0)));
+    if (compiled) {
+      arithmetic = ExpressionCompiler.compile(arithmetic);
+      predicate = ExpressionCompiler.compile(predicate);
+      mathematical = ExpressionCompiler.compile(mathematical);
+    }
+  }
+
+  @Benchmark
+  public void arithmetic(Blackhole blackhole) {
+    evaluate(arithmetic, blackhole);
+  }
+
+  @Benchmark
+  public void predicate(Blackhole blackhole) {
+    evaluate(predicate, blackhole);
+  }
+
+  @Benchmark
+  public void mathematical(Blackhole blackhole) {
+    evaluate(mathematical, blackhole);
+  }
+
+  private void evaluate(Expression expression, Blackhole blackhole) {
+    for (BindingTuple row : rows) {
+      blackhole.consume(expression.valueOf(row));
+    }
+  }
+}
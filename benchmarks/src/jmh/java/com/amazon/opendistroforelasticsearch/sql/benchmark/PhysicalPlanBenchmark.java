@@ -0,0 +1,135 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.benchmark;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark of in-memory physical plan pipelines on top of {@link RowScan}. The score is number
+ * of times all rows are processed per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PhysicalPlanBenchmark {
+
+  @Param({"100000"})
+  private int rowCount;
+
+  @Param({"100", "10000"})
+  private int hostCardinality;
+
+  private List<ExprValue> rows;
+
+  private DSL dsl;
+
+  /**
+   * Generate rows once per trial.
+   */
+  @Setup
+  public void setUp() {
+    ExpressionConfig config = new ExpressionConfig();
+    dsl = config.dsl(config.functionRepository());
+    rows = SyntheticData.rows(rowCount, hostCardinality);
+  }
+
+  /**
+   * source | where status < 400 | eval kb = bytes / 1024 | stats avg(latency), sum(kb) by host.
+   */
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public void filterEvalStats(Blackhole blackhole) {
+    execute(
+        PhysicalPlanDSL.agg(
+            PhysicalPlanDSL.eval(
+                PhysicalPlanDSL.filter(
+                    new RowScan(rows),
+                    dsl.less(ref("status", INTEGER), literal(400))),
+                Pair.of(ref("kb", LONG), dsl.divide(ref("bytes", LONG), literal(1024L)))),
+            Arrays.asList(dsl.avg(ref("latency", DOUBLE)), dsl.sum(ref("kb", LONG))),
+            Collections.singletonList(ref("host", STRING))),
+        blackhole);
+  }
+
+  /**
+   * source | sort - latency | head 100.
+   */
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public void sortTopN(Blackhole blackhole) {
+    execute(
+        PhysicalPlanDSL.sort(
+            new RowScan(rows), 100, Pair.of(SortOption.PPL_DESC, ref("latency", DOUBLE))),
+        blackhole);
+  }
+
+  /**
+   * source | sort host, - latency.
+   */
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public void sortAll(Blackhole blackhole) {
+    execute(
+        PhysicalPlanDSL.sort(
+            new RowScan(rows), rowCount,
+            Pair.of(SortOption.PPL_ASC, ref("host", STRING)),
+            Pair.of(SortOption.PPL_DESC, ref("latency", DOUBLE))),
+        blackhole);
+  }
+
+  /**
+   * source | dedup host.
+   */
+  @Benchmark
+  public void dedupe(Blackhole blackhole) {
+    execute(PhysicalPlanDSL.dedupe(new RowScan(rows), ref("host", STRING)), blackhole);
+  }
+
+  private void execute(PhysicalPlan plan, Blackhole blackhole) {
+    plan.open();
+    while (plan.hasNext()) {
+      blackhole.consume(plan.next());
+    }
+    plan.close();
+  }
+}
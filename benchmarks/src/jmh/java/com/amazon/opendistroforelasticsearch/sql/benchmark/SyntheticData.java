@@ -0,0 +1,102 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.benchmark;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generate synthetic web access log rows for benchmarks. The generator is seeded so every run
+ * sees exactly the same data and results are comparable across changes.
+ */
+public class SyntheticData {
+
+  /**
+   * Field types of the synthetic rows, which is also the index mapping in Elasticsearch.
+   */
+  public static final Map<String, ExprType> TYPE_MAPPING = ImmutableMap.of(
+      "id", INTEGER,
+      "host", STRING,
+      "status", INTEGER,
+      "bytes", LONG,
+      "latency", DOUBLE);
+
+  private static final int[] STATUS = {200, 200, 200, 200, 301, 404, 500};
+
+  private static final long SEED = 42L;
+
+  /**
+   * Generate rows as tuple values.
+   *
+   * @param size            number of rows
+   * @param hostCardinality number of distinct hosts
+   * @return rows
+   */
+  public static List<ExprValue> rows(int size, int hostCardinality) {
+    Random random = new Random(SEED);
+    List<ExprValue> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      Map<String, ExprValue> row = new LinkedHashMap<>();
+      row.put("id", ExprValueUtils.integerValue(i));
+      row.put("host", ExprValueUtils.stringValue(host(random, hostCardinality)));
+      row.put("status", ExprValueUtils.integerValue(STATUS[random.nextInt(STATUS.length)]));
+      row.put("bytes", ExprValueUtils.longValue((long) random.nextInt(1_000_000)));
+      row.put("latency", ExprValueUtils.doubleValue(random.nextDouble() * 1000));
+      rows.add(ExprTupleValue.fromExprValueMap(row));
+    }
+    return rows;
+  }
+
+  /**
+   * Generate rows as JSON document source returned by Elasticsearch.
+   *
+   * @param size            number of rows
+   * @param hostCardinality number of distinct hosts
+   * @return JSON source of rows
+   */
+  public static List<String> jsonRows(int size, int hostCardinality) {
+    Random random = new Random(SEED);
+    List<String> rows = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      rows.add(String.format(
+          "{\"id\":%d,\"host\":\"%s\",\"status\":%d,\"bytes\":%d,\"latency\":%f}",
+          i,
+          host(random, hostCardinality),
+          STATUS[random.nextInt(STATUS.length)],
+          random.nextInt(1_000_000),
+          random.nextDouble() * 1000));
+    }
+    return rows;
+  }
+
+  private static String host(Random random, int hostCardinality) {
+    return "host-" + random.nextInt(hostCardinality) + ".example.com";
+  }
+}
@@ -36,7 +36,15 @@ public abstract class Settings {
     /**
      * Common Setting for SQL and PPL.
      */
-    QUERY_SIZE_LIMIT("opendistro.query.size_limit");
+    QUERY_SIZE_LIMIT("opendistro.query.size_limit"),
+
+    QUERY_SORT_SPILL_THRESHOLD("opendistro.query.sort.spill_threshold"),
+
+    QUERY_AGGREGATION_SPILL_THRESHOLD("opendistro.query.aggregation.spill_threshold"),
+
+    QUERY_SPILL_PATH("opendistro.query.spill.path"),
+
+    QUERY_MEMORY_LIMIT("opendistro.query.memory_limit");
 
     @Getter
     private final String keyValue;
@@ -24,17 +24,25 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 
 /**
- * Expression Tuple Value.
+ * Expression Tuple Value. Subclass may populate the value map lazily by overriding
+ * {@link #tupleValue()} and {@link #bindingTuples()}, which all other methods go through.
  */
 @RequiredArgsConstructor
 public class ExprTupleValue extends AbstractExprValue {
 
   private final LinkedHashMap<String, ExprValue> valueMap;
 
+  /**
+   * Binding tuple created on first use and shared by all expressions evaluated on the tuple.
+   * It is not serialized when the tuple is spilled to disk.
+   */
+  private transient BindingTuple bindingTuple;
+
   public static ExprTupleValue fromExprValueMap(Map<String, ExprValue> map) {
     LinkedHashMap<String, ExprValue> linkedHashMap = new LinkedHashMap<>(map);
     return new ExprTupleValue(linkedHashMap);
@@ -42,7 +50,7 @@ public class ExprTupleValue extends AbstractExprValue {
 
   @Override
   public Object value() {
-    return valueMap;
+    return tupleValue();
   }
 
   @Override
@@ -52,7 +60,7 @@ public class ExprTupleValue extends AbstractExprValue {
 
   @Override
   public String toString() {
-    return valueMap.entrySet()
+    return tupleValue().entrySet()
         .stream()
         .map(entry -> String.format("%s:%s", entry.getKey(), entry.getValue()))
         .collect(Collectors.joining(",", "{", "}"));
@@ -60,8 +68,11 @@ public class ExprTupleValue extends AbstractExprValue {
 
   @Override
   public BindingTuple bindingTuples() {
-    return new LazyBindingTuple(
-        bindingName -> valueMap.getOrDefault(bindingName, ExprMissingValue.of()));
+    if (bindingTuple == null) {
+      bindingTuple = new LazyBindingTuple(
+          bindingName -> valueMap.getOrDefault(bindingName, ExprMissingValue.of()));
+    }
+    return bindingTuple;
   }
 
   @Override
@@ -69,6 +80,17 @@ public class ExprTupleValue extends AbstractExprValue {
     return valueMap;
   }
 
+  /**
+   * Size hint of the tuple in bytes which is cheap to get without walking the values. Subclass
+   * that populates the value map lazily may return it, for example from the size of the source,
+   * to avoid populating the value map only for memory estimation.
+   *
+   * @return size hint in bytes, or empty if the values have to be walked to estimate
+   */
+  public OptionalLong sizeHint() {
+    return OptionalLong.empty();
+  }
+
   /**
    * Override the equals method.
    * @return true for equal, otherwise false.
@@ -78,8 +100,8 @@ public class ExprTupleValue extends AbstractExprValue {
       return false;
     } else {
       ExprTupleValue other = (ExprTupleValue) o;
-      Iterator<Entry<String, ExprValue>> thisIterator = this.valueMap.entrySet().iterator();
-      Iterator<Entry<String, ExprValue>> otherIterator = other.valueMap.entrySet().iterator();
+      Iterator<Entry<String, ExprValue>> thisIterator = this.tupleValue().entrySet().iterator();
+      Iterator<Entry<String, ExprValue>> otherIterator = other.tupleValue().entrySet().iterator();
       while (thisIterator.hasNext() && otherIterator.hasNext()) {
         Entry<String, ExprValue> thisEntry = thisIterator.next();
         Entry<String, ExprValue> otherEntry = otherIterator.next();
@@ -97,11 +119,11 @@ public class ExprTupleValue extends AbstractExprValue {
    */
   @Override
   public int compare(ExprValue other) {
-    return Integer.compare(valueMap.size(), other.tupleValue().size());
+    return Integer.compare(tupleValue().size(), other.tupleValue().size());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hashCode(valueMap);
+    return Objects.hashCode(tupleValue());
   }
 }
@@ -0,0 +1,75 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.expression.aggregation;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+
+/**
+ * Maintain the states of all groups when {@link Aggregator} iterate on the {@link BindingTuple}
+ * of each group. The states are indexed by group id which is assigned in the order groups are
+ * added, so the states can be kept in primitive arrays instead of one object per group.
+ */
+public abstract class AggregationStateArray {
+
+  /**
+   * Initial number of groups the arrays can hold.
+   */
+  static final int INITIAL_CAPACITY = 16;
+
+  private int capacity = 0;
+
+  private int size = 0;
+
+  /**
+   * Add the state of a new group.
+   *
+   * @return group id of the new group
+   */
+  public int addGroup() {
+    if (size == capacity) {
+      capacity = Math.max(INITIAL_CAPACITY, capacity * 2);
+      resize(capacity);
+    }
+    int groupId = size++;
+    initGroup(groupId);
+    return groupId;
+  }
+
+  /**
+   * Resize the arrays to hold the number of groups given.
+   */
+  protected abstract void resize(int capacity);
+
+  /**
+   * Initialize the state of new group, which is all zero in arrays by default.
+   */
+  protected void initGroup(int groupId) {
+  }
+
+  /**
+   * Iterate on the {@link BindingTuple} of the group.
+   *
+   * @param tuple   {@link BindingTuple}
+   * @param groupId group id
+   */
+  public abstract void iterate(BindingTuple tuple, int groupId);
+
+  /**
+   * Get {@link ExprValue} result of the group.
+   */
+  public abstract ExprValue result(int groupId);
+}
@@ -26,6 +26,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionImplementation;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.ArrayList;
 import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -61,6 +62,36 @@ public abstract class Aggregator<S extends AggregationState>
    */
   public abstract S iterate(BindingTuple tuple, S state);
 
+  /**
+   * Create an {@link AggregationStateArray} which maintains the states of all groups. By default
+   * one {@link AggregationState} created by {@link #create()} is kept for each group.
+   */
+  public AggregationStateArray createStateArray() {
+    return new AggregationStateArray() {
+      private final ArrayList<S> states = new ArrayList<>();
+
+      @Override
+      protected void resize(int capacity) {
+        states.ensureCapacity(capacity);
+      }
+
+      @Override
+      protected void initGroup(int groupId) {
+        states.add(create());
+      }
+
+      @Override
+      public void iterate(BindingTuple tuple, int groupId) {
+        Aggregator.this.iterate(tuple, states.get(groupId));
+      }
+
+      @Override
+      public ExprValue result(int groupId) {
+        return states.get(groupId).result();
+      }
+    };
+  }
+
   @Override
   public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
     throw new ExpressionEvaluationException(
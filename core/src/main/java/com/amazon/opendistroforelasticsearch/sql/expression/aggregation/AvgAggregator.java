@@ -24,6 +24,7 @@ import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -55,6 +56,11 @@ public class AvgAggregator extends Aggregator<AvgAggregator.AvgState> {
     return state;
   }
 
+  @Override
+  public AvgStateArray createStateArray() {
+    return new AvgStateArray();
+  }
+
   @Override
   public String toString() {
     return String.format(Locale.ROOT, "avg(%s)", format(getArguments()));
@@ -78,4 +84,37 @@ public class AvgAggregator extends Aggregator<AvgAggregator.AvgState> {
       return isNullResult ? ExprNullValue.of() : ExprValueUtils.doubleValue(total / count);
     }
   }
+
+  /**
+   * Average State of all groups.
+   */
+  protected class AvgStateArray extends AggregationStateArray {
+    private int[] counts = new int[0];
+    private double[] totals = new double[0];
+    private boolean[] isNullResults = new boolean[0];
+
+    @Override
+    protected void resize(int capacity) {
+      counts = Arrays.copyOf(counts, capacity);
+      totals = Arrays.copyOf(totals, capacity);
+      isNullResults = Arrays.copyOf(isNullResults, capacity);
+    }
+
+    @Override
+    public void iterate(BindingTuple tuple, int groupId) {
+      ExprValue value = getArguments().get(0).valueOf(tuple);
+      if (value.isNull() || value.isMissing()) {
+        isNullResults[groupId] = true;
+      } else {
+        counts[groupId]++;
+        totals[groupId] += ExprValueUtils.getDoubleValue(value);
+      }
+    }
+
+    @Override
+    public ExprValue result(int groupId) {
+      return isNullResults[groupId] ? ExprNullValue.of()
+          : ExprValueUtils.doubleValue(totals[groupId] / counts[groupId]);
+    }
+  }
 }
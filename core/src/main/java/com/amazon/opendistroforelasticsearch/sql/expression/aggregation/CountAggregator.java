@@ -24,6 +24,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.CountAggregator.CountState;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -48,6 +49,11 @@ public class CountAggregator extends Aggregator<CountState> {
     return state;
   }
 
+  @Override
+  public CountStateArray createStateArray() {
+    return new CountStateArray();
+  }
+
   @Override
   public String toString() {
     return String.format(Locale.ROOT, "count(%s)", format(getArguments()));
@@ -68,4 +74,29 @@ public class CountAggregator extends Aggregator<CountState> {
       return ExprValueUtils.integerValue(count);
     }
   }
+
+  /**
+   * Count State of all groups.
+   */
+  protected class CountStateArray extends AggregationStateArray {
+    private int[] counts = new int[0];
+
+    @Override
+    protected void resize(int capacity) {
+      counts = Arrays.copyOf(counts, capacity);
+    }
+
+    @Override
+    public void iterate(BindingTuple tuple, int groupId) {
+      ExprValue value = getArguments().get(0).valueOf(tuple);
+      if (!(value.isNull() || value.isMissing())) {
+        counts[groupId]++;
+      }
+    }
+
+    @Override
+    public ExprValue result(int groupId) {
+      return ExprValueUtils.integerValue(counts[groupId]);
+    }
+  }
 }
@@ -23,17 +23,19 @@ import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtil
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.getLongValue;
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
 import static com.amazon.opendistroforelasticsearch.sql.utils.ExpressionUtils.format;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprNullValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
-import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.SumAggregator.SumState;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 
@@ -64,41 +66,48 @@ public class SumAggregator extends Aggregator<SumState> {
     return state;
   }
 
+  @Override
+  public SumStateArray createStateArray() {
+    return new SumStateArray();
+  }
+
   @Override
   public String toString() {
     return String.format(Locale.ROOT, "sum(%s)", format(getArguments()));
   }
 
   /**
-   * Sum State.
+   * Sum State. The running total is accumulated in primitive to avoid creating a new value for
+   * each row.
    */
   protected class SumState implements AggregationState {
 
     private final ExprCoreType type;
-    private ExprValue sumResult;
+    private long longSum = 0L;
+    private float floatSum = 0F;
+    private double doubleSum = 0D;
     private boolean isNullResult = false;
 
     public SumState(ExprCoreType type) {
       this.type = type;
-      sumResult = ExprValueUtils.integerValue(0);
     }
 
     /**
-     * Add value to current sumResult.
+     * Add value to current sum.
      */
     public void add(ExprValue value) {
       switch (type) {
         case INTEGER:
-          sumResult = integerValue(getIntegerValue(sumResult) + getIntegerValue(value));
+          longSum += getIntegerValue(value);
           break;
         case LONG:
-          sumResult = longValue(getLongValue(sumResult) + getLongValue(value));
+          longSum += getLongValue(value);
           break;
         case FLOAT:
-          sumResult = floatValue(getFloatValue(sumResult) + getFloatValue(value));
+          floatSum += getFloatValue(value);
           break;
         case DOUBLE:
-          sumResult = doubleValue(getDoubleValue(sumResult) + getDoubleValue(value));
+          doubleSum += getDoubleValue(value);
           break;
         default:
           throw new ExpressionEvaluationException(
@@ -108,7 +117,83 @@ public class SumAggregator extends Aggregator<SumState> {
 
     @Override
     public ExprValue result() {
-      return isNullResult ? ExprNullValue.of() : sumResult;
+      if (isNullResult) {
+        return ExprNullValue.of();
+      }
+      switch (type) {
+        case LONG:
+          return longValue(longSum);
+        case FLOAT:
+          return floatValue(floatSum);
+        case DOUBLE:
+          return doubleValue(doubleSum);
+        default:
+          return integerValue((int) longSum);
+      }
+    }
+  }
+
+  /**
+   * Sum State of all groups. Integer and long are summed up in long array, while float and double
+   * are summed up in double array. Float sum is rounded to float on each addition as in
+   * {@link SumState}.
+   */
+  protected class SumStateArray extends AggregationStateArray {
+    private long[] longSums = new long[0];
+    private double[] doubleSums = new double[0];
+    private boolean[] isNullResults = new boolean[0];
+
+    @Override
+    protected void resize(int capacity) {
+      if (returnType == INTEGER || returnType == LONG) {
+        longSums = Arrays.copyOf(longSums, capacity);
+      } else {
+        doubleSums = Arrays.copyOf(doubleSums, capacity);
+      }
+      isNullResults = Arrays.copyOf(isNullResults, capacity);
+    }
+
+    @Override
+    public void iterate(BindingTuple tuple, int groupId) {
+      ExprValue value = getArguments().get(0).valueOf(tuple);
+      if (value.isNull() || value.isMissing()) {
+        isNullResults[groupId] = true;
+        return;
+      }
+      switch (returnType) {
+        case INTEGER:
+          longSums[groupId] += getIntegerValue(value);
+          break;
+        case LONG:
+          longSums[groupId] += getLongValue(value);
+          break;
+        case FLOAT:
+          doubleSums[groupId] = (float) doubleSums[groupId] + getFloatValue(value);
+          break;
+        case DOUBLE:
+          doubleSums[groupId] += getDoubleValue(value);
+          break;
+        default:
+          throw new ExpressionEvaluationException(
+              String.format("unexpected type [%s] in sum aggregation", returnType));
+      }
+    }
+
+    @Override
+    public ExprValue result(int groupId) {
+      if (isNullResults[groupId]) {
+        return ExprNullValue.of();
+      }
+      switch (returnType) {
+        case LONG:
+          return longValue(longSums[groupId]);
+        case FLOAT:
+          return floatValue((float) doubleSums[groupId]);
+        case DOUBLE:
+          return doubleValue(doubleSums[groupId]);
+        default:
+          return integerValue((int) longSums[groupId]);
+      }
     }
   }
 }
@@ -0,0 +1,133 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledNode.DoubleNode;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledNode.IntNode;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledNode.LongNode;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Specialized arithmetic nodes. The result is NULL or MISSING if either operand is, and NULL if
+ * divisor is zero for divide and modules, which is the same as the interpreted operators.
+ */
+final class ArithmeticNode {
+
+  private ArithmeticNode() {
+  }
+
+  static final class IntArithmetic extends IntNode {
+    private final CompiledNode left;
+    private final CompiledNode right;
+    private final IntBinaryOperator operator;
+    private final boolean nullIfZeroDivisor;
+
+    IntArithmetic(EvaluationState state, CompiledNode left, CompiledNode right,
+                  IntBinaryOperator operator, boolean nullIfZeroDivisor) {
+      super(state);
+      this.left = left;
+      this.right = right;
+      this.operator = operator;
+      this.nullIfZeroDivisor = nullIfZeroDivisor;
+    }
+
+    @Override
+    int intValue(Environment<Expression, ExprValue> env) {
+      int leftValue = left.intValue(env);
+      byte leftFlag = state.take();
+      int rightValue = right.intValue(env);
+      byte rightFlag = state.take();
+      if (state.merge(leftFlag, rightFlag)) {
+        return 0;
+      }
+      if (nullIfZeroDivisor && rightValue == 0) {
+        state.set(EvaluationState.NULL);
+        return 0;
+      }
+      return operator.applyAsInt(leftValue, rightValue);
+    }
+  }
+
+  static final class LongArithmetic extends LongNode {
+    private final CompiledNode left;
+    private final CompiledNode right;
+    private final LongBinaryOperator operator;
+    private final boolean nullIfZeroDivisor;
+
+    LongArithmetic(EvaluationState state, CompiledNode left, CompiledNode right,
+                   LongBinaryOperator operator, boolean nullIfZeroDivisor) {
+      super(state);
+      this.left = left;
+      this.right = right;
+      this.operator = operator;
+      this.nullIfZeroDivisor = nullIfZeroDivisor;
+    }
+
+    @Override
+    long longValue(Environment<Expression, ExprValue> env) {
+      long leftValue = left.longValue(env);
+      byte leftFlag = state.take();
+      long rightValue = right.longValue(env);
+      byte rightFlag = state.take();
+      if (state.merge(leftFlag, rightFlag)) {
+        return 0L;
+      }
+      if (nullIfZeroDivisor && rightValue == 0L) {
+        state.set(EvaluationState.NULL);
+        return 0L;
+      }
+      return operator.applyAsLong(leftValue, rightValue);
+    }
+  }
+
+  static final class DoubleArithmetic extends DoubleNode {
+    private final CompiledNode left;
+    private final CompiledNode right;
+    private final DoubleBinaryOperator operator;
+    private final boolean nullIfZeroDivisor;
+
+    DoubleArithmetic(EvaluationState state, CompiledNode left, CompiledNode right,
+                     DoubleBinaryOperator operator, boolean nullIfZeroDivisor) {
+      super(state);
+      this.left = left;
+      this.right = right;
+      this.operator = operator;
+      this.nullIfZeroDivisor = nullIfZeroDivisor;
+    }
+
+    @Override
+    double doubleValue(Environment<Expression, ExprValue> env) {
+      double leftValue = left.doubleValue(env);
+      byte leftFlag = state.take();
+      double rightValue = right.doubleValue(env);
+      byte rightFlag = state.take();
+      if (state.merge(leftFlag, rightFlag)) {
+        return 0D;
+      }
+      if (nullIfZeroDivisor && rightValue == 0D) {
+        state.set(EvaluationState.NULL);
+        return 0D;
+      }
+      return operator.applyAsDouble(leftValue, rightValue);
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledNode.BooleanNode;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import java.util.function.IntPredicate;
+
+/**
+ * Specialized comparison node which compares primitive value of both operands and tests the
+ * result of comparison. The result is NULL or MISSING if either operand is.
+ */
+abstract class ComparisonNode extends BooleanNode {
+  protected final CompiledNode left;
+  protected final CompiledNode right;
+  private final IntPredicate test;
+
+  ComparisonNode(EvaluationState state, CompiledNode left, CompiledNode right,
+                 IntPredicate test) {
+    super(state);
+    this.left = left;
+    this.right = right;
+    this.test = test;
+  }
+
+  /**
+   * Compare value of both operands and merge the flags of them.
+   */
+  abstract int compare(Environment<Expression, ExprValue> env);
+
+  @Override
+  boolean booleanValue(Environment<Expression, ExprValue> env) {
+    int result = compare(env);
+    return test.test(result);
+  }
+
+  static final class IntComparison extends ComparisonNode {
+    IntComparison(EvaluationState state, CompiledNode left, CompiledNode right,
+                  IntPredicate test) {
+      super(state, left, right, test);
+    }
+
+    @Override
+    int compare(Environment<Expression, ExprValue> env) {
+      int leftValue = left.intValue(env);
+      byte leftFlag = state.take();
+      int rightValue = right.intValue(env);
+      byte rightFlag = state.take();
+      state.merge(leftFlag, rightFlag);
+      return Integer.compare(leftValue, rightValue);
+    }
+  }
+
+  static final class LongComparison extends ComparisonNode {
+    LongComparison(EvaluationState state, CompiledNode left, CompiledNode right,
+                   IntPredicate test) {
+      super(state, left, right, test);
+    }
+
+    @Override
+    int compare(Environment<Expression, ExprValue> env) {
+      long leftValue = left.longValue(env);
+      byte leftFlag = state.take();
+      long rightValue = right.longValue(env);
+      byte rightFlag = state.take();
+      state.merge(leftFlag, rightFlag);
+      return Long.compare(leftValue, rightValue);
+    }
+  }
+
+  static final class DoubleComparison extends ComparisonNode {
+    DoubleComparison(EvaluationState state, CompiledNode left, CompiledNode right,
+                     IntPredicate test) {
+      super(state, left, right, test);
+    }
+
+    @Override
+    int compare(Environment<Expression, ExprValue> env) {
+      double leftValue = left.doubleValue(env);
+      byte leftFlag = state.take();
+      double rightValue = right.doubleValue(env);
+      byte rightFlag = state.take();
+      state.merge(leftFlag, rightFlag);
+      return Double.compare(leftValue, rightValue);
+    }
+  }
+
+  static final class BooleanComparison extends ComparisonNode {
+    BooleanComparison(EvaluationState state, CompiledNode left, CompiledNode right,
+                      IntPredicate test) {
+      super(state, left, right, test);
+    }
+
+    @Override
+    int compare(Environment<Expression, ExprValue> env) {
+      boolean leftValue = left.booleanValue(env);
+      byte leftFlag = state.take();
+      boolean rightValue = right.booleanValue(env);
+      byte rightFlag = state.take();
+      state.merge(leftFlag, rightFlag);
+      return Boolean.compare(leftValue, rightValue);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import static com.amazon.opendistroforelasticsearch.sql.expression.compiler.EvaluationState.PRESENT;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Expression compiled by {@link ExpressionCompiler}. It evaluates to the same value as the
+ * original expression and behaves the same as the original for anything else.
+ *
+ * <p>The compiled expression is stateful during evaluation and thus not thread safe. Each operator
+ * or script instance should compile its own.
+ */
+@EqualsAndHashCode(of = "original")
+@RequiredArgsConstructor
+public class CompiledExpression implements Expression {
+  @Getter
+  private final Expression original;
+  private final CompiledNode root;
+  private final EvaluationState state;
+
+  @Override
+  public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
+    state.take();
+    return root.value(valueEnv);
+  }
+
+  /**
+   * Evaluate the predicate without boxing the result.
+   *
+   * @param valueEnv value environment
+   * @return true if the result is TRUE, false if FALSE, NULL or MISSING
+   */
+  public boolean isTrue(Environment<Expression, ExprValue> valueEnv) {
+    state.take();
+    boolean result = root.booleanValue(valueEnv);
+    return state.take() == PRESENT && result;
+  }
+
+  @Override
+  public ExprType type() {
+    return original.type();
+  }
+
+  @Override
+  public <T, C> T accept(ExpressionNodeVisitor<T, C> visitor, C context) {
+    return original.accept(visitor, context);
+  }
+
+  @Override
+  public String toString() {
+    return original.toString();
+  }
+}
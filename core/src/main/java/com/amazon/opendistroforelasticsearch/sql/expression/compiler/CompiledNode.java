@@ -0,0 +1,170 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import static com.amazon.opendistroforelasticsearch.sql.expression.compiler.EvaluationState.PRESENT;
+import static com.amazon.opendistroforelasticsearch.sql.expression.compiler.EvaluationState.absentValue;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Node of compiled expression tree. Each node can be evaluated to boxed value or to primitive
+ * value of the type it specializes in. The primitive evaluation of a node not specialized in the
+ * type unboxes its boxed value, and vice versa.
+ *
+ * <p>Any evaluation returns with the flag in {@link EvaluationState} set to NULL or MISSING if
+ * the result is absent, in which case the primitive value returned is meaningless.
+ */
+@RequiredArgsConstructor
+abstract class CompiledNode {
+  protected final EvaluationState state;
+
+  abstract ExprValue value(Environment<Expression, ExprValue> env);
+
+  int intValue(Environment<Expression, ExprValue> env) {
+    ExprValue value = value(env);
+    return state.absent(value) ? 0 : value.integerValue();
+  }
+
+  long longValue(Environment<Expression, ExprValue> env) {
+    ExprValue value = value(env);
+    return state.absent(value) ? 0L : value.longValue();
+  }
+
+  double doubleValue(Environment<Expression, ExprValue> env) {
+    ExprValue value = value(env);
+    return state.absent(value) ? 0D : value.doubleValue();
+  }
+
+  boolean booleanValue(Environment<Expression, ExprValue> env) {
+    ExprValue value = value(env);
+    return !state.absent(value) && value.booleanValue();
+  }
+
+  /**
+   * Node that delegates to the original expression which is not specialized.
+   */
+  static final class Fallback extends CompiledNode {
+    private final Expression expression;
+
+    Fallback(EvaluationState state, Expression expression) {
+      super(state);
+      this.expression = expression;
+    }
+
+    @Override
+    ExprValue value(Environment<Expression, ExprValue> env) {
+      return expression.valueOf(env);
+    }
+  }
+
+  /**
+   * Node specialized in int value.
+   */
+  abstract static class IntNode extends CompiledNode {
+    IntNode(EvaluationState state) {
+      super(state);
+    }
+
+    @Override
+    abstract int intValue(Environment<Expression, ExprValue> env);
+
+    @Override
+    ExprValue value(Environment<Expression, ExprValue> env) {
+      int value = intValue(env);
+      byte flag = state.take();
+      return flag == PRESENT ? ExprValueUtils.integerValue(value) : absentValue(flag);
+    }
+
+    @Override
+    long longValue(Environment<Expression, ExprValue> env) {
+      return intValue(env);
+    }
+
+    @Override
+    double doubleValue(Environment<Expression, ExprValue> env) {
+      return intValue(env);
+    }
+  }
+
+  /**
+   * Node specialized in long value.
+   */
+  abstract static class LongNode extends CompiledNode {
+    LongNode(EvaluationState state) {
+      super(state);
+    }
+
+    @Override
+    abstract long longValue(Environment<Expression, ExprValue> env);
+
+    @Override
+    ExprValue value(Environment<Expression, ExprValue> env) {
+      long value = longValue(env);
+      byte flag = state.take();
+      return flag == PRESENT ? ExprValueUtils.longValue(value) : absentValue(flag);
+    }
+
+    @Override
+    double doubleValue(Environment<Expression, ExprValue> env) {
+      return longValue(env);
+    }
+  }
+
+  /**
+   * Node specialized in double value.
+   */
+  abstract static class DoubleNode extends CompiledNode {
+    DoubleNode(EvaluationState state) {
+      super(state);
+    }
+
+    @Override
+    abstract double doubleValue(Environment<Expression, ExprValue> env);
+
+    @Override
+    ExprValue value(Environment<Expression, ExprValue> env) {
+      double value = doubleValue(env);
+      byte flag = state.take();
+      return flag == PRESENT ? ExprValueUtils.doubleValue(value) : absentValue(flag);
+    }
+  }
+
+  /**
+   * Node specialized in boolean value.
+   */
+  abstract static class BooleanNode extends CompiledNode {
+    BooleanNode(EvaluationState state) {
+      super(state);
+    }
+
+    @Override
+    abstract boolean booleanValue(Environment<Expression, ExprValue> env);
+
+    @Override
+    ExprValue value(Environment<Expression, ExprValue> env) {
+      boolean value = booleanValue(env);
+      byte flag = state.take();
+      return flag == PRESENT ? ExprBooleanValue.of(value) : absentValue(flag);
+    }
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+
+/**
+ * Rough estimate of the cost to evaluate an expression, which is only meaningful in comparison
+ * with each other. Operands of logical operator are evaluated in ascending order of the cost so
+ * that cheap predicate can short-circuit the expensive ones.
+ */
+class CostEstimator extends ExpressionNodeVisitor<Integer, Object> {
+
+  private static final CostEstimator INSTANCE = new CostEstimator();
+
+  private static final int REFERENCE_COST = 1;
+  private static final int PREDICATE_COST = 1;
+  private static final int ARITHMETIC_COST = 2;
+  private static final int FUNCTION_COST = 5;
+  private static final int PATTERN_MATCH_COST = 20;
+
+  static int estimate(Expression expression) {
+    return expression.accept(INSTANCE, null);
+  }
+
+  /**
+   * Other expression, such as parameter resolved from environment, is as cheap as reference.
+   */
+  @Override
+  public Integer visitNode(Expression node, Object context) {
+    return REFERENCE_COST;
+  }
+
+  @Override
+  public Integer visitAggregator(Aggregator<?> node, Object context) {
+    return FUNCTION_COST;
+  }
+
+  @Override
+  public Integer visitLiteral(LiteralExpression node, Object context) {
+    return 0;
+  }
+
+  @Override
+  public Integer visitReference(ReferenceExpression node, Object context) {
+    return REFERENCE_COST;
+  }
+
+  @Override
+  public Integer visitNamed(NamedExpression node, Object context) {
+    return node.getDelegated().accept(this, context);
+  }
+
+  @Override
+  public Integer visitFunction(FunctionExpression node, Object context) {
+    int cost = BuiltinFunctionName.of(node.getFunctionName().getFunctionName())
+        .map(CostEstimator::functionCost)
+        .orElse(FUNCTION_COST);
+    for (Expression arg : node.getArguments()) {
+      cost += arg.accept(this, context);
+    }
+    return cost;
+  }
+
+  private static int functionCost(BuiltinFunctionName name) {
+    switch (name) {
+      case AND:
+      case OR:
+      case XOR:
+      case NOT:
+      case EQUAL:
+      case NOTEQUAL:
+      case LESS:
+      case LTE:
+      case GREATER:
+      case GTE:
+      case IS_NULL:
+      case IS_NOT_NULL:
+        return PREDICATE_COST;
+      case ADD:
+      case SUBTRACT:
+      case MULTIPLY:
+      case DIVIDE:
+      case MODULES:
+        return ARITHMETIC_COST;
+      case LIKE:
+      case NOT_LIKE:
+        return PATTERN_MATCH_COST;
+      default:
+        return FUNCTION_COST;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.missingValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.nullValue;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+
+/**
+ * Evaluation state shared by all nodes of a compiled expression tree. Specialized node returns
+ * primitive value which can't represent NULL or MISSING, so the node sets the flag here instead
+ * and its parent takes the flag right after evaluating it.
+ *
+ * <p>The flags are ordered so that the flag of a binary operation with NULL and MISSING handling
+ * is simply the max of its operands, i.e. MISSING takes precedence over NULL.
+ */
+class EvaluationState {
+  static final byte PRESENT = 0;
+  static final byte NULL = 1;
+  static final byte MISSING = 2;
+
+  private byte flag = PRESENT;
+
+  /**
+   * Return the flag set by last node evaluated and reset it.
+   */
+  byte take() {
+    byte result = flag;
+    flag = PRESENT;
+    return result;
+  }
+
+  void set(byte flag) {
+    this.flag = flag;
+  }
+
+  /**
+   * Set the flag of an operation on the operands with the flags given.
+   *
+   * @return true if result is NULL or MISSING
+   */
+  boolean merge(byte left, byte right) {
+    flag = (byte) Math.max(left, right);
+    return flag != PRESENT;
+  }
+
+  /**
+   * Set the flag if the boxed value is NULL or MISSING.
+   *
+   * @return true if value is NULL or MISSING
+   */
+  boolean absent(ExprValue value) {
+    if (value.isMissing()) {
+      flag = MISSING;
+    } else if (value.isNull()) {
+      flag = NULL;
+    }
+    return flag != PRESENT;
+  }
+
+  /**
+   * Box the flag taken into NULL or MISSING value.
+   */
+  static ExprValue absentValue(byte flag) {
+    return flag == MISSING ? missingValue() : nullValue();
+  }
+}
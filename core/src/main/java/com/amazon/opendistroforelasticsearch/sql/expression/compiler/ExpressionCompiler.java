@@ -0,0 +1,221 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ArithmeticNode.DoubleArithmetic;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ArithmeticNode.IntArithmetic;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ArithmeticNode.LongArithmetic;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ComparisonNode.BooleanComparison;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ComparisonNode.DoubleComparison;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ComparisonNode.IntComparison;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ComparisonNode.LongComparison;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntPredicate;
+import java.util.function.LongBinaryOperator;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Compile expression into a tree of nodes specialized in primitive value. Arithmetic, comparison
+ * and logical operators on int, long, double and boolean are evaluated on primitive value
+ * without boxing intermediate result into {@link
+ * com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue}. Any other expression is
+ * evaluated by the original expression and its result is unboxed only when its parent is
+ * specialized.
+ *
+ * <p>Operands of AND and OR are reordered by estimated cost and evaluated with short-circuit.
+ */
+@UtilityClass
+public class ExpressionCompiler {
+
+  private static final Set<ExprType> NUMBER_TYPES = ImmutableSet.of(INTEGER, LONG, DOUBLE);
+
+  private static final Set<ExprType> COMPARABLE_TYPES =
+      ImmutableSet.of(INTEGER, LONG, DOUBLE, BOOLEAN);
+
+  /**
+   * Compile the expression. The compiled expression returned is not thread safe.
+   *
+   * @param expression expression
+   * @return compiled expression
+   */
+  public static CompiledExpression compile(Expression expression) {
+    if (expression instanceof CompiledExpression) {
+      expression = ((CompiledExpression) expression).getOriginal();
+    }
+    EvaluationState state = new EvaluationState();
+    return new CompiledExpression(expression, compile(expression, state), state);
+  }
+
+  private static CompiledNode compile(Expression expression, EvaluationState state) {
+    if (expression instanceof FunctionExpression) {
+      Optional<CompiledNode> node = compileFunction((FunctionExpression) expression, state);
+      if (node.isPresent()) {
+        return node.get();
+      }
+    }
+    return new CompiledNode.Fallback(state, expression);
+  }
+
+  private static Optional<CompiledNode> compileFunction(FunctionExpression function,
+                                                        EvaluationState state) {
+    BuiltinFunctionName name = BuiltinFunctionName.of(
+        function.getFunctionName().getFunctionName()).orElse(null);
+    List<Expression> args = function.getArguments();
+    if (name == BuiltinFunctionName.NOT && args.size() == 1) {
+      return Optional.of(new LogicalNode.Not(state, compile(args.get(0), state)));
+    }
+    if (name == null || args.size() != 2) {
+      return Optional.empty();
+    }
+
+    switch (name) {
+      case ADD:
+        return arithmetic(function, state, Math::addExact, Math::addExact, Double::sum, false);
+      case SUBTRACT:
+        return arithmetic(function, state, Math::subtractExact, Math::subtractExact,
+            (v1, v2) -> v1 - v2, false);
+      case MULTIPLY:
+        return arithmetic(function, state, Math::multiplyExact, Math::multiplyExact,
+            (v1, v2) -> v1 * v2, false);
+      case DIVIDE:
+        return arithmetic(function, state, (v1, v2) -> v1 / v2, (v1, v2) -> v1 / v2,
+            (v1, v2) -> v1 / v2, true);
+      case MODULES:
+        return arithmetic(function, state, (v1, v2) -> v1 % v2, (v1, v2) -> v1 % v2,
+            (v1, v2) -> v1 % v2, true);
+      case EQUAL:
+        return comparison(function, state, result -> result == 0);
+      case NOTEQUAL:
+        return comparison(function, state, result -> result != 0);
+      case LESS:
+        return comparison(function, state, result -> result < 0);
+      case LTE:
+        return comparison(function, state, result -> result <= 0);
+      case GREATER:
+        return comparison(function, state, result -> result > 0);
+      case GTE:
+        return comparison(function, state, result -> result >= 0);
+      case AND:
+        return Optional.of(logical(function, state,
+            (left, right) -> new LogicalNode.And(state, left, right)));
+      case OR:
+        return Optional.of(logical(function, state,
+            (left, right) -> new LogicalNode.Or(state, left, right)));
+      case XOR:
+        return Optional.of(new LogicalNode.Xor(state,
+            compile(args.get(0), state), compile(args.get(1), state)));
+      default:
+        return Optional.empty();
+    }
+  }
+
+  /**
+   * Flatten the chain of the same logical operator and evaluate the operands in ascending order
+   * of the cost, which doesn't change the result because both AND and OR are commutative and
+   * associative even with NULL and MISSING.
+   */
+  private static CompiledNode logical(FunctionExpression function, EvaluationState state,
+                                      BinaryOperator<CompiledNode> operator) {
+    List<Expression> operands = new ArrayList<>();
+    flatten(function, function.getFunctionName(), operands);
+    operands.sort(Comparator.comparingInt(CostEstimator::estimate));
+
+    CompiledNode node = compile(operands.get(0), state);
+    for (int i = 1; i < operands.size(); i++) {
+      node = operator.apply(node, compile(operands.get(i), state));
+    }
+    return node;
+  }
+
+  private static void flatten(Expression expression, FunctionName name,
+                              List<Expression> operands) {
+    if (expression instanceof FunctionExpression
+        && name.equals(((FunctionExpression) expression).getFunctionName())) {
+      ((FunctionExpression) expression).getArguments()
+          .forEach(arg -> flatten(arg, name, operands));
+    } else {
+      operands.add(expression);
+    }
+  }
+
+  /**
+   * Arithmetic function is resolved to the signature of its return type, operands of narrower
+   * type are widened by the primitive evaluation of operand node.
+   */
+  private static Optional<CompiledNode> arithmetic(FunctionExpression function,
+                                                   EvaluationState state,
+                                                   IntBinaryOperator intOp,
+                                                   LongBinaryOperator longOp,
+                                                   DoubleBinaryOperator doubleOp,
+                                                   boolean nullIfZeroDivisor) {
+    ExprType type = function.type();
+    if (!NUMBER_TYPES.contains(type)) {
+      return Optional.empty();
+    }
+    CompiledNode left = compile(function.getArguments().get(0), state);
+    CompiledNode right = compile(function.getArguments().get(1), state);
+    if (type == INTEGER) {
+      return Optional.of(new IntArithmetic(state, left, right, intOp, nullIfZeroDivisor));
+    } else if (type == LONG) {
+      return Optional.of(new LongArithmetic(state, left, right, longOp, nullIfZeroDivisor));
+    } else {
+      return Optional.of(new DoubleArithmetic(state, left, right, doubleOp, nullIfZeroDivisor));
+    }
+  }
+
+  /**
+   * Comparison is specialized only if both operands are of the same type, because the
+   * interpreted comparison converts right operand to the type of left one.
+   */
+  private static Optional<CompiledNode> comparison(FunctionExpression function,
+                                                   EvaluationState state,
+                                                   IntPredicate test) {
+    ExprType type = function.getArguments().get(0).type();
+    if (!COMPARABLE_TYPES.contains(type) || type != function.getArguments().get(1).type()) {
+      return Optional.empty();
+    }
+    CompiledNode left = compile(function.getArguments().get(0), state);
+    CompiledNode right = compile(function.getArguments().get(1), state);
+    if (type == INTEGER) {
+      return Optional.of(new IntComparison(state, left, right, test));
+    } else if (type == LONG) {
+      return Optional.of(new LongComparison(state, left, right, test));
+    } else if (type == DOUBLE) {
+      return Optional.of(new DoubleComparison(state, left, right, test));
+    } else {
+      return Optional.of(new BooleanComparison(state, left, right, test));
+    }
+  }
+}
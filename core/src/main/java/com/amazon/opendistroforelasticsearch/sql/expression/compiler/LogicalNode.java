@@ -0,0 +1,155 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import static com.amazon.opendistroforelasticsearch.sql.expression.compiler.EvaluationState.MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.compiler.EvaluationState.NULL;
+import static com.amazon.opendistroforelasticsearch.sql.expression.compiler.EvaluationState.PRESENT;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledNode.BooleanNode;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+
+/**
+ * Specialized logical nodes which follow the NULL and MISSING handling of the truth tables in
+ * {@link com.amazon.opendistroforelasticsearch.sql.expression.operator.predicate
+ * .BinaryPredicateOperator}.
+ */
+final class LogicalNode {
+
+  private LogicalNode() {
+  }
+
+  /**
+   * FALSE if either operand is FALSE, otherwise MISSING takes precedence over NULL. The right
+   * operand is not evaluated if the left one is FALSE.
+   */
+  static final class And extends BooleanNode {
+    private final CompiledNode left;
+    private final CompiledNode right;
+
+    And(EvaluationState state, CompiledNode left, CompiledNode right) {
+      super(state);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    boolean booleanValue(Environment<Expression, ExprValue> env) {
+      boolean leftValue = left.booleanValue(env);
+      byte leftFlag = state.take();
+      if (leftFlag == PRESENT && !leftValue) {
+        return false;
+      }
+      boolean rightValue = right.booleanValue(env);
+      byte rightFlag = state.take();
+      if (rightFlag == PRESENT && !rightValue) {
+        return false;
+      }
+      state.merge(leftFlag, rightFlag);
+      return true;
+    }
+  }
+
+  /**
+   * TRUE if either operand is TRUE, otherwise NULL takes precedence over MISSING. The right
+   * operand is not evaluated if the left one is TRUE.
+   */
+  static final class Or extends BooleanNode {
+    private final CompiledNode left;
+    private final CompiledNode right;
+
+    Or(EvaluationState state, CompiledNode left, CompiledNode right) {
+      super(state);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    boolean booleanValue(Environment<Expression, ExprValue> env) {
+      boolean leftValue = left.booleanValue(env);
+      byte leftFlag = state.take();
+      if (leftFlag == PRESENT && leftValue) {
+        return true;
+      }
+      boolean rightValue = right.booleanValue(env);
+      byte rightFlag = state.take();
+      if (rightFlag == PRESENT && rightValue) {
+        return true;
+      }
+      setNullOverMissing(state, leftFlag, rightFlag);
+      return false;
+    }
+  }
+
+  /**
+   * Exclusive or if both operands are present, otherwise TRUE if either operand is TRUE and NULL
+   * takes precedence over MISSING in the rest cases.
+   */
+  static final class Xor extends BooleanNode {
+    private final CompiledNode left;
+    private final CompiledNode right;
+
+    Xor(EvaluationState state, CompiledNode left, CompiledNode right) {
+      super(state);
+      this.left = left;
+      this.right = right;
+    }
+
+    @Override
+    boolean booleanValue(Environment<Expression, ExprValue> env) {
+      boolean leftValue = left.booleanValue(env);
+      byte leftFlag = state.take();
+      boolean rightValue = right.booleanValue(env);
+      byte rightFlag = state.take();
+      if (leftFlag == PRESENT && rightFlag == PRESENT) {
+        return leftValue ^ rightValue;
+      }
+      if ((leftFlag == PRESENT && leftValue) || (rightFlag == PRESENT && rightValue)) {
+        return true;
+      }
+      setNullOverMissing(state, leftFlag, rightFlag);
+      return false;
+    }
+  }
+
+  /**
+   * Negate the operand, NULL and MISSING are returned as is.
+   */
+  static final class Not extends BooleanNode {
+    private final CompiledNode operand;
+
+    Not(EvaluationState state, CompiledNode operand) {
+      super(state);
+      this.operand = operand;
+    }
+
+    @Override
+    boolean booleanValue(Environment<Expression, ExprValue> env) {
+      return !operand.booleanValue(env);
+    }
+  }
+
+  private static void setNullOverMissing(EvaluationState state, byte left, byte right) {
+    if (left == NULL || right == NULL) {
+      state.set(NULL);
+    } else if (left == MISSING || right == MISSING) {
+      state.set(MISSING);
+    }
+  }
+}
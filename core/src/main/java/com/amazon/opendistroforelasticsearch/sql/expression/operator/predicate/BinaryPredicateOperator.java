@@ -25,15 +25,25 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.S
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionBuilder;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionDSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionResolver;
-import com.amazon.opendistroforelasticsearch.sql.utils.OperatorUtils;
-import com.google.common.collect.ImmutableTable;
-import com.google.common.collect.Table;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionSignature;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.SerializableFunction;
+import com.amazon.opendistroforelasticsearch.sql.utils.LikePattern;
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 import lombok.experimental.UtilityClass;
+import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * The definition of binary predicate function
@@ -77,19 +87,27 @@ public class BinaryPredicateOperator {
    * NULL    MISSING MISSING
    * MISSING MISSING MISSING
    */
-  private static Table<ExprValue, ExprValue, ExprValue> andTable =
-      new ImmutableTable.Builder<ExprValue, ExprValue, ExprValue>()
-          .put(LITERAL_TRUE, LITERAL_TRUE, LITERAL_TRUE)
-          .put(LITERAL_TRUE, LITERAL_FALSE, LITERAL_FALSE)
-          .put(LITERAL_TRUE, LITERAL_NULL, LITERAL_NULL)
-          .put(LITERAL_TRUE, LITERAL_MISSING, LITERAL_MISSING)
-          .put(LITERAL_FALSE, LITERAL_FALSE, LITERAL_FALSE)
-          .put(LITERAL_FALSE, LITERAL_NULL, LITERAL_FALSE)
-          .put(LITERAL_FALSE, LITERAL_MISSING, LITERAL_FALSE)
-          .put(LITERAL_NULL, LITERAL_NULL, LITERAL_NULL)
-          .put(LITERAL_NULL, LITERAL_MISSING, LITERAL_MISSING)
-          .put(LITERAL_MISSING, LITERAL_MISSING, LITERAL_MISSING)
-          .build();
+  private static FunctionResolver and() {
+    return FunctionDSL.define(BuiltinFunctionName.AND.getName(),
+        logicalImpl(BinaryPredicateOperator::and));
+  }
+
+  private static ExprValue and(Expression left, Expression right,
+                               Environment<Expression, ExprValue> valueEnv) {
+    ExprValue leftValue = left.valueOf(valueEnv);
+    if (isFalse(leftValue)) {
+      return LITERAL_FALSE;
+    }
+    ExprValue rightValue = right.valueOf(valueEnv);
+    if (isFalse(rightValue)) {
+      return LITERAL_FALSE;
+    } else if (leftValue.isMissing() || rightValue.isMissing()) {
+      return LITERAL_MISSING;
+    } else if (leftValue.isNull() || rightValue.isNull()) {
+      return LITERAL_NULL;
+    }
+    return LITERAL_TRUE;
+  }
 
   /**
    * The or logic.
@@ -105,19 +123,23 @@ public class BinaryPredicateOperator {
    * NULL    MISSING NULL
    * MISSING MISSING MISSING
    */
-  private static Table<ExprValue, ExprValue, ExprValue> orTable =
-      new ImmutableTable.Builder<ExprValue, ExprValue, ExprValue>()
-          .put(LITERAL_TRUE, LITERAL_TRUE, LITERAL_TRUE)
-          .put(LITERAL_TRUE, LITERAL_FALSE, LITERAL_TRUE)
-          .put(LITERAL_TRUE, LITERAL_NULL, LITERAL_TRUE)
-          .put(LITERAL_TRUE, LITERAL_MISSING, LITERAL_TRUE)
-          .put(LITERAL_FALSE, LITERAL_FALSE, LITERAL_FALSE)
-          .put(LITERAL_FALSE, LITERAL_NULL, LITERAL_NULL)
-          .put(LITERAL_FALSE, LITERAL_MISSING, LITERAL_MISSING)
-          .put(LITERAL_NULL, LITERAL_NULL, LITERAL_NULL)
-          .put(LITERAL_NULL, LITERAL_MISSING, LITERAL_NULL)
-          .put(LITERAL_MISSING, LITERAL_MISSING, LITERAL_MISSING)
-          .build();
+  private static FunctionResolver or() {
+    return FunctionDSL.define(BuiltinFunctionName.OR.getName(),
+        logicalImpl(BinaryPredicateOperator::or));
+  }
+
+  private static ExprValue or(Expression left, Expression right,
+                              Environment<Expression, ExprValue> valueEnv) {
+    ExprValue leftValue = left.valueOf(valueEnv);
+    if (isTrue(leftValue)) {
+      return LITERAL_TRUE;
+    }
+    ExprValue rightValue = right.valueOf(valueEnv);
+    if (isTrue(rightValue)) {
+      return LITERAL_TRUE;
+    }
+    return nullOverMissing(leftValue, rightValue);
+  }
 
   /**
    * The xor logic.
@@ -133,36 +155,21 @@ public class BinaryPredicateOperator {
    * NULL    MISSING NULL
    * MISSING MISSING MISSING
    */
-  private static Table<ExprValue, ExprValue, ExprValue> xorTable =
-      new ImmutableTable.Builder<ExprValue, ExprValue, ExprValue>()
-          .put(LITERAL_TRUE, LITERAL_TRUE, LITERAL_FALSE)
-          .put(LITERAL_TRUE, LITERAL_FALSE, LITERAL_TRUE)
-          .put(LITERAL_TRUE, LITERAL_NULL, LITERAL_TRUE)
-          .put(LITERAL_TRUE, LITERAL_MISSING, LITERAL_TRUE)
-          .put(LITERAL_FALSE, LITERAL_FALSE, LITERAL_FALSE)
-          .put(LITERAL_FALSE, LITERAL_NULL, LITERAL_NULL)
-          .put(LITERAL_FALSE, LITERAL_MISSING, LITERAL_MISSING)
-          .put(LITERAL_NULL, LITERAL_NULL, LITERAL_NULL)
-          .put(LITERAL_NULL, LITERAL_MISSING, LITERAL_NULL)
-          .put(LITERAL_MISSING, LITERAL_MISSING, LITERAL_MISSING)
-          .build();
-
-  private static FunctionResolver and() {
-    return FunctionDSL.define(BuiltinFunctionName.AND.getName(), FunctionDSL
-        .impl((v1, v2) -> lookupTableFunction(v1, v2, andTable), BOOLEAN, BOOLEAN,
-            BOOLEAN));
-  }
-
-  private static FunctionResolver or() {
-    return FunctionDSL.define(BuiltinFunctionName.OR.getName(), FunctionDSL
-        .impl((v1, v2) -> lookupTableFunction(v1, v2, orTable), BOOLEAN, BOOLEAN,
-            BOOLEAN));
+  private static FunctionResolver xor() {
+    return FunctionDSL.define(BuiltinFunctionName.XOR.getName(),
+        logicalImpl(BinaryPredicateOperator::xor));
   }
 
-  private static FunctionResolver xor() {
-    return FunctionDSL.define(BuiltinFunctionName.XOR.getName(), FunctionDSL
-        .impl((v1, v2) -> lookupTableFunction(v1, v2, xorTable), BOOLEAN, BOOLEAN,
-            BOOLEAN));
+  private static ExprValue xor(Expression left, Expression right,
+                               Environment<Expression, ExprValue> valueEnv) {
+    ExprValue leftValue = left.valueOf(valueEnv);
+    ExprValue rightValue = right.valueOf(valueEnv);
+    if (isPresent(leftValue) && isPresent(rightValue)) {
+      return ExprBooleanValue.of(leftValue.booleanValue() ^ rightValue.booleanValue());
+    } else if (isTrue(leftValue) || isTrue(rightValue)) {
+      return LITERAL_TRUE;
+    }
+    return nullOverMissing(leftValue, rightValue);
   }
 
   private static FunctionResolver equal() {
@@ -240,26 +247,121 @@ public class BinaryPredicateOperator {
   }
 
   private static FunctionResolver like() {
-    return FunctionDSL.define(BuiltinFunctionName.LIKE.getName(), FunctionDSL
-        .impl(FunctionDSL.nullMissingHandling(OperatorUtils::matches), BOOLEAN, STRING,
-            STRING));
+    return FunctionDSL.define(BuiltinFunctionName.LIKE.getName(), likeImpl(false));
   }
 
   private static FunctionResolver notLike() {
-    return FunctionDSL.define(BuiltinFunctionName.NOT_LIKE.getName(), FunctionDSL
-        .impl(FunctionDSL.nullMissingHandling(
-            (v1, v2) -> UnaryPredicateOperator.not(OperatorUtils.matches(v1, v2))),
-            BOOLEAN,
-            STRING,
-            STRING));
+    return FunctionDSL.define(BuiltinFunctionName.NOT_LIKE.getName(), likeImpl(true));
   }
 
-  private static ExprValue lookupTableFunction(ExprValue arg1, ExprValue arg2,
-                                               Table<ExprValue, ExprValue, ExprValue> table) {
-    if (table.contains(arg1, arg2)) {
-      return table.get(arg1, arg2);
-    } else {
-      return table.get(arg2, arg1);
+  /**
+   * Like function implementation. The pattern is compiled once when the function is built if it's
+   * a literal, otherwise the pattern compiled is looked up in cache on each evaluation.
+   */
+  private static SerializableFunction<FunctionName, Pair<FunctionSignature, FunctionBuilder>>
+      likeImpl(boolean negated) {
+    return functionName -> {
+      FunctionSignature functionSignature =
+          new FunctionSignature(functionName, Arrays.asList(STRING, STRING));
+      FunctionBuilder functionBuilder = arguments -> {
+        LikePattern literalPattern = compileLiteralPattern(arguments.get(1));
+        return new FunctionExpression(functionName, arguments) {
+          @Override
+          public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
+            ExprValue text = arguments.get(0).valueOf(valueEnv);
+            ExprValue pattern = arguments.get(1).valueOf(valueEnv);
+            if (text.isMissing() || pattern.isMissing()) {
+              return LITERAL_MISSING;
+            } else if (text.isNull() || pattern.isNull()) {
+              return LITERAL_NULL;
+            }
+            LikePattern likePattern = (literalPattern == null)
+                ? LikePattern.cached(pattern.stringValue()) : literalPattern;
+            return ExprBooleanValue.of(likePattern.matches(text.stringValue()) != negated);
+          }
+
+          @Override
+          public ExprType type() {
+            return BOOLEAN;
+          }
+
+          @Override
+          public String toString() {
+            return String.format("%s %s %s", arguments.get(0), functionName, arguments.get(1));
+          }
+        };
+      };
+      return Pair.of(functionSignature, functionBuilder);
+    };
+  }
+
+  private static LikePattern compileLiteralPattern(Expression pattern) {
+    if (pattern instanceof LiteralExpression) {
+      ExprValue value = pattern.valueOf(null);
+      if (!(value.isNull() || value.isMissing())) {
+        return LikePattern.compile(value.stringValue());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Logical function implementation which is given the operands unevaluated, so that the right
+   * operand is evaluated only if the result can't be decided by the left one.
+   */
+  private static SerializableFunction<FunctionName, Pair<FunctionSignature, FunctionBuilder>>
+      logicalImpl(LogicalFunction function) {
+    return functionName -> {
+      FunctionSignature functionSignature =
+          new FunctionSignature(functionName, Arrays.asList(BOOLEAN, BOOLEAN));
+      FunctionBuilder functionBuilder =
+          arguments -> new FunctionExpression(functionName, arguments) {
+            @Override
+            public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
+              return function.apply(arguments.get(0), arguments.get(1), valueEnv);
+            }
+
+            @Override
+            public ExprType type() {
+              return BOOLEAN;
+            }
+
+            @Override
+            public String toString() {
+              return String.format("%s %s %s", arguments.get(0), functionName,
+                  arguments.get(1));
+            }
+          };
+      return Pair.of(functionSignature, functionBuilder);
+    };
+  }
+
+  @FunctionalInterface
+  private interface LogicalFunction extends Serializable {
+    ExprValue apply(Expression left, Expression right, Environment<Expression, ExprValue> env);
+  }
+
+  private static boolean isPresent(ExprValue value) {
+    return !(value.isNull() || value.isMissing());
+  }
+
+  private static boolean isTrue(ExprValue value) {
+    return isPresent(value) && value.booleanValue();
+  }
+
+  private static boolean isFalse(ExprValue value) {
+    return isPresent(value) && !value.booleanValue();
+  }
+
+  /**
+   * Result of or and xor when neither operand is TRUE.
+   */
+  private static ExprValue nullOverMissing(ExprValue left, ExprValue right) {
+    if (left.isNull() || right.isNull()) {
+      return LITERAL_NULL;
+    } else if (left.isMissing() || right.isMissing()) {
+      return LITERAL_MISSING;
     }
+    return LITERAL_FALSE;
   }
 }
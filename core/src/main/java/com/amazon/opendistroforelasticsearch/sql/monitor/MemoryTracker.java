@@ -0,0 +1,151 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.monitor;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprCollectionValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprStringValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.exception.MemoryLimitExceededException;
+import java.util.Map;
+import java.util.OptionalLong;
+import lombok.Getter;
+
+/**
+ * Memory tracker of a single query. Stateful operators reserve the estimated size of rows or
+ * groups they hold as soon as they add them and release it when the memory is no longer used,
+ * so the query fails deterministically as soon as the limit is exceeded rather than when the
+ * node is running out of heap.
+ *
+ * <p>The tracker is only used by the thread executing the query and thus not thread safe.
+ */
+public class MemoryTracker {
+
+  /**
+   * Estimated size of an object header plus a reference to it.
+   */
+  static final long OBJECT_OVERHEAD = 16L;
+
+  /**
+   * Estimated size of a map entry or list slot excluding the key and value.
+   */
+  static final long ENTRY_OVERHEAD = 32L;
+
+  /**
+   * Estimated size of a value which is neither tuple, collection nor string.
+   */
+  static final long SCALAR_VALUE_SIZE = 24L;
+
+  private final long limitBytes;
+
+  /**
+   * Bytes reserved currently.
+   */
+  @Getter
+  private long usedBytes = 0L;
+
+  /**
+   * Maximum bytes ever reserved at the same time.
+   */
+  @Getter
+  private long peakBytes = 0L;
+
+  /**
+   * Memory tracker without limit which only tracks memory usage.
+   */
+  public MemoryTracker() {
+    this(Long.MAX_VALUE);
+  }
+
+  public MemoryTracker(long limitBytes) {
+    this.limitBytes = limitBytes;
+  }
+
+  /**
+   * Reserve memory for the caller.
+   *
+   * @param bytes bytes to reserve
+   * @param label name of the caller reported in error message
+   * @throws MemoryLimitExceededException if the memory limit is exceeded after reserving
+   */
+  public void reserve(long bytes, String label) {
+    if (usedBytes + bytes > limitBytes) {
+      throw new MemoryLimitExceededException(String.format(
+          "%s failed to reserve %d bytes because query memory usage %d bytes would exceed the "
+              + "limit %d bytes", label, bytes, usedBytes, limitBytes));
+    }
+    usedBytes += bytes;
+    peakBytes = Math.max(peakBytes, usedBytes);
+  }
+
+  /**
+   * Release memory reserved before.
+   *
+   * @param bytes bytes to release
+   */
+  public void release(long bytes) {
+    usedBytes -= bytes;
+  }
+
+  /**
+   * Estimate the heap size of the value, including all nested values in tuple and collection.
+   * The size hint of tuple is used instead if present.
+   *
+   * @param value expression value
+   * @return estimated bytes
+   */
+  public static long estimateBytes(ExprValue value) {
+    if (value instanceof ExprTupleValue) {
+      OptionalLong sizeHint = ((ExprTupleValue) value).sizeHint();
+      if (sizeHint.isPresent()) {
+        return OBJECT_OVERHEAD + sizeHint.getAsLong();
+      }
+      long bytes = OBJECT_OVERHEAD;
+      for (Map.Entry<String, ExprValue> entry : value.tupleValue().entrySet()) {
+        bytes += ENTRY_OVERHEAD + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+      }
+      return bytes;
+    } else if (value instanceof ExprCollectionValue) {
+      long bytes = OBJECT_OVERHEAD;
+      for (ExprValue element : value.collectionValue()) {
+        bytes += ENTRY_OVERHEAD + estimateBytes(element);
+      }
+      return bytes;
+    } else if (value instanceof ExprStringValue) {
+      return OBJECT_OVERHEAD + estimateBytes(value.stringValue());
+    }
+    return SCALAR_VALUE_SIZE;
+  }
+
+  /**
+   * Estimate the heap size of the array of values, including all the values.
+   *
+   * @param values expression values
+   * @return estimated bytes
+   */
+  public static long estimateBytes(ExprValue[] values) {
+    long bytes = OBJECT_OVERHEAD;
+    for (ExprValue value : values) {
+      bytes += OBJECT_OVERHEAD + estimateBytes(value);
+    }
+    return bytes;
+  }
+
+  private static long estimateBytes(String value) {
+    return OBJECT_OVERHEAD * 2 + 2L * value.length();
+  }
+}
@@ -26,4 +26,14 @@ public abstract class ResourceMonitor {
    * @return true for healthy, otherwise false.
    */
   public abstract boolean isHealthy();
+
+  /**
+   * Create the memory tracker of a new query. By default, the memory is only tracked without
+   * limit.
+   *
+   * @return memory tracker.
+   */
+  public MemoryTracker newMemoryTracker() {
+    return new MemoryTracker();
+  }
 }
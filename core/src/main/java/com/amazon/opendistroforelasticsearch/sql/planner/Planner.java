@@ -21,6 +21,7 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
@@ -39,14 +40,20 @@ public class Planner {
   private final StorageEngine storageEngine;
 
   /**
-   * Generate optimal physical plan for logical plan. If no table involved,
-   * translate logical plan to physical by default implementor.
+   * Logical plan optimizer.
+   */
+  private final LogicalPlanOptimizer logicalOptimizer;
+
+  /**
+   * Generate optimal physical plan for logical plan. The logical plan is optimized first.
+   * If no table involved, translate logical plan to physical by default implementor.
    * TODO: for now just delegate entire logical plan to storage engine.
    *
-   * @param plan logical plan
+   * @param logicalPlan logical plan
    * @return optimal physical plan
    */
-  public PhysicalPlan plan(LogicalPlan plan) {
+  public PhysicalPlan plan(LogicalPlan logicalPlan) {
+    LogicalPlan plan = logicalOptimizer.optimize(logicalPlan);
     String tableName = findTableName(plan);
     if (isNullOrEmpty(tableName)) {
       return plan.accept(new DefaultImplementor<>(), null);
@@ -42,6 +42,11 @@ public class LogicalAggregation extends LogicalPlan {
     return Collections.singletonList(child);
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return new LogicalAggregation(childPlans.get(0), aggregatorList, groupByList);
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitAggregation(this, context);
@@ -42,6 +42,12 @@ public class LogicalDedupe extends LogicalPlan {
     return Arrays.asList(child);
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return new LogicalDedupe(childPlans.get(0), dedupeList, allowedDuplication, keepEmpty,
+        consecutive);
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitDedupe(this, context);
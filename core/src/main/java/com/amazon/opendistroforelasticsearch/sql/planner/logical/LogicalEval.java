@@ -43,6 +43,11 @@ public class LogicalEval extends LogicalPlan {
     return Collections.singletonList(child);
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return new LogicalEval(childPlans.get(0), expressions);
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitEval(this, context);
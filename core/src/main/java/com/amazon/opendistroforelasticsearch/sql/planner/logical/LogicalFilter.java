@@ -39,6 +39,11 @@ public class LogicalFilter extends LogicalPlan {
     return Arrays.asList(child);
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return new LogicalFilter(childPlans.get(0), condition);
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitFilter(this, context);
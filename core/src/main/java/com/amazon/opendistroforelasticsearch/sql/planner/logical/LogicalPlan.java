@@ -16,6 +16,7 @@
 package com.amazon.opendistroforelasticsearch.sql.planner.logical;
 
 import com.amazon.opendistroforelasticsearch.sql.planner.PlanNode;
+import java.util.List;
 
 /**
  * The abstract base class for all the Logical Plan node.
@@ -31,4 +32,12 @@ public abstract class LogicalPlan implements PlanNode<LogicalPlan> {
    * @return returned object.
    */
   public abstract <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context);
+
+  /**
+   * Create a copy of current node with the given child plans in place of the original ones.
+   *
+   * @param childPlans new child plans in the same order as {@link #getChild()}.
+   * @return new plan node, or current node itself if it has no child.
+   */
+  public abstract LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans);
 }
@@ -39,6 +39,11 @@ public class LogicalProject extends LogicalPlan {
     return Arrays.asList(child);
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return new LogicalProject(childPlans.get(0), projectList);
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitProject(this, context);
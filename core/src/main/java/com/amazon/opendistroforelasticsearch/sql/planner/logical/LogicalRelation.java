@@ -37,6 +37,11 @@ public class LogicalRelation extends LogicalPlan {
     return ImmutableList.of();
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return this;
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitRelation(this, context);
@@ -40,6 +40,11 @@ public class LogicalRemove extends LogicalPlan {
     return Arrays.asList(child);
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return new LogicalRemove(childPlans.get(0), removeList);
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitRemove(this, context);
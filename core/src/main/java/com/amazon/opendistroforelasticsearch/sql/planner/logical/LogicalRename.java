@@ -41,6 +41,11 @@ public class LogicalRename extends LogicalPlan {
     return Collections.singletonList(child);
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return new LogicalRename(childPlans.get(0), renameMap);
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitRename(this, context);
@@ -42,6 +42,11 @@ public class LogicalSort extends LogicalPlan {
     return Arrays.asList(child);
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return new LogicalSort(childPlans.get(0), count, sortList);
+  }
+
   @Override
   public <R, C> R accept(LogicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitSort(this, context);
@@ -57,4 +57,9 @@ public class LogicalValues extends LogicalPlan {
     return ImmutableList.of();
   }
 
+  @Override
+  public LogicalPlan replaceChildPlans(List<LogicalPlan> childPlans) {
+    return this;
+  }
+
 }
@@ -0,0 +1,104 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule.CollapseProjects;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule.MergeFilterAndFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule.PushFilterUnderEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule.PushFilterUnderRename;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rule based logical plan optimizer. In each pass, the plan tree is rewritten bottom-up by
+ * applying the first matched rule on each node. The passes are repeated until no rule applies
+ * any more, which means a fixpoint is reached.
+ */
+@RequiredArgsConstructor
+public class LogicalPlanOptimizer {
+
+  /**
+   * Max number of passes in case the rules never converge.
+   */
+  private static final int MAX_ITERATIONS = 100;
+
+  /**
+   * Rules applied in order on each plan node.
+   */
+  private final List<Rule> rules;
+
+  /**
+   * Create optimizer with default rules.
+   *
+   * @param repository function repository to build new expression required by the rules
+   * @return logical plan optimizer
+   */
+  public static LogicalPlanOptimizer create(BuiltinFunctionRepository repository) {
+    ReferenceRewriter rewriter = new ReferenceRewriter(repository);
+    return new LogicalPlanOptimizer(Arrays.asList(
+        new MergeFilterAndFilter(repository),
+        new PushFilterUnderEval(),
+        new PushFilterUnderRename(rewriter),
+        new CollapseProjects(rewriter)));
+  }
+
+  /**
+   * Optimize the logical plan until fixpoint.
+   *
+   * @param plan logical plan
+   * @return optimized logical plan
+   */
+  public LogicalPlan optimize(LogicalPlan plan) {
+    LogicalPlan current = plan;
+    for (int i = 0; i < MAX_ITERATIONS; i++) {
+      LogicalPlan next = rewrite(current);
+      if (next == current) {
+        return current;
+      }
+      current = next;
+    }
+    return current;
+  }
+
+  /**
+   * Rewrite the plan tree bottom-up. The same node instance is returned if nothing changed.
+   */
+  private LogicalPlan rewrite(LogicalPlan plan) {
+    List<LogicalPlan> children = plan.getChild();
+    List<LogicalPlan> newChildren =
+        children.stream().map(this::rewrite).collect(Collectors.toList());
+
+    LogicalPlan node = plan;
+    for (int i = 0; i < children.size(); i++) {
+      if (children.get(i) != newChildren.get(i)) {
+        node = plan.replaceChildPlans(newChildren);
+        break;
+      }
+    }
+
+    for (Rule rule : rules) {
+      if (rule.match(node)) {
+        return rule.apply(node);
+      }
+    }
+    return node;
+  }
+}
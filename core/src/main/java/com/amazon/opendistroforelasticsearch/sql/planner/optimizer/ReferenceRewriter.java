@@ -0,0 +1,111 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Find and replace the field references in expression. Function expression with any argument
+ * replaced is compiled again by the function repository.
+ */
+@RequiredArgsConstructor
+public class ReferenceRewriter {
+
+  private final BuiltinFunctionRepository repository;
+
+  /**
+   * Find the name of all field references in the expression.
+   *
+   * @param expression expression
+   * @return field names referenced
+   */
+  public static Set<String> findReferences(Expression expression) {
+    Set<String> references = new HashSet<>();
+    expression.accept(new ExpressionNodeVisitor<Void, Set<String>>() {
+      @Override
+      public Void visitReference(ReferenceExpression node, Set<String> context) {
+        context.add(node.getAttr());
+        return null;
+      }
+
+      @Override
+      public Void visitNamed(NamedExpression node, Set<String> context) {
+        return node.getDelegated().accept(this, context);
+      }
+    }, references);
+    return references;
+  }
+
+  /**
+   * Replace field references in the expression by the expression mapped to the field name.
+   * Field reference not in the mapping is retained.
+   *
+   * @param expression   expression
+   * @param replacements expression to replace with per field name
+   * @return new expression, or the original one if nothing replaced
+   */
+  public Expression rewrite(Expression expression, Map<String, Expression> replacements) {
+    return expression.accept(new ExpressionNodeVisitor<Expression, Object>() {
+      @Override
+      public Expression visitNode(Expression node, Object context) {
+        return node;
+      }
+
+      @Override
+      public Expression visitReference(ReferenceExpression node, Object context) {
+        return replacements.getOrDefault(node.getAttr(), node);
+      }
+
+      @Override
+      public Expression visitNamed(NamedExpression node, Object context) {
+        Expression delegated = node.getDelegated().accept(this, context);
+        if (delegated == node.getDelegated()) {
+          return node;
+        }
+        return new NamedExpression(node.getName(), delegated, node.getAlias());
+      }
+
+      @Override
+      public Expression visitFunction(FunctionExpression node, Object context) {
+        List<Expression> arguments = node.getArguments().stream()
+            .map(arg -> arg.accept(this, context))
+            .collect(Collectors.toList());
+        if (arguments.equals(node.getArguments())) {
+          return node;
+        }
+        return (Expression) repository.compile(node.getFunctionName(), arguments);
+      }
+
+      @Override
+      public Expression visitAggregator(Aggregator<?> node, Object context) {
+        return node;
+      }
+    }, null);
+  }
+}
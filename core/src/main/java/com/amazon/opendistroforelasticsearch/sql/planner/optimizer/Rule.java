@@ -0,0 +1,42 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+
+/**
+ * Optimization rule that rewrites a logical plan node matching its pattern into an equivalent
+ * one which is cheaper to execute or enables more push-down.
+ */
+public interface Rule {
+
+  /**
+   * Check if the plan node matches the pattern of the rule.
+   *
+   * @param plan logical plan node
+   * @return true if matched, otherwise false
+   */
+  boolean match(LogicalPlan plan);
+
+  /**
+   * Rewrite the plan node. Only called if the node matches the pattern.
+   *
+   * @param plan logical plan node
+   * @return rewritten plan node
+   */
+  LogicalPlan apply(LogicalPlan plan);
+}
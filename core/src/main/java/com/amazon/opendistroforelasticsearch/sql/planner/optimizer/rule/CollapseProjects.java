@@ -0,0 +1,71 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.ReferenceRewriter;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.Rule;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Collapse consecutive projects into one by replacing the fields referenced in outer project with
+ * the expressions they are named after in inner project. The projects are not collapsed if outer
+ * project references any field not produced by inner project.
+ * Project(Project(child, a + 1 AS b), b AS c) =&gt; Project(child, a + 1 AS c)
+ */
+@RequiredArgsConstructor
+public class CollapseProjects implements Rule {
+
+  private final ReferenceRewriter rewriter;
+
+  @Override
+  public boolean match(LogicalPlan plan) {
+    if (!(plan instanceof LogicalProject)
+        || !(plan.getChild().get(0) instanceof LogicalProject)) {
+      return false;
+    }
+
+    Map<String, Expression> innerFields =
+        namedExpressions((LogicalProject) plan.getChild().get(0));
+    return ((LogicalProject) plan).getProjectList().stream()
+        .map(ReferenceRewriter::findReferences)
+        .allMatch(innerFields.keySet()::containsAll);
+  }
+
+  @Override
+  public LogicalPlan apply(LogicalPlan plan) {
+    LogicalProject inner = (LogicalProject) plan.getChild().get(0);
+    Map<String, Expression> innerFields = namedExpressions(inner);
+    List<NamedExpression> projectList = ((LogicalProject) plan).getProjectList().stream()
+        .map(expr -> (NamedExpression) rewriter.rewrite(expr, innerFields))
+        .collect(Collectors.toList());
+    return new LogicalProject(inner.getChild().get(0), projectList);
+  }
+
+  private Map<String, Expression> namedExpressions(LogicalProject project) {
+    Map<String, Expression> fields = new HashMap<>();
+    project.getProjectList().forEach(expr -> fields.put(expr.getName(), expr.getDelegated()));
+    return fields;
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.Rule;
+import java.util.Arrays;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Merge adjacent filters into one with the conditions connected by AND.
+ * Filter(Filter(child, c1), c2) =&gt; Filter(child, c1 AND c2)
+ */
+@RequiredArgsConstructor
+public class MergeFilterAndFilter implements Rule {
+
+  private final BuiltinFunctionRepository repository;
+
+  @Override
+  public boolean match(LogicalPlan plan) {
+    return (plan instanceof LogicalFilter)
+        && (plan.getChild().get(0) instanceof LogicalFilter);
+  }
+
+  @Override
+  public LogicalPlan apply(LogicalPlan plan) {
+    LogicalFilter parent = (LogicalFilter) plan;
+    LogicalFilter child = (LogicalFilter) plan.getChild().get(0);
+    Expression condition = (Expression) repository.compile(
+        BuiltinFunctionName.AND.getName(),
+        Arrays.asList(child.getCondition(), parent.getCondition()));
+    return new LogicalFilter(child.getChild().get(0), condition);
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule;
+
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.ReferenceRewriter;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.Rule;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Push filter under eval if the filter condition doesn't reference any field defined or
+ * overwritten by the eval.
+ * Filter(Eval(child, exprs), c) =&gt; Eval(Filter(child, c), exprs)
+ */
+public class PushFilterUnderEval implements Rule {
+
+  @Override
+  public boolean match(LogicalPlan plan) {
+    if (!(plan instanceof LogicalFilter)
+        || !(plan.getChild().get(0) instanceof LogicalEval)) {
+      return false;
+    }
+
+    LogicalEval eval = (LogicalEval) plan.getChild().get(0);
+    Set<String> references =
+        ReferenceRewriter.findReferences(((LogicalFilter) plan).getCondition());
+    return eval.getExpressions().stream()
+        .noneMatch(pair -> references.contains(pair.getLeft().getAttr()));
+  }
+
+  @Override
+  public LogicalPlan apply(LogicalPlan plan) {
+    LogicalFilter filter = (LogicalFilter) plan;
+    LogicalPlan eval = plan.getChild().get(0);
+    return eval.replaceChildPlans(Collections.singletonList(
+        filter.replaceChildPlans(eval.getChild())));
+  }
+}
@@ -0,0 +1,76 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRename;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.ReferenceRewriter;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.Rule;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Push filter under rename with the renamed fields in filter condition replaced by the original
+ * ones. The filter is not pushed if it references a field renamed away, because the field is
+ * not visible to the filter before push down.
+ * Filter(Rename(child, a -&gt; b), b = 1) =&gt; Rename(Filter(child, a = 1), a -&gt; b)
+ */
+@RequiredArgsConstructor
+public class PushFilterUnderRename implements Rule {
+
+  private final ReferenceRewriter rewriter;
+
+  @Override
+  public boolean match(LogicalPlan plan) {
+    if (!(plan instanceof LogicalFilter)
+        || !(plan.getChild().get(0) instanceof LogicalRename)) {
+      return false;
+    }
+
+    LogicalRename rename = (LogicalRename) plan.getChild().get(0);
+    Set<String> references =
+        ReferenceRewriter.findReferences(((LogicalFilter) plan).getCondition());
+    Set<String> targets = rename.getRenameMap().values().stream()
+        .map(ReferenceExpression::getAttr)
+        .collect(Collectors.toSet());
+    return rename.getRenameMap().keySet().stream()
+        .map(ReferenceExpression::getAttr)
+        .noneMatch(source -> references.contains(source) && !targets.contains(source));
+  }
+
+  @Override
+  public LogicalPlan apply(LogicalPlan plan) {
+    LogicalFilter filter = (LogicalFilter) plan;
+    LogicalRename rename = (LogicalRename) plan.getChild().get(0);
+
+    Map<String, Expression> replacements = new HashMap<>();
+    for (Map.Entry<ReferenceExpression, ReferenceExpression> entry
+        : rename.getRenameMap().entrySet()) {
+      replacements.put(entry.getValue().getAttr(), entry.getKey());
+    }
+    Expression condition = rewriter.rewrite(filter.getCondition(), replacements);
+    return rename.replaceChildPlans(Collections.singletonList(
+        new LogicalFilter(rename.getChild().get(0), condition)));
+  }
+}
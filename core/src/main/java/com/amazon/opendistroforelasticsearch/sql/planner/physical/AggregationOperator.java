@@ -18,20 +18,26 @@ package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
-import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AggregationState;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AggregationStateArray;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.GroupIdTable.StringKeyTable;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
-import java.util.AbstractMap;
+import com.google.common.collect.Iterators;
+import com.google.common.hash.Hashing;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.function.Supplier;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -40,6 +46,23 @@ import lombok.ToString;
 /**
  * Group the all the input {@link BindingTuple} by {@link AggregationOperator#groupByExprList},
  * calculate the aggregation result by using {@link AggregationOperator#aggregatorList}.
+ *
+ * <p>At most {@link AggregationOperator#maxGroupsInMemory} groups are aggregated in memory. Once
+ * the limit is reached, rows of any new group are spilled to
+ * {@link AggregationOperator#spillDirectory} and partitioned by hash of the group key. Each
+ * partition is aggregated independently after the groups in memory are returned, which is how
+ * grace hash aggregation works.
+ *
+ * <p>For single group by expression, the group of integer, long or string value is looked up in
+ * {@link GroupIdTable} by the value directly. Composite group by values of integer, long or
+ * string are serialized into a string key and looked up the same way. So no group key is created
+ * for rows of existing groups. Any other value falls back to a map keyed by group key.
+ *
+ * <p>The aggregation states of all groups are kept in {@link AggregationStateArray} of each
+ * aggregator and indexed by group id, which is primitive arrays for built-in aggregators.
+ *
+ * <p>The estimated size of each group is reserved from {@link AggregationOperator#memoryTracker}
+ * when the group is created and released once the groups are no longer needed.
  */
 @EqualsAndHashCode
 @ToString
@@ -50,23 +73,86 @@ public class AggregationOperator extends PhysicalPlan {
   private final List<Aggregator> aggregatorList;
   @Getter
   private final List<Expression> groupByExprList;
+  @Getter
+  private final int maxGroupsInMemory;
+  @Getter
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final MemoryTracker memoryTracker;
+  @Getter
+  private final Path spillDirectory;
   @EqualsAndHashCode.Exclude
   private final Group group;
   @EqualsAndHashCode.Exclude
   private Iterator<ExprValue> iterator;
 
   /**
-   * AggregationOperator Constructor.
+   * Number of partitions rows spilled to.
+   */
+  private static final int SPILL_PARTITIONS = 16;
+
+  /**
+   * Estimated size of each aggregation state in a group.
+   */
+  private static final long STATE_BYTES = 16L;
+
+  /**
+   * AggregationOperator Constructor without spilling to disk.
    * @param input Input {@link PhysicalPlan}
    * @param aggregatorList List of {@link Aggregator}
    * @param groupByExprList List of group by {@link Expression}
    */
   public AggregationOperator(PhysicalPlan input, List<Aggregator> aggregatorList,
                              List<Expression> groupByExprList) {
+    this(input, aggregatorList, groupByExprList, Integer.MAX_VALUE);
+  }
+
+  /**
+   * AggregationOperator Constructor.
+   * @param input Input {@link PhysicalPlan}
+   * @param aggregatorList List of {@link Aggregator}
+   * @param groupByExprList List of group by {@link Expression}
+   * @param maxGroupsInMemory maximum number of groups aggregated in memory before spilling
+   */
+  public AggregationOperator(PhysicalPlan input, List<Aggregator> aggregatorList,
+                             List<Expression> groupByExprList, int maxGroupsInMemory) {
+    this(input, aggregatorList, groupByExprList, maxGroupsInMemory, new MemoryTracker());
+  }
+
+  /**
+   * AggregationOperator Constructor.
+   * @param input Input {@link PhysicalPlan}
+   * @param aggregatorList List of {@link Aggregator}
+   * @param groupByExprList List of group by {@link Expression}
+   * @param maxGroupsInMemory maximum number of groups aggregated in memory before spilling
+   * @param memoryTracker memory tracker of the query
+   */
+  public AggregationOperator(PhysicalPlan input, List<Aggregator> aggregatorList,
+                             List<Expression> groupByExprList, int maxGroupsInMemory,
+                             MemoryTracker memoryTracker) {
+    this(input, aggregatorList, groupByExprList, maxGroupsInMemory, memoryTracker,
+        SpilledRun.DEFAULT_DIRECTORY);
+  }
+
+  /**
+   * AggregationOperator Constructor.
+   * @param input Input {@link PhysicalPlan}
+   * @param aggregatorList List of {@link Aggregator}
+   * @param groupByExprList List of group by {@link Expression}
+   * @param maxGroupsInMemory maximum number of groups aggregated in memory before spilling
+   * @param memoryTracker memory tracker of the query
+   * @param spillDirectory directory rows are spilled to
+   */
+  public AggregationOperator(PhysicalPlan input, List<Aggregator> aggregatorList,
+                             List<Expression> groupByExprList, int maxGroupsInMemory,
+                             MemoryTracker memoryTracker, Path spillDirectory) {
     this.input = input;
     this.aggregatorList = aggregatorList;
     this.groupByExprList = groupByExprList;
-    this.group = new Group();
+    this.maxGroupsInMemory = maxGroupsInMemory;
+    this.memoryTracker = memoryTracker;
+    this.spillDirectory = spillDirectory;
+    this.group = new Group(maxGroupsInMemory);
   }
 
   @Override
@@ -93,37 +179,128 @@ public class AggregationOperator extends PhysicalPlan {
   @Override
   public void open() {
     super.open();
-    while (input.hasNext()) {
-      group.push(input.next());
+    if (input.isBatchSupported()) {
+      ColumnBatch batch = input.nextBatch(ColumnBatch.DEFAULT_BATCH_SIZE);
+      while (batch.size() > 0) {
+        ColumnBatch rows = batch;
+        rows.forEachRow((bindingTuple, index) -> group.push(bindingTuple, () -> rows.row(index)));
+        batch = input.nextBatch(ColumnBatch.DEFAULT_BATCH_SIZE);
+      }
+    } else {
+      while (input.hasNext()) {
+        group.push(input.next());
+      }
     }
-    iterator = group.result().iterator();
+    iterator = Iterators.concat(group.result().iterator(), group.spilledResult());
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    group.deleteSpilledPartitions();
+    group.releaseMemory();
+  }
+
+  @Override
+  public long spilledBytes() {
+    return super.spilledBytes() + group.spilledBytes();
+  }
+
+  @Override
+  public long peakMemoryBytes() {
+    return Math.max(super.peakMemoryBytes(), memoryTracker.getPeakBytes());
   }
 
   @VisibleForTesting
   @RequiredArgsConstructor
   public class Group {
 
-    private final Map<GroupKey, List<Map.Entry<Aggregator, AggregationState>>> groupListMap =
-        new HashMap<>();
+    /**
+     * Maximum number of groups aggregated in memory.
+     */
+    private final int maxGroups;
+
+    /**
+     * Group key of each group indexed by group id.
+     */
+    private final List<GroupKey> groupKeys = new ArrayList<>();
+
+    /**
+     * Aggregation states of all groups, in the same order as {@link #aggregatorList}.
+     */
+    private final AggregationStateArray[] stateArrays = aggregatorList.stream()
+        .map(Aggregator::createStateArray).toArray(AggregationStateArray[]::new);
+
+    /**
+     * Group id of single group by value, which is created on first value that any table accepts.
+     */
+    private GroupIdTable groupIdTable;
+
+    /**
+     * Group id of serialized composite group by values.
+     */
+    private final StringKeyTable compositeKeyTable = new StringKeyTable();
+
+    /**
+     * Group id of group key that is not accepted by {@link #groupIdTable} or
+     * {@link #compositeKeyTable}.
+     */
+    private final Map<GroupKey, Integer> groupKeyIds = new HashMap<>();
+
+    /**
+     * Group by values of current row, which is reused for each row.
+     */
+    private final ExprValue[] groupByValues = new ExprValue[groupByExprList.size()];
+
+    /**
+     * Serialized composite group by values of current row, or null if not serialized.
+     */
+    private String compositeKey;
+
+    private final StringBuilder keyBuilder = new StringBuilder();
+
+    /**
+     * Rows spilled to disk partitioned by hash of group key. Created on first row spilled.
+     */
+    private final SpilledRun[] partitions = new SpilledRun[SPILL_PARTITIONS];
+
+    /**
+     * Bytes reserved for groups in memory.
+     */
+    private long reservedBytes = 0L;
 
     /**
      * Push the BindingTuple to Group. Two functions will be applied to each BindingTuple to
-     * generate the {@link GroupKey} and {@link AggregationState}
+     * generate the {@link GroupKey} and {@link AggregationStateArray}
      * Key = GroupKey(bindingTuple), State = Aggregator(bindingTuple)
      */
     public void push(ExprValue inputValue) {
-      GroupKey groupKey = new GroupKey(inputValue);
-      groupListMap.computeIfAbsent(groupKey, k ->
-          aggregatorList.stream()
-              .map(aggregator -> new AbstractMap.SimpleEntry<>(aggregator,
-                  aggregator.create()))
-              .collect(Collectors.toList())
-      );
-      groupListMap.computeIfPresent(groupKey, (key, aggregatorList) -> {
-        aggregatorList
-            .forEach(entry -> entry.getKey().iterate(inputValue.bindingTuples(), entry.getValue()));
-        return aggregatorList;
-      });
+      push(inputValue.bindingTuples(), () -> inputValue);
+    }
+
+    /**
+     * Push the BindingTuple of a row to Group. The group id is looked up only once for existing
+     * group. If the group is new but there are too many groups in memory already, the row is
+     * spilled to the partition of its group key instead.
+     */
+    public void push(BindingTuple bindingTuple, Supplier<ExprValue> row) {
+      for (int i = 0; i < groupByValues.length; i++) {
+        groupByValues[i] = groupByExprList.get(i).valueOf(bindingTuple);
+      }
+
+      int groupId = lookUpGroupId();
+      if (groupId == GroupIdTable.ABSENT) {
+        GroupKey groupKey = new GroupKey(Arrays.asList(groupByValues.clone()));
+        if (groupKeys.size() >= maxGroups) {
+          spill(groupKey, row.get());
+          return;
+        }
+        groupId = addGroup(groupKey);
+      }
+
+      for (AggregationStateArray stateArray : stateArrays) {
+        stateArray.iterate(bindingTuple, groupId);
+      }
     }
 
     /**
@@ -131,17 +308,108 @@ public class AggregationOperator extends PhysicalPlan {
      */
     public List<ExprValue> result() {
       ImmutableList.Builder<ExprValue> resultBuilder = new ImmutableList.Builder<>();
-      for (Map.Entry<GroupKey, List<Map.Entry<Aggregator, AggregationState>>> entry : groupListMap
-          .entrySet()) {
-        LinkedHashMap<String, ExprValue> map = new LinkedHashMap<>();
-        map.putAll(entry.getKey().groupKeyMap());
-        for (Map.Entry<Aggregator, AggregationState> stateEntry : entry.getValue()) {
-          map.put(stateEntry.getKey().toString(), stateEntry.getValue().result());
+      for (int groupId = 0; groupId < groupKeys.size(); groupId++) {
+        LinkedHashMap<String, ExprValue> map = groupKeys.get(groupId).groupKeyMap();
+        for (int i = 0; i < stateArrays.length; i++) {
+          map.put(aggregatorList.get(i).toString(), stateArrays[i].result(groupId));
         }
-        resultBuilder.add(ExprTupleValue.fromExprValueMap(map));
+        resultBuilder.add(new ExprTupleValue(map));
       }
       return resultBuilder.build();
     }
+
+    /**
+     * Look up group id of the group by values of current row in the table accepting them.
+     *
+     * @return group id, or {@link GroupIdTable#ABSENT} if absent
+     */
+    private int lookUpGroupId() {
+      if (groupByValues.length == 1) {
+        if (groupIdTable == null) {
+          groupIdTable = GroupIdTable.of(groupByValues[0]);
+        }
+        if (groupIdTable != null && groupIdTable.accepts(groupByValues[0])) {
+          return groupIdTable.get(groupByValues[0]);
+        }
+      } else {
+        compositeKey = GroupIdTable.serialize(groupByValues, keyBuilder);
+        if (compositeKey != null) {
+          return compositeKeyTable.get(compositeKey);
+        }
+      }
+      return groupKeyIds.getOrDefault(
+          new GroupKey(Arrays.asList(groupByValues)), GroupIdTable.ABSENT);
+    }
+
+    /**
+     * Add state of the new group to each state array, register its group id in the table
+     * accepting the group by values of current row and reserve memory for it.
+     *
+     * @return group id
+     */
+    private int addGroup(GroupKey groupKey) {
+      long bytes = groupKey.estimateBytes() + STATE_BYTES * stateArrays.length;
+      memoryTracker.reserve(bytes, "aggregation");
+      reservedBytes += bytes;
+      for (AggregationStateArray stateArray : stateArrays) {
+        stateArray.addGroup();
+      }
+      groupKeys.add(groupKey);
+      int groupId = groupKeys.size() - 1;
+
+      if (groupByValues.length == 1 && groupIdTable != null
+          && groupIdTable.accepts(groupByValues[0])) {
+        groupIdTable.put(groupByValues[0], groupId);
+      } else if (groupByValues.length != 1 && compositeKey != null) {
+        compositeKeyTable.put(compositeKey, groupId);
+      } else {
+        groupKeyIds.put(groupKey, groupId);
+      }
+      return groupId;
+    }
+
+    /**
+     * Get the result of each spilled partition. Partition is aggregated lazily one at a time
+     * and deleted once aggregated.
+     */
+    public Iterator<ExprValue> spilledResult() {
+      return Iterators.concat(
+          Iterators.transform(Iterators.forArray(partitions), this::aggregatePartition));
+    }
+
+    private void spill(GroupKey groupKey, ExprValue row) {
+      int partition = Hashing.consistentHash(groupKey.hashCode(), partitions.length);
+      if (partitions[partition] == null) {
+        partitions[partition] = new SpilledRun(spillDirectory);
+      }
+      partitions[partition].add(row);
+    }
+
+    private Iterator<ExprValue> aggregatePartition(SpilledRun partition) {
+      if (partition == null) {
+        return Collections.emptyIterator();
+      }
+      Group partitionGroup = new Group(Integer.MAX_VALUE);
+      partition.read().forEachRemaining(partitionGroup::push);
+      partition.delete();
+      List<ExprValue> result = partitionGroup.result();
+      partitionGroup.releaseMemory();
+      return result.iterator();
+    }
+
+    private long spilledBytes() {
+      return Arrays.stream(partitions).filter(Objects::nonNull).mapToLong(SpilledRun::getBytes)
+          .sum();
+    }
+
+    private void deleteSpilledPartitions() {
+      Arrays.stream(partitions).filter(Objects::nonNull).forEach(SpilledRun::delete);
+    }
+
+    private void releaseMemory() {
+      memoryTracker.release(reservedBytes);
+      reservedBytes = 0L;
+    }
   }
 
   /**
@@ -156,11 +424,8 @@ public class AggregationOperator extends PhysicalPlan {
     /**
      * GroupKey constructor.
      */
-    public GroupKey(ExprValue value) {
-      this.groupByValueList = new ArrayList<>();
-      for (Expression groupExpr : groupByExprList) {
-        this.groupByValueList.add(groupExpr.valueOf(value.bindingTuples()));
-      }
+    private GroupKey(List<ExprValue> groupByValueList) {
+      this.groupByValueList = groupByValueList;
     }
 
     /**
@@ -173,5 +438,9 @@ public class AggregationOperator extends PhysicalPlan {
       }
       return map;
     }
+
+    private long estimateBytes() {
+      return groupByValueList.stream().mapToLong(MemoryTracker::estimateBytes).sum();
+    }
   }
 }
@@ -0,0 +1,249 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRUCT;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledExpression;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import com.google.common.collect.Maps;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Column oriented batch of rows passed between batch aware {@link PhysicalPlan} operators. Each
+ * field is stored as a column of values indexed by row position. Rows filtered out are not removed
+ * from the columns. Instead, the positions of remaining rows are tracked in a selection vector, so
+ * filter doesn't need to copy any column.
+ *
+ * <p>Absent field is resolved to MISSING the same way as the binding tuple of {@link
+ * ExprTupleValue}, so expressions evaluated on a batch have the same result as row by row.
+ */
+public class ColumnBatch {
+
+  /**
+   * Default maximum number of rows in a batch.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1024;
+
+  /**
+   * Field name to column values. Column value at unselected position is undefined.
+   */
+  private final LinkedHashMap<String, ExprValue[]> columns;
+
+  /**
+   * Number of rows the columns can hold.
+   */
+  private final int capacity;
+
+  /**
+   * Positions of rows selected. All rows are selected if null.
+   */
+  private int[] selection;
+
+  /**
+   * Number of rows selected.
+   */
+  private int size;
+
+  /**
+   * Binding tuple reused to evaluate expression on each row in the batch.
+   */
+  private final RowBindingTuple cursor = new RowBindingTuple();
+
+  /**
+   * Construct a batch with all rows in the columns selected.
+   *
+   * @param columns  field name to column values
+   * @param capacity number of rows in each column
+   */
+  public ColumnBatch(LinkedHashMap<String, ExprValue[]> columns, int capacity) {
+    this.columns = columns;
+    this.capacity = capacity;
+    this.size = capacity;
+  }
+
+  /**
+   * Convert row values into column batch. A field absent in some rows is MISSING in the column.
+   *
+   * @param rows row values
+   * @return column batch
+   */
+  public static ColumnBatch fromRows(List<ExprValue> rows) {
+    LinkedHashMap<String, ExprValue[]> columns = new LinkedHashMap<>();
+    for (int i = 0; i < rows.size(); i++) {
+      ExprValue row = rows.get(i);
+      if (STRUCT != row.type()) {
+        continue;
+      }
+      for (Map.Entry<String, ExprValue> field : row.tupleValue().entrySet()) {
+        columns.computeIfAbsent(field.getKey(), name -> missingColumn(rows.size()))[i] =
+            field.getValue();
+      }
+    }
+    return new ColumnBatch(columns, rows.size());
+  }
+
+  /**
+   * Number of rows selected in the batch.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Evaluate the expression on each row selected.
+   *
+   * @param expression expression
+   * @return expression values in the order of row selected
+   */
+  public ExprValue[] evaluate(Expression expression) {
+    ExprValue[] values = new ExprValue[size];
+    for (int i = 0; i < size; i++) {
+      cursor.position = position(i);
+      values[i] = expression.valueOf(cursor);
+    }
+    return values;
+  }
+
+  /**
+   * Apply the action on binding tuple and index of each row selected. The binding tuple is reused
+   * thus only valid within the action.
+   *
+   * @param action action on binding tuple and index of the row among rows selected
+   */
+  public void forEachRow(ObjIntConsumer<BindingTuple> action) {
+    for (int i = 0; i < size; i++) {
+      cursor.position = position(i);
+      action.accept(cursor, i);
+    }
+  }
+
+  /**
+   * Keep rows which satisfy the predicate only.
+   *
+   * @param predicate predicate on the index of row among rows selected
+   */
+  public void select(IntPredicate predicate) {
+    int[] newSelection = new int[size];
+    int newSize = 0;
+    for (int i = 0; i < size; i++) {
+      if (predicate.test(i)) {
+        newSelection[newSize++] = position(i);
+      }
+    }
+    selection = newSelection;
+    size = newSize;
+  }
+
+  /**
+   * Keep rows on which the predicate is evaluated to TRUE only.
+   *
+   * @param predicate compiled predicate
+   */
+  public void select(CompiledExpression predicate) {
+    select(i -> {
+      cursor.position = position(i);
+      return predicate.isTrue(cursor);
+    });
+  }
+
+  /**
+   * Put the column to the batch. Existing column with the same name is replaced in place,
+   * otherwise the new column is appended.
+   *
+   * @param name   field name
+   * @param values column values in the order of row selected
+   */
+  public void putColumn(String name, ExprValue[] values) {
+    if (selection == null) {
+      columns.put(name, values);
+    } else {
+      ExprValue[] column = new ExprValue[capacity];
+      for (int i = 0; i < size; i++) {
+        column[selection[i]] = values[i];
+      }
+      columns.put(name, column);
+    }
+  }
+
+  /**
+   * Rename columns in place without touching any column value. Column order is kept.
+   *
+   * @param nameMapping old column name to new name
+   * @throws IllegalArgumentException if two columns end up with the same name
+   */
+  public void renameColumns(Map<String, String> nameMapping) {
+    LinkedHashMap<String, ExprValue[]> renamed = new LinkedHashMap<>();
+    for (Map.Entry<String, ExprValue[]> column : columns.entrySet()) {
+      String name = nameMapping.getOrDefault(column.getKey(), column.getKey());
+      if (renamed.put(name, column.getValue()) != null) {
+        throw new IllegalArgumentException(
+            String.format("Multiple entries with same key: %s", name));
+      }
+    }
+    columns.clear();
+    columns.putAll(renamed);
+  }
+
+  /**
+   * Materialize the row selected as tuple value.
+   *
+   * @param index index of row among rows selected
+   * @return tuple value
+   */
+  public ExprValue row(int index) {
+    int position = position(index);
+    LinkedHashMap<String, ExprValue> valueMap =
+        Maps.newLinkedHashMapWithExpectedSize(columns.size());
+    for (Map.Entry<String, ExprValue[]> column : columns.entrySet()) {
+      valueMap.put(column.getKey(), column.getValue()[position]);
+    }
+    return new ExprTupleValue(valueMap);
+  }
+
+  private int position(int index) {
+    return (selection == null) ? index : selection[index];
+  }
+
+  private static ExprValue[] missingColumn(int capacity) {
+    ExprValue[] column = new ExprValue[capacity];
+    Arrays.fill(column, ExprMissingValue.of());
+    return column;
+  }
+
+  /**
+   * Binding tuple which resolves field reference to the value in the column at current position.
+   */
+  private class RowBindingTuple extends BindingTuple {
+    private int position;
+
+    @Override
+    public ExprValue resolve(ReferenceExpression ref) {
+      ExprValue[] column = columns.get(ref.getAttr());
+      return (column == null) ? ExprMissingValue.of() : column[position];
+    }
+  }
+}
@@ -17,6 +17,7 @@ package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
 import com.google.common.collect.ImmutableList;
 import java.util.Collections;
@@ -33,6 +34,9 @@ import lombok.RequiredArgsConstructor;
 /**
  * Dedupe operator. Dedupe the input {@link ExprValue} by using the {@link
  * DedupeOperator#dedupeList} The result order follow the input order.
+ *
+ * <p>The estimated size of each dedupe key remembered is reserved from {@link
+ * DedupeOperator#memoryTracker} until the operator is closed.
  */
 @Getter
 @EqualsAndHashCode
@@ -47,11 +51,15 @@ public class DedupeOperator extends PhysicalPlan {
   private final Boolean keepEmpty;
   @Getter
   private final Boolean consecutive;
+  @EqualsAndHashCode.Exclude
+  private final MemoryTracker memoryTracker;
 
   @EqualsAndHashCode.Exclude
   private final Deduper<List<ExprValue>> deduper;
   @EqualsAndHashCode.Exclude
   private ExprValue next;
+  @EqualsAndHashCode.Exclude
+  private long reservedBytes = 0L;
 
   private static final Integer ALL_ONE_DUPLICATION = 1;
   private static final Boolean IGNORE_EMPTY = false;
@@ -79,11 +87,32 @@ public class DedupeOperator extends PhysicalPlan {
       Integer allowedDuplication,
       Boolean keepEmpty,
       Boolean consecutive) {
+    this(input, dedupeList, allowedDuplication, keepEmpty, consecutive, new MemoryTracker());
+  }
+
+  /**
+   * Dedup Constructor.
+   * @param input input {@link PhysicalPlan}
+   * @param dedupeList list of dedupe {@link Expression}
+   * @param allowedDuplication max allowed duplication
+   * @param keepEmpty keep empty
+   * @param consecutive consecutive mode
+   * @param memoryTracker memory tracker of the query
+   */
+  @NonNull
+  public DedupeOperator(
+      PhysicalPlan input,
+      List<Expression> dedupeList,
+      Integer allowedDuplication,
+      Boolean keepEmpty,
+      Boolean consecutive,
+      MemoryTracker memoryTracker) {
     this.input = input;
     this.dedupeList = dedupeList;
     this.allowedDuplication = allowedDuplication;
     this.keepEmpty = keepEmpty;
     this.consecutive = consecutive;
+    this.memoryTracker = memoryTracker;
     this.deduper = this.consecutive ? Deduper.consecutiveDeduper() : Deduper.historicalDeduper();
   }
 
@@ -97,6 +126,18 @@ public class DedupeOperator extends PhysicalPlan {
     return Collections.singletonList(input);
   }
 
+  @Override
+  public void close() {
+    super.close();
+    memoryTracker.release(reservedBytes);
+    reservedBytes = 0L;
+  }
+
+  @Override
+  public long peakMemoryBytes() {
+    return Math.max(super.peakMemoryBytes(), memoryTracker.getPeakBytes());
+  }
+
   @Override
   public boolean hasNext() {
     while (input.hasNext()) {
@@ -135,9 +176,22 @@ public class DedupeOperator extends PhysicalPlan {
     }
     List<ExprValue> dedupeKey = dedupeKeyBuilder.build();
     int seenTimes = deduper.seenTimes(dedupeKey);
+    if (seenTimes == SEEN_FIRST_TIME && !consecutive) {
+      reserve(dedupeKey);
+    }
     return seenTimes <= allowedDuplication;
   }
 
+  /**
+   * Reserve memory for the new key remembered by historical deduper. Consecutive deduper only
+   * remembers the last key, which is not tracked.
+   */
+  private void reserve(List<ExprValue> dedupeKey) {
+    long bytes = dedupeKey.stream().mapToLong(MemoryTracker::estimateBytes).sum();
+    memoryTracker.reserve(bytes, "dedupe");
+    reservedBytes += bytes;
+  }
+
   /**
    * Return how many times the dedupeKey has been seen before. The side effect is the seen times
    * will add 1 times after calling this function.
@@ -23,17 +23,17 @@ import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ExpressionCompiler;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
+import com.google.common.collect.Maps;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -48,12 +48,29 @@ import org.apache.commons.lang3.tuple.Pair;
  */
 @ToString
 @EqualsAndHashCode(callSuper = false)
-@RequiredArgsConstructor
 public class EvalOperator extends PhysicalPlan {
   @Getter
   private final PhysicalPlan input;
   @Getter
   private final List<Pair<ReferenceExpression, Expression>> expressionList;
+  /**
+   * Compiled expressions in the same order as {@link EvalOperator#expressionList}.
+   */
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final List<CompiledExpression> compiledExpressions;
+
+  /**
+   * Constructor of EvalOperator which compiles the expressions for evaluation.
+   */
+  public EvalOperator(PhysicalPlan input,
+                      List<Pair<ReferenceExpression, Expression>> expressionList) {
+    this.input = input;
+    this.expressionList = expressionList;
+    this.compiledExpressions = expressionList.stream()
+        .map(pair -> ExpressionCompiler.compile(pair.getValue()))
+        .collect(Collectors.toList());
+  }
 
   @Override
   public <R, C> R accept(PhysicalPlanNodeVisitor<R, C> visitor, C context) {
@@ -76,23 +93,39 @@ public class EvalOperator extends PhysicalPlan {
     Map<String, ExprValue> evalMap = eval(inputValue.bindingTuples());
 
     if (STRUCT == inputValue.type()) {
-      ImmutableMap.Builder<String, ExprValue> resultBuilder = new Builder<>();
+      // Existing field is replaced in place and new field is appended
       Map<String, ExprValue> tupleValue = ExprValueUtils.getTupleValue(inputValue);
-      for (Entry<String, ExprValue> valueEntry : tupleValue.entrySet()) {
-        if (evalMap.containsKey(valueEntry.getKey())) {
-          resultBuilder.put(valueEntry.getKey(), evalMap.get(valueEntry.getKey()));
-          evalMap.remove(valueEntry.getKey());
-        } else {
-          resultBuilder.put(valueEntry);
-        }
-      }
-      resultBuilder.putAll(evalMap);
-      return ExprTupleValue.fromExprValueMap(resultBuilder.build());
+      LinkedHashMap<String, ExprValue> resultMap =
+          Maps.newLinkedHashMapWithExpectedSize(tupleValue.size() + evalMap.size());
+      resultMap.putAll(tupleValue);
+      resultMap.putAll(evalMap);
+      return new ExprTupleValue(resultMap);
     } else {
       return inputValue;
     }
   }
 
+  @Override
+  public boolean isBatchSupported() {
+    return true;
+  }
+
+  /**
+   * Evaluate each expression on the whole batch and put the result as a column in order, so
+   * expression can reference column evaluated by previous one.
+   */
+  @Override
+  public ColumnBatch nextBatch(int maxSize) {
+    ColumnBatch batch = input.nextBatch(maxSize);
+    if (batch.size() > 0) {
+      for (int i = 0; i < expressionList.size(); i++) {
+        batch.putColumn(expressionList.get(i).getKey().toString(),
+            batch.evaluate(compiledExpressions.get(i)));
+      }
+    }
+    return batch;
+  }
+
   /**
    * Evaluate the expression in the {@link EvalOperator#expressionList} with {@link Environment}.
    * @param env {@link Environment}
@@ -100,9 +133,9 @@ public class EvalOperator extends PhysicalPlan {
    */
   private Map<String, ExprValue> eval(Environment<Expression, ExprValue> env) {
     Map<String, ExprValue> evalResultMap = new LinkedHashMap<>();
-    for (Pair<ReferenceExpression, Expression> pair : expressionList) {
-      ReferenceExpression var = pair.getKey();
-      ExprValue value = pair.getValue().valueOf(env);
+    for (int i = 0; i < expressionList.size(); i++) {
+      ReferenceExpression var = expressionList.get(i).getKey();
+      ExprValue value = compiledExpressions.get(i).valueOf(env);
       env = extendEnv(env, var, value);
       evalResultMap.put(var.toString(), value);
     }
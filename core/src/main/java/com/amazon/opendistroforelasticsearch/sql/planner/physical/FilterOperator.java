@@ -2,13 +2,14 @@ package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ExpressionCompiler;
 import com.amazon.opendistroforelasticsearch.sql.expression.operator.predicate.BinaryPredicateOperator;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
 import java.util.Collections;
 import java.util.List;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.ToString;
 
 /**
@@ -18,14 +19,52 @@ import lombok.ToString;
  */
 @EqualsAndHashCode
 @ToString
-@RequiredArgsConstructor
 public class FilterOperator extends PhysicalPlan {
   @Getter
   private final PhysicalPlan input;
   @Getter
   private final Expression conditions;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final CompiledExpression compiledConditions;
   @ToString.Exclude private ExprValue next = null;
 
+  /**
+   * Constructor of FilterOperator which compiles the conditions for evaluation.
+   */
+  public FilterOperator(PhysicalPlan input, Expression conditions) {
+    this.input = input;
+    this.conditions = conditions;
+    this.compiledConditions = ExpressionCompiler.compile(conditions);
+  }
+
+  @Override
+  public boolean isBatchSupported() {
+    return true;
+  }
+
+  /**
+   * Filter on batch from batch aware input. Otherwise filter rows one by one before converting
+   * to batch, so rows filtered out are never converted and lazily decoded input row only has
+   * the fields in condition decoded.
+   */
+  @Override
+  public ColumnBatch nextBatch(int maxSize) {
+    if (!input.isBatchSupported()) {
+      return super.nextBatch(maxSize);
+    }
+
+    ColumnBatch batch = input.nextBatch(maxSize);
+    while (batch.size() > 0) {
+      batch.select(compiledConditions);
+      if (batch.size() > 0) {
+        return batch;
+      }
+      batch = input.nextBatch(maxSize);
+    }
+    return batch;
+  }
+
   @Override
   public <R, C> R accept(PhysicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitFilter(this, context);
@@ -40,8 +79,7 @@ public class FilterOperator extends PhysicalPlan {
   public boolean hasNext() {
     while (input.hasNext()) {
       ExprValue inputValue = input.next();
-      ExprValue exprValue = conditions.valueOf(inputValue.bindingTuples());
-      if (!(exprValue.isNull() || exprValue.isMissing()) && (exprValue.booleanValue())) {
+      if (compiledConditions.isTrue(inputValue.bindingTuples())) {
         next = inputValue;
         return true;
       }
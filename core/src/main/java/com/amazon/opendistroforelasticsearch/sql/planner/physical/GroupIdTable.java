@@ -0,0 +1,253 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprIntegerValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprLongValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprStringValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import java.util.Arrays;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Open addressing hash table from single group by value to group id, which is used by
+ * aggregation instead of a map keyed by group key. The value is looked up by its primitive long
+ * or string directly, so no group key is allocated or hashed for rows of an existing group.
+ * Composite group by values are looked up by the string they are serialized into.
+ *
+ * <p>Only values of a single class are accepted by a table. Any other value, such as NULL or
+ * MISSING, has to be looked up by its group key elsewhere.
+ */
+abstract class GroupIdTable {
+
+  /**
+   * Initial number of slots which must be power of 2.
+   */
+  static final int INITIAL_CAPACITY = 16;
+
+  /**
+   * Group id of unused slot.
+   */
+  static final int ABSENT = -1;
+
+  /**
+   * Group id in each slot, or {@link #ABSENT} if the slot is unused.
+   */
+  protected int[] groupIds = newGroupIds(INITIAL_CAPACITY);
+
+  private int size = 0;
+
+  /**
+   * Create the table for the group by value given.
+   *
+   * @param value group by value
+   * @return table that accepts the value, or null if there is no such table
+   */
+  static GroupIdTable of(ExprValue value) {
+    if (value instanceof ExprIntegerValue || value instanceof ExprLongValue) {
+      return new LongKeyTable(value.getClass());
+    } else if (value instanceof ExprStringValue) {
+      return new StringKeyTable();
+    }
+    return null;
+  }
+
+  /**
+   * Serialize composite group by values into a key of {@link StringKeyTable}. Integer and long are
+   * written as tagged decimal ended by ';' and string is written as tagged length followed by the
+   * characters, so different values never end up with the same key.
+   *
+   * @param values  group by values
+   * @param builder builder reused to write the key
+   * @return serialized key, or null if any value is not integer, long or string
+   */
+  static String serialize(ExprValue[] values, StringBuilder builder) {
+    builder.setLength(0);
+    for (ExprValue value : values) {
+      if (value instanceof ExprIntegerValue) {
+        builder.append('I').append(value.integerValue().intValue()).append(';');
+      } else if (value instanceof ExprLongValue) {
+        builder.append('L').append(value.longValue().longValue()).append(';');
+      } else if (value instanceof ExprStringValue) {
+        String text = value.stringValue();
+        builder.append('S').append(text.length()).append(':').append(text);
+      } else {
+        return null;
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Check if the value can be looked up in this table.
+   */
+  abstract boolean accepts(ExprValue value);
+
+  /**
+   * Get group id of the value.
+   *
+   * @param value group by value accepted by the table
+   * @return group id, or {@link #ABSENT} if absent
+   */
+  abstract int get(ExprValue value);
+
+  /**
+   * Put group id of the value which is absent in the table.
+   *
+   * @param value   group by value accepted by the table
+   * @param groupId group id
+   */
+  abstract void put(ExprValue value, int groupId);
+
+  /**
+   * Grow the slots if the table would be more than half full after adding one more key.
+   *
+   * @return old group ids whose keys have to be moved to new slots, or null if not grown
+   */
+  protected int[] growIfNeeded() {
+    if ((++size) * 2 <= groupIds.length) {
+      return null;
+    }
+    int[] oldGroupIds = groupIds;
+    groupIds = newGroupIds(oldGroupIds.length * 2);
+    return oldGroupIds;
+  }
+
+  /**
+   * Find the first unused slot starting from the hash given.
+   */
+  protected int unusedSlot(int hash) {
+    int mask = groupIds.length - 1;
+    int slot = hash & mask;
+    while (groupIds[slot] != ABSENT) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  private static int[] newGroupIds(int capacity) {
+    int[] groupIds = new int[capacity];
+    Arrays.fill(groupIds, ABSENT);
+    return groupIds;
+  }
+
+  /**
+   * Spread the hash so that keys differing only in higher bits don't collide in lower bits.
+   */
+  protected static int spread(long hash) {
+    long mixed = hash * 0x9E3779B97F4A7C15L;
+    return (int) (mixed ^ (mixed >>> 32));
+  }
+
+  /**
+   * Table of integer or long value.
+   */
+  @RequiredArgsConstructor
+  static class LongKeyTable extends GroupIdTable {
+    private final Class<?> valueClass;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    @Override
+    boolean accepts(ExprValue value) {
+      return value.getClass() == valueClass;
+    }
+
+    @Override
+    int get(ExprValue value) {
+      long key = value.longValue();
+      int mask = groupIds.length - 1;
+      int slot = spread(key) & mask;
+      while (groupIds[slot] != ABSENT && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return groupIds[slot];
+    }
+
+    @Override
+    void put(ExprValue value, int groupId) {
+      int[] oldGroupIds = growIfNeeded();
+      if (oldGroupIds != null) {
+        long[] oldKeys = keys;
+        keys = new long[groupIds.length];
+        for (int i = 0; i < oldGroupIds.length; i++) {
+          if (oldGroupIds[i] != ABSENT) {
+            put(oldKeys[i], oldGroupIds[i]);
+          }
+        }
+      }
+      put(value.longValue(), groupId);
+    }
+
+    private void put(long key, int groupId) {
+      int slot = unusedSlot(spread(key));
+      keys[slot] = key;
+      groupIds[slot] = groupId;
+    }
+  }
+
+  /**
+   * Table of string value, including any subclass of string value, or of serialized composite
+   * group by values.
+   */
+  static class StringKeyTable extends GroupIdTable {
+    private String[] keys = new String[INITIAL_CAPACITY];
+
+    @Override
+    boolean accepts(ExprValue value) {
+      return value instanceof ExprStringValue;
+    }
+
+    @Override
+    int get(ExprValue value) {
+      return get(value.stringValue());
+    }
+
+    int get(String key) {
+      int mask = groupIds.length - 1;
+      int slot = spread(key.hashCode()) & mask;
+      while (groupIds[slot] != ABSENT && !keys[slot].equals(key)) {
+        slot = (slot + 1) & mask;
+      }
+      return groupIds[slot];
+    }
+
+    @Override
+    void put(ExprValue value, int groupId) {
+      put(value.stringValue(), groupId);
+    }
+
+    void put(String key, int groupId) {
+      int[] oldGroupIds = growIfNeeded();
+      if (oldGroupIds != null) {
+        String[] oldKeys = keys;
+        keys = new String[groupIds.length];
+        for (int i = 0; i < oldGroupIds.length; i++) {
+          if (oldGroupIds[i] != ABSENT) {
+            insert(oldKeys[i], oldGroupIds[i]);
+          }
+        }
+      }
+      insert(key, groupId);
+    }
+
+    private void insert(String key, int groupId) {
+      int slot = unusedSlot(spread(key.hashCode()));
+      keys[slot] = key;
+      groupIds[slot] = groupId;
+    }
+  }
+}
@@ -18,7 +18,9 @@ package com.amazon.opendistroforelasticsearch.sql.planner.physical;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.planner.PlanNode;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Physical plan.
@@ -45,6 +47,52 @@ public abstract class PhysicalPlan implements PlanNode<PhysicalPlan>,
     getChild().forEach(PhysicalPlan::close);
   }
 
+  /**
+   * Whether the operator can evaluate a whole batch at a time in {@link #nextBatch(int)}. Parent
+   * operator pulls batches instead of rows only if this is true.
+   *
+   * @return true if batch aware, otherwise false
+   */
+  public boolean isBatchSupported() {
+    return false;
+  }
+
+  /**
+   * Fetch next batch of rows. The default implementation adapts the row iterator so any operator
+   * can be the input of a batch aware operator. Batch aware operator overrides it to avoid
+   * materializing intermediate row value. Note that batch and row iteration should not be mixed
+   * on the same operator.
+   *
+   * @param maxSize maximum number of rows in the batch
+   * @return next batch, empty if no more rows
+   */
+  public ColumnBatch nextBatch(int maxSize) {
+    List<ExprValue> rows = new ArrayList<>();
+    while (rows.size() < maxSize && hasNext()) {
+      rows.add(next());
+    }
+    return ColumnBatch.fromRows(rows);
+  }
+
+  /**
+   * Total number of bytes spilled to disk by the operator and its children.
+   *
+   * @return spilled bytes
+   */
+  public long spilledBytes() {
+    return getChild().stream().mapToLong(PhysicalPlan::spilledBytes).sum();
+  }
+
+  /**
+   * Peak memory reserved by the operator and its children. Operators of the same query share
+   * one memory tracker so the maximum is the peak memory usage of the query.
+   *
+   * @return peak memory bytes
+   */
+  public long peakMemoryBytes() {
+    return getChild().stream().mapToLong(PhysicalPlan::peakMemoryBytes).max().orElse(0L);
+  }
+
   public ExecutionEngine.Schema schema() {
     throw new IllegalStateException(String.format("[BUG] schema can been only applied to "
         + "ProjectOperator, instead of %s", toString()));
@@ -19,9 +19,10 @@ import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import com.google.common.collect.Maps;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.stream.Collectors;
 import lombok.EqualsAndHashCode;
@@ -41,6 +42,16 @@ public class ProjectOperator extends PhysicalPlan {
   @Getter
   private final List<NamedExpression> projectList;
 
+  /**
+   * Current batch projected and the index of next row in it if input is batch aware.
+   */
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private ColumnBatch batch;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private int batchIndex;
+
   @Override
   public <R, C> R accept(PhysicalPlanNodeVisitor<R, C> visitor, C context) {
     return visitor.visitProject(this, context);
@@ -53,18 +64,47 @@ public class ProjectOperator extends PhysicalPlan {
 
   @Override
   public boolean hasNext() {
-    return input.hasNext();
+    if (!input.isBatchSupported()) {
+      return input.hasNext();
+    }
+    if (batch == null || batchIndex >= batch.size()) {
+      batch = nextBatch(ColumnBatch.DEFAULT_BATCH_SIZE);
+      batchIndex = 0;
+    }
+    return batchIndex < batch.size();
   }
 
   @Override
   public ExprValue next() {
-    ExprValue inputValue = input.next();
-    ImmutableMap.Builder<String, ExprValue> mapBuilder = new Builder<>();
+    if (input.isBatchSupported()) {
+      return batch.row(batchIndex++);
+    }
+    BindingTuple bindingTuple = input.next().bindingTuples();
+    LinkedHashMap<String, ExprValue> valueMap =
+        Maps.newLinkedHashMapWithExpectedSize(projectList.size());
+    for (NamedExpression expr : projectList) {
+      if (valueMap.put(expr.getName(), expr.valueOf(bindingTuple)) != null) {
+        throw duplicateName(expr.getName());
+      }
+    }
+    return new ExprTupleValue(valueMap);
+  }
+
+  @Override
+  public boolean isBatchSupported() {
+    return true;
+  }
+
+  @Override
+  public ColumnBatch nextBatch(int maxSize) {
+    ColumnBatch inputBatch = input.nextBatch(maxSize);
+    LinkedHashMap<String, ExprValue[]> columns = new LinkedHashMap<>();
     for (NamedExpression expr : projectList) {
-      ExprValue exprValue = expr.valueOf(inputValue.bindingTuples());
-      mapBuilder.put(expr.getName(), exprValue);
+      if (columns.put(expr.getName(), inputBatch.evaluate(expr)) != null) {
+        throw duplicateName(expr.getName());
+      }
     }
-    return ExprTupleValue.fromExprValueMap(mapBuilder.build());
+    return new ColumnBatch(columns, inputBatch.size());
   }
 
   @Override
@@ -73,4 +113,9 @@ public class ProjectOperator extends PhysicalPlan {
         .map(expr -> new ExecutionEngine.Schema.Column(expr.getName(),
             expr.getAlias(), expr.type())).collect(Collectors.toList()));
   }
+
+  private static IllegalArgumentException duplicateName(String name) {
+    return new IllegalArgumentException(
+        String.format("Multiple entries with same key: %s", name));
+  }
 }
@@ -22,9 +22,9 @@ import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMap.Builder;
+import com.google.common.collect.Maps;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -84,17 +84,35 @@ public class RenameOperator extends PhysicalPlan {
     ExprValue inputValue = input.next();
     if (STRUCT == inputValue.type()) {
       Map<String, ExprValue> tupleValue = ExprValueUtils.getTupleValue(inputValue);
-      ImmutableMap.Builder<String, ExprValue> mapBuilder = new Builder<>();
-      for (String bindName : tupleValue.keySet()) {
-        if (nameMapping.containsKey(bindName)) {
-          mapBuilder.put(nameMapping.get(bindName).getAttr(), tupleValue.get(bindName));
-        } else {
-          mapBuilder.put(bindName, tupleValue.get(bindName));
+      LinkedHashMap<String, ExprValue> valueMap =
+          Maps.newLinkedHashMapWithExpectedSize(tupleValue.size());
+      for (Map.Entry<String, ExprValue> field : tupleValue.entrySet()) {
+        ReferenceExpression target = nameMapping.get(field.getKey());
+        String name = (target == null) ? field.getKey() : target.getAttr();
+        if (valueMap.put(name, field.getValue()) != null) {
+          throw new IllegalArgumentException(
+              String.format("Multiple entries with same key: %s", name));
         }
       }
-      return ExprTupleValue.fromExprValueMap(mapBuilder.build());
+      return new ExprTupleValue(valueMap);
     } else {
       return inputValue;
     }
   }
+
+  @Override
+  public boolean isBatchSupported() {
+    return true;
+  }
+
+  /**
+   * Rename is only a change of column names in batch, so no column value is copied.
+   */
+  @Override
+  public ColumnBatch nextBatch(int maxSize) {
+    ColumnBatch batch = input.nextBatch(maxSize);
+    batch.renameColumns(nameMapping.entrySet().stream()
+        .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getAttr())));
+    return batch;
+  }
 }
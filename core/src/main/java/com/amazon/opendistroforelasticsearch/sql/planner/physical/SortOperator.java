@@ -22,8 +22,15 @@ import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.utils.ExprValueOrdering;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator.Sorter.SorterBuilder;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.PeekingIterator;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
@@ -32,6 +39,7 @@ import java.util.PriorityQueue;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.Singular;
 import lombok.ToString;
 import org.apache.commons.lang3.tuple.Pair;
@@ -40,6 +48,16 @@ import org.apache.commons.lang3.tuple.Pair;
  * Sort Operator. The input data is sorted by the sort fields in the {@link SortOperator#sortList}.
  * The sort field is specified by the {@link Expression} with {@link SortOption}. The count indicate
  * how many sorted result should been return.
+ *
+ * <p>If the count is greater than {@link SortOperator#maxRowsInMemory}, the input is sorted in runs
+ * of at most that many rows. Each full run is spilled to a temporary file in
+ * {@link SortOperator#spillDirectory} and all runs are k-way merged on read, so memory usage is
+ * bounded regardless of the count. At most {@link SortOperator#MAX_MERGE_FAN_IN} runs are merged
+ * at the same time. If there are more, runs are merged into longer runs on disk first, so the
+ * number of files open is bounded as well.
+ *
+ * <p>The estimated size of each row kept in memory is reserved from
+ * {@link SortOperator#memoryTracker} and released once the row is evicted or spilled.
  */
 @ToString
 @EqualsAndHashCode
@@ -50,13 +68,38 @@ public class SortOperator extends PhysicalPlan {
   private final Integer count;
   @Getter
   private final List<Pair<SortOption, Expression>> sortList;
+  @Getter
+  private final int maxRowsInMemory;
+  @Getter
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final MemoryTracker memoryTracker;
+  @Getter
+  private final Path spillDirectory;
   @EqualsAndHashCode.Exclude
   private final Sorter sorter;
   @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final Comparator<SortRow> sortRowOrder;
+  @EqualsAndHashCode.Exclude
   private Iterator<ExprValue> iterator;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final List<SpilledRun> spilledRuns = new ArrayList<>();
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private long spilledBytes = 0L;
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private long reservedBytes = 0L;
 
   /**
-   * Sort Operator Constructor.
+   * Maximum number of runs merged at the same time.
+   */
+  static final int MAX_MERGE_FAN_IN = 64;
+
+  /**
+   * Sort Operator Constructor without spilling to disk.
    * @param input input {@link PhysicalPlan}
    * @param count how many sorted result should been return
    * @param sortList list of sort sort field.
@@ -64,9 +107,56 @@ public class SortOperator extends PhysicalPlan {
    */
   public SortOperator(
       PhysicalPlan input, Integer count, List<Pair<SortOption, Expression>> sortList) {
+    this(input, count, sortList, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Sort Operator Constructor.
+   * @param input input {@link PhysicalPlan}
+   * @param count how many sorted result should been return
+   * @param sortList list of sort sort field.
+   *                 The sort field is specified by the {@link Expression} with {@link SortOption}
+   * @param maxRowsInMemory maximum number of rows kept in memory before spilling to disk
+   */
+  public SortOperator(PhysicalPlan input, Integer count,
+                      List<Pair<SortOption, Expression>> sortList, int maxRowsInMemory) {
+    this(input, count, sortList, maxRowsInMemory, new MemoryTracker());
+  }
+
+  /**
+   * Sort Operator Constructor.
+   * @param input input {@link PhysicalPlan}
+   * @param count how many sorted result should been return
+   * @param sortList list of sort sort field.
+   *                 The sort field is specified by the {@link Expression} with {@link SortOption}
+   * @param maxRowsInMemory maximum number of rows kept in memory before spilling to disk
+   * @param memoryTracker memory tracker of the query
+   */
+  public SortOperator(PhysicalPlan input, Integer count,
+                      List<Pair<SortOption, Expression>> sortList, int maxRowsInMemory,
+                      MemoryTracker memoryTracker) {
+    this(input, count, sortList, maxRowsInMemory, memoryTracker, SpilledRun.DEFAULT_DIRECTORY);
+  }
+
+  /**
+   * Sort Operator Constructor.
+   * @param input input {@link PhysicalPlan}
+   * @param count how many sorted result should been return
+   * @param sortList list of sort sort field.
+   *                 The sort field is specified by the {@link Expression} with {@link SortOption}
+   * @param maxRowsInMemory maximum number of rows kept in memory before spilling to disk
+   * @param memoryTracker memory tracker of the query
+   * @param spillDirectory directory rows are spilled to
+   */
+  public SortOperator(PhysicalPlan input, Integer count,
+                      List<Pair<SortOption, Expression>> sortList, int maxRowsInMemory,
+                      MemoryTracker memoryTracker, Path spillDirectory) {
     this.input = input;
     this.count = count;
     this.sortList = sortList;
+    this.maxRowsInMemory = maxRowsInMemory;
+    this.memoryTracker = memoryTracker;
+    this.spillDirectory = spillDirectory;
     SorterBuilder sorterBuilder = Sorter.builder();
     for (Pair<SortOption, Expression> pair : sortList) {
       SortOption option = pair.getLeft();
@@ -79,6 +169,7 @@ public class SortOperator extends PhysicalPlan {
       sorterBuilder.comparator(Pair.of(pair.getRight(), ordering));
     }
     this.sorter = sorterBuilder.build();
+    this.sortRowOrder = Comparator.comparing(SortRow::getKeys, sorter);
   }
 
   @Override
@@ -89,21 +180,118 @@ public class SortOperator extends PhysicalPlan {
   @Override
   public void open() {
     super.open();
-    PriorityQueue<ExprValue> sorted = new PriorityQueue<>(1, sorter::compare);
+    iterator = (count <= maxRowsInMemory) ? topN() : externalSort();
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    spilledRuns.forEach(SpilledRun::delete);
+    spilledRuns.clear();
+    release(reservedBytes);
+  }
+
+  @Override
+  public long spilledBytes() {
+    return super.spilledBytes() + spilledBytes;
+  }
+
+  @Override
+  public long peakMemoryBytes() {
+    return Math.max(super.peakMemoryBytes(), memoryTracker.getPeakBytes());
+  }
+
+  /**
+   * Keep only the top N rows seen so far in a max-heap whose root is the row to evict next,
+   * so memory is bounded by count rather than input size. Ties are broken by arrival order
+   * to keep the sort stable.
+   */
+  private Iterator<ExprValue> topN() {
+    Comparator<Pair<SortRow, Long>> ordering =
+        Comparator.<Pair<SortRow, Long>, SortRow>comparing(Pair::getLeft, sortRowOrder)
+            .thenComparing(Pair::getRight);
+    PriorityQueue<Pair<SortRow, Long>> topN = new PriorityQueue<>(ordering.reversed());
+    long seq = 0;
     while (input.hasNext()) {
-      sorted.add(input.next());
+      topN.add(Pair.of(reserve(sortRow(input.next())), seq++));
+      if (topN.size() > count) {
+        release(topN.poll().getLeft().estimateBytes());
+      }
     }
-    iterator = Iterators.limit(new Iterator<ExprValue>() {
-      @Override
-      public boolean hasNext() {
-        return !sorted.isEmpty();
+
+    ExprValue[] sorted = new ExprValue[topN.size()];
+    for (int i = sorted.length - 1; i >= 0; i--) {
+      sorted[i] = topN.poll().getLeft().getRow();
+    }
+    return Arrays.asList(sorted).iterator();
+  }
+
+  /**
+   * Sort the input in runs of {@link SortOperator#maxRowsInMemory} rows and spill each full run
+   * to disk. The last run stays in memory. Runs are merged with ties broken by run order, which is
+   * the arrival order, to keep the sort stable. Consecutive runs are merged on disk in passes until
+   * all spilled runs and the last run can be merged at the same time.
+   */
+  private Iterator<ExprValue> externalSort() {
+    List<SortRow> buffer = new ArrayList<>();
+    while (input.hasNext()) {
+      buffer.add(reserve(sortRow(input.next())));
+      if (buffer.size() >= maxRowsInMemory) {
+        buffer.sort(sortRowOrder);
+        spill(Iterators.transform(buffer.iterator(), SortRow::getRow));
+        buffer.clear();
+        release(reservedBytes);
       }
+    }
+    buffer.sort(sortRowOrder);
 
-      @Override
-      public ExprValue next() {
-        return sorted.poll();
+    while (spilledRuns.size() >= MAX_MERGE_FAN_IN) {
+      List<List<SpilledRun>> groups = new ArrayList<>(
+          Lists.partition(new ArrayList<>(spilledRuns), MAX_MERGE_FAN_IN));
+      spilledRuns.clear();
+      for (List<SpilledRun> group : groups) {
+        if (group.size() == 1) {
+          spilledRuns.add(group.get(0));
+        } else {
+          // Rows after the first count rows of any runs can never be returned
+          spill(Iterators.limit(merge(group, Collections.emptyIterator()), count));
+          group.forEach(SpilledRun::delete);
+        }
       }
-    }, count);
+    }
+    return Iterators.limit(merge(spilledRuns, buffer.iterator()), count);
+  }
+
+  private void spill(Iterator<ExprValue> rows) {
+    SpilledRun run = SpilledRun.write(spillDirectory, rows);
+    spilledRuns.add(run);
+    spilledBytes += run.getBytes();
+  }
+
+  /**
+   * Merge spilled runs and then the run in memory in order.
+   */
+  private Iterator<ExprValue> merge(List<SpilledRun> runs, Iterator<SortRow> lastRun) {
+    List<Iterator<SortRow>> iterators = new ArrayList<>();
+    runs.forEach(run -> iterators.add(Iterators.transform(run.read(), this::sortRow)));
+    iterators.add(lastRun);
+    return new MergeIterator(iterators);
+  }
+
+  private SortRow sortRow(ExprValue row) {
+    return new SortRow(row, sorter.keysOf(row));
+  }
+
+  private SortRow reserve(SortRow sortRow) {
+    long bytes = sortRow.estimateBytes();
+    memoryTracker.reserve(bytes, "sort");
+    reservedBytes += bytes;
+    return sortRow;
+  }
+
+  private void release(long bytes) {
+    memoryTracker.release(bytes);
+    reservedBytes -= bytes;
   }
 
   @Override
@@ -121,20 +309,34 @@ public class SortOperator extends PhysicalPlan {
     return iterator.next();
   }
 
+  /**
+   * Sorter that compares sort keys of rows. The sort expressions are evaluated once per row by
+   * {@link Sorter#keysOf(ExprValue)} instead of on both operands in every comparison.
+   */
   @Builder
-  public static class Sorter implements Comparator<ExprValue> {
+  public static class Sorter implements Comparator<ExprValue[]> {
     @Singular
     private final List<Pair<Expression, Comparator<ExprValue>>> comparators;
 
+    /**
+     * Evaluate all sort expressions on the given row.
+     *
+     * @param row input row
+     * @return sort key values in the order of sort list
+     */
+    public ExprValue[] keysOf(ExprValue row) {
+      BindingTuple bindingTuple = row.bindingTuples();
+      ExprValue[] keys = new ExprValue[comparators.size()];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = comparators.get(i).getKey().valueOf(bindingTuple);
+      }
+      return keys;
+    }
+
     @Override
-    public int compare(ExprValue o1, ExprValue o2) {
-      for (Pair<Expression, Comparator<ExprValue>> comparator : comparators) {
-        Expression expression = comparator.getKey();
-        int result =
-            comparator
-                .getValue()
-                .compare(
-                    expression.valueOf(o1.bindingTuples()), expression.valueOf(o2.bindingTuples()));
+    public int compare(ExprValue[] keys1, ExprValue[] keys2) {
+      for (int i = 0; i < keys1.length; i++) {
+        int result = comparators.get(i).getValue().compare(keys1[i], keys2[i]);
         if (result != 0) {
           return result;
         }
@@ -142,4 +344,54 @@ public class SortOperator extends PhysicalPlan {
       return 0;
     }
   }
+
+  /**
+   * Row with its sort keys materialized.
+   */
+  @Getter
+  @RequiredArgsConstructor
+  private static class SortRow {
+    private final ExprValue row;
+    private final ExprValue[] keys;
+
+    /**
+     * Estimate the heap size of the row together with its sort keys.
+     */
+    long estimateBytes() {
+      return MemoryTracker.estimateBytes(row) + MemoryTracker.estimateBytes(keys);
+    }
+  }
+
+  /**
+   * Merge sorted runs by always taking the smallest head among all runs.
+   */
+  private class MergeIterator implements Iterator<ExprValue> {
+    private final PriorityQueue<Pair<PeekingIterator<SortRow>, Integer>> heads;
+
+    MergeIterator(List<Iterator<SortRow>> runs) {
+      heads = new PriorityQueue<>(
+          Comparator.<Pair<PeekingIterator<SortRow>, Integer>, SortRow>comparing(
+              head -> head.getLeft().peek(), sortRowOrder).thenComparing(Pair::getRight));
+      for (int i = 0; i < runs.size(); i++) {
+        if (runs.get(i).hasNext()) {
+          heads.add(Pair.of(Iterators.peekingIterator(runs.get(i)), i));
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public ExprValue next() {
+      Pair<PeekingIterator<SortRow>, Integer> head = heads.poll();
+      ExprValue value = head.getLeft().next().getRow();
+      if (head.getLeft().hasNext()) {
+        heads.add(head);
+      }
+      return value;
+    }
+  }
 }
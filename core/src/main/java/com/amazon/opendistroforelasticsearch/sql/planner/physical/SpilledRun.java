@@ -0,0 +1,188 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.io.CountingOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import lombok.Getter;
+
+/**
+ * Run of rows spilled to a temporary file by operator under memory pressure. Rows are appended
+ * one at a time and read back in the same order. The file is created in the spill directory on
+ * first row.
+ */
+class SpilledRun {
+
+  /**
+   * Default spill directory which is the node temporary directory when running inside
+   * Elasticsearch.
+   */
+  static final Path DEFAULT_DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"));
+
+  /**
+   * Directory the file is created in.
+   */
+  private final Path directory;
+
+  private Path file;
+
+  /**
+   * Number of rows in the run.
+   */
+  @Getter
+  private int size;
+
+  private CountingOutputStream counter;
+  private ObjectOutputStream writer;
+  private ObjectInputStream reader;
+
+  /**
+   * Construct an empty run whose file will be created in the directory given.
+   */
+  SpilledRun(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * Construct a run on an existing file containing the given number of rows.
+   */
+  @VisibleForTesting
+  SpilledRun(Path file, int size) {
+    this.directory = file.getParent();
+    this.file = file;
+    this.size = size;
+  }
+
+  /**
+   * Create a run with the rows written in order.
+   *
+   * @param directory directory the file is created in
+   * @param rows      rows
+   * @return spilled run
+   */
+  static SpilledRun write(Path directory, Iterator<ExprValue> rows) {
+    SpilledRun run = new SpilledRun(directory);
+    rows.forEachRemaining(run::add);
+    return run;
+  }
+
+  /**
+   * Append the row to the run.
+   *
+   * @param row row value
+   */
+  void add(ExprValue row) {
+    try {
+      if (writer == null) {
+        Files.createDirectories(directory);
+        file = Files.createTempFile(directory, "spill-run-", ".tmp");
+        counter = new CountingOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(file)));
+        writer = new ObjectOutputStream(counter);
+      }
+      writer.writeObject(row);
+      // Drop back references so rows written can be garbage collected
+      writer.reset();
+      size++;
+    } catch (IOException e) {
+      delete();
+      throw new IllegalStateException("failed to spill rows to disk", e);
+    }
+  }
+
+  /**
+   * Number of bytes written to disk.
+   */
+  long getBytes() {
+    return (counter == null) ? 0L : counter.getCount();
+  }
+
+  /**
+   * Finish writing and read the rows back in order. The file is read lazily one row at a time.
+   *
+   * @return row iterator
+   */
+  Iterator<ExprValue> read() {
+    if (size == 0) {
+      return Collections.emptyIterator();
+    }
+    try {
+      if (writer != null) {
+        writer.close();
+        writer = null;
+      }
+      reader = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file)));
+    } catch (IOException e) {
+      throw new IllegalStateException("failed to read spilled rows from disk", e);
+    }
+    return new Iterator<ExprValue>() {
+      private int remaining = size;
+
+      @Override
+      public boolean hasNext() {
+        return remaining > 0;
+      }
+
+      @Override
+      public ExprValue next() {
+        if (remaining <= 0) {
+          throw new NoSuchElementException();
+        }
+        remaining--;
+        try {
+          return (ExprValue) reader.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+          throw new IllegalStateException("failed to read spilled rows from disk", e);
+        }
+      }
+    };
+  }
+
+  /**
+   * Close the writer and reader if any and delete the file.
+   */
+  void delete() {
+    closeQuietly(writer);
+    closeQuietly(reader);
+    if (file != null) {
+      file.toFile().delete();
+    }
+  }
+
+  @VisibleForTesting
+  static void closeQuietly(Closeable closeable) {
+    try {
+      if (closeable != null) {
+        closeable.close();
+      }
+    } catch (IOException e) {
+      // The temporary file is deleted anyway
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.utils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+/**
+ * Compiled wildcard pattern of LIKE operator. Percent (%) matches any sequence of characters and
+ * underscore (_) matches a single character, both can be escaped by backslash.
+ *
+ * <p>Pattern consists of a literal with optional percent at either end, e.g. "abc", "abc%",
+ * "%abc" and "%abc%", is matched by string comparison. Any other pattern is matched by regex.
+ */
+@EqualsAndHashCode(of = "pattern")
+@ToString(of = "pattern")
+public class LikePattern implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final char ESCAPE = '\\';
+
+  private static final char ANY_SEQUENCE = '%';
+
+  private static final char ANY_CHARACTER = '_';
+
+  /**
+   * Patterns compiled for the pattern values not known until evaluation.
+   */
+  private static final Cache<String, LikePattern> CACHE =
+      CacheBuilder.newBuilder().maximumSize(1000).build();
+
+  private final String pattern;
+
+  private final transient Predicate<String> matcher;
+
+  private LikePattern(String pattern) {
+    this.pattern = pattern;
+    this.matcher = compileMatcher(pattern);
+  }
+
+  /**
+   * Compile the pattern.
+   *
+   * @param pattern LIKE pattern
+   * @return compiled pattern
+   */
+  public static LikePattern compile(String pattern) {
+    return new LikePattern(pattern);
+  }
+
+  /**
+   * Get the compiled pattern from cache or compile it if absent.
+   *
+   * @param pattern LIKE pattern
+   * @return compiled pattern
+   */
+  public static LikePattern cached(String pattern) {
+    return CACHE.asMap().computeIfAbsent(pattern, LikePattern::compile);
+  }
+
+  public boolean matches(String text) {
+    return matcher.test(text);
+  }
+
+  /**
+   * The matcher is not serializable, compile again when deserialized.
+   */
+  private Object readResolve() {
+    return compile(pattern);
+  }
+
+  private static Predicate<String> compileMatcher(String pattern) {
+    List<Object> tokens = tokenize(pattern);
+    if (tokens.contains(ANY_CHARACTER)) {
+      return regexMatcher(tokens);
+    }
+
+    boolean leading = !tokens.isEmpty() && tokens.get(0).equals(ANY_SEQUENCE);
+    boolean trailing = tokens.size() > 1 && tokens.get(tokens.size() - 1).equals(ANY_SEQUENCE);
+    List<Object> literals = tokens.subList(leading ? 1 : 0,
+        trailing ? tokens.size() - 1 : tokens.size());
+    if (literals.size() > 1) {
+      return regexMatcher(tokens);
+    }
+
+    String literal = literals.isEmpty() ? "" : (String) literals.get(0);
+    if (leading && trailing) {
+      return text -> text.contains(literal);
+    } else if (leading) {
+      return text -> text.endsWith(literal);
+    } else if (trailing) {
+      return text -> text.startsWith(literal);
+    } else {
+      return literal::equals;
+    }
+  }
+
+  /**
+   * Split the pattern into literal strings and unescaped wildcard characters. Consecutive
+   * percents are merged into one since they're equivalent.
+   */
+  private static List<Object> tokenize(String pattern) {
+    List<Object> tokens = new ArrayList<>();
+    StringBuilder literal = new StringBuilder();
+    boolean escaped = false;
+    for (char currentChar : pattern.toCharArray()) {
+      if (!escaped && currentChar == ESCAPE) {
+        escaped = true;
+      } else if (!escaped && (currentChar == ANY_SEQUENCE || currentChar == ANY_CHARACTER)) {
+        if (literal.length() > 0) {
+          tokens.add(literal.toString());
+          literal.setLength(0);
+        }
+        if (currentChar == ANY_CHARACTER || tokens.isEmpty()
+            || !tokens.get(tokens.size() - 1).equals(ANY_SEQUENCE)) {
+          tokens.add(currentChar);
+        }
+      } else {
+        literal.append(currentChar);
+        escaped = false;
+      }
+    }
+    if (literal.length() > 0) {
+      tokens.add(literal.toString());
+    }
+    return tokens;
+  }
+
+  private static Predicate<String> regexMatcher(List<Object> tokens) {
+    StringBuilder regex = new StringBuilder();
+    for (Object token : tokens) {
+      if (token.equals(ANY_SEQUENCE)) {
+        regex.append(".*");
+      } else if (token.equals(ANY_CHARACTER)) {
+        regex.append('.');
+      } else {
+        regex.append(Pattern.quote((String) token));
+      }
+    }
+    Pattern compiled = Pattern.compile(regex.toString(), Pattern.DOTALL);
+    return text -> compiled.matcher(text).matches();
+  }
+}
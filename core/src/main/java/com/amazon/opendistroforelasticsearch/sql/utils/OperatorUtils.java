@@ -17,7 +17,6 @@ package com.amazon.opendistroforelasticsearch.sql.utils;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
-import java.util.regex.Pattern;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -30,62 +29,7 @@ public class OperatorUtils {
    * @return if text matches pattern returns true; else return false.
    */
   public static ExprBooleanValue matches(ExprValue text, ExprValue pattern) {
-    return ExprBooleanValue
-        .of(Pattern.compile(patternToRegex(pattern.stringValue())).matcher(text.stringValue())
-            .matches());
-  }
-
-  private static final char DEFAULT_ESCAPE = '\\';
-
-  private static String patternToRegex(String patternString) {
-    StringBuilder regex = new StringBuilder(patternString.length() * 2);
-    regex.append('^');
-    boolean escaped = false;
-    for (char currentChar : patternString.toCharArray()) {
-      if (!escaped && currentChar == DEFAULT_ESCAPE) {
-        escaped = true;
-      } else {
-        switch (currentChar) {
-          case '%':
-            if (escaped) {
-              regex.append("%");
-            } else {
-              regex.append(".*");
-            }
-            escaped = false;
-            break;
-          case '_':
-            if (escaped) {
-              regex.append("_");
-            } else {
-              regex.append('.');
-            }
-            escaped = false;
-            break;
-          default:
-            switch (currentChar) {
-              case '\\':
-              case '^':
-              case '$':
-              case '.':
-              case '*':
-              case '[':
-              case ']':
-              case '(':
-              case ')':
-              case '|':
-              case '+':
-                regex.append('\\');
-                break;
-              default:
-            }
-
-            regex.append(currentChar);
-            escaped = false;
-        }
-      }
-    }
-    regex.append('$');
-    return regex.toString();
+    return ExprBooleanValue.of(
+        LikePattern.cached(pattern.stringValue()).matches(text.stringValue()));
   }
 }
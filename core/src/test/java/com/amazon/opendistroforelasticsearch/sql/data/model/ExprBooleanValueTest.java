@@ -17,6 +17,7 @@ package com.amazon.opendistroforelasticsearch.sql.data.model;
 
 import static com.amazon.opendistroforelasticsearch.sql.utils.ComparisonUtil.compare;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
@@ -31,4 +32,11 @@ public class ExprBooleanValueTest {
         () -> compare(booleanValue, booleanValue));
     assertEquals("ExprBooleanValue instances are not comparable", exception.getMessage());
   }
+
+  @Test
+  public void hashCodeTest() {
+    assertEquals(ExprBooleanValue.of(true).hashCode(),
+        ExprValueUtils.booleanValue(true).hashCode());
+    assertNotEquals(ExprBooleanValue.of(true).hashCode(), ExprBooleanValue.of(false).hashCode());
+  }
 }
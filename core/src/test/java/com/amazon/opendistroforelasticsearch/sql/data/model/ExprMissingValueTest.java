@@ -64,4 +64,9 @@ class ExprMissingValueTest {
         () -> compare(LITERAL_MISSING, LITERAL_MISSING));
     assertEquals("invalid to call compare operation on missing value", exception.getMessage());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void hashCodeTest() {
+    assertEquals(ExprMissingValue.of().hashCode(), LITERAL_MISSING.hashCode());
+  }
+}
@@ -16,10 +16,12 @@
 package com.amazon.opendistroforelasticsearch.sql.data.model;
 
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_FALSE;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
 import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_NULL;
 import static com.amazon.opendistroforelasticsearch.sql.utils.ComparisonUtil.compare;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -63,4 +65,10 @@ public class ExprNullValueTest {
         () -> compare(LITERAL_NULL, LITERAL_NULL));
     assertEquals("invalid to call compare operation on null value", exception.getMessage());
   }
+
+  @Test
+  public void hashCodeTest() {
+    assertEquals(ExprNullValue.of().hashCode(), LITERAL_NULL.hashCode());
+    assertNotEquals(LITERAL_MISSING.hashCode(), LITERAL_NULL.hashCode());
+  }
 }
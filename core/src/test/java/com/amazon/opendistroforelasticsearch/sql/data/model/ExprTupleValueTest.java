@@ -15,18 +15,29 @@
 
 package com.amazon.opendistroforelasticsearch.sql.data.model;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.utils.ComparisonUtil.compare;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.amazon.opendistroforelasticsearch.sql.exception.ExpressionEvaluationException;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.google.common.collect.ImmutableMap;
 import org.junit.jupiter.api.Test;
 
 class ExprTupleValueTest {
+  @Test
+  public void binding_tuple_created_once() {
+    ExprValue tupleValue = ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", 2));
+    assertSame(tupleValue.bindingTuples(), tupleValue.bindingTuples());
+    assertEquals(ExprValueUtils.integerValue(2),
+        tupleValue.bindingTuples().resolve(DSL.ref("integer_value", INTEGER)));
+  }
+
   @Test
   public void equal_to_itself() {
     ExprValue tupleValue = ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", 2));
@@ -29,6 +29,8 @@ class NullsFirstExprValueOrderingTest {
     ExprValueOrdering ordering = ExprValueOrdering.natural().nullsFirst().nullsFirst();
     assertEquals(1, ordering.compare(integerValue(5), LITERAL_NULL));
     assertEquals(1, ordering.compare(integerValue(5), LITERAL_MISSING));
+    assertEquals(-1, ordering.compare(LITERAL_NULL, integerValue(5)));
+    assertEquals(-1, ordering.compare(LITERAL_MISSING, integerValue(5)));
   }
 
   @Test
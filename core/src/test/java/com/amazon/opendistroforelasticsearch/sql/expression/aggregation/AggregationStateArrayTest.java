@@ -0,0 +1,75 @@
+/*
+ *   Copyright 2019 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.expression.aggregation;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+
+class AggregationStateArrayTest extends AggregationTest {
+
+  @Test
+  public void default_state_array_keeps_state_of_each_group() {
+    Aggregator<CountState> aggregator = new Aggregator<CountState>(
+        FunctionName.of("test"), Collections.emptyList(), INTEGER) {
+      @Override
+      public CountState create() {
+        return new CountState();
+      }
+
+      @Override
+      public CountState iterate(BindingTuple tuple, CountState state) {
+        state.count++;
+        return state;
+      }
+    };
+    assertEquals(ExprValueUtils.integerValue(4), aggregation(aggregator, tuples));
+  }
+
+  @Test
+  public void grow_state_array_for_many_groups() {
+    AggregationStateArray stateArray = dsl.count(DSL.ref("integer_value", INTEGER))
+        .createStateArray();
+    int groups = AggregationStateArray.INITIAL_CAPACITY * 4 + 1;
+    for (int i = 0; i < groups; i++) {
+      assertEquals(i, stateArray.addGroup());
+    }
+    for (int i = 0; i < groups; i++) {
+      for (int j = 0; j < i; j++) {
+        stateArray.iterate(tuples.get(0).bindingTuples(), i);
+      }
+    }
+    for (int i = 0; i < groups; i++) {
+      assertEquals(ExprValueUtils.integerValue(i), stateArray.result(i));
+    }
+  }
+
+  private static class CountState implements AggregationState {
+    private int count;
+
+    @Override
+    public ExprValue result() {
+      return ExprValueUtils.integerValue(count);
+    }
+  }
+}
@@ -15,6 +15,8 @@
 
 package com.amazon.opendistroforelasticsearch.sql.expression.aggregation;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionTestBase;
@@ -84,11 +86,21 @@ public class AggregationTest extends ExpressionTestBase {
               ImmutableMap.of("integer_value", 1, "string_value", "f", "double_value", 4d)),
           ExprValueUtils.tupleValue(Collections.singletonMap("double_value", null)));
 
+  /**
+   * Aggregate the tuples by both {@link AggregationState} and {@link AggregationStateArray}. The
+   * tuples are aggregated into the second group of the state array to verify that groups don't
+   * interfere with each other.
+   */
   protected ExprValue aggregation(Aggregator aggregator, List<ExprValue> tuples) {
     AggregationState state = aggregator.create();
+    AggregationStateArray stateArray = aggregator.createStateArray();
+    stateArray.addGroup();
+    int groupId = stateArray.addGroup();
     for (ExprValue tuple : tuples) {
       aggregator.iterate(tuple.bindingTuples(), state);
+      stateArray.iterate(tuple.bindingTuples(), groupId);
     }
+    assertEquals(state.result(), stateArray.result(groupId));
     return state.result();
   }
 }
@@ -32,6 +32,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.SumAggregator.SumState;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 
 class SumAggregatorTest extends AggregationTest {
@@ -60,6 +61,14 @@ class SumAggregatorTest extends AggregationTest {
     assertEquals(10d, result.value());
   }
 
+  @Test
+  public void sum_integer_overflow_as_integer_addition() {
+    ExprValue result = aggregation(dsl.sum(DSL.ref("integer_value", INTEGER)), Arrays.asList(
+        ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", Integer.MAX_VALUE)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("integer_value", 1))));
+    assertEquals(Integer.MIN_VALUE, result.value());
+  }
+
   @Test
   public void sum_arithmetic_expression() {
     ExprValue result = aggregation(dsl.sum(
@@ -80,6 +89,14 @@ class SumAggregatorTest extends AggregationTest {
                 sumState)
     );
     assertEquals("unexpected type [STRING] in sum aggregation", exception.getMessage());
+
+    AggregationStateArray stateArray = sumAggregator.createStateArray();
+    int groupId = stateArray.addGroup();
+    exception = assertThrows(ExpressionEvaluationException.class,
+        () -> stateArray.iterate(
+            ExprValueUtils.tupleValue(ImmutableMap.of("string_value", "m")).bindingTuples(),
+            groupId));
+    assertEquals("unexpected type [STRING] in sum aggregation", exception.getMessage());
   }
 
   @Test
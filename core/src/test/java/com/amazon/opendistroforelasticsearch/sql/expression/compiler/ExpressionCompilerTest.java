@@ -0,0 +1,259 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.expression.compiler;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.booleanValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.missingValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.nullValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionTestBase;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ExpressionCompilerTest extends ExpressionTestBase {
+
+  private static final Map<ExprType, List<ExprValue>> VALUES =
+      new ImmutableMap.Builder<ExprType, List<ExprValue>>()
+          .put(INTEGER, Arrays.asList(integerValue(0), integerValue(7), integerValue(-3),
+              integerValue(Integer.MAX_VALUE), nullValue(), missingValue()))
+          .put(LONG, Arrays.asList(longValue(0L), longValue(5L), longValue(-2L),
+              longValue(Long.MIN_VALUE), nullValue(), missingValue()))
+          .put(DOUBLE, Arrays.asList(doubleValue(0D), doubleValue(-0D), doubleValue(1.5D),
+              doubleValue(Double.NaN), nullValue(), missingValue()))
+          .put(BOOLEAN, Arrays.asList(booleanValue(true), booleanValue(false), nullValue(),
+              missingValue()))
+          .build();
+
+  @Test
+  void arithmetic_is_same_as_interpreted() {
+    List<BiFunction<Expression, Expression, FunctionExpression>> operators = Arrays.asList(
+        dsl::add, dsl::subtract, dsl::multiply, dsl::divide, dsl::module);
+    for (ExprType type : Arrays.asList(INTEGER, LONG, DOUBLE)) {
+      operators.forEach(operator -> assertBinarySameAsInterpreted(type, operator));
+    }
+  }
+
+  @Test
+  void comparison_is_same_as_interpreted() {
+    List<BiFunction<Expression, Expression, FunctionExpression>> operators = Arrays.asList(
+        dsl::equal, dsl::notequal, dsl::less, dsl::lte, dsl::greater, dsl::gte);
+    for (ExprType type : Arrays.asList(INTEGER, LONG, DOUBLE, BOOLEAN)) {
+      operators.forEach(operator -> assertBinarySameAsInterpreted(type, operator));
+    }
+  }
+
+  @Test
+  void logical_operator_is_same_as_interpreted() {
+    List<BiFunction<Expression, Expression, FunctionExpression>> operators = Arrays.asList(
+        dsl::and, dsl::or, dsl::xor);
+    operators.forEach(operator -> assertBinarySameAsInterpreted(BOOLEAN, operator));
+
+    for (ExprValue value : VALUES.get(BOOLEAN)) {
+      assertSameAsInterpreted(dsl.not(DSL.ref("a", BOOLEAN)), env(value, value));
+    }
+  }
+
+  @Test
+  void nested_expression_is_same_as_interpreted() {
+    ReferenceExpression intRef = DSL.ref("a", INTEGER);
+    ReferenceExpression longRef = DSL.ref("b", LONG);
+    Expression expression = dsl.or(
+        dsl.not(dsl.greater(dsl.add(intRef, longRef), DSL.literal(3L))),
+        dsl.and(
+            dsl.equal(dsl.abs(intRef), DSL.literal(3)),
+            dsl.lte(dsl.divide(DSL.literal(10D), dsl.multiply(longRef, DSL.literal(2D))),
+                DSL.literal(2.5D))));
+
+    for (ExprValue left : VALUES.get(INTEGER)) {
+      for (ExprValue right : VALUES.get(LONG)) {
+        assertSameAsInterpreted(expression, env(left, right));
+      }
+    }
+  }
+
+  @Test
+  void operand_is_widened_to_type_of_arithmetic() {
+    Expression intSum = dsl.add(DSL.ref("a", INTEGER), DSL.literal(1));
+    Expression longSum = dsl.add(DSL.ref("b", LONG), DSL.literal(1L));
+    List<Expression> expressions = Arrays.asList(
+        dsl.multiply(intSum, DSL.literal(2L)),
+        dsl.multiply(intSum, DSL.literal(2D)),
+        dsl.multiply(longSum, DSL.literal(2D)));
+
+    for (ExprValue left : VALUES.get(INTEGER)) {
+      for (ExprValue right : VALUES.get(LONG)) {
+        expressions.forEach(expr -> assertSameAsInterpreted(expr, env(left, right)));
+      }
+    }
+  }
+
+  @Test
+  void not_specialized_expression_is_evaluated_by_original_expression() {
+    Environment<Expression, ExprValue> env = env(integerValue(-3), booleanValue(true));
+    assertSameAsInterpreted(dsl.abs(DSL.ref("a", INTEGER)), env);
+    assertSameAsInterpreted(DSL.ref("b", BOOLEAN), env);
+    assertSameAsInterpreted(dsl.equal(DSL.literal("a"), DSL.literal("a")), env);
+    assertSameAsInterpreted(dsl.add(DSL.literal(1F), DSL.literal(2F)), env);
+    assertSameAsInterpreted(dsl.less(DSL.ref("a", INTEGER), DSL.literal(1L)), env);
+    assertSameAsInterpreted(dsl.isnull(DSL.ref("a", INTEGER)), env);
+    assertSameAsInterpreted(dsl.pow(DSL.ref("a", INTEGER), DSL.literal(2)), env);
+    assertSameAsInterpreted(dsl.pi(), env);
+  }
+
+  @Test
+  void logical_operands_are_evaluated_in_order_of_cost_with_short_circuit() {
+    Expression expensive = dsl.like(DSL.ref("undefined", STRING), DSL.literal("%a%"));
+    Expression cheap = dsl.equal(DSL.ref("a", INTEGER), DSL.literal(1));
+    Environment<Expression, ExprValue> env = expr -> {
+      if (((ReferenceExpression) expr).getAttr().equals("a")) {
+        return integerValue(0);
+      }
+      throw new IllegalStateException("expensive operand should not be evaluated");
+    };
+
+    assertFalse(ExpressionCompiler.compile(
+        dsl.and(dsl.and(expensive, DSL.literal(true)), cheap)).isTrue(env));
+    assertTrue(ExpressionCompiler.compile(
+        dsl.or(expensive, dsl.or(dsl.not(cheap), DSL.literal(false)))).isTrue(env));
+    assertThrows(IllegalStateException.class, () -> ExpressionCompiler.compile(
+        dsl.and(expensive, dsl.not(cheap))).isTrue(env));
+    assertThrows(IllegalStateException.class, () -> ExpressionCompiler.compile(
+        dsl.or(expensive, DSL.named("named", cheap))).valueOf(env));
+    assertTrue(CostEstimator.estimate(dsl.avg(DSL.ref("a", INTEGER)))
+        > CostEstimator.estimate(cheap));
+  }
+
+  @Test
+  void other_expression_is_estimated_as_cheap_as_reference() {
+    Expression other = new Expression() {
+      @Override
+      public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
+        return valueEnv.resolve(this);
+      }
+
+      @Override
+      public ExprType type() {
+        return INTEGER;
+      }
+
+      @Override
+      public <T, C> T accept(ExpressionNodeVisitor<T, C> visitor, C context) {
+        return visitor.visitNode(this, context);
+      }
+    };
+    assertEquals(CostEstimator.estimate(DSL.ref("a", INTEGER)), CostEstimator.estimate(other));
+    Expression predicate = dsl.and(dsl.equal(other, DSL.literal(1)), DSL.literal(true));
+    assertTrue(ExpressionCompiler.compile(predicate).isTrue(expr -> integerValue(1)));
+  }
+
+  @Test
+  void evaluation_after_exception_is_not_affected() {
+    CompiledExpression compiled = ExpressionCompiler.compile(
+        dsl.greater(dsl.add(DSL.ref("a", INTEGER), DSL.ref("b", INTEGER)), DSL.literal(0)));
+
+    assertThrows(ArithmeticException.class,
+        () -> compiled.isTrue(env(integerValue(1), integerValue(Integer.MAX_VALUE))));
+    assertTrue(compiled.isTrue(env(integerValue(1), integerValue(1))));
+  }
+
+  @Test
+  void compiled_expression_behaves_as_original_expression() {
+    Expression original = dsl.add(DSL.ref("a", INTEGER), DSL.literal(1));
+    CompiledExpression compiled = ExpressionCompiler.compile(original);
+
+    assertSame(original, compiled.getOriginal());
+    assertEquals(original.type(), compiled.type());
+    assertEquals(original.toString(), compiled.toString());
+    assertEquals(ExpressionCompiler.compile(original), compiled);
+    assertEquals("a", compiled.accept(new ExpressionNodeVisitor<String, Object>() {
+      @Override
+      public String visitFunction(FunctionExpression node, Object context) {
+        return node.getArguments().get(0).toString();
+      }
+    }, null));
+    assertSame(original, ExpressionCompiler.compile(compiled).getOriginal());
+  }
+
+  private void assertBinarySameAsInterpreted(
+      ExprType type, BiFunction<Expression, Expression, FunctionExpression> operator) {
+    FunctionExpression expression = operator.apply(DSL.ref("a", type), DSL.ref("b", type));
+    for (ExprValue left : VALUES.get(type)) {
+      for (ExprValue right : VALUES.get(type)) {
+        assertSameAsInterpreted(expression, env(left, right));
+      }
+    }
+  }
+
+  private void assertSameAsInterpreted(Expression expression,
+                                       Environment<Expression, ExprValue> env) {
+    CompiledExpression compiled = ExpressionCompiler.compile(expression);
+    String message = expression + " on " + env.resolve(DSL.ref("a", INTEGER)) + ", "
+        + env.resolve(DSL.ref("b", INTEGER));
+
+    ExprValue expected;
+    try {
+      expected = expression.valueOf(env);
+    } catch (RuntimeException e) {
+      assertThrows(e.getClass(), () -> compiled.valueOf(env), message);
+      return;
+    }
+
+    ExprValue actual = compiled.valueOf(env);
+    assertEquals(expected, actual, message);
+    assertEquals(expected.getClass(), actual.getClass(), message);
+    if (expression.type() == BOOLEAN) {
+      Function<ExprValue, Boolean> isTrue =
+          value -> !(value.isNull() || value.isMissing()) && value.booleanValue();
+      assertEquals(isTrue.apply(expected), compiled.isTrue(env), message);
+    } else {
+      assertFalse(expected.isNull() && compiled.isTrue(env), message);
+    }
+  }
+
+  private Environment<Expression, ExprValue> env(ExprValue a, ExprValue b) {
+    return expr -> ((ReferenceExpression) expr).getAttr().equals("a") ? a : b;
+  }
+}
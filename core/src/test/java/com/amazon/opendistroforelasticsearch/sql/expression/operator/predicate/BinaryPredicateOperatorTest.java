@@ -35,6 +35,7 @@ import static com.amazon.opendistroforelasticsearch.sql.utils.ComparisonUtil.com
 import static com.amazon.opendistroforelasticsearch.sql.utils.OperatorUtils.matches;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
@@ -342,6 +343,28 @@ class BinaryPredicateOperatorTest extends ExpressionTestBase {
     assertEquals(LITERAL_NULL, xor.valueOf(valueEnv()));
   }
 
+  @Test
+  public void test_and_short_circuit() {
+    FunctionExpression and =
+        dsl.and(DSL.literal(LITERAL_FALSE), DSL.ref("undefined_field", BOOLEAN));
+    assertEquals(LITERAL_FALSE, and.valueOf(valueEnv()));
+
+    FunctionExpression andTrue =
+        dsl.and(DSL.literal(LITERAL_TRUE), DSL.ref("undefined_field", BOOLEAN));
+    assertThrows(IllegalArgumentException.class, () -> andTrue.valueOf(valueEnv()));
+  }
+
+  @Test
+  public void test_or_short_circuit() {
+    FunctionExpression or =
+        dsl.or(DSL.literal(LITERAL_TRUE), DSL.ref("undefined_field", BOOLEAN));
+    assertEquals(LITERAL_TRUE, or.valueOf(valueEnv()));
+
+    FunctionExpression orFalse =
+        dsl.or(DSL.literal(LITERAL_FALSE), DSL.ref("undefined_field", BOOLEAN));
+    assertThrows(IllegalArgumentException.class, () -> orFalse.valueOf(valueEnv()));
+  }
+
   @ParameterizedTest(name = "equal({0}, {1})")
   @MethodSource("testEqualArguments")
   public void test_equal(ExprValue v1, ExprValue v2) {
@@ -740,6 +763,30 @@ class BinaryPredicateOperatorTest extends ExpressionTestBase {
     assertEquals(String.format("\"%s\" not like \"%s\"", "bob", "bo%"), notLike.toString());
   }
 
+  @Test
+  public void test_like_pattern_not_literal() {
+    FunctionExpression like = dsl.like(DSL.literal("str"), DSL.ref("string_value", STRING));
+    assertEquals(LITERAL_TRUE, like.valueOf(valueEnv()));
+
+    FunctionExpression notLike =
+        dsl.notLike(DSL.literal("string"), DSL.ref("string_value", STRING));
+    assertEquals(LITERAL_TRUE, notLike.valueOf(valueEnv()));
+  }
+
+  @Test
+  public void test_like_serialization() throws Exception {
+    Expression expression = dsl.like(DSL.literal("timeout"), DSL.literal("%out"));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    ObjectOutputStream objectOutput = new ObjectOutputStream(output);
+    objectOutput.writeObject(expression);
+    objectOutput.flush();
+
+    ObjectInputStream objectInput =
+        new ObjectInputStream(new ByteArrayInputStream(output.toByteArray()));
+    Expression e = (Expression) objectInput.readObject();
+    assertEquals(LITERAL_TRUE, e.valueOf(valueEnv()));
+  }
+
   /**
    * Todo. remove this test cases after script serilization implemented.
    */
@@ -0,0 +1,93 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.monitor;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.collectionValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.exception.MemoryLimitExceededException;
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import org.junit.jupiter.api.Test;
+
+class MemoryTrackerTest {
+
+  @Test
+  void track_used_and_peak_bytes() {
+    MemoryTracker tracker = new MemoryTracker(100);
+    tracker.reserve(60, "test");
+    tracker.release(50);
+    tracker.reserve(30, "test");
+    assertEquals(40L, tracker.getUsedBytes());
+    assertEquals(60L, tracker.getPeakBytes());
+  }
+
+  @Test
+  void throw_exception_if_limit_exceeded() {
+    MemoryTracker tracker = new MemoryTracker(100);
+    tracker.reserve(60, "test");
+    MemoryLimitExceededException exception =
+        assertThrows(MemoryLimitExceededException.class, () -> tracker.reserve(50, "sort"));
+    assertEquals("sort failed to reserve 50 bytes because query memory usage 60 bytes would "
+        + "exceed the limit 100 bytes", exception.getMessage());
+    assertEquals(60L, tracker.getUsedBytes());
+  }
+
+  @Test
+  void default_resource_monitor_creates_unlimited_tracker() {
+    MemoryTracker tracker = new AlwaysHealthyMonitor().newMemoryTracker();
+    tracker.reserve(Long.MAX_VALUE, "test");
+    assertEquals(Long.MAX_VALUE, tracker.getPeakBytes());
+  }
+
+  @Test
+  void estimate_bytes_of_value() {
+    assertEquals(24L, MemoryTracker.estimateBytes(integerValue(1)));
+    assertEquals(16L + 32L + 2L * 3, MemoryTracker.estimateBytes(stringValue("abc")));
+    assertEquals(16L + 2 * (32L + 24L),
+        MemoryTracker.estimateBytes(collectionValue(Arrays.asList(1, 2))));
+    assertEquals(16L + 32L + (32L + 2L) + 24L,
+        MemoryTracker.estimateBytes(tupleValue(ImmutableMap.of("a", 1))));
+    assertEquals(16L + 2 * (16L + 24L),
+        MemoryTracker.estimateBytes(new ExprValue[] {integerValue(1), integerValue(2)}));
+  }
+
+  @Test
+  void estimate_bytes_of_tuple_from_size_hint() {
+    ExprTupleValue tuple = new ExprTupleValue(new LinkedHashMap<>()) {
+      @Override
+      public OptionalLong sizeHint() {
+        return OptionalLong.of(100L);
+      }
+
+      @Override
+      public Map<String, ExprValue> tupleValue() {
+        throw new IllegalStateException("tuple value should not be walked");
+      }
+    };
+    assertEquals(16L + 100L, MemoryTracker.estimateBytes(tuple));
+  }
+}
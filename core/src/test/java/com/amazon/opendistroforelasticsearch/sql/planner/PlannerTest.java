@@ -17,6 +17,7 @@ package com.amazon.opendistroforelasticsearch.sql.planner;
 
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +25,7 @@ import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalAggregation;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
@@ -31,6 +33,7 @@ import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRename;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.FilterOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
@@ -48,6 +51,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.annotation.Autowired;
 
 @ExtendWith(MockitoExtension.class)
 public class PlannerTest extends PhysicalPlanTestBase {
@@ -57,6 +61,9 @@ public class PlannerTest extends PhysicalPlanTestBase {
   @Mock
   private StorageEngine storageEngine;
 
+  @Autowired
+  private BuiltinFunctionRepository functionRepository;
+
   @BeforeEach
   public void setUp() {
     when(storageEngine.getTable(any())).thenReturn(new MockTable());
@@ -90,6 +97,25 @@ public class PlannerTest extends PhysicalPlanTestBase {
     );
   }
 
+  @Test
+  public void plan_optimized_logical_plan() {
+    assertPhysicalPlan(
+        PhysicalPlanDSL.filter(
+            scan,
+            dsl.and(
+                dsl.equal(DSL.ref("response", INTEGER), DSL.literal(10)),
+                dsl.equal(DSL.ref("action", STRING), DSL.literal("GET")))
+        ),
+        LogicalPlanDSL.filter(
+            LogicalPlanDSL.filter(
+                LogicalPlanDSL.relation("schema"),
+                dsl.equal(DSL.ref("response", INTEGER), DSL.literal(10))
+            ),
+            dsl.equal(DSL.ref("action", STRING), DSL.literal("GET"))
+        )
+    );
+  }
+
   @Test
   public void plan_a_query_without_relation_involved() {
     // Storage engine mock is not needed here since no relation involved.
@@ -116,7 +142,8 @@ public class PlannerTest extends PhysicalPlanTestBase {
   }
 
   protected PhysicalPlan analyze(LogicalPlan logicalPlan) {
-    return new Planner(storageEngine).plan(logicalPlan);
+    return new Planner(storageEngine, LogicalPlanOptimizer.create(functionRepository))
+        .plan(logicalPlan);
   }
 
   protected class MockTable extends LogicalPlanNodeVisitor<PhysicalPlan, Object> implements Table {
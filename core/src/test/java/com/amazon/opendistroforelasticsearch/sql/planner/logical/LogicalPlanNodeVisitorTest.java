@@ -18,6 +18,7 @@ package com.amazon.opendistroforelasticsearch.sql.planner.logical;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.named;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
@@ -25,6 +26,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
@@ -99,6 +101,48 @@ class LogicalPlanNodeVisitorTest {
     }, null));
   }
 
+  @Test
+  public void replaceChildPlansShouldRetainOtherAttributes() {
+    LogicalPlan relation = LogicalPlanDSL.relation("schema");
+    LogicalPlan child = LogicalPlanDSL.relation("other");
+    List<LogicalPlan> newChildren = ImmutableList.of(child);
+
+    assertEquals(
+        LogicalPlanDSL.filter(child, expression),
+        LogicalPlanDSL.filter(relation, expression).replaceChildPlans(newChildren));
+    assertEquals(
+        LogicalPlanDSL.aggregation(
+            child, ImmutableList.of(aggregator), ImmutableList.of(expression)),
+        LogicalPlanDSL.aggregation(
+            relation, ImmutableList.of(aggregator), ImmutableList.of(expression))
+            .replaceChildPlans(newChildren));
+    assertEquals(
+        LogicalPlanDSL.rename(child, ImmutableMap.of(ref, ref)),
+        LogicalPlanDSL.rename(relation, ImmutableMap.of(ref, ref))
+            .replaceChildPlans(newChildren));
+    assertEquals(
+        LogicalPlanDSL.project(child, named("ref", ref)),
+        LogicalPlanDSL.project(relation, named("ref", ref)).replaceChildPlans(newChildren));
+    assertEquals(
+        LogicalPlanDSL.remove(child, ref),
+        LogicalPlanDSL.remove(relation, ref).replaceChildPlans(newChildren));
+    assertEquals(
+        LogicalPlanDSL.eval(child, Pair.of(ref, expression)),
+        LogicalPlanDSL.eval(relation, Pair.of(ref, expression)).replaceChildPlans(newChildren));
+    assertEquals(
+        LogicalPlanDSL.sort(child, 100, Pair.of(SortOption.PPL_ASC, expression)),
+        LogicalPlanDSL.sort(relation, 100, Pair.of(SortOption.PPL_ASC, expression))
+            .replaceChildPlans(newChildren));
+    assertEquals(
+        LogicalPlanDSL.dedupe(child, 1, false, false, expression),
+        LogicalPlanDSL.dedupe(relation, 1, false, false, expression)
+            .replaceChildPlans(newChildren));
+
+    LogicalPlan values = new LogicalValues(ImmutableList.of());
+    assertSame(relation, relation.replaceChildPlans(ImmutableList.of()));
+    assertSame(values, values.replaceChildPlans(ImmutableList.of()));
+  }
+
   private static class NodesCount extends LogicalPlanNodeVisitor<Integer, Object> {
     @Override
     public Integer visitRelation(LogicalRelation plan, Object context) {
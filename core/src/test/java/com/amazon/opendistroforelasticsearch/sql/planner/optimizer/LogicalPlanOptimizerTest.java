@@ -0,0 +1,109 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.named;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.eval;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.project;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.rename;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+class LogicalPlanOptimizerTest {
+
+  private final BuiltinFunctionRepository repository =
+      new ExpressionConfig().functionRepository();
+
+  private final DSL dsl = new ExpressionConfig().dsl(repository);
+
+  private final LogicalPlanOptimizer optimizer = LogicalPlanOptimizer.create(repository);
+
+  @Test
+  void push_filters_down_to_relation_and_merge_them() {
+    LogicalPlan plan =
+        project(
+            filter(
+                rename(
+                    filter(
+                        eval(
+                            relation("test"),
+                            Pair.of(ref("age1", INTEGER), dsl.abs(ref("age", INTEGER)))),
+                        dsl.equal(ref("name", STRING), literal("John"))),
+                    ImmutableMap.of(ref("age", INTEGER), ref("years", INTEGER))),
+                dsl.greater(ref("years", INTEGER), literal(30))),
+            named("name", ref("name", STRING)));
+
+    assertEquals(
+        project(
+            rename(
+                eval(
+                    filter(
+                        relation("test"),
+                        dsl.and(
+                            dsl.equal(ref("name", STRING), literal("John")),
+                            dsl.greater(ref("age", INTEGER), literal(30)))),
+                    Pair.of(ref("age1", INTEGER), dsl.abs(ref("age", INTEGER)))),
+                ImmutableMap.of(ref("age", INTEGER), ref("years", INTEGER))),
+            named("name", ref("name", STRING))),
+        optimizer.optimize(plan));
+  }
+
+  @Test
+  void return_same_plan_if_no_rule_applies() {
+    LogicalPlan plan =
+        project(
+            filter(
+                relation("test"),
+                dsl.equal(ref("name", STRING), literal("John"))),
+            named("name", ref("name", STRING)));
+
+    assertSame(plan, optimizer.optimize(plan));
+  }
+
+  @Test
+  void stop_after_max_iterations_if_rules_never_converge() {
+    LogicalPlan plan = relation("test");
+    Rule rule = mock(Rule.class);
+    when(rule.match(any())).thenReturn(true);
+    when(rule.apply(any())).thenAnswer(invocation -> relation("test"));
+
+    LogicalPlan optimized =
+        new LogicalPlanOptimizer(Collections.singletonList(rule)).optimize(plan);
+    assertEquals(plan, optimized);
+    verify(rule, times(100)).apply(any());
+  }
+}
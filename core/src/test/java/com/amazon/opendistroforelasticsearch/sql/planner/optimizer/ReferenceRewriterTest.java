@@ -0,0 +1,91 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.named;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ReferenceRewriterTest {
+
+  private final BuiltinFunctionRepository repository =
+      new ExpressionConfig().functionRepository();
+
+  private final DSL dsl = new ExpressionConfig().dsl(repository);
+
+  private final ReferenceRewriter rewriter = new ReferenceRewriter(repository);
+
+  @Test
+  void find_references_in_expression() {
+    assertThat(
+        ReferenceRewriter.findReferences(
+            named("n", dsl.and(
+                dsl.equal(ref("name", STRING), literal("John")),
+                dsl.greater(dsl.abs(ref("age", INTEGER)), ref("balance", INTEGER))))),
+        containsInAnyOrder("name", "age", "balance"));
+  }
+
+  @Test
+  void replace_references_in_expression() {
+    Map<String, Expression> replacements = ImmutableMap.of(
+        "years", ref("age", INTEGER),
+        "total", dsl.add(ref("balance", INTEGER), literal(1)));
+
+    assertEquals(
+        dsl.and(
+            dsl.equal(ref("name", STRING), literal("John")),
+            dsl.greater(ref("age", INTEGER), dsl.add(ref("balance", INTEGER), literal(1)))),
+        rewriter.rewrite(
+            dsl.and(
+                dsl.equal(ref("name", STRING), literal("John")),
+                dsl.greater(ref("years", INTEGER), ref("total", INTEGER))),
+            replacements));
+
+    NamedExpression named = (NamedExpression) rewriter.rewrite(
+        new NamedExpression("y", ref("years", INTEGER), "alias"), replacements);
+    assertEquals("alias", named.getName());
+    assertEquals("alias", named.getAlias());
+    assertEquals(ref("age", INTEGER), named.getDelegated());
+  }
+
+  @Test
+  void return_same_expression_if_nothing_replaced() {
+    Map<String, Expression> replacements = ImmutableMap.of("years", ref("age", INTEGER));
+    Expression function = dsl.equal(ref("name", STRING), literal("John"));
+    Expression named = named("name", ref("name", STRING));
+    Expression aggregator = dsl.count(ref("years", INTEGER));
+
+    assertSame(function, rewriter.rewrite(function, replacements));
+    assertSame(named, rewriter.rewrite(named, replacements));
+    assertSame(aggregator, rewriter.rewrite(aggregator, replacements));
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.named;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.project;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.ReferenceRewriter;
+import org.junit.jupiter.api.Test;
+
+class CollapseProjectsTest {
+
+  private final BuiltinFunctionRepository repository =
+      new ExpressionConfig().functionRepository();
+
+  private final DSL dsl = new ExpressionConfig().dsl(repository);
+
+  private final CollapseProjects rule = new CollapseProjects(new ReferenceRewriter(repository));
+
+  @Test
+  void collapse_projects_with_inner_expression_inlined() {
+    LogicalPlan plan =
+        project(
+            project(
+                relation("test"),
+                named("name", ref("name", STRING)),
+                named("age1", dsl.add(ref("age", INTEGER), literal(1)))),
+            named("age1", ref("age1", INTEGER)),
+            named("one", literal(1)));
+
+    assertTrue(rule.match(plan));
+    assertEquals(
+        project(
+            relation("test"),
+            named("age1", dsl.add(ref("age", INTEGER), literal(1))),
+            named("one", literal(1))),
+        rule.apply(plan));
+  }
+
+  @Test
+  void not_collapse_if_outer_references_field_not_in_inner() {
+    assertFalse(rule.match(
+        project(
+            project(
+                relation("test"),
+                named("name", ref("name", STRING))),
+            named("age", ref("age", INTEGER)))));
+  }
+
+  @Test
+  void not_match_project_on_other_operator() {
+    assertFalse(rule.match(project(relation("test"), named("name", ref("name", STRING)))));
+    assertFalse(rule.match(relation("test")));
+  }
+}
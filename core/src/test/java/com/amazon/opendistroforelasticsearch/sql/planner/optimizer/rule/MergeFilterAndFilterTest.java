@@ -0,0 +1,69 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import org.junit.jupiter.api.Test;
+
+class MergeFilterAndFilterTest {
+
+  private final BuiltinFunctionRepository repository =
+      new ExpressionConfig().functionRepository();
+
+  private final DSL dsl = new ExpressionConfig().dsl(repository);
+
+  private final MergeFilterAndFilter rule = new MergeFilterAndFilter(repository);
+
+  @Test
+  void merge_adjacent_filters() {
+    LogicalPlan plan =
+        filter(
+            filter(
+                relation("test"),
+                dsl.equal(ref("name", STRING), literal("John"))),
+            dsl.greater(ref("age", INTEGER), literal(30)));
+
+    assertTrue(rule.match(plan));
+    assertEquals(
+        filter(
+            relation("test"),
+            dsl.and(
+                dsl.equal(ref("name", STRING), literal("John")),
+                dsl.greater(ref("age", INTEGER), literal(30)))),
+        rule.apply(plan));
+  }
+
+  @Test
+  void not_match_single_filter_or_other_operator() {
+    assertFalse(rule.match(
+        filter(relation("test"), dsl.equal(ref("name", STRING), literal("John")))));
+    assertFalse(rule.match(relation("test")));
+  }
+}
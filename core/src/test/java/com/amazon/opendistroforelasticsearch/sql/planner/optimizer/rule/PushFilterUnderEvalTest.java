@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.eval;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+
+class PushFilterUnderEvalTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  private final PushFilterUnderEval rule = new PushFilterUnderEval();
+
+  @Test
+  void push_filter_not_referencing_eval_fields() {
+    LogicalPlan plan =
+        filter(
+            eval(
+                relation("test"),
+                Pair.of(ref("age1", INTEGER), dsl.abs(ref("age", INTEGER)))),
+            dsl.equal(ref("name", STRING), literal("John")));
+
+    assertTrue(rule.match(plan));
+    assertEquals(
+        eval(
+            filter(
+                relation("test"),
+                dsl.equal(ref("name", STRING), literal("John"))),
+            Pair.of(ref("age1", INTEGER), dsl.abs(ref("age", INTEGER)))),
+        rule.apply(plan));
+  }
+
+  @Test
+  void not_push_filter_referencing_eval_fields() {
+    assertFalse(rule.match(
+        filter(
+            eval(
+                relation("test"),
+                Pair.of(ref("age", INTEGER), dsl.abs(ref("age", INTEGER)))),
+            dsl.greater(ref("age", INTEGER), literal(30)))));
+  }
+
+  @Test
+  void not_match_filter_on_other_operator() {
+    assertFalse(rule.match(
+        filter(relation("test"), dsl.equal(ref("name", STRING), literal("John")))));
+    assertFalse(rule.match(relation("test")));
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.optimizer.rule;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.filter;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.relation;
+import static com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL.rename;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.ReferenceRewriter;
+import com.google.common.collect.ImmutableMap;
+import org.junit.jupiter.api.Test;
+
+class PushFilterUnderRenameTest {
+
+  private final BuiltinFunctionRepository repository =
+      new ExpressionConfig().functionRepository();
+
+  private final DSL dsl = new ExpressionConfig().dsl(repository);
+
+  private final PushFilterUnderRename rule =
+      new PushFilterUnderRename(new ReferenceRewriter(repository));
+
+  @Test
+  void push_filter_with_renamed_field_replaced() {
+    LogicalPlan plan =
+        filter(
+            rename(
+                relation("test"),
+                ImmutableMap.of(ref("age", INTEGER), ref("years", INTEGER))),
+            dsl.and(
+                dsl.greater(ref("years", INTEGER), literal(30)),
+                dsl.equal(ref("name", STRING), literal("John"))));
+
+    assertTrue(rule.match(plan));
+    assertEquals(
+        rename(
+            filter(
+                relation("test"),
+                dsl.and(
+                    dsl.greater(ref("age", INTEGER), literal(30)),
+                    dsl.equal(ref("name", STRING), literal("John")))),
+            ImmutableMap.of(ref("age", INTEGER), ref("years", INTEGER))),
+        rule.apply(plan));
+  }
+
+  @Test
+  void push_filter_with_swapped_fields() {
+    LogicalPlan plan =
+        filter(
+            rename(
+                relation("test"),
+                ImmutableMap.of(
+                    ref("a", INTEGER), ref("b", INTEGER),
+                    ref("b", INTEGER), ref("a", INTEGER))),
+            dsl.greater(ref("a", INTEGER), ref("b", INTEGER)));
+
+    assertTrue(rule.match(plan));
+    assertEquals(
+        rename(
+            filter(
+                relation("test"),
+                dsl.greater(ref("b", INTEGER), ref("a", INTEGER))),
+            ImmutableMap.of(
+                ref("a", INTEGER), ref("b", INTEGER),
+                ref("b", INTEGER), ref("a", INTEGER))),
+        rule.apply(plan));
+  }
+
+  @Test
+  void not_push_filter_referencing_field_renamed_away() {
+    assertFalse(rule.match(
+        filter(
+            rename(
+                relation("test"),
+                ImmutableMap.of(ref("age", INTEGER), ref("years", INTEGER))),
+            dsl.greater(ref("age", INTEGER), literal(30)))));
+  }
+
+  @Test
+  void not_match_filter_on_other_operator() {
+    assertFalse(rule.match(
+        filter(relation("test"), dsl.equal(ref("name", STRING), literal("John")))));
+    assertFalse(rule.match(relation("test")));
+  }
+}
@@ -20,15 +20,28 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.S
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.exception.MemoryLimitExceededException;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class AggregationOperatorTest extends PhysicalPlanTestBase {
   @Test
@@ -61,6 +74,161 @@ class AggregationOperatorTest extends PhysicalPlanTestBase {
     ));
   }
 
+  @Test
+  public void avg_with_one_groups_on_batch_aware_input() {
+    PhysicalPlan plan = new AggregationOperator(
+        new FilterOperator(new TestScan(),
+            dsl.less(DSL.ref("response", INTEGER), DSL.literal(500))),
+        Collections.singletonList(dsl.avg(DSL.ref("response", INTEGER))),
+        Collections.singletonList(DSL.ref("action", STRING)));
+    List<ExprValue> result = execute(plan);
+    assertEquals(2, result.size());
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(ImmutableMap.of("action", "GET", "avg(response)", 268d)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("action", "POST", "avg(response)", 200d))
+    ));
+  }
+
+  @Test
+  public void count_with_integer_group() {
+    PhysicalPlan plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.count(DSL.ref("action", STRING))),
+        Collections.singletonList(DSL.ref("response", INTEGER)));
+    List<ExprValue> result = execute(plan);
+    assertEquals(3, result.size());
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(ImmutableMap.of("response", 200, "count(action)", 3)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("response", 404, "count(action)", 1)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("response", 500, "count(action)", 1))
+    ));
+  }
+
+  @Test
+  public void count_with_integer_group_spilled_to_disk() {
+    AggregationOperator plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.count(DSL.ref("action", STRING))),
+        Collections.singletonList(DSL.ref("response", INTEGER)), 1);
+    List<ExprValue> result = execute(plan);
+    assertEquals(3, result.size());
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(ImmutableMap.of("response", 200, "count(action)", 3)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("response", 404, "count(action)", 1)),
+        ExprValueUtils.tupleValue(ImmutableMap.of("response", 500, "count(action)", 1))
+    ));
+    assertTrue(plan.spilledBytes() > 0);
+  }
+
+  @Test
+  public void count_with_integer_group_spilled_to_spill_directory(@TempDir Path tempDir)
+      throws IOException {
+    Path spillDirectory = tempDir.resolve("spill");
+    AggregationOperator plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.count(DSL.ref("action", STRING))),
+        Collections.singletonList(DSL.ref("response", INTEGER)), 1, new MemoryTracker(),
+        spillDirectory);
+    assertEquals(3, execute(plan).size());
+    assertTrue(plan.spilledBytes() > 0);
+    try (Stream<Path> files = Files.list(spillDirectory)) {
+      assertEquals(0L, files.count());
+    }
+  }
+
+  @Test
+  public void avg_with_missing_value_in_group() {
+    PhysicalPlan plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.avg(DSL.ref("response", INTEGER))),
+        Collections.singletonList(DSL.ref("referer", STRING)));
+    List<ExprValue> result = execute(plan);
+    assertEquals(3, result.size());
+    LinkedHashMap<String, ExprValue> missingGroup = new LinkedHashMap<>();
+    missingGroup.put("referer", ExprMissingValue.of());
+    missingGroup.put("avg(response)", ExprValueUtils.doubleValue(500d));
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("referer", "www.amazon.com", "avg(response)", 268d)),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("referer", "www.google.com", "avg(response)", 200d)),
+        new ExprTupleValue(missingGroup)
+    ));
+  }
+
+  @Test
+  public void count_with_composite_group_of_missing_value() {
+    PhysicalPlan plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.count(DSL.ref("ip", STRING))),
+        Arrays.asList(DSL.ref("response", INTEGER), DSL.ref("referer", STRING)));
+    List<ExprValue> result = execute(plan);
+    assertEquals(4, result.size());
+    LinkedHashMap<String, ExprValue> missingGroup = new LinkedHashMap<>();
+    missingGroup.put("response", ExprValueUtils.integerValue(500));
+    missingGroup.put("referer", ExprMissingValue.of());
+    missingGroup.put("count(ip)", ExprValueUtils.integerValue(1));
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("response", 200, "referer", "www.amazon.com", "count(ip)", 2)),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("response", 404, "referer", "www.amazon.com", "count(ip)", 1)),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("response", 200, "referer", "www.google.com", "count(ip)", 1)),
+        new ExprTupleValue(missingGroup)
+    ));
+  }
+
+  @Test
+  public void avg_with_two_groups_spilled_to_disk() {
+    AggregationOperator plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.avg(DSL.ref("response", INTEGER))),
+        Arrays.asList(DSL.ref("action", STRING), DSL.ref("ip", STRING)), 1);
+    List<ExprValue> result = execute(plan);
+    assertEquals(3, result.size());
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("action", "GET", "ip", "209.160.24.63", "avg(response)", 302d)),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("action", "GET", "ip", "112.111.162.4", "avg(response)", 200d)),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("action", "POST", "ip", "74.125.19.106", "avg(response)", 350d))
+    ));
+    assertTrue(plan.spilledBytes() > 0);
+  }
+
+  @Test
+  public void avg_with_one_groups_on_batch_aware_input_spilled_to_disk() {
+    AggregationOperator plan = new AggregationOperator(
+        new FilterOperator(new TestScan(),
+            dsl.less(DSL.ref("response", INTEGER), DSL.literal(500))),
+        Collections.singletonList(dsl.avg(DSL.ref("response", INTEGER))),
+        Collections.singletonList(DSL.ref("action", STRING)), 1);
+    plan.open();
+    assertTrue(plan.hasNext());
+    plan.next();
+    plan.close();
+    assertTrue(plan.spilledBytes() > 0);
+  }
+
+  @Test
+  public void avg_with_memory_tracked() {
+    MemoryTracker tracker = new MemoryTracker();
+    AggregationOperator plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.avg(DSL.ref("response", INTEGER))),
+        Collections.singletonList(DSL.ref("action", STRING)), 1, tracker);
+    plan.open();
+    assertTrue(tracker.getUsedBytes() > 0);
+    assertEquals(2, Iterators.size(plan));
+    plan.close();
+    assertEquals(0L, tracker.getUsedBytes());
+    assertTrue(plan.peakMemoryBytes() > 0);
+  }
+
+  @Test
+  public void avg_exceeding_memory_limit() {
+    AggregationOperator plan = new AggregationOperator(new TestScan(),
+        Collections.singletonList(dsl.avg(DSL.ref("response", INTEGER))),
+        Collections.singletonList(DSL.ref("action", STRING)), Integer.MAX_VALUE,
+        new MemoryTracker(10));
+    assertThrows(MemoryLimitExceededException.class, plan::open);
+  }
+
   @Test
   public void sum_with_one_groups() {
     PhysicalPlan plan = new AggregationOperator(new TestScan(),
@@ -73,4 +241,19 @@ class AggregationOperatorTest extends PhysicalPlanTestBase {
         ExprValueUtils.tupleValue(ImmutableMap.of("action", "POST", "sum(response)", 700))
     ));
   }
-}
\ No newline at end of file
+
+  @Test
+  public void multiple_aggregators_with_one_groups() {
+    PhysicalPlan plan = new AggregationOperator(new TestScan(),
+        Arrays.asList(dsl.count(DSL.ref("referer", STRING)), dsl.sum(DSL.ref("response", INTEGER))),
+        Collections.singletonList(DSL.ref("action", STRING)));
+    List<ExprValue> result = execute(plan);
+    assertEquals(2, result.size());
+    assertThat(result, containsInAnyOrder(
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("action", "GET", "count(referer)", 3, "sum(response)", 804)),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("action", "POST", "count(referer)", 1, "sum(response)", 700))
+    ));
+  }
+}
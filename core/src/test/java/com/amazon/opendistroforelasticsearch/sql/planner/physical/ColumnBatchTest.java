@@ -0,0 +1,86 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.LITERAL_MISSING;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.tupleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ColumnBatchTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  @Test
+  void field_absent_in_row_should_be_missing() {
+    ColumnBatch batch = ColumnBatch.fromRows(Arrays.asList(
+        tupleValue(ImmutableMap.of("a", 1)),
+        integerValue(2),
+        tupleValue(ImmutableMap.of("a", 3, "b", 4))));
+
+    assertEquals(3, batch.size());
+    assertThat(batch.evaluate(DSL.ref("a", INTEGER)),
+        arrayContaining(integerValue(1), LITERAL_MISSING, integerValue(3)));
+    assertThat(batch.evaluate(DSL.ref("b", INTEGER)),
+        arrayContaining(LITERAL_MISSING, LITERAL_MISSING, integerValue(4)));
+    assertThat(batch.evaluate(DSL.ref("c", INTEGER)),
+        arrayContaining(LITERAL_MISSING, LITERAL_MISSING, LITERAL_MISSING));
+  }
+
+  @Test
+  void select_rows_and_put_column() {
+    ColumnBatch batch = ColumnBatch.fromRows(Arrays.asList(
+        tupleValue(ImmutableMap.of("a", 1)),
+        tupleValue(ImmutableMap.of("a", 2)),
+        tupleValue(ImmutableMap.of("a", 3))));
+    batch.putColumn("b", batch.evaluate(dsl.multiply(DSL.ref("a", INTEGER), DSL.literal(2))));
+
+    batch.select(i -> i != 1);
+    assertEquals(2, batch.size());
+    assertEquals(tupleValue(ImmutableMap.of("a", 3, "b", 6)), batch.row(1));
+
+    batch.select(i -> i == 1);
+    batch.putColumn("a", batch.evaluate(dsl.add(DSL.ref("b", INTEGER), DSL.literal(1))));
+    assertEquals(1, batch.size());
+    assertEquals(tupleValue(ImmutableMap.of("a", 7, "b", 6)), batch.row(0));
+  }
+
+  @Test
+  void apply_action_on_each_row() {
+    ColumnBatch batch = ColumnBatch.fromRows(Arrays.asList(
+        tupleValue(ImmutableMap.of("a", 1)),
+        tupleValue(ImmutableMap.of("a", 2))));
+    List<ExprValue> values = new ArrayList<>();
+    batch.forEachRow((tuple, index) -> {
+      values.add(tuple.resolve(DSL.ref("a", INTEGER)));
+      values.add(integerValue(index));
+    });
+    assertEquals(
+        Arrays.asList(integerValue(1), integerValue(0), integerValue(2), integerValue(1)), values);
+  }
+}
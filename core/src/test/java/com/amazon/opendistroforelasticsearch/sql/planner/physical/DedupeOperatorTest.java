@@ -21,11 +21,15 @@ import static com.amazon.opendistroforelasticsearch.sql.planner.physical.Physica
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.DedupeOperator.Deduper;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Iterators;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
@@ -67,6 +71,27 @@ class DedupeOperatorTest extends PhysicalPlanTestBase {
             tupleValue(ImmutableMap.of("region", "us-east-1", "action", "GET", "response", 200))));
   }
 
+  @Test
+  public void dedupe_with_memory_tracked() {
+    MemoryTracker tracker = new MemoryTracker();
+    DedupeOperator plan = new DedupeOperator(new TestScan(),
+        Collections.singletonList(DSL.ref("action", STRING)), 1, false, false, tracker);
+    plan.open();
+    assertEquals(2, Iterators.size(plan));
+    assertTrue(tracker.getUsedBytes() > 0);
+    plan.close();
+    assertEquals(0L, tracker.getUsedBytes());
+    assertTrue(plan.peakMemoryBytes() > 0);
+  }
+
+  @Test
+  public void consecutive_dedupe_without_memory_tracked() {
+    DedupeOperator plan = new DedupeOperator(new TestScan(),
+        Collections.singletonList(DSL.ref("action", STRING)), 1, false, true);
+    assertEquals(2, execute(plan).size());
+    assertEquals(0L, plan.peakMemoryBytes());
+  }
+
   @Test
   public void dedupe_one_field_no_duplication() {
     when(inputPlan.hasNext()).thenReturn(true, true, true, false);
@@ -19,8 +19,10 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.D
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
 import static com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL.eval;
+import static com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL.project;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.iterableWithSize;
 import static org.mockito.Mockito.when;
@@ -131,6 +133,30 @@ class EvalOperatorTest extends PhysicalPlanTestBase {
             hasItems(ExprValueUtils.tupleValue(ImmutableMap.of("distance", 200, "time", 10)))));
   }
 
+  @Test
+  public void evaluate_on_batch_using_field_defined_in_eval_operator() {
+    PhysicalPlan plan =
+        project(
+            eval(
+                new TestScan(),
+                ImmutablePair.of(
+                    DSL.ref("response", INTEGER),
+                    dsl.multiply(DSL.ref("response", INTEGER), DSL.literal(2))),
+                ImmutablePair.of(
+                    DSL.ref("quarter", INTEGER),
+                    dsl.divide(DSL.ref("response", INTEGER), DSL.literal(4)))),
+            DSL.named("response", DSL.ref("response", INTEGER)),
+            DSL.named("quarter", DSL.ref("quarter", INTEGER)));
+    assertThat(
+        execute(plan),
+        contains(
+            ExprValueUtils.tupleValue(ImmutableMap.of("response", 400, "quarter", 100)),
+            ExprValueUtils.tupleValue(ImmutableMap.of("response", 808, "quarter", 202)),
+            ExprValueUtils.tupleValue(ImmutableMap.of("response", 400, "quarter", 100)),
+            ExprValueUtils.tupleValue(ImmutableMap.of("response", 400, "quarter", 100)),
+            ExprValueUtils.tupleValue(ImmutableMap.of("response", 1000, "quarter", 250))));
+  }
+
   @Test
   public void do_nothing_with_none_tuple_value() {
     when(inputPlan.hasNext()).thenReturn(true, false);
@@ -28,8 +28,10 @@ import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -53,6 +55,36 @@ class FilterOperatorTest extends PhysicalPlanTestBase {
                 "www.amazon.com"))));
   }
 
+  @Test
+  public void filterBatchTest() {
+    FilterOperator plan = new FilterOperator(new TestScan(),
+        dsl.equal(DSL.ref("response", INTEGER), DSL.literal(404)));
+    plan.open();
+    ColumnBatch batch = plan.nextBatch(1);
+    assertEquals(1, batch.size());
+    assertEquals(ExprValueUtils
+        .tupleValue(ImmutableMap
+            .of("ip", "209.160.24.63", "action", "GET", "response", 404, "referer",
+                "www.amazon.com")), batch.row(0));
+    assertEquals(0, plan.nextBatch(1).size());
+  }
+
+  @Test
+  public void filterBatchFromBatchAwareInputTest() {
+    FilterOperator plan = new FilterOperator(
+        new EvalOperator(new TestScan(), Collections.singletonList(
+            Pair.of(DSL.ref("status", INTEGER), DSL.ref("response", INTEGER)))),
+        dsl.equal(DSL.ref("status", INTEGER), DSL.literal(404)));
+    plan.open();
+    ColumnBatch batch = plan.nextBatch(1);
+    assertEquals(1, batch.size());
+    assertEquals(ExprValueUtils
+        .tupleValue(ImmutableMap
+            .of("ip", "209.160.24.63", "action", "GET", "response", 404, "referer",
+                "www.amazon.com", "status", 404)), batch.row(0));
+    assertEquals(0, plan.nextBatch(1).size());
+  }
+
   @Test
   public void nullValueShouldBeenIgnored() {
     LinkedHashMap<String, ExprValue> value = new LinkedHashMap<>();
@@ -0,0 +1,109 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.nullValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.planner.physical.GroupIdTable.ABSENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.GroupIdTable.StringKeyTable;
+import org.junit.jupiter.api.Test;
+
+class GroupIdTableTest {
+
+  @Test
+  void put_and_get_group_id_of_integer_value() {
+    GroupIdTable table = GroupIdTable.of(integerValue(0));
+    assertTrue(table.accepts(integerValue(1)));
+    assertFalse(table.accepts(longValue(1L)));
+    assertFalse(table.accepts(nullValue()));
+
+    for (int i = 0; i < 100; i++) {
+      table.put(integerValue(i * 1024 - 50_000), i);
+    }
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, table.get(integerValue(i * 1024 - 50_000)));
+    }
+    assertEquals(ABSENT, table.get(integerValue(1)));
+  }
+
+  @Test
+  void put_and_get_group_id_of_long_value() {
+    GroupIdTable table = GroupIdTable.of(longValue(Long.MAX_VALUE));
+    assertTrue(table.accepts(longValue(1L)));
+    assertFalse(table.accepts(integerValue(1)));
+
+    table.put(longValue(Long.MAX_VALUE), 0);
+    table.put(longValue(Long.MIN_VALUE), 1);
+    assertEquals(0, table.get(longValue(Long.MAX_VALUE)));
+    assertEquals(1, table.get(longValue(Long.MIN_VALUE)));
+    assertEquals(ABSENT, table.get(longValue(0L)));
+  }
+
+  @Test
+  void put_and_get_group_id_of_string_value() {
+    GroupIdTable table = GroupIdTable.of(stringValue("a"));
+    assertTrue(table.accepts(stringValue("b")));
+    assertFalse(table.accepts(integerValue(1)));
+    assertFalse(table.accepts(ExprMissingValue.of()));
+
+    for (int i = 0; i < 100; i++) {
+      table.put(stringValue("key" + i), i);
+    }
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, table.get(stringValue("key" + i)));
+    }
+    // "Aa" and "BB" have the same hash code
+    table.put(stringValue("Aa"), 100);
+    assertEquals(ABSENT, table.get(stringValue("BB")));
+    assertEquals(100, table.get(stringValue("Aa")));
+  }
+
+  @Test
+  void no_table_for_other_value() {
+    assertNull(GroupIdTable.of(nullValue()));
+    assertNull(GroupIdTable.of(ExprMissingValue.of()));
+    assertNull(GroupIdTable.of(doubleValue(1d)));
+  }
+
+  @Test
+  void serialize_and_look_up_composite_values() {
+    StringBuilder builder = new StringBuilder();
+    String key = GroupIdTable.serialize(new ExprValue[] {
+        integerValue(1), longValue(-2L), stringValue("a;b")}, builder);
+    assertEquals("I1;L-2;S3:a;b", key);
+    assertNotEquals(key, GroupIdTable.serialize(new ExprValue[] {
+        longValue(1L), longValue(-2L), stringValue("a;b")}, builder));
+    assertNotEquals(GroupIdTable.serialize(new ExprValue[] {stringValue("a1:b")}, builder),
+        GroupIdTable.serialize(new ExprValue[] {stringValue("a"), stringValue("b")}, builder));
+    assertNull(GroupIdTable.serialize(new ExprValue[] {integerValue(1), nullValue()}, builder));
+
+    StringKeyTable table = new StringKeyTable();
+    table.put(key, 0);
+    assertEquals(0, table.get(key));
+    assertEquals(ABSENT, table.get("I1;"));
+  }
+}
@@ -25,6 +25,10 @@ import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.iterableWithSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
@@ -100,6 +104,45 @@ class ProjectOperatorTest extends PhysicalPlanTestBase {
                     "action", stringValue("POST"))))));
   }
 
+  @Test
+  public void project_batch_from_batch_aware_input() {
+    PhysicalPlan plan = project(
+        new FilterOperator(new TestScan(),
+            dsl.equal(DSL.ref("response", INTEGER), DSL.literal(200))),
+        DSL.named("ip", DSL.ref("ip", STRING)),
+        DSL.named("referer", DSL.ref("referer", STRING)));
+    assertTrue(plan.isBatchSupported());
+    assertThat(execute(plan), contains(
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("ip", "209.160.24.63", "referer", "www.amazon.com")),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("ip", "112.111.162.4", "referer", "www.amazon.com")),
+        ExprValueUtils.tupleValue(
+            ImmutableMap.of("ip", "74.125.19.106", "referer", "www.google.com"))));
+    assertFalse(plan.hasNext());
+  }
+
+  @Test
+  public void project_duplicate_name_throw_exception() {
+    when(inputPlan.hasNext()).thenReturn(true);
+    when(inputPlan.next())
+        .thenReturn(ExprValueUtils.tupleValue(ImmutableMap.of("action", "GET", "response", 200)));
+    PhysicalPlan plan = project(inputPlan,
+        DSL.named("action", DSL.ref("action", STRING)),
+        DSL.named("action", DSL.ref("response", INTEGER)));
+    IllegalArgumentException exception =
+        assertThrows(IllegalArgumentException.class, () -> execute(plan));
+    assertEquals("Multiple entries with same key: action", exception.getMessage());
+
+    PhysicalPlan batchPlan = project(
+        new FilterOperator(new TestScan(),
+            dsl.equal(DSL.ref("response", INTEGER), DSL.literal(200))),
+        DSL.named("action", DSL.ref("action", STRING)),
+        DSL.named("action", DSL.ref("response", INTEGER)));
+    exception = assertThrows(IllegalArgumentException.class, () -> execute(batchPlan));
+    assertEquals("Multiple entries with same key: action", exception.getMessage());
+  }
+
   @Test
   public void project_schema() {
     PhysicalPlan project = project(inputPlan,
@@ -21,11 +21,14 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.S
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.google.common.collect.ImmutableMap;
 import java.util.Collections;
 import java.util.List;
@@ -67,4 +70,35 @@ public class RenameOperatorTest extends PhysicalPlanTestBase {
     assertEquals(1, result.size());
     assertThat(result, containsInAnyOrder(ExprValueUtils.integerValue(1)));
   }
+
+  @Test
+  public void rename_field_in_row_and_batch() {
+    ImmutableMap<ReferenceExpression, ReferenceExpression> mapping =
+        ImmutableMap.of(DSL.ref("response", INTEGER), DSL.ref("status", INTEGER));
+    ExprValue expected = ExprValueUtils.tupleValue(ImmutableMap.of(
+        "ip", "209.160.24.63", "action", "GET", "status", 200, "referer", "www.amazon.com"));
+
+    assertEquals(expected, execute(new RenameOperator(new TestScan(), mapping)).get(0));
+
+    PhysicalPlan plan = new RenameOperator(new TestScan(), mapping);
+    assertTrue(plan.isBatchSupported());
+    ColumnBatch batch = plan.nextBatch(ColumnBatch.DEFAULT_BATCH_SIZE);
+    assertEquals(5, batch.size());
+    assertEquals(expected, batch.row(0));
+  }
+
+  @Test
+  public void rename_to_existing_field_throw_exception() {
+    ImmutableMap<ReferenceExpression, ReferenceExpression> mapping =
+        ImmutableMap.of(DSL.ref("response", INTEGER), DSL.ref("action", INTEGER));
+
+    IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+        () -> execute(new RenameOperator(new TestScan(), mapping)));
+    assertEquals("Multiple entries with same key: action", exception.getMessage());
+
+    PhysicalPlan plan = new RenameOperator(new TestScan(), mapping);
+    exception = assertThrows(IllegalArgumentException.class,
+        () -> plan.nextBatch(ColumnBatch.DEFAULT_BATCH_SIZE));
+    assertEquals("Multiple entries with same key: action", exception.getMessage());
+  }
 }
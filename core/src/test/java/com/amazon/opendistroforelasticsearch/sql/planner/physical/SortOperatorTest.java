@@ -22,15 +22,38 @@ import static com.amazon.opendistroforelasticsearch.sql.planner.physical.Physica
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.exception.MemoryLimitExceededException;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
 import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -284,6 +307,22 @@ class SortOperatorTest extends PhysicalPlanTestBase {
         contains(tupleValue(ImmutableMap.of("size", 320, "response", 200))));
   }
 
+  @Test
+  public void sort_one_field_desc_with_count_and_duplication() {
+    when(inputPlan.hasNext()).thenReturn(true, true, true, true, false);
+    when(inputPlan.next())
+        .thenReturn(tupleValue(ImmutableMap.of("size", 499, "response", 404)))
+        .thenReturn(tupleValue(ImmutableMap.of("size", 320, "response", 503)))
+        .thenReturn(tupleValue(ImmutableMap.of("size", 399, "response", 200)))
+        .thenReturn(tupleValue(ImmutableMap.of("size", 201, "response", 503)));
+
+    assertThat(
+        execute(sort(inputPlan, 2, Pair.of(SortOption.PPL_DESC, ref("response", INTEGER)))),
+        contains(
+            tupleValue(ImmutableMap.of("size", 320, "response", 503)),
+            tupleValue(ImmutableMap.of("size", 201, "response", 503))));
+  }
+
   @Test
   public void sort_one_field_without_input() {
     when(inputPlan.hasNext()).thenReturn(false);
@@ -292,4 +331,121 @@ class SortOperatorTest extends PhysicalPlanTestBase {
         0,
         execute(sort(inputPlan, 1, Pair.of(SortOption.PPL_ASC, ref("response", INTEGER)))).size());
   }
+
+  @Test
+  public void sort_one_field_desc_spilled_to_disk_with_duplication() {
+    when(inputPlan.hasNext()).thenReturn(true, true, true, true, true, false);
+    when(inputPlan.next())
+        .thenReturn(tupleValue(ImmutableMap.of("size", 499, "response", 404)))
+        .thenReturn(tupleValue(ImmutableMap.of("size", 320, "response", 503)))
+        .thenReturn(tupleValue(ImmutableMap.of("size", 399, "response", 200)))
+        .thenReturn(tupleValue(ImmutableMap.of("size", 201, "response", 503)))
+        .thenReturn(tupleValue(ImmutableMap.of("size", 100, "response", 404)));
+
+    Set<Path> tempFilesBefore = spilledRunFiles();
+    SortOperator sort = new SortOperator(inputPlan, 100,
+        Collections.singletonList(Pair.of(SortOption.PPL_DESC, ref("response", INTEGER))), 2);
+    assertThat(
+        execute(sort),
+        contains(
+            tupleValue(ImmutableMap.of("size", 320, "response", 503)),
+            tupleValue(ImmutableMap.of("size", 201, "response", 503)),
+            tupleValue(ImmutableMap.of("size", 499, "response", 404)),
+            tupleValue(ImmutableMap.of("size", 100, "response", 404)),
+            tupleValue(ImmutableMap.of("size", 399, "response", 200))));
+    assertTrue(sort.spilledBytes() > 0);
+    assertEquals(tempFilesBefore, spilledRunFiles());
+  }
+
+  @Test
+  public void sort_spilled_to_disk_with_more_runs_than_merge_fan_in(@TempDir Path spillDirectory)
+      throws IOException {
+    List<ExprValue> rows = new ArrayList<>();
+    for (int i = 0; i < SortOperator.MAX_MERGE_FAN_IN * 2 + 1; i++) {
+      rows.add(tupleValue(ImmutableMap.of("size", i, "response", (i * 37) % 101)));
+    }
+    Iterator<ExprValue> input = rows.iterator();
+    when(inputPlan.hasNext()).thenAnswer(invocation -> input.hasNext());
+    when(inputPlan.next()).thenAnswer(invocation -> input.next());
+
+    SortOperator sort = new SortOperator(inputPlan, 50,
+        Collections.singletonList(Pair.of(SortOption.PPL_DESC, ref("response", INTEGER))), 1,
+        new MemoryTracker(), spillDirectory);
+    List<ExprValue> expected = new ArrayList<>(rows);
+    expected.sort(Comparator.comparing(
+        (ExprValue row) -> row.tupleValue().get("response").integerValue()).reversed());
+    assertEquals(expected.subList(0, 50), execute(sort));
+    assertTrue(sort.spilledBytes() > 0);
+    try (Stream<Path> files = Files.list(spillDirectory)) {
+      assertEquals(0L, files.count());
+    }
+  }
+
+  @Test
+  public void sort_one_field_asc_spilled_to_disk_with_count() {
+    assertThat(
+        execute(new SortOperator(new TestScan(), 3,
+            Collections.singletonList(Pair.of(SortOption.PPL_ASC, ref("response", INTEGER))), 2)),
+        contains(
+            tupleValue(ImmutableMap.of("ip", "209.160.24.63", "action", "GET", "response", 200,
+                "referer", "www.amazon.com")),
+            tupleValue(ImmutableMap.of("ip", "112.111.162.4", "action", "GET", "response", 200,
+                "referer", "www.amazon.com")),
+            tupleValue(ImmutableMap.of("ip", "74.125.19.106", "action", "POST", "response", 200,
+                "referer", "www.google.com"))));
+  }
+
+  @Test
+  public void sort_with_memory_tracked() {
+    MemoryTracker tracker = new MemoryTracker();
+    SortOperator sort = new SortOperator(new TestScan(), 100,
+        Collections.singletonList(Pair.of(SortOption.PPL_ASC, ref("response", INTEGER))),
+        Integer.MAX_VALUE, tracker);
+    sort.open();
+    long rowAndKeyBytes = 0L;
+    for (ExprValue row : execute(new TestScan())) {
+      rowAndKeyBytes += MemoryTracker.estimateBytes(row) + MemoryTracker.estimateBytes(
+          new ExprValue[] {row.bindingTuples().resolve(ref("response", INTEGER))});
+    }
+    assertEquals(rowAndKeyBytes, tracker.getUsedBytes());
+    sort.close();
+    assertEquals(0L, tracker.getUsedBytes());
+    assertTrue(sort.peakMemoryBytes() > 0);
+  }
+
+  @Test
+  public void sort_spilled_to_disk_with_memory_tracked() {
+    MemoryTracker tracker = new MemoryTracker();
+    SortOperator sort = new SortOperator(new TestScan(), 100,
+        Collections.singletonList(Pair.of(SortOption.PPL_ASC, ref("response", INTEGER))),
+        2, tracker);
+    assertEquals(5, execute(sort).size());
+    assertEquals(0L, tracker.getUsedBytes());
+    assertTrue(sort.peakMemoryBytes() > 0);
+  }
+
+  @Test
+  public void sort_expression_evaluated_once_per_row() {
+    ReferenceExpression response = spy(ref("response", INTEGER));
+    assertEquals(5, execute(sort(new TestScan(), 100, Pair.of(SortOption.PPL_ASC, response)))
+        .size());
+    verify(response, times(5)).valueOf(any());
+  }
+
+  @Test
+  public void sort_exceeding_memory_limit() {
+    SortOperator sort = new SortOperator(new TestScan(), 100,
+        Collections.singletonList(Pair.of(SortOption.PPL_ASC, ref("response", INTEGER))),
+        Integer.MAX_VALUE, new MemoryTracker(100));
+    assertThrows(MemoryLimitExceededException.class, sort::open);
+  }
+
+  private Set<Path> spilledRunFiles() {
+    try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+      return files.filter(file -> file.getFileName().toString().startsWith("spill-run-"))
+          .collect(Collectors.toSet());
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
 }
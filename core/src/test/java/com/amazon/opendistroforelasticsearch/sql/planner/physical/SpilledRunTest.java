@@ -0,0 +1,136 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.planner.physical;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.AbstractExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.google.common.collect.Iterators;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SpilledRunTest {
+
+  @Test
+  void write_and_read_rows_in_order() {
+    SpilledRun run = SpilledRun.write(SpilledRun.DEFAULT_DIRECTORY,
+        Iterators.forArray(integerValue(1), stringValue("a")));
+    Iterator<ExprValue> rows = run.read();
+    assertEquals(integerValue(1), rows.next());
+    assertEquals(stringValue("a"), rows.next());
+    assertFalse(rows.hasNext());
+    assertThrows(NoSuchElementException.class, rows::next);
+    run.delete();
+  }
+
+  @Test
+  void read_empty_run() {
+    SpilledRun run = new SpilledRun(SpilledRun.DEFAULT_DIRECTORY);
+    assertFalse(run.read().hasNext());
+    assertEquals(0L, run.getBytes());
+    run.delete();
+  }
+
+  @Test
+  void count_bytes_written() {
+    SpilledRun run = SpilledRun.write(
+        SpilledRun.DEFAULT_DIRECTORY, Iterators.singletonIterator(integerValue(1)));
+    assertTrue(run.getBytes() > 0);
+    run.delete();
+  }
+
+  @Test
+  void write_rows_to_spill_directory(@TempDir Path tempDir) throws IOException {
+    Path directory = tempDir.resolve("spill");
+    SpilledRun run =
+        SpilledRun.write(directory, Iterators.singletonIterator(integerValue(1)));
+    assertEquals(1L, Files.list(directory).count());
+    assertEquals(integerValue(1), run.read().next());
+    run.delete();
+    assertEquals(0L, Files.list(directory).count());
+  }
+
+  @Test
+  void ignore_failure_on_close() {
+    SpilledRun.closeQuietly(() -> {
+      throw new IOException("close failed");
+    });
+  }
+
+  @Test
+  void fail_to_write_unserializable_row() {
+    ExprValue unserializable = new AbstractExprValue() {
+      @Override
+      public int compare(ExprValue other) {
+        return 0;
+      }
+
+      @Override
+      public boolean equal(ExprValue other) {
+        return false;
+      }
+
+      @Override
+      public Object value() {
+        return null;
+      }
+
+      @Override
+      public ExprType type() {
+        return ExprCoreType.UNKNOWN;
+      }
+    };
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> SpilledRun.write(SpilledRun.DEFAULT_DIRECTORY,
+            Iterators.singletonIterator(unserializable)));
+    assertEquals("failed to spill rows to disk", exception.getMessage());
+  }
+
+  @Test
+  void fail_to_read_deleted_run() {
+    SpilledRun run = SpilledRun.write(
+        SpilledRun.DEFAULT_DIRECTORY, Iterators.singletonIterator(integerValue(1)));
+    run.delete();
+    IllegalStateException exception = assertThrows(IllegalStateException.class, run::read);
+    assertEquals("failed to read spilled rows from disk", exception.getMessage());
+  }
+
+  @Test
+  void fail_to_read_truncated_run() throws IOException {
+    Path file = Files.createTempFile("spill-run-", ".tmp");
+    new ObjectOutputStream(Files.newOutputStream(file)).close();
+    SpilledRun run = new SpilledRun(file, 1);
+    Iterator<ExprValue> rows = run.read();
+    IllegalStateException exception = assertThrows(IllegalStateException.class, rows::next);
+    assertEquals("failed to read spilled rows from disk", exception.getMessage());
+    run.delete();
+    assertFalse(Files.exists(file));
+  }
+}
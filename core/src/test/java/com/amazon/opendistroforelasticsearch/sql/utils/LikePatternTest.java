@@ -0,0 +1,100 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+class LikePatternTest {
+
+  private static Stream<Arguments> patterns() {
+    return Stream.of(
+        Arguments.of("timeout", "timeout", true),
+        Arguments.of("timeout", "timeouts", false),
+        Arguments.of("", "", true),
+        Arguments.of("", "a", false),
+        Arguments.of("time%", "timeout", true),
+        Arguments.of("time%", "overtime", false),
+        Arguments.of("%out", "timeout", true),
+        Arguments.of("%out", "outage", false),
+        Arguments.of("%eou%", "timeout", true),
+        Arguments.of("%eou%", "time out", false),
+        Arguments.of("%%eou%%", "timeout", true),
+        Arguments.of("%", "", true),
+        Arguments.of("%", "anything", true),
+        Arguments.of("t%t", "timeout", true),
+        Arguments.of("t%t", "timeouts", false),
+        Arguments.of("%i%o%", "timeout", true),
+        Arguments.of("t_me%", "timeout", true),
+        Arguments.of("t_me", "tme", false),
+        Arguments.of("\\%out", "%out", true),
+        Arguments.of("\\%out", "timeout", false),
+        Arguments.of("100\\%", "100%", true),
+        Arguments.of("a\\_b", "a_b", true),
+        Arguments.of("a\\_b", "acb", false),
+        Arguments.of("a\\\\b", "a\\b", true),
+        Arguments.of("a.*[b]", "a.*[b]", true),
+        Arguments.of("a.*[b]_", "a.*[b]c", true),
+        Arguments.of("a.*[b]_", "aXX[b]c", false),
+        Arguments.of("%line%", "first\nline\nlast", true),
+        Arguments.of("first_line", "first\nline", true),
+        Arguments.of("ab\\", "ab", true));
+  }
+
+  @ParameterizedTest(name = "{1} like {0}")
+  @MethodSource("patterns")
+  void matches(String pattern, String text, boolean expected) {
+    assertEquals(expected, LikePattern.compile(pattern).matches(text));
+    assertEquals(expected, LikePattern.cached(pattern).matches(text));
+  }
+
+  @Test
+  void pattern_compiled_is_cached() {
+    LikePattern pattern = LikePattern.cached("%cached%");
+    assertSame(pattern, LikePattern.cached("%cached%"));
+    assertNotSame(pattern, LikePattern.compile("%cached%"));
+    assertEquals(pattern, LikePattern.compile("%cached%"));
+    assertEquals("LikePattern(pattern=%cached%)", pattern.toString());
+  }
+
+  @Test
+  void pattern_is_compiled_again_after_deserialization() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOutput = new ObjectOutputStream(output)) {
+      objectOutput.writeObject(LikePattern.compile("a_c%"));
+    }
+
+    try (ObjectInputStream objectInput =
+             new ObjectInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+      LikePattern pattern = (LikePattern) objectInput.readObject();
+      assertTrue(pattern.matches("abcd"));
+      assertFalse(pattern.matches("abd"));
+    }
+  }
+}
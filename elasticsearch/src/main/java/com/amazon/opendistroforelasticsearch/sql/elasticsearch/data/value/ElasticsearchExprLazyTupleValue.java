@@ -0,0 +1,124 @@
+/*
+ *
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.LazyBindingTuple;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import org.elasticsearch.common.bytes.BytesReference;
+
+/**
+ * Expression Tuple Value of document source which is decoded lazily. On first access by binding
+ * tuple, all the fields given, which are those referenced by the operator on top, are decoded
+ * from the source bytes together in a single pass, skipping all other fields. The whole source is
+ * decoded only if the tuple value itself is required, for example, by response formatting. In
+ * this way, fields never read by filter won't be parsed or allocated.
+ */
+public class ElasticsearchExprLazyTupleValue extends ExprTupleValue {
+
+  /**
+   * Document source bytes.
+   */
+  private final BytesReference source;
+
+  /**
+   * Names of fields decoded together on first access.
+   */
+  private final Set<String> fields;
+
+  private final ElasticsearchExprValueFactory exprValueFactory;
+
+  /**
+   * Values of the fields given which is present only after first access by binding tuple.
+   */
+  private Map<String, ExprValue> fieldValues;
+
+  /**
+   * All fields decoded which is present only after tuple value required.
+   */
+  private Map<String, ExprValue> valueMap;
+
+  private BindingTuple bindingTuple;
+
+  /**
+   * Constructor of ElasticsearchExprLazyTupleValue.
+   *
+   * @param source            document source bytes
+   * @param fields            names of fields decoded together on first access
+   * @param exprValueFactory  expression value factory that decodes the source
+   */
+  public ElasticsearchExprLazyTupleValue(BytesReference source, Set<String> fields,
+                                         ElasticsearchExprValueFactory exprValueFactory) {
+    super(new LinkedHashMap<>());
+    this.source = source;
+    this.fields = fields;
+    this.exprValueFactory = exprValueFactory;
+  }
+
+  @Override
+  public BindingTuple bindingTuples() {
+    if (bindingTuple == null) {
+      bindingTuple = new LazyBindingTuple(this::resolve);
+    }
+    return bindingTuple;
+  }
+
+  @Override
+  public Map<String, ExprValue> tupleValue() {
+    if (valueMap == null) {
+      valueMap = exprValueFactory.construct(source).tupleValue();
+    }
+    return valueMap;
+  }
+
+  /**
+   * Size hint from the source bytes, so the source is not decoded only for memory estimation.
+   * The hint doesn't change once any field is decoded, so the same size is released as reserved.
+   */
+  @Override
+  public OptionalLong sizeHint() {
+    return OptionalLong.of(source.length());
+  }
+
+  /**
+   * Resolve field from the fields decoded together. Any other field is resolved from the whole
+   * source decoded.
+   */
+  private ExprValue resolve(String field) {
+    if (valueMap != null || !fields.contains(field)) {
+      return tupleValue().getOrDefault(field, ExprMissingValue.of());
+    }
+    if (fieldValues == null) {
+      fieldValues = exprValueFactory.constructFields(source, fields);
+    }
+    return fieldValues.getOrDefault(field, ExprMissingValue.of());
+  }
+
+  /**
+   * Serialize as decoded tuple value because source bytes is not serializable.
+   */
+  private Object writeReplace() {
+    return new ExprTupleValue(new LinkedHashMap<>(tupleValue()));
+  }
+}
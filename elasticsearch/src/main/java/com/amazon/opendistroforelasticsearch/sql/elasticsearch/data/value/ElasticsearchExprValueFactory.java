@@ -29,8 +29,6 @@ import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.S
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
 import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT;
 import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
-import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchDateFormatters.SQL_LITERAL_DATE_TIME_FORMAT;
-import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchDateFormatters.STRICT_DATE_OPTIONAL_TIME_FORMATTER;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprCollectionValue;
@@ -43,35 +41,52 @@ import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTimestampValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
 import java.time.Instant;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.elasticsearch.common.time.DateFormatters;
+import org.elasticsearch.common.bytes.BytesReference;
 
 /** Construct ExprValue from Elasticsearch response. */
-@RequiredArgsConstructor
 public class ElasticsearchExprValueFactory {
   /** The Mapping of Field and ExprType. */
   private final Map<String, ExprType> typeMapping;
 
-  private static final DateTimeFormatter DATE_TIME_FORMATTER =
-      new DateTimeFormatterBuilder()
-          .appendOptional(SQL_LITERAL_DATE_TIME_FORMAT)
-          .appendOptional(STRICT_DATE_OPTIONAL_TIME_FORMATTER)
-          .toFormatter();
+  /**
+   * Field path trie built from the type mapping, so nested field type is found by walking down
+   * from the parent field instead of concatenating and looking up the full path on every value.
+   */
+  private final FieldNode fieldTree;
+
+  /**
+   * Timestamp parser whose cache lives as long as this factory, i.e. during the index scan.
+   */
+  private final ElasticsearchTimestampParser timestampParser = new ElasticsearchTimestampParser();
 
   private static final String TOP_PATH = "";
 
-  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  /**
+   * Constructor of ElasticsearchExprValueFactory.
+   *
+   * @param typeMapping flattened mapping of field path and type
+   */
+  public ElasticsearchExprValueFactory(Map<String, ExprType> typeMapping) {
+    this.typeMapping = typeMapping;
+    this.fieldTree = new FieldNode(TOP_PATH);
+    typeMapping.forEach(fieldTree::add);
+  }
 
   /**
    * The struct construction has the following assumption. 1. The field has Elasticsearch Object
@@ -80,50 +95,73 @@ public class ElasticsearchExprValueFactory {
    * "INTEGER"} {"employ.state", "STRING"}
    */
   public ExprTupleValue construct(String jsonString) {
-    try {
-      return constructStruct(OBJECT_MAPPER.readTree(jsonString), TOP_PATH);
-    } catch (JsonProcessingException e) {
+    try (JsonParser parser = JSON_FACTORY.createParser(jsonString)) {
+      return constructSource(parser);
+    } catch (IOException e) {
       throw new IllegalStateException(String.format("invalid json: %s.", jsonString), e);
     }
   }
 
-  /** Construct ExprValue from field and value pair. */
-  private ExprValue construct(String field, JsonNode value) {
-    if (value.isNull()) {
+  /**
+   * Construct tuple value from the source bytes of search hit in a single pass of JSON tokens,
+   * without decoding the bytes into string or building an intermediate JSON tree.
+   *
+   * @param source  document source bytes
+   * @return        tuple value
+   */
+  public ExprTupleValue construct(BytesReference source) {
+    try (JsonParser parser = JSON_FACTORY.createParser(source.streamInput())) {
+      return constructSource(parser);
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          String.format("invalid json: %s.", source.utf8ToString()), e);
+    }
+  }
+
+  /** Construct ExprValue from the current token of parser which is value of the field. */
+  private ExprValue construct(JsonParser parser, FieldNode parent, String name)
+      throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
       return nullValue();
     }
 
-    ExprType type = type(field);
-    if (type.equals(INTEGER)) {
-      return constructInteger(value.intValue());
+    FieldNode field = parent.getField(name);
+    ExprType type = field.getType();
+    if (type.equals(STRUCT)) {
+      return constructStruct(parser, field);
+    } else if (type.equals(ARRAY)) {
+      return constructArray(parser, field);
+    } else if (token.isStructStart()) {
+      // Multiple values of a primitive field is not supported yet
+      parser.skipChildren();
+      return nullValue();
+    } else if (type.equals(INTEGER)) {
+      return constructInteger(parser.getValueAsInt());
     } else if (type.equals(LONG)) {
-      return constructLong(value.longValue());
+      return constructLong(parser.getValueAsLong());
     } else if (type.equals(FLOAT)) {
-      return constructFloat(value.floatValue());
+      return constructFloat((float) parser.getValueAsDouble());
     } else if (type.equals(DOUBLE)) {
-      return constructDouble(value.doubleValue());
+      return constructDouble(parser.getValueAsDouble());
     } else if (type.equals(STRING)) {
-      return constructString(value.textValue());
+      return constructString(parser.getValueAsString());
     } else if (type.equals(BOOLEAN)) {
-      return constructBoolean(value.booleanValue());
-    } else if (type.equals(STRUCT)) {
-      return constructStruct(value, field);
-    } else if (type.equals(ARRAY)) {
-      return constructArray(value, field);
+      return constructBoolean(parser.getValueAsBoolean());
     } else if (type.equals(TIMESTAMP)) {
-      if (value.isNumber()) {
-        return constructTimestamp(value.longValue());
+      if (token.isNumeric()) {
+        return constructTimestamp(parser.getValueAsLong());
       } else {
-        return constructTimestamp(value.asText());
+        return constructTimestamp(parser.getText());
       }
     } else if (type.equals(ES_TEXT)) {
-      return new ElasticsearchExprTextValue(value.asText());
+      return new ElasticsearchExprTextValue(parser.getText());
     } else if (type.equals(ES_TEXT_KEYWORD)) {
-      return new ElasticsearchExprTextKeywordValue(value.asText());
+      return new ElasticsearchExprTextKeywordValue(parser.getText());
     } else {
       throw new IllegalStateException(
-          String.format(
-              "Unsupported type: %s for field: %s, value: %s.", type.typeName(), field, value));
+          String.format("Unsupported type: %s for field: %s, value: %s.",
+              type.typeName(), field.getPath(), parser.getText()));
     }
   }
 
@@ -172,6 +210,54 @@ public class ElasticsearchExprValueFactory {
     }
   }
 
+  /**
+   * Construct tuple value from source bytes which decodes the fields given together on first
+   * access to any field.
+   *
+   * @param source  document source bytes
+   * @param fields  names of top level fields to decode on first access
+   * @return        tuple value
+   */
+  public ExprTupleValue constructLazily(BytesReference source, Set<String> fields) {
+    return new ElasticsearchExprLazyTupleValue(source, fields, this);
+  }
+
+  /**
+   * Decode the values of the top level fields from source bytes in a single pass, skipping other
+   * fields without materializing them.
+   *
+   * @param source  document source bytes
+   * @param names   top level field names
+   * @return        field values of those present in source
+   */
+  Map<String, ExprValue> constructFields(BytesReference source, Set<String> names) {
+    Map<String, ExprValue> values = new HashMap<>();
+    try (JsonParser parser = JSON_FACTORY.createParser(source.streamInput())) {
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        while (values.size() < names.size() && parser.nextToken() == JsonToken.FIELD_NAME) {
+          String field = parser.getCurrentName();
+          parser.nextToken();
+          if (names.contains(field)) {
+            values.put(field, construct(parser, fieldTree, field));
+          } else {
+            parser.skipChildren();
+          }
+        }
+      }
+      return values;
+    } catch (IOException e) {
+      throw new IllegalStateException(
+          String.format("invalid json: %s.", source.utf8ToString()), e);
+    }
+  }
+
+  private ExprTupleValue constructSource(JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return new ExprTupleValue(new LinkedHashMap<>());
+    }
+    return constructStruct(parser, fieldTree);
+  }
+
   private ExprType type(String field) {
     if (typeMapping.containsKey(field)) {
       return typeMapping.get(field);
@@ -212,16 +298,9 @@ public class ElasticsearchExprValueFactory {
     return new ExprTimestampValue(instant);
   }
 
-  /**
-   * Only default strict_date_optional_time||epoch_millis is supported.
-   * https://www.elastic.co/guide/en/elasticsearch/reference/current/date.html
-   * The customized date_format is not supported.
-   */
   private ExprValue constructTimestamp(String value) {
     try {
-      return new ExprTimestampValue(
-          // Using Elasticsearch DateFormatters for now.
-          DateFormatters.from(DATE_TIME_FORMATTER.parse(value)).toInstant());
+      return new ExprTimestampValue(timestampParser.parse(value));
     } catch (DateTimeParseException e) {
       throw new IllegalStateException(
           String.format(
@@ -230,32 +309,90 @@ public class ElasticsearchExprValueFactory {
     }
   }
 
-  private ExprTupleValue constructStruct(JsonNode value, String path) {
+  /**
+   * Construct struct from the object that the parser is positioned at. Anything other than
+   * object is skipped and regarded as empty struct.
+   */
+  private ExprTupleValue constructStruct(JsonParser parser, FieldNode field) throws IOException {
     LinkedHashMap<String, ExprValue> map = new LinkedHashMap<>();
-    value
-        .fieldNames()
-        .forEachRemaining(
-            field -> map.put(field, construct(makeField(path, field), value.get(field))));
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return new ExprTupleValue(map);
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String name = parser.getCurrentName();
+      parser.nextToken();
+      map.put(name, construct(parser, field, name));
+    }
     return new ExprTupleValue(map);
   }
 
   /**
    * Todo. ARRAY is not support now. In Elasticsearch, there is no dedicated array data type.
    * https://www.elastic.co/guide/en/elasticsearch/reference/current/array.html. The similar data
-   * type is nested, but it can only allow a list of objects.
+   * type is nested, but it can only allow a list of objects. Single object is regarded as array
+   * with one element.
    */
-  private ExprCollectionValue constructArray(JsonNode value, String path) {
+  private ExprCollectionValue constructArray(JsonParser parser, FieldNode field)
+      throws IOException {
     List<ExprValue> list = new ArrayList<>();
-    value
-        .elements()
-        .forEachRemaining(
-            node -> {
-              list.add(constructStruct(node, path));
-            });
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      list.add(constructStruct(parser, field));
+    } else {
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        list.add(constructStruct(parser, field));
+      }
+    }
     return new ExprCollectionValue(list);
   }
 
-  private String makeField(String path, String field) {
-    return path.equalsIgnoreCase(TOP_PATH) ? field : String.join(".", path, field);
+  /**
+   * Node of field path trie. Intermediate node absent in the mapping has null type.
+   */
+  @RequiredArgsConstructor
+  private static class FieldNode {
+    @Getter
+    private final String path;
+    @Getter
+    private ExprType type;
+    private final Map<String, FieldNode> children = new HashMap<>();
+
+    void add(String field, ExprType type) {
+      FieldNode node = this;
+      for (String name : field.split("\\.")) {
+        node = node.getOrCreateChild(name);
+      }
+      node.type = type;
+    }
+
+    /**
+     * Get the field by name which may be a dotted path of descendant, such as "employ.id" in
+     * document source {"employ.id": 1}.
+     */
+    FieldNode getField(String name) {
+      FieldNode child = children.get(name);
+      if (child == null && name.indexOf('.') >= 0) {
+        child = this;
+        for (String segment : name.split("\\.")) {
+          child = child.children.get(segment);
+          if (child == null) {
+            break;
+          }
+        }
+      }
+      if (child == null || child.type == null) {
+        throw new IllegalStateException(
+            String.format("No type found for field: %s.", makeField(name)));
+      }
+      return child;
+    }
+
+    private FieldNode getOrCreateChild(String name) {
+      return children.computeIfAbsent(name, key -> new FieldNode(makeField(key)));
+    }
+
+    private String makeField(String field) {
+      return path.isEmpty() ? field : String.join(".", path, field);
+    }
   }
 }
@@ -0,0 +1,193 @@
+/*
+ *
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value;
+
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchDateFormatters.SQL_LITERAL_DATE_TIME_FORMAT;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchDateFormatters.STRICT_DATE_OPTIONAL_TIME_FORMATTER;
+
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.common.time.DateFormatters;
+
+/**
+ * Parse timestamp string in document source. Only default strict_date_optional_time||epoch_millis
+ * is supported. https://www.elastic.co/guide/en/elasticsearch/reference/current/date.html
+ *
+ * <p>Canonical formats, i.e. epoch millis and ISO-8601 date time in UTC, are parsed by hand
+ * without going through the date time formatter. Recently parsed strings are cached because
+ * timestamps in log indices often repeat at second granularity.
+ */
+class ElasticsearchTimestampParser {
+
+  private static final DateTimeFormatter DATE_TIME_FORMATTER =
+      new DateTimeFormatterBuilder()
+          .appendOptional(SQL_LITERAL_DATE_TIME_FORMAT)
+          .appendOptional(STRICT_DATE_OPTIONAL_TIME_FORMATTER)
+          .toFormatter();
+
+  /**
+   * Number of cache slots which must be power of 2.
+   */
+  private static final int CACHE_SIZE = 64;
+
+  /**
+   * Digit string no longer than this is parsed as year by strict_date_optional_time first.
+   */
+  private static final int MAX_YEAR_DIGITS = 9;
+
+  /**
+   * Digit string longer than this may overflow long, thus leave it to the formatter.
+   */
+  private static final int MAX_EPOCH_MILLIS_DIGITS = 18;
+
+  private static final int MAX_FRACTION_DIGITS = 9;
+
+  /**
+   * Length of yyyy-MM-ddTHH:mm:ss.
+   */
+  private static final int DATE_TIME_LENGTH = 19;
+
+  private static final int[] NANO_MULTIPLIERS = {
+      1_000_000_000, 100_000_000, 10_000_000, 1_000_000, 100_000, 10_000, 1_000, 100, 10, 1};
+
+  /**
+   * Direct-mapped cache slots. Entry is immutable so racy access from different threads is safe
+   * and at worst causes a cache miss.
+   */
+  private final CacheEntry[] cache = new CacheEntry[CACHE_SIZE];
+
+  /**
+   * Parse timestamp string to instant.
+   *
+   * @param text  timestamp string
+   * @return      instant
+   * @throws java.time.format.DateTimeParseException if the format is not supported
+   */
+  public Instant parse(String text) {
+    int slot = text.hashCode() & (CACHE_SIZE - 1);
+    CacheEntry entry = cache[slot];
+    if (entry != null && entry.text.equals(text)) {
+      return entry.instant;
+    }
+
+    Instant instant = parseCanonical(text);
+    if (instant == null) {
+      // Using Elasticsearch DateFormatters for now.
+      instant = DateFormatters.from(DATE_TIME_FORMATTER.parse(text)).toInstant();
+    }
+    cache[slot] = new CacheEntry(text, instant);
+    return instant;
+  }
+
+  /**
+   * Parse epoch millis, yyyy-MM-dd HH:mm:ss or yyyy-MM-ddTHH:mm:ss[.SSSSSSSSS][Z].
+   *
+   * @return instant, or null if the text is in any other format or invalid
+   */
+  private Instant parseCanonical(String text) {
+    int length = text.length();
+    if (length > MAX_YEAR_DIGITS && length <= MAX_EPOCH_MILLIS_DIGITS) {
+      long epochMillis = parseDigits(text, 0, length);
+      if (epochMillis >= 0) {
+        return Instant.ofEpochMilli(epochMillis);
+      }
+    }
+    if (length < DATE_TIME_LENGTH
+        || text.charAt(4) != '-' || text.charAt(7) != '-'
+        || text.charAt(13) != ':' || text.charAt(16) != ':') {
+      return null;
+    }
+
+    char separator = text.charAt(10);
+    if (separator != 'T' && !(separator == ' ' && length == DATE_TIME_LENGTH)) {
+      return null;
+    }
+
+    int pos = DATE_TIME_LENGTH;
+    int nano = 0;
+    if (pos < length && text.charAt(pos) == '.') {
+      int end = pos + 1;
+      while (end < length && end - pos <= MAX_FRACTION_DIGITS
+          && isDigit(text.charAt(end))) {
+        end++;
+      }
+      int digits = end - pos - 1;
+      if (digits == 0) {
+        return null;
+      }
+      nano = (int) parseDigits(text, pos + 1, end) * NANO_MULTIPLIERS[digits];
+      pos = end;
+    }
+    if (pos < length && text.charAt(pos) == 'Z') {
+      pos++;
+    }
+    if (pos != length) {
+      return null;
+    }
+
+    long year = parseDigits(text, 0, 4);
+    long month = parseDigits(text, 5, 7);
+    long day = parseDigits(text, 8, 10);
+    long hour = parseDigits(text, 11, 13);
+    long minute = parseDigits(text, 14, 16);
+    long second = parseDigits(text, 17, 19);
+    if ((year | month | day | hour | minute | second) < 0) {
+      return null;
+    }
+
+    try {
+      return LocalDateTime.of((int) year, (int) month, (int) day,
+          (int) hour, (int) minute, (int) second, nano).toInstant(ZoneOffset.UTC);
+    } catch (DateTimeException e) {
+      // Leave out-of-range value to the formatter which reports it
+      return null;
+    }
+  }
+
+  /**
+   * Parse ASCII digits in [start, end) of the text.
+   *
+   * @return value parsed, or -1 if any character is not digit
+   */
+  private long parseDigits(String text, int start, int end) {
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      char c = text.charAt(i);
+      if (!isDigit(c)) {
+        return -1;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  private boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  @RequiredArgsConstructor
+  private static class CacheEntry {
+    private final String text;
+    private final Instant instant;
+  }
+}
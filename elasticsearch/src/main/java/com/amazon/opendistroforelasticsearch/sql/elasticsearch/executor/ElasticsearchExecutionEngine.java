@@ -25,8 +25,10 @@ import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
 
 /** Elasticsearch execution engine implementation. */
+@Log4j2
 @RequiredArgsConstructor
 public class ElasticsearchExecutionEngine implements ExecutionEngine {
 
@@ -47,6 +49,12 @@ public class ElasticsearchExecutionEngine implements ExecutionEngine {
               result.add(plan.next());
             }
 
+            long spilledBytes = plan.spilledBytes();
+            if (spilledBytes > 0) {
+              log.info("Query spilled {} bytes to disk", spilledBytes);
+            }
+            log.debug("Query peak memory usage is {} bytes", plan.peakMemoryBytes());
+
             QueryResponse response = new QueryResponse(physicalPlan.schema(), result);
             listener.onResponse(response);
           } catch (Exception e) {
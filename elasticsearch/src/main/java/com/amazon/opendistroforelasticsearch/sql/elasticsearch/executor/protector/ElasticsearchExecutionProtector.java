@@ -17,6 +17,8 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.executor.protector;
 
+import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.DedupeOperator;
@@ -28,10 +30,13 @@ import com.amazon.opendistroforelasticsearch.sql.planner.physical.RemoveOperator
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.RenameOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator;
 import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import lombok.RequiredArgsConstructor;
 
 /**
- * Elasticsearch Execution Protector.
+ * Elasticsearch Execution Protector. A new memory tracker is created for each query and passed
+ * down as visitor context to the stateful operators which share it.
  */
 @RequiredArgsConstructor
 public class ElasticsearchExecutionProtector extends ExecutionProtector {
@@ -41,8 +46,13 @@ public class ElasticsearchExecutionProtector extends ExecutionProtector {
    */
   private final ResourceMonitor resourceMonitor;
 
+  /**
+   * Settings to look up spill threshold and spill directory of sort and aggregation.
+   */
+  private final Settings settings;
+
   public PhysicalPlan protect(PhysicalPlan physicalPlan) {
-    return physicalPlan.accept(this, null);
+    return physicalPlan.accept(this, resourceMonitor.newMemoryTracker());
   }
 
   @Override
@@ -50,10 +60,15 @@ public class ElasticsearchExecutionProtector extends ExecutionProtector {
     return new FilterOperator(visitInput(node.getInput(), context), node.getConditions());
   }
 
+  /**
+   * Limit the number of groups aggregation keeps in memory before spilling to disk.
+   */
   @Override
   public PhysicalPlan visitAggregation(AggregationOperator node, Object context) {
     return new AggregationOperator(visitInput(node.getInput(), context), node.getAggregatorList(),
-        node.getGroupByExprList());
+        node.getGroupByExprList(),
+        settings.getSettingValue(Settings.Key.QUERY_AGGREGATION_SPILL_THRESHOLD),
+        (MemoryTracker) context, spillDirectory());
   }
 
   @Override
@@ -87,13 +102,22 @@ public class ElasticsearchExecutionProtector extends ExecutionProtector {
   @Override
   public PhysicalPlan visitDedupe(DedupeOperator node, Object context) {
     return new DedupeOperator(visitInput(node.getInput(), context), node.getDedupeList(),
-        node.getAllowedDuplication(), node.getKeepEmpty(), node.getConsecutive());
+        node.getAllowedDuplication(), node.getKeepEmpty(), node.getConsecutive(),
+        (MemoryTracker) context);
   }
 
+  /**
+   * Limit the number of rows sort keeps in memory before spilling to disk.
+   */
   @Override
   public PhysicalPlan visitSort(SortOperator node, Object context) {
     return new SortOperator(visitInput(node.getInput(), context), node.getCount(),
-        node.getSortList());
+        node.getSortList(), settings.getSettingValue(Settings.Key.QUERY_SORT_SPILL_THRESHOLD),
+        (MemoryTracker) context, spillDirectory());
+  }
+
+  private Path spillDirectory() {
+    return Paths.get(settings.<String>getSettingValue(Settings.Key.QUERY_SPILL_PATH));
   }
 
   PhysicalPlan visitInput(PhysicalPlan node, Object context) {
@@ -0,0 +1,89 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor;
+
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+
+/**
+ * Memory tracker backed by the circuit breaker of the plugin. Besides the memory limit of a
+ * single query, memory reserved by all queries running on the node together is bounded by the
+ * circuit breaker whose usage is also accounted by the parent breaker of Elasticsearch.
+ *
+ * <p>Operators reserve memory per row or group, so the usage is accounted locally and memory is
+ * reserved from circuit breaker in coarse chunks. This avoids a circuit breaker update and parent
+ * breaker check, which may read heap usage, for every row.
+ */
+public class ElasticsearchMemoryTracker extends MemoryTracker {
+
+  /**
+   * Size of memory chunk reserved from circuit breaker at a time.
+   */
+  static final long CHUNK_BYTES = 1024L * 1024L;
+
+  private final CircuitBreaker circuitBreaker;
+
+  /**
+   * Bytes reserved from circuit breaker currently which is always whole chunks.
+   */
+  private long chunkedBytes = 0L;
+
+  public ElasticsearchMemoryTracker(CircuitBreaker circuitBreaker, long limitBytes) {
+    super(limitBytes);
+    this.circuitBreaker = circuitBreaker;
+  }
+
+  /**
+   * Check the limit of query first and then reserve more chunks from circuit breaker only if
+   * memory reserved by the query exceeds the chunks reserved already.
+   *
+   * @throws CircuitBreakingException if circuit breaker trips
+   */
+  @Override
+  public void reserve(long bytes, String label) {
+    super.reserve(bytes, label);
+    long missingBytes = getUsedBytes() - chunkedBytes;
+    if (missingBytes <= 0) {
+      return;
+    }
+
+    long chunks = (missingBytes + CHUNK_BYTES - 1) / CHUNK_BYTES;
+    try {
+      circuitBreaker.addEstimateBytesAndMaybeBreak(chunks * CHUNK_BYTES, label);
+    } catch (CircuitBreakingException e) {
+      super.release(bytes);
+      throw e;
+    }
+    chunkedBytes += chunks * CHUNK_BYTES;
+  }
+
+  /**
+   * Release memory and hand unused chunks back to circuit breaker. One spare chunk is kept to
+   * avoid reserving it again right away, unless no memory is used by the query any more.
+   */
+  @Override
+  public void release(long bytes) {
+    super.release(bytes);
+    long keptBytes = (getUsedBytes() == 0) ? 0 : getUsedBytes() + CHUNK_BYTES;
+    long unusedChunks = (chunkedBytes - keptBytes) / CHUNK_BYTES;
+    if (unusedChunks > 0) {
+      circuitBreaker.addWithoutBreaking(-unusedChunks * CHUNK_BYTES);
+      chunkedBytes -= unusedChunks * CHUNK_BYTES;
+    }
+  }
+}
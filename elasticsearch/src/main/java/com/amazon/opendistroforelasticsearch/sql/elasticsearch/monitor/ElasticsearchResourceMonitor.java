@@ -16,12 +16,14 @@
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor;
 
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import io.github.resilience4j.core.IntervalFunction;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
 import java.util.function.Supplier;
 import lombok.extern.log4j.Log4j2;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.unit.ByteSizeValue;
 
 /**
@@ -34,14 +36,17 @@ public class ElasticsearchResourceMonitor extends ResourceMonitor {
   private final Settings settings;
   private final Retry retry;
   private final ElasticsearchMemoryHealthy memoryMonitor;
+  private final CircuitBreaker circuitBreaker;
 
   /**
    * Constructor of ElasticsearchCircuitBreaker.
    */
   public ElasticsearchResourceMonitor(
       Settings settings,
-      ElasticsearchMemoryHealthy memoryMonitor) {
+      ElasticsearchMemoryHealthy memoryMonitor,
+      CircuitBreaker circuitBreaker) {
     this.settings = settings;
+    this.circuitBreaker = circuitBreaker;
     RetryConfig config =
         RetryConfig.custom()
             .maxAttempts(3)
@@ -72,4 +77,13 @@ public class ElasticsearchResourceMonitor extends ResourceMonitor {
       return false;
     }
   }
+
+  /**
+   * Memory tracker limited by both the per query memory limit and the circuit breaker.
+   */
+  @Override
+  public MemoryTracker newMemoryTracker() {
+    ByteSizeValue limit = settings.getSettingValue(Settings.Key.QUERY_MEMORY_LIMIT);
+    return new ElasticsearchMemoryTracker(circuitBreaker, limit.getBytes());
+  }
 }
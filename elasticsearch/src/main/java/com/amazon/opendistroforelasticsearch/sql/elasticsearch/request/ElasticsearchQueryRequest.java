@@ -29,13 +29,18 @@ import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 
 /**
  * Elasticsearch search request. This has to be stateful because it needs to:
  *
  * <p>1) Accumulate search source builder when visiting logical plan to push down operation. 2)
- * Indicate the search already done.
+ * Indicate the search already done. 3) Maintain after key of composite aggregation between calls
+ * to client search method.
  */
 @EqualsAndHashCode
 @Getter
@@ -80,8 +85,9 @@ public class ElasticsearchQueryRequest implements ElasticsearchRequest {
     if (searchDone) {
       return new ElasticsearchResponse(SearchHits.empty());
     } else {
-      searchDone = true;
-      return new ElasticsearchResponse(searchAction.apply(searchRequest()));
+      SearchResponse esResponse = searchAction.apply(searchRequest());
+      searchDone = !paginateCompositeAggregation(esResponse.getAggregations());
+      return new ElasticsearchResponse(esResponse);
     }
   }
 
@@ -90,6 +96,33 @@ public class ElasticsearchQueryRequest implements ElasticsearchRequest {
     //do nothing.
   }
 
+  /**
+   * Set after key of each composite aggregation in search request to the one returned in response
+   * so the next search fetches the following page of buckets.
+   *
+   * @param aggregations aggregation result in response
+   * @return true if any composite aggregation has more buckets to fetch
+   */
+  private boolean paginateCompositeAggregation(Aggregations aggregations) {
+    if (aggregations == null || sourceBuilder.aggregations() == null) {
+      return false;
+    }
+
+    boolean hasMoreBuckets = false;
+    for (AggregationBuilder builder : sourceBuilder.aggregations().getAggregatorFactories()) {
+      if (builder instanceof CompositeAggregationBuilder) {
+        CompositeAggregation composite = aggregations.get(builder.getName());
+        if (composite != null
+            && composite.afterKey() != null
+            && !composite.getBuckets().isEmpty()) {
+          ((CompositeAggregationBuilder) builder).aggregateAfter(composite.afterKey());
+          hasMoreBuckets = true;
+        }
+      }
+    }
+    return hasMoreBuckets;
+  }
+
   /**
    * Generate Elasticsearch search request.
    *
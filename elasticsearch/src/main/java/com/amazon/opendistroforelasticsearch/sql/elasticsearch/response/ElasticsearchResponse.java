@@ -18,10 +18,12 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.response;
 
 import java.util.Iterator;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.ToString;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.Aggregations;
 
 /** Elasticsearch search response. */
 @EqualsAndHashCode
@@ -31,22 +33,38 @@ public class ElasticsearchResponse implements Iterable<SearchHit> {
   /** Search query result (non-aggregation). */
   private final SearchHits hits;
 
+  /** Search aggregation result which is null if no aggregation in search request. */
+  @Getter
+  private final Aggregations aggregations;
+
   public ElasticsearchResponse(SearchResponse esResponse) {
-    this.hits = esResponse.getHits(); // TODO: aggregation result is separate and not in SearchHit[]
+    this.hits = esResponse.getHits();
+    this.aggregations = esResponse.getAggregations();
   }
 
   public ElasticsearchResponse(SearchHits hits) {
     this.hits = hits;
+    this.aggregations = null;
   }
 
   /**
    * Is response empty. As ES doc says, "Each call to the scroll API returns the next batch of
    * results until there are no more results left to return, ie the hits array is empty."
+   * Response with aggregation result is not considered empty even if no search hits returned.
    *
    * @return true for empty
    */
   public boolean isEmpty() {
-    return (hits.getHits() == null) || (hits.getHits().length == 0);
+    return ((hits.getHits() == null) || (hits.getHits().length == 0)) && !isAggregationResponse();
+  }
+
+  /**
+   * Is aggregation result included in response.
+   *
+   * @return true if aggregation result present
+   */
+  public boolean isAggregationResponse() {
+    return aggregations != null;
   }
 
   /**
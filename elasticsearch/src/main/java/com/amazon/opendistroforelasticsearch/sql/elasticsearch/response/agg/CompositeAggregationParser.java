@@ -0,0 +1,167 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.agg;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.booleanValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.floatValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.nullValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.aggregation.AggregationQueryBuilder.COMPOSITE_AGGREGATION_NAME;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTimestampValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchExprTextKeywordValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.metrics.NumericMetricsAggregation;
+import org.elasticsearch.search.aggregations.metrics.ValueCount;
+
+/**
+ * Parse composite aggregation result into tuples in the same layout as the in-memory aggregation
+ * operator produces, which is group by fields followed by aggregator results.
+ */
+@EqualsAndHashCode
+@ToString
+@RequiredArgsConstructor
+public class CompositeAggregationParser {
+
+  private final List<Aggregator> aggregatorList;
+
+  private final List<Expression> groupByList;
+
+  /**
+   * Name of composite source for the group by expression at the given position.
+   */
+  public static String groupName(int index) {
+    return "group_" + index;
+  }
+
+  /**
+   * Name of metric aggregation for the aggregator at the given position.
+   */
+  public static String aggregatorName(int index) {
+    return "agg_" + index;
+  }
+
+  /**
+   * Name of value count aggregation on the field of aggregator at the given position.
+   */
+  public static String valueCountName(int index) {
+    return aggregatorName(index) + "_count";
+  }
+
+  /**
+   * Parse each bucket in composite aggregation into a tuple.
+   *
+   * @param aggregations  aggregation result
+   * @return              tuple list
+   */
+  public List<ExprValue> parse(Aggregations aggregations) {
+    CompositeAggregation composite = aggregations.get(COMPOSITE_AGGREGATION_NAME);
+    List<ExprValue> result = new ArrayList<>();
+    for (CompositeAggregation.Bucket bucket : composite.getBuckets()) {
+      LinkedHashMap<String, ExprValue> map = new LinkedHashMap<>();
+      for (int i = 0; i < groupByList.size(); i++) {
+        Expression groupBy = groupByList.get(i);
+        map.put(groupBy.toString(), parseKey(groupBy.type(), bucket.getKey().get(groupName(i))));
+      }
+      for (int i = 0; i < aggregatorList.size(); i++) {
+        Aggregator<?> aggregator = aggregatorList.get(i);
+        map.put(aggregator.toString(), parseMetric(aggregator, i, bucket));
+      }
+      result.add(new ExprTupleValue(map));
+    }
+    return result;
+  }
+
+  private ExprValue parseKey(ExprType type, Object key) {
+    if (key == null) {
+      return nullValue();
+    }
+
+    if (type.equals(INTEGER)) {
+      return integerValue(((Number) key).intValue());
+    } else if (type.equals(LONG)) {
+      return longValue(((Number) key).longValue());
+    } else if (type.equals(FLOAT)) {
+      return floatValue(((Number) key).floatValue());
+    } else if (type.equals(DOUBLE)) {
+      return doubleValue(((Number) key).doubleValue());
+    } else if (type.equals(BOOLEAN)) {
+      return booleanValue(Boolean.valueOf(String.valueOf(key)));
+    } else if (type.equals(TIMESTAMP)) {
+      return new ExprTimestampValue(Instant.ofEpochMilli(((Number) key).longValue()));
+    } else if (type.equals(ES_TEXT_KEYWORD)) {
+      return new ElasticsearchExprTextKeywordValue(String.valueOf(key));
+    } else {
+      return stringValue(String.valueOf(key));
+    }
+  }
+
+  private ExprValue parseMetric(Aggregator<?> aggregator, int index,
+                                CompositeAggregation.Bucket bucket) {
+    if (!(aggregator.getArguments().get(0) instanceof ReferenceExpression)) {
+      return integerValue((int) bucket.getDocCount());
+    }
+
+    long valueCount = ((ValueCount) bucket.getAggregations().get(valueCountName(index))).getValue();
+    if (BuiltinFunctionName.COUNT.getName().equals(aggregator.getFunctionName())) {
+      return integerValue((int) valueCount);
+    }
+
+    // Aggregator result is null if any value in the group is null or missing
+    if (valueCount < bucket.getDocCount()) {
+      return nullValue();
+    }
+
+    double value = ((NumericMetricsAggregation.SingleValue)
+        bucket.getAggregations().get(aggregatorName(index))).value();
+    ExprType type = aggregator.type();
+    if (type.equals(INTEGER)) {
+      return integerValue((int) value);
+    } else if (type.equals(LONG)) {
+      return longValue((long) value);
+    } else if (type.equals(FLOAT)) {
+      return floatValue((float) value);
+    } else {
+      return doubleValue(value);
+    }
+  }
+}
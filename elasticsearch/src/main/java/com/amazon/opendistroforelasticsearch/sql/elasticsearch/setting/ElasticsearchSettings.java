@@ -53,12 +53,38 @@ public class ElasticsearchSettings extends Settings {
       Setting.Property.NodeScope,
       Setting.Property.Dynamic);
 
+  private static final Setting<?> QUERY_MEMORY_LIMIT_SETTINGS = Setting.memorySizeSetting(
+      Key.QUERY_MEMORY_LIMIT.getKeyValue(),
+      "10%",
+      Setting.Property.NodeScope,
+      Setting.Property.Dynamic);
+
   private static final Setting<?> QUERY_SIZE_LIMIT_SETTINGS = Setting.intSetting(
       Key.QUERY_SIZE_LIMIT.getKeyValue(),
       200,
       Setting.Property.NodeScope,
       Setting.Property.Dynamic);
 
+  private static final Setting<?> QUERY_SORT_SPILL_THRESHOLD_SETTINGS = Setting.intSetting(
+      Key.QUERY_SORT_SPILL_THRESHOLD.getKeyValue(),
+      100_000,
+      1,
+      Setting.Property.NodeScope,
+      Setting.Property.Dynamic);
+
+  private static final Setting<?> QUERY_AGGREGATION_SPILL_THRESHOLD_SETTINGS = Setting.intSetting(
+      Key.QUERY_AGGREGATION_SPILL_THRESHOLD.getKeyValue(),
+      100_000,
+      1,
+      Setting.Property.NodeScope,
+      Setting.Property.Dynamic);
+
+  private static final Setting<?> QUERY_SPILL_PATH_SETTINGS = Setting.simpleString(
+      Key.QUERY_SPILL_PATH.getKeyValue(),
+      System.getProperty("java.io.tmpdir"),
+      Setting.Property.NodeScope,
+      Setting.Property.Dynamic);
+
   private static final Setting<?> PPL_ENABLED_SETTINGS = Setting.boolSetting(
       Key.PPL_ENABLED.getKeyValue(),
       true,
@@ -77,6 +103,15 @@ public class ElasticsearchSettings extends Settings {
         PPL_ENABLED_SETTINGS, new Updater(Key.PPL_ENABLED));
     register(settingBuilder, clusterSettings, Key.QUERY_SIZE_LIMIT,
         QUERY_SIZE_LIMIT_SETTINGS, new Updater(Key.QUERY_SIZE_LIMIT));
+    register(settingBuilder, clusterSettings, Key.QUERY_SORT_SPILL_THRESHOLD,
+        QUERY_SORT_SPILL_THRESHOLD_SETTINGS, new Updater(Key.QUERY_SORT_SPILL_THRESHOLD));
+    register(settingBuilder, clusterSettings, Key.QUERY_AGGREGATION_SPILL_THRESHOLD,
+        QUERY_AGGREGATION_SPILL_THRESHOLD_SETTINGS,
+        new Updater(Key.QUERY_AGGREGATION_SPILL_THRESHOLD));
+    register(settingBuilder, clusterSettings, Key.QUERY_SPILL_PATH,
+        QUERY_SPILL_PATH_SETTINGS, new Updater(Key.QUERY_SPILL_PATH));
+    register(settingBuilder, clusterSettings, Key.QUERY_MEMORY_LIMIT,
+        QUERY_MEMORY_LIMIT_SETTINGS, new Updater(Key.QUERY_MEMORY_LIMIT));
     defaultSettings = settingBuilder.build();
   }
 
@@ -122,6 +157,10 @@ public class ElasticsearchSettings extends Settings {
         .add(PPL_QUERY_MEMORY_LIMIT_SETTINGS)
         .add(PPL_ENABLED_SETTINGS)
         .add(QUERY_SIZE_LIMIT_SETTINGS)
+        .add(QUERY_SORT_SPILL_THRESHOLD_SETTINGS)
+        .add(QUERY_AGGREGATION_SPILL_THRESHOLD_SETTINGS)
+        .add(QUERY_SPILL_PATH_SETTINGS)
+        .add(QUERY_MEMORY_LIMIT_SETTINGS)
         .build();
   }
 }
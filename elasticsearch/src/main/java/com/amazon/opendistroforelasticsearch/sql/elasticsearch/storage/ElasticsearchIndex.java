@@ -23,13 +23,20 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.Elasticsea
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchExprValueFactory;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.aggregation.AggregationQueryBuilder;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.FilterQueryBuilder;
-import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.DefaultExpressionSerializer;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.sort.SortQueryBuilder;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.CompactExpressionSerializer;
 import com.amazon.opendistroforelasticsearch.sql.planner.DefaultImplementor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalAggregation;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRelation;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalSort;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
 import com.google.common.collect.ImmutableMap;
 import java.util.HashMap;
@@ -89,6 +96,11 @@ public class ElasticsearchIndex implements Table {
     ElasticsearchIndexScan indexScan = new ElasticsearchIndexScan(client, settings, indexName,
         new ElasticsearchExprValueFactory(getFieldTypes()));
 
+    // Fetch only the fields referenced if the final output is restricted by project
+    if (plan instanceof LogicalProject) {
+      indexScan.pushDownProjects(new FieldReferenceCollector().collect(plan));
+    }
+
     /*
      * Visit logical plan with index scan as context so logical operators visited, such as
      * aggregation, filter, will accumulate (push down) Elasticsearch query and aggregation DSL on
@@ -97,16 +109,18 @@ public class ElasticsearchIndex implements Table {
     return plan.accept(new DefaultImplementor<ElasticsearchIndexScan>() {
           @Override
           public PhysicalPlan visitFilter(LogicalFilter node, ElasticsearchIndexScan context) {
-            // For now (without optimizer), only push down filter close to relation
+            // Optimizer rules bring filters down to the relation before this visitor runs,
+            // so only the filter right above relation is translated to Elasticsearch query
             if (!(node.getChild().get(0) instanceof LogicalRelation)) {
               return super.visitFilter(node, context);
             }
 
             FilterQueryBuilder queryBuilder =
-                new FilterQueryBuilder(new DefaultExpressionSerializer());
+                new FilterQueryBuilder(new CompactExpressionSerializer());
 
             QueryBuilder query = queryBuilder.build(node.getCondition());
             if (query == null) { // Use default filter operator if unable to push down
+              context.decodeSourceLazily(new FieldReferenceCollector().collect(node));
               return super.visitFilter(node, context);
             }
 
@@ -114,6 +128,45 @@ public class ElasticsearchIndex implements Table {
             return visitChild(node, context);
           }
 
+          @Override
+          public PhysicalPlan visitAggregation(LogicalAggregation node,
+                                               ElasticsearchIndexScan context) {
+            AggregationQueryBuilder builder = new AggregationQueryBuilder();
+            if (!builder.canSupport(node.getAggregatorList(), node.getGroupByList())) {
+              return super.visitAggregation(node, context);
+            }
+
+            // Only push down if everything below has been pushed down to index scan already,
+            // except sort and limit because aggregation has to run on the top documents only
+            PhysicalPlan child = visitChild(node, context);
+            if (child != indexScan || context.isSortOrLimitPushedDown()) {
+              return new AggregationOperator(
+                  child, node.getAggregatorList(), node.getGroupByList());
+            }
+
+            context.pushDownAggregation(
+                builder.build(node.getAggregatorList(), node.getGroupByList()));
+            return indexScan;
+          }
+
+          @Override
+          public PhysicalPlan visitSort(LogicalSort node, ElasticsearchIndexScan context) {
+            SortQueryBuilder builder = new SortQueryBuilder();
+            if (!builder.canSupport(node.getSortList())) {
+              return super.visitSort(node, context);
+            }
+
+            // Only push down if everything below has been pushed down to index scan already
+            PhysicalPlan child = visitChild(node, context);
+            if (child != indexScan || context.isAggregationPushedDown()) {
+              return new SortOperator(child, node.getCount(), node.getSortList());
+            }
+
+            context.pushDownSort(builder.build(node.getSortList()));
+            context.pushDownLimit(node.getCount());
+            return indexScan;
+          }
+
           @Override
           public PhysicalPlan visitRelation(LogicalRelation node, ElasticsearchIndexScan context) {
             return indexScan;
@@ -26,18 +26,22 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.Elasti
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.agg.CompositeAggregationParser;
 import com.amazon.opendistroforelasticsearch.sql.storage.TableScanOperator;
-import com.google.common.collect.Iterables;
-import java.util.ArrayList;
+import com.google.common.collect.Iterators;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.apache.commons.lang3.tuple.Pair;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
-import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilder;
 
 /**
  * Elasticsearch index scan operator.
@@ -56,8 +60,30 @@ public class ElasticsearchIndexScan extends TableScanOperator {
   @ToString.Include
   private final ElasticsearchRequest request;
 
+  /** Parser of aggregation result which is present only if aggregation pushed down. */
+  @EqualsAndHashCode.Include
+  @ToString.Include
+  private CompositeAggregationParser aggregationParser;
+
+  /**
+   * Indicate sort or limit pushed down, in which case only the top documents are returned and
+   * aggregation on top must not be pushed down to run over the whole index.
+   */
+  private boolean isSortOrLimitPushedDown;
+
   /** Search response for current batch. */
-  private Iterator<SearchHit> hits;
+  private Iterator<ExprValue> iterator;
+
+  /** Indicate all the batches have been fetched and no more search is required. */
+  private boolean isLastBatch;
+
+  /**
+   * Fields decoded lazily on first access instead of decoding document source all at once, or
+   * null if document source is decoded eagerly.
+   */
+  @EqualsAndHashCode.Include
+  @ToString.Include
+  private Set<String> lazyFields;
 
   /**
    * Todo.
@@ -75,24 +101,22 @@ public class ElasticsearchIndexScan extends TableScanOperator {
   public void open() {
     super.open();
 
-    // For now pull all results immediately once open
-    List<ElasticsearchResponse> responses = new ArrayList<>();
-    ElasticsearchResponse response = client.search(request);
-    while (!response.isEmpty()) {
-      responses.add(response);
-      response = client.search(request);
-    }
-    hits = Iterables.concat(responses.toArray(new ElasticsearchResponse[0])).iterator();
+    // Only the first batch is fetched here. The rest is pulled on demand by hasNext()
+    isLastBatch = false;
+    fetchNextBatch();
   }
 
   @Override
   public boolean hasNext() {
-    return hits.hasNext();
+    while (!iterator.hasNext() && !isLastBatch) {
+      fetchNextBatch();
+    }
+    return iterator.hasNext();
   }
 
   @Override
   public ExprValue next() {
-    return exprValueFactory.construct(hits.next().getSourceAsString());
+    return iterator.next();
   }
 
   /**
@@ -119,6 +143,81 @@ public class ElasticsearchIndexScan extends TableScanOperator {
     }
   }
 
+  /**
+   * Push down aggregation to DSL request. The search hits are not required any more and each
+   * bucket of the aggregation result is returned as a row instead.
+   * @param aggregation composite aggregation and its response parser
+   */
+  public void pushDownAggregation(
+      Pair<CompositeAggregationBuilder, CompositeAggregationParser> aggregation) {
+    SearchSourceBuilder source = request.getSourceBuilder();
+    source.aggregation(aggregation.getLeft());
+    source.size(0);
+    aggregationParser = aggregation.getRight();
+  }
+
+  /**
+   * Push down sort to DSL request. The default sort by _doc added for filter push down is
+   * replaced because it only guarantees consistent order without sort.
+   * @param sorts  field sorts in order
+   */
+  public void pushDownSort(List<SortBuilder<?>> sorts) {
+    SearchSourceBuilder source = request.getSourceBuilder();
+    if (source.sorts() != null) {
+      source.sorts().clear();
+    }
+    sorts.forEach(source::sort);
+    isSortOrLimitPushedDown = true;
+  }
+
+  /**
+   * Push down limit to DSL request so only the first N documents are returned.
+   * @param limit  max number of documents required
+   */
+  public void pushDownLimit(int limit) {
+    SearchSourceBuilder source = request.getSourceBuilder();
+    source.size(Math.min(source.size(), limit));
+    isSortOrLimitPushedDown = true;
+  }
+
+  /**
+   * Push down project to DSL request so only the fields required are included in the _source of
+   * each document returned.
+   * @param fields  names of fields referenced
+   */
+  public void pushDownProjects(Set<String> fields) {
+    SearchSourceBuilder source = request.getSourceBuilder();
+    source.fetchSource(fields.toArray(new String[0]), null);
+  }
+
+  /**
+   * Decode document source lazily so only fields read are decoded. This is useful if documents are
+   * filtered by operator on top and most of them are discarded without being fully read.
+   *
+   * @param fields  names of fields read by the operator on top, which are decoded together
+   */
+  public void decodeSourceLazily(Set<String> fields) {
+    lazyFields = fields;
+  }
+
+  /**
+   * Check if aggregation pushed down already, in which case the result is buckets instead of
+   * documents and no more operation can be pushed down on top.
+   * @return  true if aggregation pushed down
+   */
+  public boolean isAggregationPushedDown() {
+    return aggregationParser != null;
+  }
+
+  /**
+   * Check if sort or limit pushed down already, in which case the documents returned are only
+   * the top ones and aggregation cannot be pushed down on top.
+   * @return  true if sort or limit pushed down
+   */
+  public boolean isSortOrLimitPushedDown() {
+    return isSortOrLimitPushedDown;
+  }
+
   @Override
   public void close() {
     super.close();
@@ -126,6 +225,25 @@ public class ElasticsearchIndexScan extends TableScanOperator {
     client.cleanup(request);
   }
 
+  /**
+   * Fetch next batch of search hits. The previous batch is released once replaced so at most
+   * one batch is held in memory at any time.
+   */
+  private void fetchNextBatch() {
+    ElasticsearchResponse response = client.search(request);
+    if (response.isEmpty()) {
+      isLastBatch = true;
+      iterator = Collections.emptyIterator();
+    } else if (response.isAggregationResponse()) {
+      iterator = aggregationParser.parse(response.getAggregations()).iterator();
+    } else {
+      iterator = Iterators.transform(response.iterator(),
+          hit -> (lazyFields != null)
+              ? exprValueFactory.constructLazily(hit.getSourceRef(), lazyFields)
+              : exprValueFactory.construct(hit.getSourceRef()));
+    }
+  }
+
   private boolean isBoolFilterQuery(QueryBuilder current) {
     return (current instanceof BoolQueryBuilder)
         && !((BoolQueryBuilder) current).filter().isEmpty();
@@ -0,0 +1,129 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
+
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalAggregation;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalDedupe;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalEval;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalFilter;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalProject;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalRename;
+import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalSort;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
+
+/**
+ * Collect the name of all fields referenced by a logical plan. A field not in the result is never
+ * read by any operator, thus it's safe to exclude it from the documents returned by Elasticsearch
+ * if the final output is restricted by a project operator.
+ *
+ * <p>New fields defined by eval and rename may be collected too, which is harmless because they
+ * don't exist in the index.
+ */
+public class FieldReferenceCollector extends LogicalPlanNodeVisitor<Void, Set<String>> {
+
+  private final ExpressionNodeVisitor<Void, Set<String>> expressionVisitor =
+      new ExpressionNodeVisitor<Void, Set<String>>() {
+        @Override
+        public Void visitReference(ReferenceExpression node, Set<String> context) {
+          context.add(node.getAttr());
+          return null;
+        }
+
+        @Override
+        public Void visitNamed(NamedExpression node, Set<String> context) {
+          return node.getDelegated().accept(this, context);
+        }
+      };
+
+  /**
+   * Collect all field names referenced in the logical plan.
+   *
+   * @param plan  logical plan
+   * @return      field names in the order of first occurrence
+   */
+  public Set<String> collect(LogicalPlan plan) {
+    Set<String> fields = new LinkedHashSet<>();
+    plan.accept(this, fields);
+    return fields;
+  }
+
+  @Override
+  protected Void visitNode(LogicalPlan plan, Set<String> context) {
+    plan.getChild().forEach(child -> child.accept(this, context));
+    return null;
+  }
+
+  @Override
+  public Void visitFilter(LogicalFilter plan, Set<String> context) {
+    plan.getCondition().accept(expressionVisitor, context);
+    return visitNode(plan, context);
+  }
+
+  @Override
+  public Void visitAggregation(LogicalAggregation plan, Set<String> context) {
+    collectFields(plan.getAggregatorList(), context);
+    collectFields(plan.getGroupByList(), context);
+    return visitNode(plan, context);
+  }
+
+  @Override
+  public Void visitDedupe(LogicalDedupe plan, Set<String> context) {
+    collectFields(plan.getDedupeList(), context);
+    return visitNode(plan, context);
+  }
+
+  @Override
+  public Void visitRename(LogicalRename plan, Set<String> context) {
+    collectFields(plan.getRenameMap().keySet(), context);
+    return visitNode(plan, context);
+  }
+
+  @Override
+  public Void visitProject(LogicalProject plan, Set<String> context) {
+    collectFields(plan.getProjectList(), context);
+    return visitNode(plan, context);
+  }
+
+  @Override
+  public Void visitEval(LogicalEval plan, Set<String> context) {
+    plan.getExpressions().stream()
+        .map(Pair::getRight)
+        .forEach(expr -> expr.accept(expressionVisitor, context));
+    return visitNode(plan, context);
+  }
+
+  @Override
+  public Void visitSort(LogicalSort plan, Set<String> context) {
+    plan.getSortList().stream()
+        .map(Pair::getRight)
+        .forEach(expr -> expr.accept(expressionVisitor, context));
+    return visitNode(plan, context);
+  }
+
+  private void collectFields(Collection<? extends Expression> expressions, Set<String> context) {
+    expressions.forEach(expr -> expr.accept(expressionVisitor, context));
+  }
+}
@@ -19,6 +19,8 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.ExpressionFilterScriptFactory;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.ExpressionSerializer;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
 import java.util.Set;
@@ -49,11 +51,23 @@ public class ExpressionScriptEngine implements ScriptEngine {
           ExpressionFilterScriptFactory::new
       );
 
+  /**
+   * Maximum number of deserialized expressions cached.
+   */
+  private static final int COMPILE_CACHE_SIZE = 1000;
+
   /**
    * Expression serializer that (de-)serializes expression.
    */
   private final ExpressionSerializer serializer;
 
+  /**
+   * Expressions deserialized from script code, which is the same on every shard and every query
+   * that pushes down the same filter. Least recently used ones are evicted first when full.
+   */
+  private final Cache<String, Expression> compileCache =
+      CacheBuilder.newBuilder().maximumSize(COMPILE_CACHE_SIZE).build();
+
   @Override
   public String getType() {
     return EXPRESSION_LANG_NAME;
@@ -64,18 +78,19 @@ public class ExpressionScriptEngine implements ScriptEngine {
                        String scriptCode,
                        ScriptContext<T> context,
                        Map<String, String> params) {
+    if (!CONTEXTS.containsKey(context)) {
+      throw new IllegalStateException(String.format("Script context is currently not supported: "
+          + "all supported contexts [%s], given context [%s] ", CONTEXTS, context));
+    }
+
     /*
      * Note that in fact the expression source is already compiled in query engine.
      * The "code" is actually a serialized expression tree by our serializer.
      * Therefore the compilation here is simply to deserialize the expression tree.
      */
-    Expression expression = serializer.deserialize(scriptCode);
-
-    if (CONTEXTS.containsKey(context)) {
-      return context.factoryClazz.cast(CONTEXTS.get(context).apply(expression));
-    }
-    throw new IllegalStateException(String.format("Script context is currently not supported: "
-        + "all supported contexts [%s], given context [%s] ", CONTEXTS, context));
+    Expression expression = compileCache.asMap().computeIfAbsent(scriptCode,
+        serializer::deserialize);
+    return context.factoryClazz.cast(CONTEXTS.get(context).apply(expression));
   }
 
   @Override
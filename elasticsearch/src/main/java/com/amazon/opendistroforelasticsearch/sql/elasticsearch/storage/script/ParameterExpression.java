@@ -0,0 +1,107 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprNullValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Placeholder of a literal lifted out of script code into script parameters, so that queries of
+ * the same shape share the same script code and thus the compiled script cached by Elasticsearch.
+ * Its value is bound from script parameters and resolved from environment just like reference.
+ */
+@EqualsAndHashCode
+@RequiredArgsConstructor
+public class ParameterExpression implements Expression {
+
+  /**
+   * Literal types that can be passed as script parameter value and bound back without any loss.
+   */
+  public static final Set<ExprType> SUPPORTED_TYPES =
+      ImmutableSet.of(BOOLEAN, INTEGER, LONG, FLOAT, DOUBLE, STRING);
+
+  /**
+   * Parameter name in script parameters.
+   */
+  @Getter
+  private final String name;
+
+  private final ExprType type;
+
+  @Override
+  public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
+    return valueEnv.resolve(this);
+  }
+
+  @Override
+  public ExprType type() {
+    return type;
+  }
+
+  @Override
+  public <T, C> T accept(ExpressionNodeVisitor<T, C> visitor, C context) {
+    return visitor.visitNode(this, context);
+  }
+
+  /**
+   * Convert script parameter value to expression value of the parameter type. Note that numeric
+   * value may be widened or narrowed when parameters transported, for example via JSON.
+   *
+   * @param value script parameter value
+   * @return      expression value
+   */
+  public ExprValue bind(Object value) {
+    if (value == null) {
+      return ExprNullValue.of();
+    }
+
+    if (type == INTEGER) {
+      return ExprValueUtils.integerValue(((Number) value).intValue());
+    } else if (type == LONG) {
+      return ExprValueUtils.longValue(((Number) value).longValue());
+    } else if (type == FLOAT) {
+      return ExprValueUtils.floatValue(((Number) value).floatValue());
+    } else if (type == DOUBLE) {
+      return ExprValueUtils.doubleValue(((Number) value).doubleValue());
+    } else {
+      return ExprValueUtils.fromObjectValue(value);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "@" + name;
+  }
+
+}
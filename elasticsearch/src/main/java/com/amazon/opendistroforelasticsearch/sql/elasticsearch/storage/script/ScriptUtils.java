@@ -0,0 +1,71 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
+
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import lombok.experimental.UtilityClass;
+
+/**
+ * Field helpers shared by the query builders that push down filter, sort and aggregation.
+ */
+@UtilityClass
+public class ScriptUtils {
+
+  /**
+   * Field types that have doc values, and thus can be sorted or aggregated by Elasticsearch.
+   */
+  private static final Set<ExprType> DOC_VALUE_TYPES =
+      ImmutableSet.of(INTEGER, LONG, FLOAT, DOUBLE, BOOLEAN, STRING, TIMESTAMP, ES_TEXT_KEYWORD);
+
+  /**
+   * Check if the expression is a field reference that has doc values.
+   *
+   * @param expr  expression
+   * @return      true if field reference of doc value type, otherwise false
+   */
+  public static boolean isDocValueField(Expression expr) {
+    return (expr instanceof ReferenceExpression) && DOC_VALUE_TYPES.contains(expr.type());
+  }
+
+  /**
+   * Convert multi-field text field name to its inner keyword field. The limitation and assumption
+   * is that the keyword field name is always "keyword" which is true by default.
+   *
+   * @param fieldName   field name
+   * @param fieldType   field type
+   * @return            keyword field name for multi-field, otherwise original field name returned
+   */
+  public static String convertTextToKeyword(String fieldName, ExprType fieldType) {
+    if (fieldType == ES_TEXT_KEYWORD) {
+      return fieldName + ".keyword";
+    }
+    return fieldName;
+  }
+}
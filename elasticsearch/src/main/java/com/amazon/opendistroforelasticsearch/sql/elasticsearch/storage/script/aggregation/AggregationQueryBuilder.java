@@ -0,0 +1,150 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.aggregation;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ScriptUtils.convertTextToKeyword;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ScriptUtils.isDocValueField;
+
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.agg.CompositeAggregationParser;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ScriptUtils;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeValuesSourceBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+
+/**
+ * Build Elasticsearch composite aggregation from the aggregators and group by expressions in
+ * logical aggregation. The group by fields become the terms sources of the composite aggregation
+ * and each aggregator becomes a metric sub-aggregation calculated per bucket. Buckets are fetched
+ * page by page by after key and parsed into tuples by {@link CompositeAggregationParser}.
+ *
+ * <p>Only group by field reference and count, sum, avg aggregator on field reference are
+ * supported for now.
+ */
+public class AggregationQueryBuilder {
+
+  /**
+   * Name of composite aggregation in search request.
+   */
+  public static final String COMPOSITE_AGGREGATION_NAME = "composite_buckets";
+
+  /**
+   * Number of buckets fetched in each page.
+   */
+  public static final int BUCKET_PAGE_SIZE = 1000;
+
+  /**
+   * Field types that sum and avg can apply to.
+   */
+  private static final Set<ExprType> NUMBER_TYPES = ImmutableSet.of(INTEGER, LONG, FLOAT, DOUBLE);
+
+  /**
+   * Check if aggregation can be pushed down as composite aggregation.
+   *
+   * @param aggregatorList  aggregator list
+   * @param groupByList     group by expression list
+   * @return                true if supported, otherwise false
+   */
+  public boolean canSupport(List<Aggregator> aggregatorList, List<Expression> groupByList) {
+    if (groupByList.isEmpty()) {
+      return false;
+    }
+    return groupByList.stream().allMatch(ScriptUtils::isDocValueField)
+        && aggregatorList.stream().allMatch(this::isSupportedAggregator);
+  }
+
+  /**
+   * Build composite aggregation and the parser for its result.
+   *
+   * @param aggregatorList  aggregator list
+   * @param groupByList     group by expression list
+   * @return                composite aggregation builder and response parser
+   */
+  public Pair<CompositeAggregationBuilder, CompositeAggregationParser> build(
+      List<Aggregator> aggregatorList, List<Expression> groupByList) {
+    List<CompositeValuesSourceBuilder<?>> sources = new ArrayList<>();
+    for (int i = 0; i < groupByList.size(); i++) {
+      ReferenceExpression field = (ReferenceExpression) groupByList.get(i);
+      sources.add(new TermsValuesSourceBuilder(CompositeAggregationParser.groupName(i))
+          .field(convertTextToKeyword(field.getAttr(), field.type()))
+          .missingBucket(true));
+    }
+
+    CompositeAggregationBuilder composite =
+        new CompositeAggregationBuilder(COMPOSITE_AGGREGATION_NAME, sources)
+            .size(BUCKET_PAGE_SIZE);
+    for (int i = 0; i < aggregatorList.size(); i++) {
+      Aggregator<?> aggregator = aggregatorList.get(i);
+      Expression arg = aggregator.getArguments().get(0);
+      if (!(arg instanceof ReferenceExpression)) {
+        continue; // count(literal) is bucket doc count
+      }
+
+      // Value count is required by all because the result of sum and avg is null if any
+      // value is null or missing
+      String field = convertTextToKeyword(((ReferenceExpression) arg).getAttr(), arg.type());
+      String name = CompositeAggregationParser.aggregatorName(i);
+      composite.subAggregation(
+          AggregationBuilders.count(CompositeAggregationParser.valueCountName(i)).field(field));
+      FunctionName functionName = aggregator.getFunctionName();
+      if (BuiltinFunctionName.SUM.getName().equals(functionName)) {
+        composite.subAggregation(AggregationBuilders.sum(name).field(field));
+      } else if (BuiltinFunctionName.AVG.getName().equals(functionName)) {
+        composite.subAggregation(AggregationBuilders.avg(name).field(field));
+      }
+    }
+    return Pair.of(composite, new CompositeAggregationParser(aggregatorList, groupByList));
+  }
+
+  private boolean isSupportedAggregator(Aggregator<?> aggregator) {
+    if (aggregator.getArguments().size() != 1) {
+      return false;
+    }
+
+    Expression arg = aggregator.getArguments().get(0);
+    FunctionName functionName = aggregator.getFunctionName();
+    if (BuiltinFunctionName.COUNT.getName().equals(functionName)) {
+      return isDocValueField(arg)
+          || ((arg instanceof LiteralExpression) && !isNullOrMissing((LiteralExpression) arg));
+    } else if (BuiltinFunctionName.SUM.getName().equals(functionName)
+        || BuiltinFunctionName.AVG.getName().equals(functionName)) {
+      return (arg instanceof ReferenceExpression) && NUMBER_TYPES.contains(arg.type());
+    }
+    return false;
+  }
+
+  private boolean isNullOrMissing(LiteralExpression literal) {
+    return literal.valueOf(null).isNull() || literal.valueOf(null).isMissing();
+  }
+
+}
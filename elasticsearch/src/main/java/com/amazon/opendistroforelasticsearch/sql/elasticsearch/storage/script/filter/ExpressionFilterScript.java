@@ -19,7 +19,6 @@ package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.f
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
 import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
-import static java.util.stream.Collectors.toMap;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
@@ -27,16 +26,17 @@ import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchExprValueFactory;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
-import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.CompiledExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.compiler.ExpressionCompiler;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.time.chrono.ChronoZonedDateTime;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import lombok.EqualsAndHashCode;
 import org.apache.lucene.index.LeafReaderContext;
 import org.elasticsearch.SpecialPermission;
@@ -47,6 +47,10 @@ import org.elasticsearch.search.lookup.SearchLookup;
 /**
  * Expression script executor that executes the expression on each document
  * and determine if the document is supposed to be filtered out or not.
+ *
+ * <p>Fields referenced and value factory are resolved by script factory and shared. The doc values
+ * of the fields are bound once per segment on first execution, after which evaluating a document
+ * only advances each doc value to current document and runs the compiled expression.
  */
 @EqualsAndHashCode(callSuper = false)
 class ExpressionFilterScript extends FilterScript {
@@ -56,64 +60,106 @@ class ExpressionFilterScript extends FilterScript {
    */
   private final Expression expression;
 
+  /**
+   * Expression compiled for this script instance only because it's not thread safe.
+   */
+  @EqualsAndHashCode.Exclude
+  private final CompiledExpression compiledExpression;
+
+  /**
+   * Fields referenced by the expression.
+   */
+  @EqualsAndHashCode.Exclude
+  private final List<ReferenceExpression> fields;
+
+  /**
+   * Value factory that constructs expression value from doc value of the fields.
+   */
+  @EqualsAndHashCode.Exclude
+  private final ElasticsearchExprValueFactory valueFactory;
+
+  /**
+   * Parameter value and field value of current document reused across documents.
+   */
+  @EqualsAndHashCode.Exclude
+  private final Map<Expression, ExprValue> valueEnv = new HashMap<>();
+
+  /**
+   * Doc values of the fields in this segment in the same order as fields.
+   */
+  @EqualsAndHashCode.Exclude
+  private ScriptDocValues<?>[] docValues;
+
+  /**
+   * Current document ID.
+   */
+  @EqualsAndHashCode.Exclude
+  private int docId;
+
+  /**
+   * Constructor of ExpressionFilterScript.
+   */
   public ExpressionFilterScript(Expression expression,
+                                List<ReferenceExpression> fields,
+                                ElasticsearchExprValueFactory valueFactory,
+                                Map<Expression, ExprValue> parameterValues,
                                 SearchLookup lookup,
                                 LeafReaderContext context,
                                 Map<String, Object> params) {
     super(params, lookup, context);
     this.expression = expression;
+    this.compiledExpression = ExpressionCompiler.compile(expression);
+    this.fields = fields;
+    this.valueFactory = valueFactory;
+    this.valueEnv.putAll(parameterValues);
+  }
+
+  @Override
+  public void setDocument(int docId) {
+    super.setDocument(docId);
+    this.docId = docId;
   }
 
   @Override
   public boolean execute() {
-    // Check current script are not being called by unprivileged code.
-    SpecialPermission.check();
+    if (docValues == null) {
+      docValues = bindDocValues();
+    }
 
-    return AccessController.doPrivileged((PrivilegedAction<Boolean>) () -> {
-      Set<ReferenceExpression> fields = extractFields(expression);
-      ElasticsearchExprValueFactory valueFactory = buildValueFactory(fields);
-      Environment<Expression, ExprValue> valueEnv = buildValueEnv(fields, valueFactory);
-      ExprValue result = evaluateExpression(valueEnv);
-      return (Boolean) result.value();
-    });
+    for (int i = 0; i < docValues.length; i++) {
+      ReferenceExpression field = fields.get(i);
+      valueEnv.put(field, valueFactory.construct(field.getAttr(), getDocValue(field, i)));
+    }
+    ExprValue result = evaluateExpression(valueEnv::get);
+    return (Boolean) result.value();
   }
 
-  private Set<ReferenceExpression> extractFields(Expression expr) {
-    Set<ReferenceExpression> fields = new HashSet<>();
-    expr.accept(new ExpressionNodeVisitor<Object, Set<ReferenceExpression>>() {
-      @Override
-      public Object visitReference(ReferenceExpression node, Set<ReferenceExpression> context) {
-        context.add(node);
-        return null;
-      }
-    }, fields);
-    return fields;
-  }
+  private ScriptDocValues<?>[] bindDocValues() {
+    // Check current script are not being called by unprivileged code.
+    SpecialPermission.check();
 
-  private ElasticsearchExprValueFactory buildValueFactory(Set<ReferenceExpression> fields) {
-    Map<String, ExprType> typeEnv = fields.stream()
-                                          .collect(toMap(
-                                              ReferenceExpression::getAttr,
-                                              ReferenceExpression::type));
-    return new ElasticsearchExprValueFactory(typeEnv);
+    return AccessController.doPrivileged((PrivilegedAction<ScriptDocValues<?>[]>) () -> {
+      ScriptDocValues<?>[] values = new ScriptDocValues<?>[fields.size()];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = getDoc().get(getDocValueName(fields.get(i)));
+      }
+      return values;
+    });
   }
 
-  private Environment<Expression, ExprValue> buildValueEnv(
-      Set<ReferenceExpression> fields, ElasticsearchExprValueFactory valueFactory) {
+  private Object getDocValue(ReferenceExpression field, int index) {
+    ScriptDocValues<?> docValue = docValues[index];
+    if (docValue == null) {
+      return null;
+    }
 
-    Map<Expression, ExprValue> valueEnv = new HashMap<>();
-    for (ReferenceExpression field : fields) {
-      String fieldName = field.getAttr();
-      ExprValue exprValue = valueFactory.construct(fieldName, getDocValue(field));
-      valueEnv.put(field, exprValue);
+    try {
+      docValue.setNextDocId(docId);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read doc value of field: " + field.getAttr(), e);
     }
-    return valueEnv::get; // Encapsulate map data structure into anonymous Environment class
-  }
 
-  private Object getDocValue(ReferenceExpression field) {
-    String fieldName = getDocValueName(field);
-    ScriptDocValues<?> docValue = getDoc().get(fieldName);
-    if (docValue == null || docValue.isEmpty()) {
+    if (docValue.isEmpty()) {
       return null;
     }
 
@@ -152,7 +198,7 @@ class ExpressionFilterScript extends FilterScript {
   }
 
   private ExprValue evaluateExpression(Environment<Expression, ExprValue> valueEnv) {
-    ExprValue result = expression.valueOf(valueEnv);
+    ExprValue result = compiledExpression.valueOf(valueEnv);
     if (result.isNull() || result.isMissing()) {
       return ExprBooleanValue.of(false);
     }
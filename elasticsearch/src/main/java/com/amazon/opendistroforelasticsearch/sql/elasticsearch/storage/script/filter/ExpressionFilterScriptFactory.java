@@ -16,14 +16,26 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter;
 
+import static java.util.stream.Collectors.toMap;
+
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchExprValueFactory;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ParameterExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import lombok.EqualsAndHashCode;
 import org.elasticsearch.script.FilterScript;
 import org.elasticsearch.search.lookup.SearchLookup;
 
 /**
- * Expression script factory that generates leaf factory.
+ * Expression script factory that generates leaf factory. Fields referenced by the expression and
+ * their types are resolved once here and shared by all scripts created for each segment.
  */
 @EqualsAndHashCode
 public class ExpressionFilterScriptFactory implements FilterScript.Factory {
@@ -33,8 +45,32 @@ public class ExpressionFilterScriptFactory implements FilterScript.Factory {
    */
   private final Expression expression;
 
+  /**
+   * Fields referenced by the expression.
+   */
+  @EqualsAndHashCode.Exclude
+  private final List<ReferenceExpression> fields;
+
+  /**
+   * Value factory that constructs expression value from doc value of the fields.
+   */
+  @EqualsAndHashCode.Exclude
+  private final ElasticsearchExprValueFactory valueFactory;
+
+  /**
+   * Parameters in the expression whose value is bound from script parameters.
+   */
+  @EqualsAndHashCode.Exclude
+  private final List<ParameterExpression> parameters;
+
+  /**
+   * Constructor of ExpressionFilterScriptFactory.
+   */
   public ExpressionFilterScriptFactory(Expression expression) {
     this.expression = expression;
+    this.fields = extractFields(expression);
+    this.valueFactory = buildValueFactory(fields);
+    this.parameters = extractParameters(expression);
   }
 
   @Override
@@ -45,7 +81,42 @@ public class ExpressionFilterScriptFactory implements FilterScript.Factory {
 
   @Override
   public FilterScript.LeafFactory newFactory(Map<String, Object> params, SearchLookup lookup) {
-    return new ExpressionFilterScriptLeafFactory(expression, params, lookup);
+    return new ExpressionFilterScriptLeafFactory(
+        expression, fields, valueFactory, parameters, params, lookup);
+  }
+
+  private List<ReferenceExpression> extractFields(Expression expr) {
+    Set<ReferenceExpression> fields = new LinkedHashSet<>();
+    expr.accept(new ExpressionNodeVisitor<Object, Set<ReferenceExpression>>() {
+      @Override
+      public Object visitReference(ReferenceExpression node, Set<ReferenceExpression> context) {
+        context.add(node);
+        return null;
+      }
+    }, fields);
+    return new ArrayList<>(fields);
+  }
+
+  private List<ParameterExpression> extractParameters(Expression expr) {
+    Set<ParameterExpression> parameters = new LinkedHashSet<>();
+    expr.accept(new ExpressionNodeVisitor<Object, Set<ParameterExpression>>() {
+      @Override
+      public Object visitNode(Expression node, Set<ParameterExpression> context) {
+        if (node instanceof ParameterExpression) {
+          context.add((ParameterExpression) node);
+        }
+        return null;
+      }
+    }, parameters);
+    return new ArrayList<>(parameters);
+  }
+
+  private ElasticsearchExprValueFactory buildValueFactory(List<ReferenceExpression> fields) {
+    Map<String, ExprType> typeEnv = fields.stream()
+                                          .collect(toMap(
+                                              ReferenceExpression::getAttr,
+                                              ReferenceExpression::type));
+    return new ElasticsearchExprValueFactory(typeEnv);
   }
 
 }
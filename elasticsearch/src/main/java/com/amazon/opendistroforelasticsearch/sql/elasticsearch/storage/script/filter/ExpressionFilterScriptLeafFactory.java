@@ -16,7 +16,13 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter;
 
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchExprValueFactory;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ParameterExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.apache.lucene.index.LeafReaderContext;
 import org.elasticsearch.script.FilterScript;
@@ -32,6 +38,21 @@ class ExpressionFilterScriptLeafFactory implements FilterScript.LeafFactory {
    */
   private final Expression expression;
 
+  /**
+   * Fields referenced by the expression.
+   */
+  private final List<ReferenceExpression> fields;
+
+  /**
+   * Value factory that constructs expression value from doc value of the fields.
+   */
+  private final ElasticsearchExprValueFactory valueFactory;
+
+  /**
+   * Value of parameters in the expression bound from script parameters.
+   */
+  private final Map<Expression, ExprValue> parameterValues = new HashMap<>();
+
   /**
    * Parameters for the expression.
    */
@@ -42,17 +63,29 @@ class ExpressionFilterScriptLeafFactory implements FilterScript.LeafFactory {
    */
   private final SearchLookup lookup;
 
+  /**
+   * Constructor of ExpressionFilterScriptLeafFactory.
+   */
   public ExpressionFilterScriptLeafFactory(Expression expression,
+                                           List<ReferenceExpression> fields,
+                                           ElasticsearchExprValueFactory valueFactory,
+                                           List<ParameterExpression> parameters,
                                            Map<String, Object> params,
                                            SearchLookup lookup) {
     this.expression = expression;
+    this.fields = fields;
+    this.valueFactory = valueFactory;
     this.params = params;
     this.lookup = lookup;
+    for (ParameterExpression parameter : parameters) {
+      parameterValues.put(parameter, parameter.bind(params.get(parameter.getName())));
+    }
   }
 
   @Override
   public FilterScript newInstance(LeafReaderContext ctx) {
-    return new ExpressionFilterScript(expression, lookup, ctx, params);
+    return new ExpressionFilterScript(
+        expression, fields, valueFactory, parameterValues, lookup, ctx, params);
   }
 
 }
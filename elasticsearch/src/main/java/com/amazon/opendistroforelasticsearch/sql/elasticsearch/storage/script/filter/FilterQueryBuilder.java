@@ -17,10 +17,11 @@
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter;
 
 import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ExpressionScriptEngine.EXPRESSION_LANG_NAME;
-import static java.util.Collections.emptyMap;
 import static org.elasticsearch.script.Script.DEFAULT_SCRIPT_TYPE;
 
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.ExistsQuery;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.LuceneQuery;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.NotEqualQuery;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.RangeQuery;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.RangeQuery.Comparison;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene.TermQuery;
@@ -32,13 +33,18 @@ import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
 import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiFunction;
 import lombok.RequiredArgsConstructor;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.index.query.ScriptQueryBuilder;
+import org.elasticsearch.index.query.TermQueryBuilder;
 import org.elasticsearch.script.Script;
 
 @RequiredArgsConstructor
@@ -55,11 +61,14 @@ public class FilterQueryBuilder extends ExpressionNodeVisitor<QueryBuilder, Obje
   private final Map<FunctionName, LuceneQuery> luceneQueries =
       ImmutableMap.<FunctionName, LuceneQuery>builder()
           .put(BuiltinFunctionName.EQUAL.getName(), new TermQuery())
+          .put(BuiltinFunctionName.NOTEQUAL.getName(), new NotEqualQuery())
           .put(BuiltinFunctionName.LESS.getName(), new RangeQuery(Comparison.LT))
           .put(BuiltinFunctionName.GREATER.getName(), new RangeQuery(Comparison.GT))
           .put(BuiltinFunctionName.LTE.getName(), new RangeQuery(Comparison.LTE))
           .put(BuiltinFunctionName.GTE.getName(), new RangeQuery(Comparison.GTE))
           .put(BuiltinFunctionName.LIKE.getName(), new WildcardQuery())
+          .put(BuiltinFunctionName.IS_NULL.getName(), new ExistsQuery(false))
+          .put(BuiltinFunctionName.IS_NOT_NULL.getName(), new ExistsQuery(true))
           .build();
 
   /**
@@ -81,11 +90,13 @@ public class FilterQueryBuilder extends ExpressionNodeVisitor<QueryBuilder, Obje
     FunctionName name = func.getFunctionName();
     switch (name.getFunctionName()) {
       case "and":
-        return buildBoolQuery(func, context, BoolQueryBuilder::filter);
+        return buildBoolQuery(
+            mergeRangeQueries(buildOperandQueries(func, context)), BoolQueryBuilder::filter);
       case "or":
-        return buildBoolQuery(func, context, BoolQueryBuilder::should);
+        return buildBoolQuery(
+            mergeTermQueries(buildOperandQueries(func, context)), BoolQueryBuilder::should);
       case "not":
-        return buildBoolQuery(func, context, BoolQueryBuilder::mustNot);
+        return QueryBuilders.boolQuery().mustNot(func.getArguments().get(0).accept(this, context));
       default: {
         LuceneQuery query = luceneQueries.get(name);
         if (query != null && query.canSupport(func)) {
@@ -96,20 +107,115 @@ public class FilterQueryBuilder extends ExpressionNodeVisitor<QueryBuilder, Obje
     }
   }
 
-  private BoolQueryBuilder buildBoolQuery(FunctionExpression node,
-                                          Object context,
-                                          BiFunction<BoolQueryBuilder, QueryBuilder,
-                                              QueryBuilder> accumulator) {
-    BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+  /**
+   * Build query for each operand of the function. Operands of nested function of the same name,
+   * for example a AND (b AND c), are flattened so that all of them can be merged together.
+   */
+  private List<QueryBuilder> buildOperandQueries(FunctionExpression node, Object context) {
+    List<QueryBuilder> queries = new ArrayList<>();
     for (Expression arg : node.getArguments()) {
-      accumulator.apply(boolQuery, arg.accept(this, context));
+      if ((arg instanceof FunctionExpression)
+          && node.getFunctionName().equals(((FunctionExpression) arg).getFunctionName())) {
+        queries.addAll(buildOperandQueries((FunctionExpression) arg, context));
+      } else {
+        queries.add(arg.accept(this, context));
+      }
+    }
+    return queries;
+  }
+
+  /**
+   * Build bool query from the queries, or return the query directly if only one.
+   */
+  private QueryBuilder buildBoolQuery(List<QueryBuilder> queries,
+                                      BiFunction<BoolQueryBuilder, QueryBuilder,
+                                          QueryBuilder> accumulator) {
+    if (queries.size() == 1) {
+      return queries.get(0);
+    }
+
+    BoolQueryBuilder boolQuery = QueryBuilders.boolQuery();
+    for (QueryBuilder query : queries) {
+      accumulator.apply(boolQuery, query);
     }
     return boolQuery;
   }
 
+  /**
+   * Merge lower and upper bound range query on the same field in conjunction into one, for example
+   * a &gt;= 1 AND a &lt; 10, which also covers BETWEEN.
+   */
+  private List<QueryBuilder> mergeRangeQueries(List<QueryBuilder> queries) {
+    List<QueryBuilder> result = new ArrayList<>();
+    for (QueryBuilder query : queries) {
+      if (!(query instanceof RangeQueryBuilder)
+          || !mergeRangeQuery(result, (RangeQueryBuilder) query)) {
+        result.add(query);
+      }
+    }
+    return result;
+  }
+
+  private boolean mergeRangeQuery(List<QueryBuilder> queries, RangeQueryBuilder query) {
+    for (QueryBuilder other : queries) {
+      if (other instanceof RangeQueryBuilder) {
+        RangeQueryBuilder range = (RangeQueryBuilder) other;
+        if (range.fieldName().equals(query.fieldName())
+            && (range.from() == null || query.from() == null)
+            && (range.to() == null || query.to() == null)) {
+          if (query.from() != null) {
+            range.from(query.from(), query.includeLower());
+          }
+          if (query.to() != null) {
+            range.to(query.to(), query.includeUpper());
+          }
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Merge term queries on the same field in disjunction into one terms query, for example
+   * a = 1 OR a = 2 which is how IN list is expressed.
+   */
+  private List<QueryBuilder> mergeTermQueries(List<QueryBuilder> queries) {
+    Map<String, List<Object>> valuesByField = new LinkedHashMap<>();
+    for (QueryBuilder query : queries) {
+      if (query instanceof TermQueryBuilder) {
+        TermQueryBuilder term = (TermQueryBuilder) query;
+        valuesByField.computeIfAbsent(term.fieldName(), name -> new ArrayList<>())
+            .add(term.value());
+      }
+    }
+
+    List<QueryBuilder> result = new ArrayList<>();
+    for (QueryBuilder query : queries) {
+      if (!(query instanceof TermQueryBuilder)) {
+        result.add(query);
+        continue;
+      }
+
+      String fieldName = ((TermQueryBuilder) query).fieldName();
+      List<Object> values = valuesByField.remove(fieldName);
+      if (values == null) {
+        continue; // already merged into the terms query built on first occurrence
+      }
+      result.add(values.size() == 1 ? query : QueryBuilders.termsQuery(fieldName, values));
+    }
+    return result;
+  }
+
+  /**
+   * Literals are lifted into script parameters so that expressions only differ in literals share
+   * the same script code, which avoids script compilation on Elasticsearch side for each of them.
+   */
   private ScriptQueryBuilder buildScriptQuery(FunctionExpression node) {
+    Map<String, Object> params = new LinkedHashMap<>();
+    String code = serializer.serialize(node, params);
     return new ScriptQueryBuilder(new Script(
-        DEFAULT_SCRIPT_TYPE, EXPRESSION_LANG_NAME, serializer.serialize(node), emptyMap()));
+        DEFAULT_SCRIPT_TYPE, EXPRESSION_LANG_NAME, code, params));
   }
 
 }
@@ -16,8 +16,6 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.filter.lucene;
 
-import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
-
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
@@ -71,19 +69,4 @@ public abstract class LuceneQuery {
         "Subclass doesn't implement this and build method either");
   }
 
-  /**
-   * Convert multi-field text field name to its inner keyword field. The limitation and assumption
-   * is that the keyword field name is always "keyword" which is true by default.
-   *
-   * @param fieldName   field name
-   * @param fieldType   field type
-   * @return            keyword field name for multi-field, otherwise original field name returned
-   */
-  protected String convertTextToKeyword(String fieldName, ExprType fieldType) {
-    if (fieldType == ES_TEXT_KEYWORD) {
-      return fieldName + ".keyword";
-    }
-    return fieldName;
-  }
-
 }
@@ -0,0 +1,77 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.sort;
+
+import static com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.NullOrder.NULL_FIRST;
+import static com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOrder.ASC;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ScriptUtils.convertTextToKeyword;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ScriptUtils;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.sort.SortBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
+
+/**
+ * Build Elasticsearch field sorts from the sort list in logical sort so the top N documents are
+ * selected by Elasticsearch instead of sorting all documents in memory.
+ *
+ * <p>Only sort by field reference is supported for now.
+ */
+public class SortQueryBuilder {
+
+  /**
+   * Missing value placement in Elasticsearch field sort.
+   */
+  private static final String MISSING_FIRST = "_first";
+  private static final String MISSING_LAST = "_last";
+
+  /**
+   * Check if the sort list can be pushed down as field sorts.
+   *
+   * @param sortList  sort option and expression list
+   * @return          true if supported, otherwise false
+   */
+  public boolean canSupport(List<Pair<SortOption, Expression>> sortList) {
+    return sortList.stream()
+        .map(Pair::getRight)
+        .allMatch(ScriptUtils::isDocValueField);
+  }
+
+  /**
+   * Build field sort for each sort field in order.
+   *
+   * @param sortList  sort option and expression list
+   * @return          field sort builder list
+   */
+  public List<SortBuilder<?>> build(List<Pair<SortOption, Expression>> sortList) {
+    return sortList.stream()
+        .map(pair -> buildFieldSort(pair.getLeft(), (ReferenceExpression) pair.getRight()))
+        .collect(Collectors.toList());
+  }
+
+  private SortBuilder<?> buildFieldSort(SortOption option, ReferenceExpression field) {
+    return SortBuilders.fieldSort(convertTextToKeyword(field.getAttr(), field.type()))
+        .order(ASC.equals(option.getSortOrder()) ? SortOrder.ASC : SortOrder.DESC)
+        .missing(NULL_FIRST.equals(option.getNullOrder()) ? MISSING_FIRST : MISSING_LAST);
+  }
+}
@@ -0,0 +1,359 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DATE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIME;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprBooleanValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprDateValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprNullValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTimeValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTimestampValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ParameterExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionName;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
+import com.google.common.io.ByteArrayDataInput;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact serializer that encodes expression tree in a versioned binary format rather than by JDK
+ * serialization. Literals and field references are written by value, and functions by name and
+ * arguments so they're resolved again by function repository on deserialization. Expressions that
+ * cannot be encoded this way fall back to {@link DefaultExpressionSerializer}, whose code is told
+ * apart by its leading stream magic number instead of the format version.
+ *
+ * <p>If parameters requested, literals are written as {@link ParameterExpression} with the value
+ * collected in parameters instead.
+ *
+ * <p>The format version must be bumped whenever the encoding changes.
+ */
+public class CompactExpressionSerializer implements ExpressionSerializer {
+
+  /**
+   * Format version written as the first byte of serialized code.
+   */
+  static final byte FORMAT_VERSION = 1;
+
+  /**
+   * Expression node tags.
+   */
+  private static final byte LITERAL = 0;
+  private static final byte REFERENCE = 1;
+  private static final byte FUNCTION = 2;
+  private static final byte PARAMETER = 3;
+
+  /**
+   * Expression type tags.
+   */
+  private static final byte CORE_TYPE = 0;
+  private static final byte ES_TYPE = 1;
+
+  /**
+   * Literal value tags.
+   */
+  private static final byte NULL_VALUE = 0;
+  private static final byte MISSING_VALUE = 1;
+  private static final byte BOOLEAN_VALUE = 2;
+  private static final byte INTEGER_VALUE = 3;
+  private static final byte LONG_VALUE = 4;
+  private static final byte FLOAT_VALUE = 5;
+  private static final byte DOUBLE_VALUE = 6;
+  private static final byte STRING_VALUE = 7;
+  private static final byte DATE_VALUE = 8;
+  private static final byte TIME_VALUE = 9;
+  private static final byte TIMESTAMP_VALUE = 10;
+
+  /**
+   * Name prefix of parameters lifted from literals.
+   */
+  private static final String PARAMETER_PREFIX = "p";
+
+  /**
+   * Maximum number of function arguments as it's written in one byte.
+   */
+  private static final int MAX_ARGUMENTS = 255;
+
+  /**
+   * Function repository shared by all serializers and initialized on first deserialization.
+   */
+  private static final Supplier<BuiltinFunctionRepository> REPOSITORY =
+      Suppliers.memoize(() -> new ExpressionConfig().functionRepository());
+
+  private final ExpressionSerializer fallback = new DefaultExpressionSerializer();
+
+  @Override
+  public String serialize(Expression expr) {
+    return serialize(expr, null);
+  }
+
+  @Override
+  public String serialize(Expression expr, Map<String, Object> params) {
+    ByteArrayDataOutput output = ByteStreams.newDataOutput();
+    output.writeByte(FORMAT_VERSION);
+    Map<String, Object> lifted = (params == null) ? null : new LinkedHashMap<>();
+    if (!write(expr, output, lifted)) {
+      return fallback.serialize(expr);
+    }
+
+    if (params != null) {
+      params.putAll(lifted);
+    }
+    return Base64.getEncoder().encodeToString(output.toByteArray());
+  }
+
+  @Override
+  public Expression deserialize(String code) {
+    byte[] bytes;
+    try {
+      bytes = Base64.getDecoder().decode(code);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException("Failed to deserialize expression code: " + code, e);
+    }
+
+    if (bytes.length == 0 || bytes[0] != FORMAT_VERSION) {
+      return fallback.deserialize(code);
+    }
+
+    try {
+      return read(ByteStreams.newDataInput(bytes, 1));
+    } catch (RuntimeException e) {
+      throw new IllegalStateException("Failed to deserialize expression code: " + code, e);
+    }
+  }
+
+  /**
+   * Write expression in pre-order.
+   *
+   * @param params  parameters to collect lifted literal value, or null if not lifting
+   * @return true if written, otherwise false if any node cannot be encoded
+   */
+  private boolean write(Expression expr, ByteArrayDataOutput output, Map<String, Object> params) {
+    if (expr instanceof LiteralExpression) {
+      ExprValue value = expr.valueOf(null);
+      if (params != null && !value.isNull() && !value.isMissing()
+          && ParameterExpression.SUPPORTED_TYPES.contains(value.type())) {
+        String name = PARAMETER_PREFIX + params.size();
+        params.put(name, value.value());
+        output.writeByte(PARAMETER);
+        writeString(name, output);
+        return writeType(value.type(), output);
+      }
+
+      output.writeByte(LITERAL);
+      return writeValue(value, output);
+    }
+
+    if (expr instanceof ReferenceExpression) {
+      output.writeByte(REFERENCE);
+      writeString(((ReferenceExpression) expr).getAttr(), output);
+      return writeType(expr.type(), output);
+    }
+
+    if (expr instanceof FunctionExpression) {
+      FunctionExpression function = (FunctionExpression) expr;
+      String functionName = function.getFunctionName().getFunctionName();
+      List<Expression> arguments = function.getArguments();
+      if (!BuiltinFunctionName.of(functionName).isPresent()
+          || arguments.size() > MAX_ARGUMENTS) {
+        return false;
+      }
+
+      output.writeByte(FUNCTION);
+      writeString(functionName, output);
+      output.writeByte(arguments.size());
+      for (Expression argument : arguments) {
+        if (!write(argument, output, params)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private boolean writeType(ExprType type, ByteArrayDataOutput output) {
+    if (type instanceof ExprCoreType) {
+      output.writeByte(CORE_TYPE);
+    } else if (type instanceof ElasticsearchDataType) {
+      output.writeByte(ES_TYPE);
+    } else {
+      return false;
+    }
+    writeString(((Enum<?>) type).name(), output);
+    return true;
+  }
+
+  private boolean writeValue(ExprValue value, ByteArrayDataOutput output) {
+    ExprType type = value.type();
+    if (value.isNull()) {
+      output.writeByte(NULL_VALUE);
+    } else if (value.isMissing()) {
+      output.writeByte(MISSING_VALUE);
+    } else if (type == BOOLEAN) {
+      output.writeByte(BOOLEAN_VALUE);
+      output.writeBoolean(value.booleanValue());
+    } else if (type == INTEGER) {
+      output.writeByte(INTEGER_VALUE);
+      output.writeInt(value.integerValue());
+    } else if (type == LONG) {
+      output.writeByte(LONG_VALUE);
+      output.writeLong(value.longValue());
+    } else if (type == FLOAT) {
+      output.writeByte(FLOAT_VALUE);
+      output.writeFloat(value.floatValue());
+    } else if (type == DOUBLE) {
+      output.writeByte(DOUBLE_VALUE);
+      output.writeDouble(value.doubleValue());
+    } else if (type == STRING) {
+      output.writeByte(STRING_VALUE);
+      writeString(value.stringValue(), output);
+    } else if (type == DATE) {
+      output.writeByte(DATE_VALUE);
+      writeInstant(value.dateValue().toInstant(), output);
+    } else if (type == TIME) {
+      output.writeByte(TIME_VALUE);
+      output.writeLong(value.timeValue().toNanoOfDay());
+    } else if (type == TIMESTAMP) {
+      output.writeByte(TIMESTAMP_VALUE);
+      writeInstant(value.timestampValue(), output);
+    } else {
+      return false;
+    }
+    return true;
+  }
+
+  private void writeInstant(Instant instant, ByteArrayDataOutput output) {
+    output.writeLong(instant.getEpochSecond());
+    output.writeInt(instant.getNano());
+  }
+
+  /**
+   * Write string as length and UTF-8 bytes without the 64KB limit of modified UTF-8.
+   */
+  private void writeString(String str, ByteArrayDataOutput output) {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private Expression read(ByteArrayDataInput input) {
+    byte tag = input.readByte();
+    switch (tag) {
+      case LITERAL:
+        return new LiteralExpression(readValue(input));
+      case REFERENCE:
+        return new ReferenceExpression(readString(input), readType(input));
+      case PARAMETER:
+        return new ParameterExpression(readString(input), readType(input));
+      case FUNCTION:
+        FunctionName functionName = new FunctionName(readString(input));
+        int argumentCount = input.readUnsignedByte();
+        List<Expression> arguments = new ArrayList<>(argumentCount);
+        for (int i = 0; i < argumentCount; i++) {
+          arguments.add(read(input));
+        }
+        return (Expression) REPOSITORY.get().compile(functionName, arguments);
+      default:
+        throw new IllegalStateException("Unknown expression tag: " + tag);
+    }
+  }
+
+  private ExprType readType(ByteArrayDataInput input) {
+    byte tag = input.readByte();
+    String name = readString(input);
+    switch (tag) {
+      case CORE_TYPE:
+        return ExprCoreType.valueOf(name);
+      case ES_TYPE:
+        return ElasticsearchDataType.valueOf(name);
+      default:
+        throw new IllegalStateException("Unknown type tag: " + tag);
+    }
+  }
+
+  private ExprValue readValue(ByteArrayDataInput input) {
+    byte tag = input.readByte();
+    switch (tag) {
+      case NULL_VALUE:
+        return ExprNullValue.of();
+      case MISSING_VALUE:
+        return ExprMissingValue.of();
+      case BOOLEAN_VALUE:
+        return ExprBooleanValue.of(input.readBoolean());
+      case INTEGER_VALUE:
+        return ExprValueUtils.integerValue(input.readInt());
+      case LONG_VALUE:
+        return ExprValueUtils.longValue(input.readLong());
+      case FLOAT_VALUE:
+        return ExprValueUtils.floatValue(input.readFloat());
+      case DOUBLE_VALUE:
+        return ExprValueUtils.doubleValue(input.readDouble());
+      case STRING_VALUE:
+        return ExprValueUtils.stringValue(readString(input));
+      case DATE_VALUE:
+        return new ExprDateValue(readInstant(input));
+      case TIME_VALUE:
+        return new ExprTimeValue(LocalTime.ofNanoOfDay(input.readLong()));
+      case TIMESTAMP_VALUE:
+        return new ExprTimestampValue(readInstant(input));
+      default:
+        throw new IllegalStateException("Unknown value tag: " + tag);
+    }
+  }
+
+  private Instant readInstant(ByteArrayDataInput input) {
+    return Instant.ofEpochSecond(input.readLong(), input.readInt());
+  }
+
+  private String readString(ByteArrayDataInput input) {
+    byte[] bytes = new byte[input.readInt()];
+    input.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+}
@@ -17,6 +17,7 @@
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization;
 
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import java.util.Map;
 
 /**
  * Expression serializer that (de-)serializes expression object.
@@ -30,6 +31,17 @@ public interface ExpressionSerializer {
    */
   String serialize(Expression expr);
 
+  /**
+   * Serialize an expression with literals lifted into parameters if supported, so expressions
+   * differ only in literals are serialized to the same code.
+   * @param expr    expression
+   * @param params  parameters collected with value of each literal lifted
+   * @return        serialized string
+   */
+  default String serialize(Expression expr, Map<String, Object> params) {
+    return serialize(expr);
+  }
+
   /**
    * Deserialize an expression.
    * @param code  serialized code
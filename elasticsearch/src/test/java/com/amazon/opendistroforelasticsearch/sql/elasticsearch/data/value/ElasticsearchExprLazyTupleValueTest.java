@@ -0,0 +1,126 @@
+/*
+ *
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
+import com.amazon.opendistroforelasticsearch.sql.storage.bindingtuple.BindingTuple;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import org.elasticsearch.common.bytes.BytesArray;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.junit.jupiter.api.Test;
+
+class ElasticsearchExprLazyTupleValueTest {
+
+  private final BytesReference source =
+      new BytesArray("{\"id\":1,\"name\":\"John\",\"state\":\"WA\"}");
+
+  private final Set<String> fields = ImmutableSet.of("id", "name", "age");
+
+  private final ElasticsearchExprValueFactory exprValueFactory = spy(
+      new ElasticsearchExprValueFactory(
+          ImmutableMap.of("id", INTEGER, "name", STRING, "state", STRING)));
+
+  private final ExprValue expected = new ExprTupleValue(new LinkedHashMap<>(ImmutableMap.of(
+      "id", integerValue(1), "name", stringValue("John"), "state", stringValue("WA"))));
+
+  @Test
+  void decode_fields_referenced_in_single_pass() {
+    ExprValue tuple = exprValueFactory.constructLazily(source, fields);
+    BindingTuple bindingTuple = tuple.bindingTuples();
+
+    assertEquals(stringValue("John"), bindingTuple.resolve(ref("name", STRING)));
+    assertEquals(integerValue(1), bindingTuple.resolve(ref("id", INTEGER)));
+    assertEquals(stringValue("John"), bindingTuple.resolve(ref("name", STRING)));
+    assertEquals(ExprMissingValue.of(), bindingTuple.resolve(ref("age", INTEGER)));
+
+    verify(exprValueFactory, times(1)).constructFields(source, fields);
+    verify(exprValueFactory, never()).construct(any(BytesReference.class));
+  }
+
+  @Test
+  void decode_all_fields_if_field_not_referenced_resolved() {
+    ExprValue tuple = exprValueFactory.constructLazily(source, fields);
+
+    assertEquals(stringValue("WA"), tuple.bindingTuples().resolve(ref("state", STRING)));
+    assertEquals(integerValue(1), tuple.bindingTuples().resolve(ref("id", INTEGER)));
+
+    verify(exprValueFactory, times(1)).construct(source);
+    verify(exprValueFactory, never()).constructFields(any(), any());
+  }
+
+  @Test
+  void decode_all_fields_once_tuple_value_required() {
+    ExprValue tuple = exprValueFactory.constructLazily(source, fields);
+
+    assertEquals(expected, tuple);
+    assertEquals(expected.hashCode(), tuple.hashCode());
+    assertEquals(expected.toString(), tuple.toString());
+    assertEquals(integerValue(1), tuple.bindingTuples().resolve(ref("id", INTEGER)));
+    assertEquals(ExprMissingValue.of(), tuple.bindingTuples().resolve(ref("age", INTEGER)));
+
+    verify(exprValueFactory, times(1)).construct(source);
+    verify(exprValueFactory, never()).constructFields(any(), any());
+  }
+
+  @Test
+  void estimate_bytes_from_source_without_decoding() {
+    ExprValue tuple = exprValueFactory.constructLazily(source, fields);
+    tuple.bindingTuples().resolve(ref("id", INTEGER));
+
+    assertEquals(16L + source.length(), MemoryTracker.estimateBytes(tuple));
+    verify(exprValueFactory, never()).construct(any(BytesReference.class));
+  }
+
+  @Test
+  void serialize_as_decoded_tuple_value() throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+      output.writeObject(exprValueFactory.constructLazily(source, fields));
+    }
+
+    try (ObjectInputStream input =
+             new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      Object deserialized = input.readObject();
+      assertEquals(ExprTupleValue.class, deserialized.getClass());
+      assertEquals(expected, deserialized);
+    }
+  }
+}
@@ -45,11 +45,13 @@ import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.elasticsearch.common.bytes.BytesArray;
 import org.junit.jupiter.api.Test;
 
 class ElasticsearchExprValueFactoryTest {
@@ -147,6 +149,9 @@ class ElasticsearchExprValueFactoryTest {
     assertEquals(
         new ExprTimestampValue(Instant.ofEpochMilli(1420070400001L)),
         tupleValue("{\"dateV\":1420070400001}").get("dateV"));
+    assertEquals(
+        new ExprTimestampValue(Instant.ofEpochMilli(1420070400001L)),
+        tupleValue("{\"dateV\":\"1420070400001\"}").get("dateV"));
 
     assertEquals(
         new ExprTimestampValue(Instant.ofEpochMilli(1420070400001L)),
@@ -210,6 +215,89 @@ class ElasticsearchExprValueFactoryTest {
     assertEquals("No type found for field: not_exist.", exception.getMessage());
   }
 
+  @Test
+  public void constructFieldWithDottedName() {
+    assertEquals(integerValue(1), tupleValue("{\"structV.id\":1}").get("structV.id"));
+    assertEquals(stringValue("WA"),
+        tupleValue("{\"structV\":{\"id\":1},\"structV.state\":\"WA\"}")
+            .get("structV.state"));
+
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> tupleValue("{\"structV.not_exist\":1}"));
+    assertEquals("No type found for field: structV.not_exist.", exception.getMessage());
+  }
+
+  @Test
+  public void noTypeFoundForNestedFieldThrowException() {
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> tupleValue("{\"structV\":{\"not_exist\":1}}"));
+    assertEquals("No type found for field: structV.not_exist.", exception.getMessage());
+
+    ElasticsearchExprValueFactory exprValueFactory =
+        new ElasticsearchExprValueFactory(ImmutableMap.of("parent.child", INTEGER));
+    exception = assertThrows(IllegalStateException.class,
+        () -> exprValueFactory.construct("{\"parent\":{\"child\":1}}"));
+    assertEquals("No type found for field: parent.", exception.getMessage());
+
+    exception = assertThrows(IllegalStateException.class,
+        () -> constructFromObject("not_exist", 1));
+    assertEquals("No type found for field: not_exist.", exception.getMessage());
+  }
+
+  @Test
+  public void constructFromSourceBytes() {
+    String source = "{\"intV\":1,\"stringV\":\"text\",\"dateV\":1420070400001,"
+        + "\"structV\":{\"id\":1,\"state\":\"WA\"},\"arrayV\":[{\"info\":\"zz\"}],"
+        + "\"textV\":\"text\",\"boolV\":true}";
+    assertEquals(exprValueFactory.construct(source),
+        exprValueFactory.construct(new BytesArray(source)));
+  }
+
+  @Test
+  public void constructFromInvalidSourceBytesThrowException() {
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> exprValueFactory.construct(new BytesArray("{\"invalid_json:1}")));
+    assertEquals("invalid json: {\"invalid_json:1}.", exception.getMessage());
+  }
+
+  @Test
+  public void constructFromNonObjectSource() {
+    assertEquals(new ExprTupleValue(new LinkedHashMap<>()), exprValueFactory.construct(""));
+    assertEquals(new ExprTupleValue(new LinkedHashMap<>()), exprValueFactory.construct("[1]"));
+  }
+
+  @Test
+  public void constructFieldsFromSourceBytes() {
+    BytesArray source = new BytesArray(
+        "{\"structV\":{\"id\":1,\"state\":\"WA\"},\"arrayV\":[],\"intV\":1}");
+    assertEquals(ImmutableMap.of("intV", integerValue(1)),
+        exprValueFactory.constructFields(source, ImmutableSet.of("intV", "longV")));
+    assertEquals(ImmutableMap.of("intV", integerValue(1), "arrayV",
+        new ExprCollectionValue(ImmutableList.of())),
+        exprValueFactory.constructFields(source, ImmutableSet.of("intV", "arrayV")));
+    assertEquals(ImmutableMap.of(),
+        exprValueFactory.constructFields(new BytesArray("[1]"), ImmutableSet.of("intV")));
+  }
+
+  @Test
+  public void constructFieldsFromInvalidSourceBytesThrowException() {
+    IllegalStateException exception = assertThrows(IllegalStateException.class,
+        () -> exprValueFactory.constructFields(
+            new BytesArray("{\"intV\":}"), ImmutableSet.of("intV")));
+    assertEquals("invalid json: {\"intV\":}.", exception.getMessage());
+  }
+
+  @Test
+  public void constructUnexpectedJsonValue() {
+    assertEquals(nullValue(), tupleValue("{\"intV\":[1,2],\"boolV\":true}").get("intV"));
+    assertEquals(new ExprTupleValue(new LinkedHashMap<>()),
+        tupleValue("{\"structV\":[1,2],\"boolV\":true}").get("structV"));
+    assertEquals(
+        new ExprCollectionValue(ImmutableList.of(
+            new ExprTupleValue(new LinkedHashMap<>(ImmutableMap.of("info", stringValue("zz")))))),
+        tupleValue("{\"arrayV\":{\"info\":\"zz\"}}").get("arrayV"));
+  }
+
   @Test
   public void constructUnsupportedTypeThrowException() {
     ElasticsearchExprValueFactory exprValueFactory =
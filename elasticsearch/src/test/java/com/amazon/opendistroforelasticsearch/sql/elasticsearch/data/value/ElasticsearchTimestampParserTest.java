@@ -0,0 +1,78 @@
+/*
+ *
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import org.junit.jupiter.api.Test;
+
+class ElasticsearchTimestampParserTest {
+
+  private final ElasticsearchTimestampParser parser = new ElasticsearchTimestampParser();
+
+  @Test
+  void parse_epoch_millis() {
+    assertEquals(Instant.ofEpochMilli(1420070400001L), parser.parse("1420070400001"));
+  }
+
+  @Test
+  void parse_canonical_date_time() {
+    assertEquals(Instant.parse("2015-01-01T12:10:30Z"), parser.parse("2015-01-01T12:10:30Z"));
+    assertEquals(Instant.parse("2015-01-01T12:10:30Z"), parser.parse("2015-01-01T12:10:30"));
+    assertEquals(Instant.parse("2015-01-01T12:10:30Z"), parser.parse("2015-01-01 12:10:30"));
+    assertEquals(Instant.parse("2015-01-01T12:10:30.120Z"),
+        parser.parse("2015-01-01T12:10:30.12Z"));
+    assertEquals(Instant.parse("2015-01-01T12:10:30.123456789Z"),
+        parser.parse("2015-01-01T12:10:30.123456789Z"));
+  }
+
+  @Test
+  void parse_other_format_by_formatter() {
+    assertEquals(Instant.parse("2015-01-01T00:00:00Z"), parser.parse("2015-01-01"));
+    assertEquals(Instant.parse("2015-01-01T00:00:00Z"), parser.parse("2015"));
+    assertEquals(Instant.parse("2015-01-01T04:10:30Z"),
+        parser.parse("2015-01-01T12:10:30+08:00"));
+    assertEquals(Instant.parse("2015-01-01T12:10:30.100Z"),
+        parser.parse("2015-01-01T12:10:30,1Z"));
+  }
+
+  @Test
+  void parse_invalid_timestamp_throw_exception() {
+    assertThrows(DateTimeParseException.class, () -> parser.parse("2015-13-01T12:10:30Z"));
+    assertThrows(DateTimeParseException.class, () -> parser.parse("2015-01-0xT12:10:30Z"));
+    assertThrows(DateTimeParseException.class, () -> parser.parse("2015-01-01 12:10:30.1"));
+    assertThrows(DateTimeParseException.class, () -> parser.parse("2015-01-01T12:10:30.Z"));
+    assertThrows(DateTimeParseException.class,
+        () -> parser.parse("2015-01-01T12:10:30.1234567890Z"));
+    assertThrows(DateTimeParseException.class, () -> parser.parse("2015-01-01T12:10:30Zx"));
+    assertThrows(DateTimeParseException.class, () -> parser.parse("2015-01-01T12-10-30Z"));
+    assertThrows(DateTimeParseException.class, () -> parser.parse("14200704000011420070"));
+    assertThrows(DateTimeParseException.class, () -> parser.parse("142007040x001"));
+  }
+
+  @Test
+  void parse_repeated_timestamp_from_cache() {
+    Instant instant = parser.parse("2015-01-01T12:10:30Z");
+    assertSame(instant, parser.parse("2015-01-01T12:10:30Z"));
+    assertEquals(Instant.parse("2015-01-01T12:10:31Z"), parser.parse("2015-01-01T12:10:31Z"));
+  }
+}
@@ -98,6 +98,33 @@ class ElasticsearchExecutionEngineTest {
     assertTrue(plan.hasClosed);
   }
 
+  @Test
+  void executeSuccessfullyWithRowsSpilled() {
+    List<ExprValue> expected = Arrays.asList(tupleValue(of("name", "John", "age", 20)));
+    FakePhysicalPlan plan = new FakePhysicalPlan(expected.iterator());
+    plan.spilledBytes = 1024L;
+    when(protector.protect(plan)).thenReturn(plan);
+
+    ElasticsearchExecutionEngine executor = new ElasticsearchExecutionEngine(client, protector);
+    List<ExprValue> actual = new ArrayList<>();
+    executor.execute(
+        plan,
+        new ResponseListener<QueryResponse>() {
+          @Override
+          public void onResponse(QueryResponse response) {
+            actual.addAll(response.getResults());
+          }
+
+          @Override
+          public void onFailure(Exception e) {
+            fail("Error occurred during execution", e);
+          }
+        });
+
+    assertEquals(expected, actual);
+    assertTrue(plan.hasClosed);
+  }
+
   @Test
   void executeWithFailure() {
     PhysicalPlan plan = mock(PhysicalPlan.class);
@@ -129,6 +156,7 @@ class ElasticsearchExecutionEngineTest {
     private final Iterator<ExprValue> it;
     private boolean hasOpen;
     private boolean hasClosed;
+    private long spilledBytes;
 
     @Override
     public void open() {
@@ -152,6 +180,11 @@ class ElasticsearchExecutionEngineTest {
       return it.next();
     }
 
+    @Override
+    public long spilledBytes() {
+      return spilledBytes;
+    }
+
     @Override
     public ExecutionEngine.Schema schema() {
       return schema;
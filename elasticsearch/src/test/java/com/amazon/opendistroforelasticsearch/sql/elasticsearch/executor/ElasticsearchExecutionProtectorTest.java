@@ -25,6 +25,7 @@ import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.named;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
 import static com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL.filter;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort;
@@ -41,10 +42,14 @@ import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ReferenceExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
 import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AvgAggregator;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
 import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator;
 import com.google.common.collect.ImmutableMap;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -74,12 +79,16 @@ class ElasticsearchExecutionProtectorTest {
 
   @BeforeEach
   public void setup() {
-    executionProtector = new ElasticsearchExecutionProtector(resourceMonitor);
+    executionProtector = new ElasticsearchExecutionProtector(resourceMonitor, settings);
   }
 
   @Test
   public void testProtectIndexScan() {
     when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+    when(settings.getSettingValue(Settings.Key.QUERY_SORT_SPILL_THRESHOLD)).thenReturn(1000);
+    when(settings.getSettingValue(Settings.Key.QUERY_AGGREGATION_SPILL_THRESHOLD))
+        .thenReturn(1000);
+    when(settings.getSettingValue(Settings.Key.QUERY_SPILL_PATH)).thenReturn("/tmp/spill");
 
     String indexName = "test";
     NamedExpression include = named("age", ref("age", INTEGER));
@@ -99,23 +108,29 @@ class ElasticsearchExecutionProtectorTest {
     assertEquals(
         PhysicalPlanDSL.project(
             PhysicalPlanDSL.dedupe(
-                PhysicalPlanDSL.sort(
+                new SortOperator(
                     PhysicalPlanDSL.eval(
                         PhysicalPlanDSL.remove(
                             PhysicalPlanDSL.rename(
-                                PhysicalPlanDSL.agg(
+                                new AggregationOperator(
                                     filter(
                                         resourceMonitor(
                                             new ElasticsearchIndexScan(
                                                 client, settings, indexName, exprValueFactory)),
                                         filterExpr),
                                     aggregators,
-                                    groupByExprs),
+                                    groupByExprs,
+                                    1000,
+                                    new MemoryTracker(),
+                                    Paths.get("/tmp/spill")),
                                 mappings),
                             exclude),
                         newEvalField),
                     sortCount,
-                    sortField),
+                    Arrays.asList(sortField),
+                    1000,
+                    new MemoryTracker(),
+                    Paths.get("/tmp/spill")),
                 dedupeField),
             include),
         executionProtector.protect(
@@ -141,6 +156,29 @@ class ElasticsearchExecutionProtectorTest {
                 include)));
   }
 
+  @Test
+  public void testShareMemoryTrackerAcrossOperators() {
+    MemoryTracker memoryTracker = new MemoryTracker();
+    when(resourceMonitor.newMemoryTracker()).thenReturn(memoryTracker);
+    when(settings.getSettingValue(Settings.Key.QUERY_SORT_SPILL_THRESHOLD)).thenReturn(1000);
+    when(settings.getSettingValue(Settings.Key.QUERY_AGGREGATION_SPILL_THRESHOLD))
+        .thenReturn(1000);
+    when(settings.getSettingValue(Settings.Key.QUERY_SPILL_PATH)).thenReturn("/tmp/spill");
+
+    List<Expression> groupByExprs = Arrays.asList(ref("age", INTEGER));
+    List<Aggregator> aggregators = Arrays.asList(new AvgAggregator(groupByExprs, DOUBLE));
+    SortOperator sort = (SortOperator) executionProtector.protect(
+        PhysicalPlanDSL.sort(
+            PhysicalPlanDSL.agg(null, aggregators, groupByExprs),
+            100,
+            ImmutablePair.of(Sort.SortOption.PPL_ASC, ref("age", INTEGER))));
+    assertSame(memoryTracker, sort.getMemoryTracker());
+    assertSame(memoryTracker, ((AggregationOperator) sort.getInput()).getMemoryTracker());
+    assertEquals(Paths.get("/tmp/spill"), sort.getSpillDirectory());
+    assertEquals(Paths.get("/tmp/spill"),
+        ((AggregationOperator) sort.getInput()).getSpillDirectory());
+  }
+
   @Test
   public void testWithoutProtection() {
     Expression filterExpr = literal(ExprBooleanValue.of(true));
@@ -0,0 +1,96 @@
+/*
+ *   Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License").
+ *   You may not use this file except in compliance with the License.
+ *   A copy of the License is located at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   or in the "license" file accompanying this file. This file is distributed
+ *   on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *   express or implied. See the License for the specific language governing
+ *   permissions and limitations under the License.
+ */
+
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor;
+
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor.ElasticsearchMemoryTracker.CHUNK_BYTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.exception.MemoryLimitExceededException;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.breaker.CircuitBreakingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ElasticsearchMemoryTrackerTest {
+
+  private static final long LIMIT = CHUNK_BYTES * 10;
+
+  @Mock
+  private CircuitBreaker circuitBreaker;
+
+  @Test
+  void reserveAndReleaseFromCircuitBreakerInChunks() {
+    ElasticsearchMemoryTracker tracker = new ElasticsearchMemoryTracker(circuitBreaker, LIMIT);
+    tracker.reserve(60L, "sort");
+    tracker.reserve(40L, "sort");
+    tracker.release(40L);
+    verify(circuitBreaker, times(1)).addEstimateBytesAndMaybeBreak(CHUNK_BYTES, "sort");
+    verify(circuitBreaker, never()).addWithoutBreaking(anyLong());
+
+    tracker.release(60L);
+    verify(circuitBreaker).addWithoutBreaking(-CHUNK_BYTES);
+    assertEquals(0L, tracker.getUsedBytes());
+    assertEquals(100L, tracker.getPeakBytes());
+  }
+
+  @Test
+  void reserveMultipleChunksAndKeepOneSpareChunkOnRelease() {
+    ElasticsearchMemoryTracker tracker = new ElasticsearchMemoryTracker(circuitBreaker, LIMIT);
+    tracker.reserve(CHUNK_BYTES * 3 + 1, "aggregation");
+    verify(circuitBreaker).addEstimateBytesAndMaybeBreak(CHUNK_BYTES * 4, "aggregation");
+
+    tracker.release(CHUNK_BYTES * 3);
+    verify(circuitBreaker).addWithoutBreaking(-CHUNK_BYTES * 2);
+
+    tracker.reserve(CHUNK_BYTES, "aggregation");
+    verify(circuitBreaker, times(1)).addEstimateBytesAndMaybeBreak(anyLong(), anyString());
+
+    tracker.release(CHUNK_BYTES + 1);
+    verify(circuitBreaker, times(2)).addWithoutBreaking(-CHUNK_BYTES * 2);
+    assertEquals(0L, tracker.getUsedBytes());
+  }
+
+  @Test
+  void notReserveFromCircuitBreakerIfQueryLimitExceeded() {
+    ElasticsearchMemoryTracker tracker = new ElasticsearchMemoryTracker(circuitBreaker, 100L);
+    assertThrows(MemoryLimitExceededException.class, () -> tracker.reserve(101L, "sort"));
+
+    verifyNoInteractions(circuitBreaker);
+    assertEquals(0L, tracker.getUsedBytes());
+  }
+
+  @Test
+  void throwExceptionIfCircuitBreakerTrips() {
+    when(circuitBreaker.addEstimateBytesAndMaybeBreak(anyLong(), anyString()))
+        .thenThrow(new CircuitBreakingException("tripped", CircuitBreaker.Durability.TRANSIENT));
+
+    ElasticsearchMemoryTracker tracker = new ElasticsearchMemoryTracker(circuitBreaker, LIMIT);
+    assertThrows(CircuitBreakingException.class, () -> tracker.reserve(10L, "sort"));
+    assertEquals(0L, tracker.getUsedBytes());
+  }
+}
@@ -15,14 +15,20 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.monitor;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.common.setting.Settings;
+import com.amazon.opendistroforelasticsearch.sql.exception.MemoryLimitExceededException;
+import com.amazon.opendistroforelasticsearch.sql.monitor.MemoryTracker;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.unit.ByteSizeValue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -39,9 +45,12 @@ class ElasticsearchResourceMonitorTest {
   @Mock
   private ElasticsearchMemoryHealthy memoryMonitor;
 
+  @Mock
+  private CircuitBreaker circuitBreaker;
+
   @BeforeEach
   public void setup() {
-    when(settings.getSettingValue(Settings.Key.PPL_QUERY_MEMORY_LIMIT))
+    lenient().when(settings.getSettingValue(Settings.Key.PPL_QUERY_MEMORY_LIMIT))
         .thenReturn(new ByteSizeValue(10L));
   }
 
@@ -50,7 +59,7 @@ class ElasticsearchResourceMonitorTest {
     when(memoryMonitor.isMemoryHealthy(anyLong())).thenReturn(true);
 
     ElasticsearchResourceMonitor resourceMonitor =
-        new ElasticsearchResourceMonitor(settings, memoryMonitor);
+        new ElasticsearchResourceMonitor(settings, memoryMonitor, circuitBreaker);
     assertTrue(resourceMonitor.isHealthy());
   }
 
@@ -60,7 +69,7 @@ class ElasticsearchResourceMonitorTest {
         ElasticsearchMemoryHealthy.MemoryUsageExceedFastFailureException.class);
 
     ElasticsearchResourceMonitor resourceMonitor =
-        new ElasticsearchResourceMonitor(settings, memoryMonitor);
+        new ElasticsearchResourceMonitor(settings, memoryMonitor, circuitBreaker);
     assertFalse(resourceMonitor.isHealthy());
     verify(memoryMonitor, times(1)).isMemoryHealthy(anyLong());
   }
@@ -71,7 +80,7 @@ class ElasticsearchResourceMonitorTest {
         ElasticsearchMemoryHealthy.MemoryUsageExceedException.class);
 
     ElasticsearchResourceMonitor resourceMonitor =
-        new ElasticsearchResourceMonitor(settings, memoryMonitor);
+        new ElasticsearchResourceMonitor(settings, memoryMonitor, circuitBreaker);
     assertFalse(resourceMonitor.isHealthy());
     verify(memoryMonitor, times(3)).isMemoryHealthy(anyLong());
   }
@@ -83,8 +92,21 @@ class ElasticsearchResourceMonitorTest {
         ElasticsearchMemoryHealthy.MemoryUsageExceedException.class).thenReturn(true);
 
     ElasticsearchResourceMonitor resourceMonitor =
-        new ElasticsearchResourceMonitor(settings, memoryMonitor);
+        new ElasticsearchResourceMonitor(settings, memoryMonitor, circuitBreaker);
     assertTrue(resourceMonitor.isHealthy());
     verify(memoryMonitor, times(2)).isMemoryHealthy(anyLong());
   }
+
+  @Test
+  void newMemoryTrackerLimitedByQueryMemoryLimit() {
+    when(settings.getSettingValue(Settings.Key.QUERY_MEMORY_LIMIT))
+        .thenReturn(new ByteSizeValue(100L));
+
+    ElasticsearchResourceMonitor resourceMonitor =
+        new ElasticsearchResourceMonitor(settings, memoryMonitor, circuitBreaker);
+    MemoryTracker tracker = resourceMonitor.newMemoryTracker();
+    tracker.reserve(100L, "test");
+    assertThrows(MemoryLimitExceededException.class, () -> tracker.reserve(1L, "test"));
+    assertEquals(100L, tracker.getPeakBytes());
+  }
 }
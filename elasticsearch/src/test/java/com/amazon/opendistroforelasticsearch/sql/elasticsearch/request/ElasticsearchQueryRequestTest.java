@@ -23,12 +23,15 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
+import com.google.common.collect.ImmutableMap;
+import java.util.Collections;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import org.elasticsearch.action.search.SearchRequest;
@@ -37,6 +40,10 @@ import org.elasticsearch.action.search.SearchScrollRequest;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -79,6 +86,34 @@ public class ElasticsearchQueryRequestTest {
     verify(searchAction, times(1)).apply(any());
   }
 
+  @Test
+  void searchCompositeAggregationPageByPage() {
+    CompositeAggregationBuilder composite = new CompositeAggregationBuilder("composite",
+        Collections.singletonList(new TermsValuesSourceBuilder("name").field("name")));
+    request.getSourceBuilder().aggregation(composite);
+
+    CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+    CompositeAggregation firstPage = mock(CompositeAggregation.class);
+    when(firstPage.getName()).thenReturn("composite");
+    when(firstPage.afterKey()).thenReturn(ImmutableMap.of("name", "John"));
+    when(firstPage.getBuckets()).thenAnswer(invocation -> Collections.singletonList(bucket));
+    CompositeAggregation lastPage = mock(CompositeAggregation.class);
+    when(lastPage.getName()).thenReturn("composite");
+    when(lastPage.getBuckets()).thenReturn(Collections.emptyList());
+
+    when(searchAction.apply(any())).thenReturn(searchResponse);
+    when(searchResponse.getHits()).thenReturn(SearchHits.empty());
+    when(searchResponse.getAggregations())
+        .thenReturn(new Aggregations(Collections.singletonList(firstPage)))
+        .thenReturn(new Aggregations(Collections.singletonList(lastPage)));
+
+    assertFalse(request.search(searchAction, scrollAction).isEmpty());
+    assertTrue(composite.toString().contains("\"after\":{\"name\":\"John\"}"));
+    assertFalse(request.search(searchAction, scrollAction).isEmpty());
+    assertTrue(request.search(searchAction, scrollAction).isEmpty());
+    verify(searchAction, times(2)).apply(any());
+  }
+
   @Test
   void clean() {
     request.clean(cleanAction);
@@ -22,10 +22,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.when;
 
+import java.util.Collections;
 import org.apache.lucene.search.TotalHits;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.search.SearchHit;
 import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.aggregations.Aggregations;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -62,6 +64,18 @@ class ElasticsearchResponseTest {
     assertTrue(response3.isEmpty());
   }
 
+  @Test
+  void isAggregationResponse() {
+    ElasticsearchResponse response1 = new ElasticsearchResponse(esResponse);
+    assertFalse(response1.isAggregationResponse());
+
+    when(esResponse.getHits()).thenReturn(SearchHits.empty());
+    when(esResponse.getAggregations()).thenReturn(new Aggregations(Collections.emptyList()));
+    ElasticsearchResponse response2 = new ElasticsearchResponse(esResponse);
+    assertTrue(response2.isAggregationResponse());
+    assertFalse(response2.isEmpty());
+  }
+
   @Test
   void iterator() {
     int i = 0;
@@ -0,0 +1,205 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.agg;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.booleanValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.floatValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.aggregation.AggregationQueryBuilder.COMPOSITE_AGGREGATION_NAME;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTimestampValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTupleValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchExprTextKeywordValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AvgAggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.SumAggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.elasticsearch.search.aggregations.Aggregation;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregation;
+import org.elasticsearch.search.aggregations.metrics.Avg;
+import org.elasticsearch.search.aggregations.metrics.Sum;
+import org.elasticsearch.search.aggregations.metrics.ValueCount;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CompositeAggregationParserTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  private final CompositeAggregationParser parser = new CompositeAggregationParser(
+      Arrays.asList(
+          dsl.count(literal(1)),
+          dsl.count(ref("age", INTEGER)),
+          dsl.sum(ref("age", INTEGER))),
+      Collections.singletonList(ref("name", STRING)));
+
+  @Test
+  void should_parse_each_bucket_into_tuple() {
+    Aggregations aggregations = compositeAggregation(
+        bucket("John", 3, 3, 90D),
+        bucket(null, 2, 1, 20D));
+
+    assertEquals(
+        Arrays.asList(
+            tuple("John", 3, 3, 90),
+            tuple(null, 2, 1, null)),
+        parser.parse(aggregations));
+  }
+
+  @Test
+  void should_return_empty_if_no_bucket() {
+    assertEquals(Collections.emptyList(), parser.parse(compositeAggregation()));
+  }
+
+  @Test
+  void should_parse_group_key_by_its_type() {
+    CompositeAggregationParser parser = new CompositeAggregationParser(
+        Collections.emptyList(),
+        Arrays.asList(
+            ref("int", INTEGER), ref("long", LONG), ref("float", FLOAT), ref("double", DOUBLE),
+            ref("bool", BOOLEAN), ref("time", TIMESTAMP), ref("text", ES_TEXT_KEYWORD)));
+
+    Map<String, Object> key = new HashMap<>();
+    key.put("group_0", 1);
+    key.put("group_1", 2L);
+    key.put("group_2", 3.0D);
+    key.put("group_3", 4.0D);
+    key.put("group_4", true);
+    key.put("group_5", 1577836800000L);
+    key.put("group_6", "hello");
+    CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+    when(bucket.getKey()).thenReturn(key);
+
+    Map<String, ExprValue> expected = new LinkedHashMap<>();
+    expected.put("int", integerValue(1));
+    expected.put("long", longValue(2L));
+    expected.put("float", floatValue(3.0F));
+    expected.put("double", doubleValue(4.0D));
+    expected.put("bool", booleanValue(true));
+    expected.put("time", new ExprTimestampValue(Instant.ofEpochMilli(1577836800000L)));
+    expected.put("text", new ElasticsearchExprTextKeywordValue("hello"));
+    assertEquals(
+        Collections.singletonList(new ExprTupleValue(new LinkedHashMap<>(expected))),
+        parser.parse(compositeAggregation(bucket)));
+  }
+
+  @Test
+  void should_cast_metric_value_to_aggregator_type() {
+    CompositeAggregationParser parser = new CompositeAggregationParser(
+        Arrays.asList(
+            new SumAggregator(Collections.singletonList(ref("long", LONG)), LONG),
+            new SumAggregator(Collections.singletonList(ref("float", FLOAT)), FLOAT),
+            new AvgAggregator(Collections.singletonList(ref("int", INTEGER)), DOUBLE)),
+        Collections.emptyList());
+
+    CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+    when(bucket.getDocCount()).thenReturn(1L);
+    Aggregations metrics = new Aggregations(Arrays.asList(
+        valueCount("agg_0_count", 1L), sum("agg_0", 10D),
+        valueCount("agg_1_count", 1L), sum("agg_1", 2.5D),
+        valueCount("agg_2_count", 1L), avg("agg_2", 1.5D)));
+    when(bucket.getAggregations()).thenReturn(metrics);
+
+    Map<String, ExprValue> expected = new LinkedHashMap<>();
+    expected.put("sum(long)", longValue(10L));
+    expected.put("sum(float)", floatValue(2.5F));
+    expected.put("avg(int)", doubleValue(1.5D));
+    assertEquals(
+        Collections.singletonList(new ExprTupleValue(new LinkedHashMap<>(expected))),
+        parser.parse(compositeAggregation(bucket)));
+  }
+
+  private ExprValue tuple(String name, int count, int countAge, Integer sumAge) {
+    Map<String, Object> map = new LinkedHashMap<>();
+    map.put("name", name);
+    map.put("count(1)", count);
+    map.put("count(age)", countAge);
+    map.put("sum(age)", sumAge);
+    return ExprValueUtils.tupleValue(map);
+  }
+
+  private Aggregations compositeAggregation(CompositeAggregation.Bucket... buckets) {
+    CompositeAggregation composite = mock(CompositeAggregation.class);
+    when(composite.getName()).thenReturn(COMPOSITE_AGGREGATION_NAME);
+    when(composite.getBuckets()).thenAnswer(invocation -> Arrays.asList(buckets));
+    return new Aggregations(Collections.singletonList(composite));
+  }
+
+  private CompositeAggregation.Bucket bucket(String name, long docCount, long valueCount,
+                                             double sum) {
+    CompositeAggregation.Bucket bucket = mock(CompositeAggregation.Bucket.class);
+    Map<String, Object> key = new HashMap<>();
+    key.put("group_0", name);
+    when(bucket.getKey()).thenReturn(key);
+    when(bucket.getDocCount()).thenReturn(docCount);
+
+    Aggregations metrics = new Aggregations(Arrays.asList(
+        valueCount("agg_1_count", valueCount),
+        valueCount("agg_2_count", valueCount),
+        sum("agg_2", sum)));
+    when(bucket.getAggregations()).thenReturn(metrics);
+    return bucket;
+  }
+
+  private Aggregation valueCount(String name, long value) {
+    ValueCount count = mock(ValueCount.class);
+    when(count.getName()).thenReturn(name);
+    when(count.getValue()).thenReturn(value);
+    return count;
+  }
+
+  private Aggregation sum(String name, double value) {
+    Sum sum = mock(Sum.class);
+    when(sum.getName()).thenReturn(name);
+    when(sum.value()).thenReturn(value);
+    return sum;
+  }
+
+  private Aggregation avg(String name, double value) {
+    Avg avg = mock(Avg.class);
+    when(avg.getName()).thenReturn(name);
+    when(avg.value()).thenReturn(value);
+    return avg;
+  }
+}
@@ -16,7 +16,9 @@
 
 package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage;
 
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
 import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
 import static org.elasticsearch.search.sort.FieldSortBuilder.DOC_FIELD_NAME;
 import static org.elasticsearch.search.sort.SortOrder.ASC;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -25,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,12 +39,21 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.Elasti
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchQueryRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.request.ElasticsearchRequest;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.ElasticsearchResponse;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.agg.CompositeAggregationParser;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
+import java.util.Collections;
+import org.apache.commons.lang3.tuple.Pair;
 import org.elasticsearch.common.bytes.BytesArray;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.elasticsearch.search.sort.SortOrder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -102,6 +114,81 @@ class ElasticsearchIndexScanTest {
     verify(client).cleanup(any());
   }
 
+  @Test
+  void queryAllResultsWithSourceDecodedLazily() {
+    mockResponse(new SearchHit[]{employee(1, "John", "IT"), employee(2, "Smith", "HR")});
+
+    try (ElasticsearchIndexScan indexScan =
+             new ElasticsearchIndexScan(client, settings, "employees", exprValueFactory)) {
+      indexScan.decodeSourceLazily(ImmutableSet.of("name"));
+      indexScan.open();
+
+      assertTrue(indexScan.hasNext());
+      assertEquals(stringValue("John"),
+          indexScan.next().bindingTuples().resolve(ref("name", STRING)));
+
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(2, "Smith", "HR")), indexScan.next());
+
+      assertFalse(indexScan.hasNext());
+    }
+    verify(client).cleanup(any());
+  }
+
+  @Test
+  void fetchNextBatchOnlyWhenCurrentBatchExhausted() {
+    mockResponse(
+        new SearchHit[]{employee(1, "John", "IT")},
+        new SearchHit[]{employee(2, "Smith", "HR")});
+
+    try (ElasticsearchIndexScan indexScan =
+             new ElasticsearchIndexScan(client, settings, "employees", exprValueFactory)) {
+      indexScan.open();
+      verify(client, times(1)).search(any());
+
+      assertTrue(indexScan.hasNext());
+      assertEquals(tupleValue(employee(1, "John", "IT")), indexScan.next());
+      verify(client, times(1)).search(any());
+
+      assertTrue(indexScan.hasNext());
+      verify(client, times(2)).search(any());
+      assertEquals(tupleValue(employee(2, "Smith", "HR")), indexScan.next());
+
+      assertFalse(indexScan.hasNext());
+      assertFalse(indexScan.hasNext());
+      verify(client, times(3)).search(any());
+    }
+  }
+
+  @Test
+  void queryAggregationResults() {
+    ElasticsearchResponse response = mock(ElasticsearchResponse.class);
+    Aggregations aggregations = new Aggregations(Collections.emptyList());
+    when(response.isAggregationResponse()).thenReturn(true);
+    when(response.getAggregations()).thenReturn(aggregations);
+    ElasticsearchResponse lastResponse = mock(ElasticsearchResponse.class);
+    when(lastResponse.isEmpty()).thenReturn(true);
+    when(client.search(any())).thenReturn(response, lastResponse);
+
+    CompositeAggregationParser parser = mock(CompositeAggregationParser.class);
+    ExprValue bucket = ExprValueUtils.tupleValue(ImmutableMap.of("department", "IT"));
+    when(parser.parse(aggregations)).thenReturn(Collections.singletonList(bucket));
+
+    try (ElasticsearchIndexScan indexScan =
+             new ElasticsearchIndexScan(client, settings, "employees", exprValueFactory)) {
+      indexScan.pushDownAggregation(Pair.of(
+          new CompositeAggregationBuilder("composite", Collections.singletonList(
+              new TermsValuesSourceBuilder("department").field("department"))),
+          parser));
+      indexScan.open();
+
+      assertTrue(indexScan.isAggregationPushedDown());
+      assertTrue(indexScan.hasNext());
+      assertEquals(bucket, indexScan.next());
+      assertFalse(indexScan.hasNext());
+    }
+  }
+
   @Test
   void pushDownFilters() {
     assertThat()
@@ -120,6 +207,48 @@ class ElasticsearchIndexScanTest {
                 .filter(QueryBuilders.rangeQuery("balance").gte(10000)));
   }
 
+  @Test
+  void pushDownSortAndLimit() {
+    ElasticsearchRequest request = new ElasticsearchQueryRequest("test", 10);
+    request.getSourceBuilder()
+        .query(QueryBuilders.termQuery("name", "John"))
+        .sort(SortBuilders.fieldSort("name").order(SortOrder.DESC).missing("_last"));
+    ElasticsearchResponse response = mock(ElasticsearchResponse.class);
+    when(response.isEmpty()).thenReturn(true);
+    when(client.search(request)).thenReturn(response);
+
+    try (ElasticsearchIndexScan indexScan =
+             new ElasticsearchIndexScan(client, settings, "test", exprValueFactory)) {
+      indexScan.pushDown(QueryBuilders.termQuery("name", "John"));
+      indexScan.pushDownSort(Collections.singletonList(
+          SortBuilders.fieldSort("name").order(SortOrder.DESC).missing("_last")));
+      indexScan.pushDownLimit(10);
+      indexScan.open();
+
+      assertFalse(indexScan.isAggregationPushedDown());
+      assertTrue(indexScan.isSortOrLimitPushedDown());
+      assertFalse(indexScan.hasNext());
+    }
+  }
+
+  @Test
+  void pushDownSortWithoutFilter() {
+    ElasticsearchRequest request = new ElasticsearchQueryRequest("test", 200);
+    request.getSourceBuilder().sort(SortBuilders.fieldSort("name"));
+    ElasticsearchResponse response = mock(ElasticsearchResponse.class);
+    when(response.isEmpty()).thenReturn(true);
+    when(client.search(request)).thenReturn(response);
+
+    try (ElasticsearchIndexScan indexScan =
+             new ElasticsearchIndexScan(client, settings, "test", exprValueFactory)) {
+      indexScan.pushDownSort(Collections.singletonList(SortBuilders.fieldSort("name")));
+      indexScan.pushDownLimit(1000);
+      indexScan.open();
+
+      assertFalse(indexScan.hasNext());
+    }
+  }
+
   private PushDownAssertion assertThat() {
     return new PushDownAssertion(client, exprValueFactory, settings);
   }
@@ -47,6 +47,7 @@ import com.amazon.opendistroforelasticsearch.sql.elasticsearch.client.Elasticsea
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.value.ElasticsearchExprValueFactory;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.mapping.IndexMapping;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.sort.SortQueryBuilder;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.NamedExpression;
@@ -56,17 +57,21 @@ import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AvgAggre
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlanDSL;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.AggregationOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.FilterOperator;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlanDSL;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.ProjectOperator;
+import com.amazon.opendistroforelasticsearch.sql.planner.physical.SortOperator;
 import com.amazon.opendistroforelasticsearch.sql.storage.Table;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.index.query.QueryBuilders;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
@@ -174,6 +179,11 @@ class ElasticsearchIndexTest {
                 dedupeField),
             include);
 
+    ElasticsearchIndexScan indexScan =
+        new ElasticsearchIndexScan(client, settings, indexName, exprValueFactory);
+    indexScan.pushDownProjects(ImmutableSet.of("age", "name", "name1"));
+    indexScan.decodeSourceLazily(ImmutableSet.of());
+
     Table index = new ElasticsearchIndex(client, settings, indexName);
     assertEquals(
         PhysicalPlanDSL.project(
@@ -184,8 +194,7 @@ class ElasticsearchIndexTest {
                             PhysicalPlanDSL.rename(
                                 PhysicalPlanDSL.agg(
                                     PhysicalPlanDSL.filter(
-                                          new ElasticsearchIndexScan(
-                                              client, settings, indexName, exprValueFactory),
+                                          indexScan,
                                           filterExpr),
                                         aggregators,
                                         groupByExprs),
@@ -244,4 +253,185 @@ class ElasticsearchIndexTest {
     assertTrue(plan instanceof FilterOperator);
   }
 
+  @Test
+  void shouldDiscardPhysicalAggregationIfPushedDown() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    ReferenceExpression field = ref("name", STRING);
+    List<Expression> groupByExprs = Arrays.asList(field);
+    List<Aggregator> aggregators = Arrays.asList(dsl.avg(ref("age", INTEGER)));
+
+    String indexName = "test";
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(
+        project(
+            aggregation(
+                filter(
+                    relation(indexName),
+                    dsl.equal(field, literal("John"))),
+                aggregators,
+                groupByExprs),
+            named("name", field)));
+
+    assertTrue(plan instanceof ProjectOperator);
+    assertTrue(((ProjectOperator) plan).getInput() instanceof ElasticsearchIndexScan);
+  }
+
+  @Test
+  void shouldNotPushDownAggregationIfChildNotPushedDown() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    ReferenceExpression field = ref("name", STRING);
+    Expression filterExpr = literal(ExprBooleanValue.of(true));
+    List<Expression> groupByExprs = Arrays.asList(field);
+    List<Aggregator> aggregators = Arrays.asList(dsl.count(ref("age", INTEGER)));
+
+    String indexName = "test";
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(
+        aggregation(
+            filter(
+                relation(indexName),
+                filterExpr),
+            aggregators,
+            groupByExprs));
+
+    ElasticsearchIndexScan indexScan =
+        new ElasticsearchIndexScan(client, settings, indexName, exprValueFactory);
+    indexScan.decodeSourceLazily(ImmutableSet.of());
+    assertEquals(
+        PhysicalPlanDSL.agg(
+            PhysicalPlanDSL.filter(
+                indexScan,
+                filterExpr),
+            aggregators,
+            groupByExprs),
+        plan);
+  }
+
+  @Test
+  void shouldNotPushDownAggregationIfSortPushedDown() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    List<Expression> groupByExprs = Arrays.asList(ref("gender", STRING));
+    List<Aggregator> aggregators = Arrays.asList(dsl.count(ref("age", INTEGER)));
+    Pair<Sort.SortOption, Expression> sortField =
+        Pair.of(Sort.SortOption.PPL_ASC, ref("age", INTEGER));
+
+    String indexName = "test";
+    ElasticsearchIndexScan indexScan =
+        new ElasticsearchIndexScan(client, settings, indexName, exprValueFactory);
+    indexScan.pushDownSort(new SortQueryBuilder().build(Arrays.asList(sortField)));
+    indexScan.pushDownLimit(5);
+
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(
+        aggregation(
+            sort(
+                relation(indexName),
+                5,
+                sortField),
+            aggregators,
+            groupByExprs));
+
+    assertEquals(
+        PhysicalPlanDSL.agg(
+            indexScan,
+            aggregators,
+            groupByExprs),
+        plan);
+  }
+
+  @Test
+  void shouldNotPushDownAggregationIfUnsupported() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    List<Expression> groupByExprs = Arrays.asList(dsl.abs(ref("age", INTEGER)));
+    List<Aggregator> aggregators = Arrays.asList(dsl.count(ref("age", INTEGER)));
+
+    String indexName = "test";
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(
+        aggregation(
+            relation(indexName),
+            aggregators,
+            groupByExprs));
+
+    assertEquals(
+        PhysicalPlanDSL.agg(
+            new ElasticsearchIndexScan(client, settings, indexName, exprValueFactory),
+            aggregators,
+            groupByExprs),
+        plan);
+  }
+
+  @Test
+  void shouldDiscardPhysicalSortIfPushedDown() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    ReferenceExpression field = ref("name", STRING);
+    String indexName = "test";
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(
+        project(
+            sort(
+                filter(
+                    relation(indexName),
+                    dsl.equal(field, literal("John"))),
+                10,
+                Pair.of(Sort.SortOption.PPL_DESC, ref("age", INTEGER))),
+            named("name", field)));
+
+    assertTrue(plan instanceof ProjectOperator);
+    assertTrue(((ProjectOperator) plan).getInput() instanceof ElasticsearchIndexScan);
+  }
+
+  @Test
+  void shouldNotPushDownSortOnExpressionOrAggregationResult() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    String indexName = "test";
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(
+        sort(
+            relation(indexName),
+            10,
+            Pair.of(Sort.SortOption.PPL_ASC, dsl.abs(ref("age", INTEGER)))));
+    assertTrue(plan instanceof SortOperator);
+    assertTrue(((SortOperator) plan).getInput() instanceof ElasticsearchIndexScan);
+
+    plan = index.implement(
+        sort(
+            aggregation(
+                relation(indexName),
+                Arrays.asList(dsl.count(ref("age", INTEGER))),
+                Arrays.asList(ref("name", STRING))),
+            10,
+            Pair.of(Sort.SortOption.PPL_ASC, ref("name", STRING))));
+    assertTrue(plan instanceof SortOperator);
+    assertTrue(((SortOperator) plan).getInput() instanceof ElasticsearchIndexScan);
+  }
+
+  @Test
+  void shouldPushDownProjectFieldsIfOutputProjected() {
+    when(settings.getSettingValue(Settings.Key.QUERY_SIZE_LIMIT)).thenReturn(200);
+
+    String indexName = "test";
+    ElasticsearchIndex index = new ElasticsearchIndex(client, settings, indexName);
+    PhysicalPlan plan = index.implement(
+        project(
+            filter(
+                relation(indexName),
+                dsl.equal(ref("name", STRING), literal("John"))),
+            named("age", ref("age", INTEGER))));
+
+    ElasticsearchIndexScan indexScan =
+        new ElasticsearchIndexScan(client, settings, indexName, exprValueFactory);
+    indexScan.pushDownProjects(ImmutableSet.of("age", "name"));
+    indexScan.pushDown(QueryBuilders.termQuery("name", "John"));
+    assertEquals(
+        PhysicalPlanDSL.project(indexScan, named("age", ref("age", INTEGER))),
+        plan);
+  }
+
 }
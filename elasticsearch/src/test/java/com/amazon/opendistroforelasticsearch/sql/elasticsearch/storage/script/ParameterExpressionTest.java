@@ -0,0 +1,75 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.booleanValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.doubleValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.floatValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.integerValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.longValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils.stringValue;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.BOOLEAN;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.FLOAT;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.LONG;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprNullValue;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ParameterExpressionTest {
+
+  private final ParameterExpression parameter = new ParameterExpression("p0", INTEGER);
+
+  @Test
+  void can_bind_value_of_parameter_type() {
+    assertEquals(booleanValue(true), new ParameterExpression("p0", BOOLEAN).bind(true));
+    assertEquals(integerValue(1), parameter.bind(1L));
+    assertEquals(longValue(1L), new ParameterExpression("p0", LONG).bind(1));
+    assertEquals(floatValue(1.5F), new ParameterExpression("p0", FLOAT).bind(1.5D));
+    assertEquals(doubleValue(1.5D), new ParameterExpression("p0", DOUBLE).bind(1.5F));
+    assertEquals(stringValue("test"), new ParameterExpression("p0", STRING).bind("test"));
+    assertEquals(ExprNullValue.of(), parameter.bind(null));
+  }
+
+  @Test
+  void should_resolve_value_from_environment() {
+    assertEquals(integerValue(1), parameter.valueOf(expr -> integerValue(1)));
+    assertEquals(INTEGER, parameter.type());
+    assertEquals("@p0", parameter.toString());
+  }
+
+  @Test
+  void should_be_visited_as_general_node() {
+    assertNull(parameter.accept(new ExpressionNodeVisitor<Object, Object>() {}, null));
+    assertEquals(parameter, parameter.accept(new ExpressionNodeVisitor<Expression, Object>() {
+      @Override
+      public Expression visitNode(Expression node, Object context) {
+        return node;
+      }
+    }, null));
+  }
+
+}
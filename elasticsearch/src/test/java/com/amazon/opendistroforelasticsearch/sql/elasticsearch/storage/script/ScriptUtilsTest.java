@@ -0,0 +1,50 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRUCT;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ScriptUtilsTest {
+
+  @Test
+  void field_reference_of_doc_value_type_is_doc_value_field() {
+    assertTrue(ScriptUtils.isDocValueField(ref("age", INTEGER)));
+    assertTrue(ScriptUtils.isDocValueField(ref("name", ES_TEXT_KEYWORD)));
+    assertFalse(ScriptUtils.isDocValueField(ref("address", ES_TEXT)));
+    assertFalse(ScriptUtils.isDocValueField(ref("employer", STRUCT)));
+    assertFalse(ScriptUtils.isDocValueField(literal(1)));
+  }
+
+  @Test
+  void convert_text_field_with_keyword_to_keyword_field() {
+    assertEquals("name.keyword", ScriptUtils.convertTextToKeyword("name", ES_TEXT_KEYWORD));
+    assertEquals("age", ScriptUtils.convertTextToKeyword("age", INTEGER));
+  }
+}
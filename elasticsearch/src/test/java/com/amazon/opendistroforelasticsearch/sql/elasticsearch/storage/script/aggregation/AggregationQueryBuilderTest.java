@@ -0,0 +1,161 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.aggregation;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.DOUBLE;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRUCT;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.response.agg.CompositeAggregationParser;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.Aggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.AvgAggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.aggregation.CountAggregator;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class AggregationQueryBuilderTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  private final AggregationQueryBuilder queryBuilder = new AggregationQueryBuilder();
+
+  @Test
+  void should_support_count_sum_avg_group_by_field() {
+    assertTrue(queryBuilder.canSupport(
+        Arrays.asList(
+            dsl.count(ref("age", INTEGER)),
+            dsl.count(literal(1)),
+            dsl.sum(ref("age", INTEGER)),
+            dsl.avg(ref("age", INTEGER))),
+        Arrays.asList(ref("name", STRING), ref("address", ES_TEXT_KEYWORD))));
+  }
+
+  @Test
+  void should_not_support_aggregation_without_group_by() {
+    assertFalse(queryBuilder.canSupport(
+        Collections.singletonList(dsl.count(ref("age", INTEGER))),
+        Collections.emptyList()));
+  }
+
+  @Test
+  void should_not_support_group_by_expression_or_unaggregatable_field() {
+    List<Aggregator> aggregators = Collections.singletonList(dsl.count(ref("age", INTEGER)));
+    assertFalse(queryBuilder.canSupport(aggregators,
+        Collections.singletonList(dsl.abs(ref("age", INTEGER)))));
+    assertFalse(queryBuilder.canSupport(aggregators,
+        Collections.singletonList(ref("address", ES_TEXT))));
+    assertFalse(queryBuilder.canSupport(aggregators,
+        Collections.singletonList(ref("employer", STRUCT))));
+  }
+
+  @Test
+  void should_not_support_aggregator_on_expression_or_non_number_field() {
+    List<Expression> groupBy = Collections.singletonList(ref("name", STRING));
+    assertFalse(queryBuilder.canSupport(
+        Collections.singletonList(dsl.sum(dsl.abs(ref("age", INTEGER)))), groupBy));
+    assertFalse(queryBuilder.canSupport(
+        Collections.singletonList(
+            new AvgAggregator(Collections.singletonList(ref("name", STRING)), DOUBLE)), groupBy));
+    assertFalse(queryBuilder.canSupport(
+        Collections.singletonList(dsl.count(ref("address", ES_TEXT))), groupBy));
+  }
+
+  @Test
+  void should_not_support_count_null_or_missing_literal() {
+    List<Expression> groupBy = Collections.singletonList(ref("name", STRING));
+    assertFalse(queryBuilder.canSupport(
+        Collections.singletonList(new CountAggregator(
+            Collections.singletonList(literal(ExprValueUtils.nullValue())), INTEGER)), groupBy));
+    assertFalse(queryBuilder.canSupport(
+        Collections.singletonList(new CountAggregator(
+            Collections.singletonList(literal(ExprValueUtils.missingValue())), INTEGER)), groupBy));
+  }
+
+  @Test
+  void should_not_support_unknown_aggregator_or_multiple_arguments() {
+    List<Expression> groupBy = Collections.singletonList(ref("name", STRING));
+    Aggregator max = mock(Aggregator.class);
+    when(max.getFunctionName()).thenReturn(FunctionName.of("max"));
+    when(max.getArguments()).thenReturn(Collections.singletonList(ref("age", INTEGER)));
+    assertFalse(queryBuilder.canSupport(Collections.singletonList(max), groupBy));
+
+    Aggregator count = mock(Aggregator.class);
+    when(count.getArguments()).thenReturn(Arrays.asList(ref("age", INTEGER), literal(1)));
+    assertFalse(queryBuilder.canSupport(Collections.singletonList(count), groupBy));
+  }
+
+  @Test
+  void should_build_composite_aggregation_with_value_count_for_count_field() {
+    List<Aggregator> aggregators = Arrays.asList(
+        dsl.count(ref("age", INTEGER)),
+        dsl.sum(ref("balance", DOUBLE)));
+    List<Expression> groupBy = Collections.singletonList(ref("age", INTEGER));
+
+    assertEquals(
+        "{\"composite_buckets\":{\"composite\":{\"size\":1000,\"sources\":["
+            + "{\"group_0\":{\"terms\":{\"field\":\"age\","
+            + "\"missing_bucket\":true,\"order\":\"asc\"}}}]},"
+            + "\"aggregations\":{"
+            + "\"agg_0_count\":{\"value_count\":{\"field\":\"age\"}},"
+            + "\"agg_1_count\":{\"value_count\":{\"field\":\"balance\"}},"
+            + "\"agg_1\":{\"sum\":{\"field\":\"balance\"}}}}}",
+        queryBuilder.build(aggregators, groupBy).getLeft().toString());
+  }
+
+  @Test
+  void should_build_composite_aggregation_with_metric_sub_aggregations() {
+    List<Aggregator> aggregators = Arrays.asList(
+        dsl.count(literal(1)),
+        dsl.avg(ref("age", INTEGER)));
+    List<Expression> groupBy = Collections.singletonList(ref("name", ES_TEXT_KEYWORD));
+    Pair<CompositeAggregationBuilder, CompositeAggregationParser> result =
+        queryBuilder.build(aggregators, groupBy);
+
+    assertEquals(
+        "{\"composite_buckets\":{\"composite\":{\"size\":1000,\"sources\":["
+            + "{\"group_0\":{\"terms\":{\"field\":\"name.keyword\","
+            + "\"missing_bucket\":true,\"order\":\"asc\"}}}]},"
+            + "\"aggregations\":{"
+            + "\"agg_1_count\":{\"value_count\":{\"field\":\"age\"}},"
+            + "\"agg_1\":{\"avg\":{\"field\":\"age\"}}}}}",
+        result.getLeft().toString());
+    assertEquals(new CompositeAggregationParser(aggregators, groupBy), result.getRight());
+  }
+
+}
@@ -68,7 +68,9 @@ class ExpressionFilterScriptFactoryTest {
     FilterScript actualFilterScript = leafFactory.newInstance(leafReaderContext);
 
     assertEquals(
-        new ExpressionFilterScript(expression, searchLookup, leafReaderContext, params),
+        new ExpressionFilterScript(
+            expression, Collections.emptyList(), null, Collections.emptyMap(),
+            searchLookup, leafReaderContext, params),
         actualFilterScript
     );
   }
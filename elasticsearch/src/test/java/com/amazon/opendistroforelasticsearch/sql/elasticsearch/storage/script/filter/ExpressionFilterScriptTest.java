@@ -26,22 +26,28 @@ import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
 import static java.util.Collections.emptyMap;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTimestampValue;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ParameterExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.LiteralExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import org.apache.lucene.index.LeafReaderContext;
 import org.elasticsearch.index.fielddata.ScriptDocValues;
+import org.elasticsearch.script.FilterScript;
 import org.elasticsearch.search.lookup.LeafDocLookup;
 import org.elasticsearch.search.lookup.LeafSearchLookup;
 import org.elasticsearch.search.lookup.SearchLookup;
@@ -132,6 +138,66 @@ class ExpressionFilterScriptTest {
         .shouldNotMatch();
   }
 
+  @Test
+  void can_execute_expression_with_empty_doc_value() {
+    assertThat()
+        .docValues("name", null)
+        .filterBy(dsl.equal(ref("name", STRING), literal("John")))
+        .shouldNotMatch();
+  }
+
+  @Test
+  void can_execute_expression_with_parameter() {
+    LeafDocLookup leafDocLookup = mockLeafDocLookup(
+        ImmutableMap.of("age", new FakeScriptDocValues<>(30L)));
+    when(lookup.getLeafSearchLookup(any())).thenReturn(leafLookup);
+    when(leafLookup.doc()).thenReturn(leafDocLookup);
+
+    Expression expr = dsl.greater(ref("age", INTEGER), new ParameterExpression("p0", INTEGER));
+    FilterScript.LeafFactory leafFactory = new ExpressionFilterScriptFactory(expr)
+        .newFactory(ImmutableMap.of("p0", 20), lookup);
+    assertTrue(((ExpressionFilterScriptLeafFactory) leafFactory).newInstance(context).execute());
+  }
+
+  @Test
+  void should_bind_doc_values_once_and_advance_per_document() {
+    FakeScriptDocValues<Long> docValues = new FakeScriptDocValues<>(30L);
+    LeafDocLookup leafDocLookup = mock(LeafDocLookup.class);
+    when(leafDocLookup.get("age")).thenAnswer(invocation -> docValues);
+    when(lookup.getLeafSearchLookup(any())).thenReturn(leafLookup);
+    when(leafLookup.doc()).thenReturn(leafDocLookup);
+
+    FilterScript script =
+        newScript(dsl.greater(ref("age", INTEGER), literal(20)), lookup, context);
+
+    script.setDocument(1);
+    assertTrue(script.execute());
+    assertEquals(1, docValues.docId);
+    script.setDocument(5);
+    assertTrue(script.execute());
+    assertEquals(5, docValues.docId);
+    verify(leafDocLookup, times(1)).get("age");
+  }
+
+  @Test
+  void cannot_execute_if_failed_to_read_doc_value() {
+    FakeScriptDocValues<Long> docValues = new FakeScriptDocValues<Long>(30L) {
+      @Override
+      public void setNextDocId(int docId) throws IOException {
+        throw new IOException("read error");
+      }
+    };
+    LeafDocLookup leafDocLookup = mock(LeafDocLookup.class);
+    when(leafDocLookup.get("age")).thenAnswer(invocation -> docValues);
+    when(lookup.getLeafSearchLookup(any())).thenReturn(leafLookup);
+    when(leafLookup.doc()).thenReturn(leafDocLookup);
+
+    FilterScript script = newScript(ref("age", INTEGER), lookup, context);
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, script::execute);
+    assertEquals("Failed to read doc value of field: age", e.getMessage());
+  }
+
   @Test
   void cannot_execute_non_predicate_expression() {
     assertThrow(IllegalStateException.class,
@@ -156,6 +222,24 @@ class ExpressionFilterScriptTest {
     };
   }
 
+  private static LeafDocLookup mockLeafDocLookup(Map<String, ScriptDocValues<?>> docValueByNames) {
+    LeafDocLookup leafDocLookup = mock(LeafDocLookup.class);
+    when(leafDocLookup.get(anyString()))
+        .thenAnswer(invocation -> docValueByNames.get(invocation.<String>getArgument(0)));
+    return leafDocLookup;
+  }
+
+  /**
+   * Create script through script factory and leaf factory as Elasticsearch does.
+   */
+  private static FilterScript newScript(Expression expr,
+                                        SearchLookup lookup,
+                                        LeafReaderContext context) {
+    ExpressionFilterScriptLeafFactory leafFactory = (ExpressionFilterScriptLeafFactory)
+        new ExpressionFilterScriptFactory(expr).newFactory(emptyMap(), lookup);
+    return leafFactory.newInstance(context);
+  }
+
   @RequiredArgsConstructor
   private static class ExprScriptAssertion {
     private final SearchLookup lookup;
@@ -189,7 +273,7 @@ class ExpressionFilterScriptTest {
     }
 
     ExprScriptAssertion filterBy(Expression expr) {
-      ExpressionFilterScript script = new ExpressionFilterScript(expr, lookup, context, emptyMap());
+      FilterScript script = newScript(expr, lookup, context);
       isMatched = script.execute();
       return this;
     }
@@ -202,21 +286,16 @@ class ExpressionFilterScriptTest {
       Assertions.assertFalse(isMatched);
     }
 
-    private LeafDocLookup mockLeafDocLookup(Map<String, ScriptDocValues<?>> docValueByNames) {
-      LeafDocLookup leafDocLookup = mock(LeafDocLookup.class);
-      when(leafDocLookup.get(anyString()))
-          .thenAnswer(invocation -> docValueByNames.get(invocation.<String>getArgument(0)));
-      return leafDocLookup;
-    }
   }
 
   @RequiredArgsConstructor
   private static class FakeScriptDocValues<T> extends ScriptDocValues<T> {
     private final T value;
+    private int docId = -1;
 
     @Override
-    public void setNextDocId(int docId) {
-      throw new UnsupportedOperationException("Fake script doc values doesn't implement this yet");
+    public void setNextDocId(int docId) throws IOException {
+      this.docId = docId;
     }
 
     @Override
@@ -226,7 +305,7 @@ class ExpressionFilterScriptTest {
 
     @Override
     public int size() {
-      return 1;
+      return (value == null) ? 0 : 1;
     }
   }
 
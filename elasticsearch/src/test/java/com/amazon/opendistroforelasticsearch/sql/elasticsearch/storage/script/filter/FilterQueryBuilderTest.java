@@ -27,6 +27,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.CompactExpressionSerializer;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.ExpressionSerializer;
 import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
 import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
@@ -34,6 +35,7 @@ import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
+import org.elasticsearch.index.query.ScriptQueryBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
@@ -60,7 +62,7 @@ class FilterQueryBuilderTest {
 
   @Test
   void should_return_null_if_exception() {
-    when(serializer.serialize(any())).thenThrow(IllegalStateException.class);
+    when(serializer.serialize(any(), any())).thenThrow(IllegalStateException.class);
 
     assertNull(
         filterQueryBuilder.build(
@@ -127,16 +129,20 @@ class FilterQueryBuilderTest {
   @Test
   void should_build_script_query_for_function_expression() {
     doAnswer(invocation -> {
-      Expression expr = invocation.getArgument(0);
-      return expr.toString();
-    }).when(serializer).serialize(any());
+      Map<String, Object> params = invocation.getArgument(1);
+      params.put("p0", 30);
+      return "abs(age) = @p0";
+    }).when(serializer).serialize(any(), any());
 
     assertEquals(
         "{\n"
             + "  \"script\" : {\n"
             + "    \"script\" : {\n"
-            + "      \"source\" : \"abs(age) = 30\",\n"
-            + "      \"lang\" : \"opendistro_expression\"\n"
+            + "      \"source\" : \"abs(age) = @p0\",\n"
+            + "      \"lang\" : \"opendistro_expression\",\n"
+            + "      \"params\" : {\n"
+            + "        \"p0\" : 30\n"
+            + "      }\n"
             + "    },\n"
             + "    \"boost\" : 1.0\n"
             + "  }\n"
@@ -146,12 +152,25 @@ class FilterQueryBuilderTest {
                 dsl.abs(ref("age", INTEGER)), literal(30))));
   }
 
+  @Test
+  void should_build_same_script_code_for_expressions_differ_only_in_literals() {
+    FilterQueryBuilder queryBuilder = new FilterQueryBuilder(new CompactExpressionSerializer());
+    ScriptQueryBuilder query1 = (ScriptQueryBuilder) queryBuilder.build(
+        dsl.equal(dsl.abs(ref("age", INTEGER)), literal(30)));
+    ScriptQueryBuilder query2 = (ScriptQueryBuilder) queryBuilder.build(
+        dsl.equal(dsl.abs(ref("age", INTEGER)), literal(40)));
+
+    assertEquals(query1.script().getIdOrCode(), query2.script().getIdOrCode());
+    assertEquals(ImmutableMap.of("p0", 30), query1.script().getParams());
+    assertEquals(ImmutableMap.of("p0", 40), query2.script().getParams());
+  }
+
   @Test
   void should_build_script_query_for_comparison_between_fields() {
     doAnswer(invocation -> {
       Expression expr = invocation.getArgument(0);
       return expr.toString();
-    }).when(serializer).serialize(any());
+    }).when(serializer).serialize(any(), any());
 
     assertEquals(
         "{\n"
@@ -233,6 +252,239 @@ class FilterQueryBuilderTest {
                     ref("age", INTEGER), literal(30)))));
   }
 
+  @Test
+  void should_build_bool_query_with_exists_for_not_equal_expression() {
+    assertEquals(
+        "{\n"
+            + "  \"bool\" : {\n"
+            + "    \"filter\" : [\n"
+            + "      {\n"
+            + "        \"exists\" : {\n"
+            + "          \"field\" : \"name.keyword\",\n"
+            + "          \"boost\" : 1.0\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"must_not\" : [\n"
+            + "      {\n"
+            + "        \"term\" : {\n"
+            + "          \"name.keyword\" : {\n"
+            + "            \"value\" : \"John\",\n"
+            + "            \"boost\" : 1.0\n"
+            + "          }\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"adjust_pure_negative\" : true,\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.notequal(
+                ref("name", ES_TEXT_KEYWORD), literal("John"))));
+  }
+
+  @Test
+  void should_build_exists_query_for_is_not_null_expression() {
+    assertEquals(
+        "{\n"
+            + "  \"exists\" : {\n"
+            + "    \"field\" : \"age\",\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.isnotnull(ref("age", INTEGER))));
+  }
+
+  @Test
+  void should_build_bool_query_with_exists_for_is_null_expression() {
+    assertEquals(
+        "{\n"
+            + "  \"bool\" : {\n"
+            + "    \"must_not\" : [\n"
+            + "      {\n"
+            + "        \"exists\" : {\n"
+            + "          \"field\" : \"age\",\n"
+            + "          \"boost\" : 1.0\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"adjust_pure_negative\" : true,\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.isnull(ref("age", INTEGER))));
+  }
+
+  @Test
+  void should_build_script_query_for_is_null_on_function() {
+    doAnswer(invocation -> "is null(abs(age))").when(serializer).serialize(any(), any());
+
+    assertEquals(
+        "{\n"
+            + "  \"script\" : {\n"
+            + "    \"script\" : {\n"
+            + "      \"source\" : \"is null(abs(age))\",\n"
+            + "      \"lang\" : \"opendistro_expression\"\n"
+            + "    },\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.isnull(dsl.abs(ref("age", INTEGER)))));
+  }
+
+  @Test
+  void should_merge_lower_and_upper_bound_in_conjunction_into_one_range_query() {
+    assertEquals(
+        "{\n"
+            + "  \"range\" : {\n"
+            + "    \"age\" : {\n"
+            + "      \"from\" : 20,\n"
+            + "      \"to\" : 30,\n"
+            + "      \"include_lower\" : true,\n"
+            + "      \"include_upper\" : false,\n"
+            + "      \"boost\" : 1.0\n"
+            + "    }\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.and(
+                dsl.less(ref("age", INTEGER), literal(30)),
+                dsl.gte(ref("age", INTEGER), literal(20)))));
+  }
+
+  @Test
+  void should_not_merge_range_queries_on_different_fields_or_same_bound() {
+    assertEquals(
+        "{\n"
+            + "  \"bool\" : {\n"
+            + "    \"filter\" : [\n"
+            + "      {\n"
+            + "        \"range\" : {\n"
+            + "          \"age\" : {\n"
+            + "            \"from\" : 20,\n"
+            + "            \"to\" : 30,\n"
+            + "            \"include_lower\" : false,\n"
+            + "            \"include_upper\" : true,\n"
+            + "            \"boost\" : 1.0\n"
+            + "          }\n"
+            + "        }\n"
+            + "      },\n"
+            + "      {\n"
+            + "        \"range\" : {\n"
+            + "          \"balance\" : {\n"
+            + "            \"from\" : 100,\n"
+            + "            \"to\" : null,\n"
+            + "            \"include_lower\" : true,\n"
+            + "            \"include_upper\" : true,\n"
+            + "            \"boost\" : 1.0\n"
+            + "          }\n"
+            + "        }\n"
+            + "      },\n"
+            + "      {\n"
+            + "        \"range\" : {\n"
+            + "          \"age\" : {\n"
+            + "            \"from\" : 25,\n"
+            + "            \"to\" : null,\n"
+            + "            \"include_lower\" : false,\n"
+            + "            \"include_upper\" : true,\n"
+            + "            \"boost\" : 1.0\n"
+            + "          }\n"
+            + "        }\n"
+            + "      },\n"
+            + "      {\n"
+            + "        \"term\" : {\n"
+            + "          \"name\" : {\n"
+            + "            \"value\" : \"John\",\n"
+            + "            \"boost\" : 1.0\n"
+            + "          }\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"adjust_pure_negative\" : true,\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.and(
+                dsl.and(
+                    dsl.greater(ref("age", INTEGER), literal(20)),
+                    dsl.gte(ref("balance", INTEGER), literal(100))),
+                dsl.and(
+                    dsl.and(
+                        dsl.lte(ref("age", INTEGER), literal(30)),
+                        dsl.greater(ref("age", INTEGER), literal(25))),
+                    dsl.equal(ref("name", STRING), literal("John"))))));
+  }
+
+  @Test
+  void should_merge_term_queries_on_same_field_in_disjunction_into_terms_query() {
+    assertEquals(
+        "{\n"
+            + "  \"bool\" : {\n"
+            + "    \"should\" : [\n"
+            + "      {\n"
+            + "        \"terms\" : {\n"
+            + "          \"name.keyword\" : [\n"
+            + "            \"John\",\n"
+            + "            \"Smith\",\n"
+            + "            \"Allen\"\n"
+            + "          ],\n"
+            + "          \"boost\" : 1.0\n"
+            + "        }\n"
+            + "      },\n"
+            + "      {\n"
+            + "        \"term\" : {\n"
+            + "          \"age\" : {\n"
+            + "            \"value\" : 30,\n"
+            + "            \"boost\" : 1.0\n"
+            + "          }\n"
+            + "        }\n"
+            + "      },\n"
+            + "      {\n"
+            + "        \"exists\" : {\n"
+            + "          \"field\" : \"balance\",\n"
+            + "          \"boost\" : 1.0\n"
+            + "        }\n"
+            + "      }\n"
+            + "    ],\n"
+            + "    \"adjust_pure_negative\" : true,\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.or(
+                dsl.or(
+                    dsl.equal(ref("name", ES_TEXT_KEYWORD), literal("John")),
+                    dsl.equal(ref("age", INTEGER), literal(30))),
+                dsl.or(
+                    dsl.or(
+                        dsl.equal(ref("name", ES_TEXT_KEYWORD), literal("Smith")),
+                        dsl.isnotnull(ref("balance", INTEGER))),
+                    dsl.equal(ref("name", ES_TEXT_KEYWORD), literal("Allen"))))));
+  }
+
+  @Test
+  void should_build_terms_query_for_in_list_expressed_in_disjunction() {
+    assertEquals(
+        "{\n"
+            + "  \"terms\" : {\n"
+            + "    \"age\" : [\n"
+            + "      20,\n"
+            + "      30\n"
+            + "    ],\n"
+            + "    \"boost\" : 1.0\n"
+            + "  }\n"
+            + "}",
+        buildQuery(
+            dsl.or(
+                dsl.equal(ref("age", INTEGER), literal(20)),
+                dsl.equal(ref("age", INTEGER), literal(30)))));
+  }
+
   @Test
   void should_use_keyword_for_multi_field_in_equality_expression() {
     assertEquals(
@@ -0,0 +1,89 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.sort;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRUCT;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.NullOrder;
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOption;
+import com.amazon.opendistroforelasticsearch.sql.ast.tree.Sort.SortOrder;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
+import org.elasticsearch.search.sort.SortBuilders;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SortQueryBuilderTest {
+
+  private final DSL dsl = new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  private final SortQueryBuilder queryBuilder = new SortQueryBuilder();
+
+  @Test
+  void should_support_sort_by_sortable_field() {
+    assertTrue(queryBuilder.canSupport(Arrays.asList(
+        Pair.of(SortOption.PPL_ASC, ref("age", INTEGER)),
+        Pair.of(SortOption.PPL_DESC, ref("name", ES_TEXT_KEYWORD)))));
+  }
+
+  @Test
+  void should_not_support_sort_by_expression_or_unsortable_field() {
+    assertFalse(queryBuilder.canSupport(Collections.singletonList(
+        Pair.of(SortOption.PPL_ASC, dsl.abs(ref("age", INTEGER))))));
+    assertFalse(queryBuilder.canSupport(Collections.singletonList(
+        Pair.of(SortOption.PPL_ASC, ref("address", ES_TEXT)))));
+    assertFalse(queryBuilder.canSupport(Collections.singletonList(
+        Pair.of(SortOption.PPL_ASC, ref("employer", STRUCT)))));
+  }
+
+  @Test
+  void should_build_field_sort_with_order_and_missing_placement() {
+    List<Pair<SortOption, Expression>> sortList = Arrays.asList(
+        Pair.of(SortOption.PPL_ASC, ref("age", INTEGER)),
+        Pair.of(SortOption.PPL_DESC, ref("name", ES_TEXT_KEYWORD)),
+        Pair.of(new SortOption(SortOrder.ASC, NullOrder.NULL_LAST), ref("city", STRING)),
+        Pair.of(new SortOption(SortOrder.DESC, NullOrder.NULL_FIRST), ref("state", STRING)));
+
+    assertEquals(
+        Arrays.asList(
+            SortBuilders.fieldSort("age")
+                .order(org.elasticsearch.search.sort.SortOrder.ASC).missing("_first"),
+            SortBuilders.fieldSort("name.keyword")
+                .order(org.elasticsearch.search.sort.SortOrder.DESC).missing("_last"),
+            SortBuilders.fieldSort("city")
+                .order(org.elasticsearch.search.sort.SortOrder.ASC).missing("_last"),
+            SortBuilders.fieldSort("state")
+                .order(org.elasticsearch.search.sort.SortOrder.DESC).missing("_first")),
+        queryBuilder.build(sortList));
+  }
+
+}
@@ -0,0 +1,254 @@
+/*
+ *    Copyright 2020 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License").
+ *    You may not use this file except in compliance with the License.
+ *    A copy of the License is located at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    or in the "license" file accompanying this file. This file is distributed
+ *    on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either
+ *    express or implied. See the License for the specific language governing
+ *    permissions and limitations under the License.
+ *
+ */
+
+package com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization;
+
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.INTEGER;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.STRING;
+import static com.amazon.opendistroforelasticsearch.sql.data.type.ExprCoreType.TIMESTAMP;
+import static com.amazon.opendistroforelasticsearch.sql.elasticsearch.data.type.ElasticsearchDataType.ES_TEXT_KEYWORD;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.named;
+import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprDateValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprMissingValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprNullValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTimeValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprTimestampValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
+import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValueUtils;
+import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ParameterExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.DSL;
+import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
+import com.amazon.opendistroforelasticsearch.sql.expression.FunctionExpression;
+import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
+import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import com.amazon.opendistroforelasticsearch.sql.expression.function.FunctionName;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.ByteArrayDataOutput;
+import com.google.common.io.ByteStreams;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CompactExpressionSerializerTest {
+
+  /**
+   * Initialize function repository manually to avoid dependency on Spring container.
+   */
+  private static final DSL dsl =
+      new ExpressionConfig().dsl(new ExpressionConfig().functionRepository());
+
+  private final ExpressionSerializer serializer = new CompactExpressionSerializer();
+
+  private static Stream<Expression> compactExpressions() {
+    return Stream.of(
+        literal(ExprNullValue.of()),
+        literal(ExprMissingValue.of()),
+        literal(true),
+        literal(10),
+        literal(10L),
+        literal(10.5F),
+        literal(10.5),
+        literal("hello 世界"),
+        literal(new ExprDateValue("2020-08-04")),
+        literal(new ExprTimeValue("10:20:30.123456")),
+        literal(new ExprTimestampValue("2020-08-04 10:20:30")),
+        ref("name", STRING),
+        ref("name", ES_TEXT_KEYWORD),
+        dsl.pi(),
+        dsl.abs(literal(30.0)),
+        dsl.or(literal(true), dsl.less(ref("age", INTEGER), literal(2))),
+        dsl.like(ref("name", STRING), literal("%john%"))
+    );
+  }
+
+  @ParameterizedTest
+  @MethodSource("compactExpressions")
+  void can_serialize_and_deserialize_in_compact_format(Expression original) {
+    String code = serializer.serialize(original);
+    assertEquals(CompactExpressionSerializer.FORMAT_VERSION, Base64.getDecoder().decode(code)[0]);
+    assertEquals(original, serializer.deserialize(code));
+  }
+
+  @Test
+  void compact_format_should_be_smaller_than_jdk_serialization() {
+    Expression original = dsl.and(
+        dsl.greater(ref("age", INTEGER), literal(30)),
+        dsl.equal(ref("name", STRING), literal("John")));
+    String code = serializer.serialize(original);
+    assertTrue(code.length() * 10 < new DefaultExpressionSerializer().serialize(original).length());
+  }
+
+  @Test
+  void can_lift_literals_into_parameters() {
+    Map<String, Object> params1 = new HashMap<>();
+    String code1 = serializer.serialize(
+        dsl.and(dsl.equal(dsl.abs(ref("age", INTEGER)), literal(30)),
+            dsl.like(ref("name", STRING), literal("%John%"))), params1);
+    Map<String, Object> params2 = new HashMap<>();
+    String code2 = serializer.serialize(
+        dsl.and(dsl.equal(dsl.abs(ref("age", INTEGER)), literal(40)),
+            dsl.like(ref("name", STRING), literal("%Smith%"))), params2);
+
+    assertEquals(code1, code2);
+    assertEquals(ImmutableMap.of("p0", 30, "p1", "%John%"), params1);
+    assertEquals(ImmutableMap.of("p0", 40, "p1", "%Smith%"), params2);
+    assertEquals(
+        dsl.and(dsl.equal(dsl.abs(ref("age", INTEGER)), new ParameterExpression("p0", INTEGER)),
+            dsl.like(ref("name", STRING), new ParameterExpression("p1", STRING))),
+        serializer.deserialize(code1));
+  }
+
+  @Test
+  void should_not_lift_null_and_unsupported_literals() {
+    Map<String, Object> params = new HashMap<>();
+    Expression original = dsl.and(
+        dsl.isnull(literal(ExprNullValue.of())),
+        dsl.equal(ref("birthday", TIMESTAMP),
+            literal(new ExprTimestampValue("2020-08-04 10:20:30"))));
+    assertEquals(original, serializer.deserialize(serializer.serialize(original, params)));
+    assertTrue(params.isEmpty());
+  }
+
+  @Test
+  void should_not_lift_literals_if_fall_back_to_jdk_serialization() {
+    Map<String, Object> params = new HashMap<>();
+    Expression original = dsl.equal(named("age", ref("age", INTEGER)), literal(30));
+    assertEquals(original, serializer.deserialize(serializer.serialize(original, params)));
+    assertTrue(params.isEmpty());
+  }
+
+  @Test
+  void should_fall_back_to_jdk_serialization_for_unsupported_literal() {
+    Expression original = literal(ExprValueUtils.tupleValue(ImmutableMap.of("name", "John")));
+    String code = serializer.serialize(original);
+    assertEquals(new DefaultExpressionSerializer().serialize(original), code);
+    assertEquals(original, serializer.deserialize(code));
+  }
+
+  @Test
+  void should_fall_back_to_jdk_serialization_for_unsupported_expression() {
+    Expression original = dsl.equal(named("age", ref("age", INTEGER)), literal(30));
+    assertEquals(original, serializer.deserialize(serializer.serialize(original)));
+  }
+
+  @Test
+  void should_fall_back_to_jdk_serialization_for_unsupported_type() {
+    Expression original = ref("name", CustomType.CUSTOM);
+    assertEquals(original, serializer.deserialize(serializer.serialize(original)));
+  }
+
+  @Test
+  void should_fall_back_to_jdk_serialization_for_non_builtin_function() {
+    Expression original = new UnknownFunction();
+    assertEquals(original, serializer.deserialize(serializer.serialize(original)));
+  }
+
+  @Test
+  void can_deserialize_code_serialized_by_jdk_serialization() {
+    Expression original = dsl.equal(ref("name", STRING), literal("John"));
+    String code = new DefaultExpressionSerializer().serialize(original);
+    assertEquals(original, serializer.deserialize(code));
+  }
+
+  @Test
+  void cannot_deserialize_illegal_expression_code() {
+    assertThrows(IllegalStateException.class, () -> serializer.deserialize("hello world"));
+    assertThrows(IllegalStateException.class, () -> serializer.deserialize(""));
+  }
+
+  @Test
+  void cannot_deserialize_truncated_code() {
+    String code = serializer.serialize(dsl.abs(literal(30.0)));
+    byte[] bytes = Base64.getDecoder().decode(code);
+    String truncated = Base64.getEncoder().encodeToString(Arrays.copyOf(bytes, bytes.length - 1));
+    assertThrows(IllegalStateException.class, () -> serializer.deserialize(truncated));
+  }
+
+  @Test
+  void cannot_deserialize_unknown_tags() {
+    ByteArrayDataOutput unknownExpr = ByteStreams.newDataOutput();
+    unknownExpr.writeByte(CompactExpressionSerializer.FORMAT_VERSION);
+    unknownExpr.writeByte(9);
+    assertThrows(IllegalStateException.class, () -> deserialize(unknownExpr));
+
+    ByteArrayDataOutput unknownValue = ByteStreams.newDataOutput();
+    unknownValue.writeByte(CompactExpressionSerializer.FORMAT_VERSION);
+    unknownValue.writeByte(0); // literal
+    unknownValue.writeByte(99);
+    assertThrows(IllegalStateException.class, () -> deserialize(unknownValue));
+
+    ByteArrayDataOutput unknownType = ByteStreams.newDataOutput();
+    unknownType.writeByte(CompactExpressionSerializer.FORMAT_VERSION);
+    unknownType.writeByte(1); // reference
+    writeString("name", unknownType);
+    unknownType.writeByte(9);
+    writeString("STRING", unknownType);
+    assertThrows(IllegalStateException.class, () -> deserialize(unknownType));
+  }
+
+  private Expression deserialize(ByteArrayDataOutput output) {
+    return serializer.deserialize(Base64.getEncoder().encodeToString(output.toByteArray()));
+  }
+
+  private void writeString(String str, ByteArrayDataOutput output) {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private enum CustomType implements ExprType {
+    CUSTOM;
+
+    @Override
+    public String typeName() {
+      return "custom";
+    }
+  }
+
+  private static class UnknownFunction extends FunctionExpression {
+    UnknownFunction() {
+      super(new FunctionName("unknown"), Collections.emptyList());
+    }
+
+    @Override
+    public ExprValue valueOf(Environment<Expression, ExprValue> valueEnv) {
+      return ExprNullValue.of();
+    }
+
+    @Override
+    public ExprType type() {
+      return STRING;
+    }
+  }
+
+}
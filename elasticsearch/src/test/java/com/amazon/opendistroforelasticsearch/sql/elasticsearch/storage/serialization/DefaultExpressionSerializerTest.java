@@ -21,6 +21,7 @@ import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.literal;
 import static com.amazon.opendistroforelasticsearch.sql.expression.DSL.ref;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.amazon.opendistroforelasticsearch.sql.data.model.ExprValue;
 import com.amazon.opendistroforelasticsearch.sql.data.type.ExprType;
@@ -29,6 +30,8 @@ import com.amazon.opendistroforelasticsearch.sql.expression.Expression;
 import com.amazon.opendistroforelasticsearch.sql.expression.ExpressionNodeVisitor;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.expression.env.Environment;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
@@ -65,6 +68,15 @@ class DefaultExpressionSerializerTest {
     assertEquals(original, actual);
   }
 
+  @Test
+  public void should_not_lift_literals_into_parameters() {
+    Expression original = dsl.less(literal(1), literal(2));
+    Map<String, Object> params = new HashMap<>();
+    Expression actual = serializer.deserialize(serializer.serialize(original, params));
+    assertEquals(original, actual);
+    assertTrue(params.isEmpty());
+  }
+
   @Disabled("Bypass until all functions become serializable")
   @Test
   public void can_serialize_and_deserialize_functions() {
@@ -201,7 +201,7 @@ public abstract class SQLIntegTestCase extends ODFERestTestCase {
 
   protected String executeQuery(String query, String requestType) {
     try {
-      String endpoint = "/_opendistro/_sql?format=" + requestType;
+      String endpoint = "/_opendistro/_sql?format=" + requestType + "&pretty=true";
       String requestBody = makeRequest(query);
 
       Request sqlRequest = new Request("POST", endpoint);
@@ -66,7 +66,7 @@ public class StandaloneIT extends PPLIntegTestCase {
     context.registerBean(StorageEngine.class,
         () -> new ElasticsearchStorageEngine(client, defaultSettings()));
     context.registerBean(ExecutionEngine.class, () -> new ElasticsearchExecutionEngine(client,
-        new ElasticsearchExecutionProtector(new AlwaysHealthyMonitor())));
+        new ElasticsearchExecutionProtector(new AlwaysHealthyMonitor(), defaultSettings())));
     context.register(PPLServiceConfig.class);
     context.refresh();
 
@@ -128,8 +128,11 @@ public class StandaloneIT extends PPLIntegTestCase {
 
   private Settings defaultSettings() {
     return new Settings() {
-      private final Map<Key, Integer> defaultSettings = new ImmutableMap.Builder<Key, Integer>()
+      private final Map<Key, Object> defaultSettings = new ImmutableMap.Builder<Key, Object>()
           .put(Key.QUERY_SIZE_LIMIT, 200)
+          .put(Key.QUERY_SORT_SPILL_THRESHOLD, 100_000)
+          .put(Key.QUERY_AGGREGATION_SPILL_THRESHOLD, 100_000)
+          .put(Key.QUERY_SPILL_PATH, System.getProperty("java.io.tmpdir"))
           .build();
 
       @Override
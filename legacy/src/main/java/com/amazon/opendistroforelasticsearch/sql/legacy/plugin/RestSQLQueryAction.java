@@ -17,6 +17,7 @@
 package com.amazon.opendistroforelasticsearch.sql.legacy.plugin;
 
 import static com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
 import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
 import static org.elasticsearch.rest.RestStatus.INTERNAL_SERVER_ERROR;
 import static org.elasticsearch.rest.RestStatus.OK;
@@ -33,12 +34,17 @@ import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
 import com.amazon.opendistroforelasticsearch.sql.sql.config.SQLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.security.PrivilegedExceptionAction;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.rest.BaseRestHandler;
 import org.elasticsearch.rest.BytesRestResponse;
 import org.elasticsearch.rest.RestChannel;
@@ -64,6 +70,14 @@ public class RestSQLQueryAction extends BaseRestHandler {
    */
   private final Settings pluginSettings;
 
+  /**
+   * SQLService and the node client it's built for. The service graph built by Spring context is
+   * immutable and node client passed in is the same instance on a node, so the service is built
+   * once and reused rather than built per request.
+   */
+  private final AtomicReference<Pair<NodeClient, SQLService>> cachedSQLService =
+      new AtomicReference<>();
+
   public RestSQLQueryAction(ClusterService clusterService, Settings pluginSettings) {
     super();
     this.clusterService = clusterService;
@@ -96,7 +110,7 @@ public class RestSQLQueryAction extends BaseRestHandler {
       return NOT_SUPPORTED_YET;
     }
 
-    SQLService sqlService = createSQLService(nodeClient);
+    SQLService sqlService = getOrCreateSQLService(nodeClient);
     PhysicalPlan plan;
     try {
       // For now analyzing and planning stage may throw syntax exception as well
@@ -110,6 +124,15 @@ public class RestSQLQueryAction extends BaseRestHandler {
     return channel -> sqlService.execute(plan, createListener(channel));
   }
 
+  private SQLService getOrCreateSQLService(NodeClient client) {
+    Pair<NodeClient, SQLService> cached = cachedSQLService.get();
+    if (cached == null || cached.getLeft() != client) {
+      cached = Pair.of(client, createSQLService(client));
+      cachedSQLService.set(cached);
+    }
+    return cached.getRight();
+  }
+
   private SQLService createSQLService(NodeClient client) {
     return doPrivileged(() -> {
       AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
@@ -125,12 +148,21 @@ public class RestSQLQueryAction extends BaseRestHandler {
 
   // TODO: duplicate code here as in RestPPLQueryAction
   private ResponseListener<QueryResponse> createListener(RestChannel channel) {
-    SimpleJsonResponseFormatter formatter = new SimpleJsonResponseFormatter(PRETTY);
+    SimpleJsonResponseFormatter formatter = new SimpleJsonResponseFormatter(
+        channel.request().paramAsBoolean("pretty", false) ? PRETTY : COMPACT);
     return new ResponseListener<QueryResponse>() {
       @Override
       public void onResponse(QueryResponse response) {
-        sendResponse(OK, formatter.format(new QueryResult(response.getSchema(),
-            response.getResults())));
+        try {
+          // Write to the channel's reusable output directly rather than an intermediate string
+          BytesStreamOutput output = channel.bytesOutput();
+          formatter.format(new QueryResult(response.getSchema(), response.getResults()),
+              new OutputStreamWriter(output, StandardCharsets.UTF_8));
+          channel.sendResponse(
+              new BytesRestResponse(OK, "application/json; charset=UTF-8", output.bytes()));
+        } catch (IOException e) {
+          onFailure(e);
+        }
       }
 
       @Override
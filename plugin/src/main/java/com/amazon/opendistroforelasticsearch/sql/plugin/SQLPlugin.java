@@ -17,7 +17,7 @@ package com.amazon.opendistroforelasticsearch.sql.plugin;
 
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.setting.ElasticsearchSettings;
 import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.script.ExpressionScriptEngine;
-import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.DefaultExpressionSerializer;
+import com.amazon.opendistroforelasticsearch.sql.elasticsearch.storage.serialization.CompactExpressionSerializer;
 import com.amazon.opendistroforelasticsearch.sql.legacy.esdomain.LocalClusterState;
 import com.amazon.opendistroforelasticsearch.sql.legacy.executor.AsyncRestExecutor;
 import com.amazon.opendistroforelasticsearch.sql.legacy.metrics.Metrics;
@@ -37,17 +37,21 @@ import org.elasticsearch.client.Client;
 import org.elasticsearch.cluster.metadata.IndexNameExpressionResolver;
 import org.elasticsearch.cluster.node.DiscoveryNodes;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.elasticsearch.common.io.stream.NamedWriteableRegistry;
 import org.elasticsearch.common.settings.ClusterSettings;
 import org.elasticsearch.common.settings.IndexScopedSettings;
 import org.elasticsearch.common.settings.Setting;
 import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.common.settings.SettingsFilter;
+import org.elasticsearch.common.unit.MemorySizeValue;
 import org.elasticsearch.common.util.concurrent.EsExecutors;
 import org.elasticsearch.common.xcontent.NamedXContentRegistry;
 import org.elasticsearch.env.Environment;
 import org.elasticsearch.env.NodeEnvironment;
+import org.elasticsearch.indices.breaker.BreakerSettings;
 import org.elasticsearch.plugins.ActionPlugin;
+import org.elasticsearch.plugins.CircuitBreakerPlugin;
 import org.elasticsearch.plugins.Plugin;
 import org.elasticsearch.plugins.ScriptPlugin;
 import org.elasticsearch.repositories.RepositoriesService;
@@ -61,7 +65,15 @@ import org.elasticsearch.threadpool.FixedExecutorBuilder;
 import org.elasticsearch.threadpool.ThreadPool;
 import org.elasticsearch.watcher.ResourceWatcherService;
 
-public class SQLPlugin extends Plugin implements ActionPlugin, ScriptPlugin {
+public class SQLPlugin extends Plugin implements ActionPlugin, ScriptPlugin, CircuitBreakerPlugin {
+
+  /**
+   * Name of the circuit breaker accounting memory reserved by all queries on the node. The limit
+   * can be changed by breaker.sql.limit setting.
+   */
+  public static final String CIRCUIT_BREAKER_NAME = "sql";
+
+  private static final String CIRCUIT_BREAKER_DEFAULT_LIMIT = "40%";
 
   /**
    * Sql plugin specific settings in ES cluster settings.
@@ -75,6 +87,11 @@ public class SQLPlugin extends Plugin implements ActionPlugin, ScriptPlugin {
    */
   private com.amazon.opendistroforelasticsearch.sql.common.setting.Settings pluginSettings;
 
+  /**
+   * Circuit breaker should be set when bootstrap the node, before rest handlers are created.
+   */
+  private CircuitBreaker circuitBreaker;
+
   public String name() {
     return "sql";
   }
@@ -92,12 +109,14 @@ public class SQLPlugin extends Plugin implements ActionPlugin, ScriptPlugin {
                                            Supplier<DiscoveryNodes> nodesInCluster) {
     Objects.requireNonNull(clusterService, "Cluster service is required");
     Objects.requireNonNull(pluginSettings, "Cluster settings is required");
+    Objects.requireNonNull(circuitBreaker, "Circuit breaker is required");
 
     LocalClusterState.state().setResolver(indexNameExpressionResolver);
     Metrics.getInstance().registerDefaultMetrics();
 
     return Arrays.asList(
-        new RestPPLQueryAction(restController, clusterService, pluginSettings, settings),
+        new RestPPLQueryAction(restController, clusterService, pluginSettings, settings,
+            circuitBreaker),
         new RestSqlAction(settings, clusterService, pluginSettings),
         new RestSqlStatsAction(settings, restController),
         new RestSqlSettingsAction(settings, restController)
@@ -149,9 +168,22 @@ public class SQLPlugin extends Plugin implements ActionPlugin, ScriptPlugin {
     return settings;
   }
 
+  @Override
+  public BreakerSettings getCircuitBreaker(Settings settings) {
+    long limit = MemorySizeValue.parseBytesSizeValueOrHeapRatio(
+        CIRCUIT_BREAKER_DEFAULT_LIMIT, "breaker." + CIRCUIT_BREAKER_NAME + ".limit").getBytes();
+    return BreakerSettings.updateFromSettings(
+        new BreakerSettings(CIRCUIT_BREAKER_NAME, limit, 1.0), settings);
+  }
+
+  @Override
+  public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+    this.circuitBreaker = circuitBreaker;
+  }
+
   @Override
   public ScriptEngine getScriptEngine(Settings settings, Collection<ScriptContext<?>> contexts) {
-    return new ExpressionScriptEngine(new DefaultExpressionSerializer());
+    return new ExpressionScriptEngine(new CompactExpressionSerializer());
   }
 
 }
@@ -30,6 +30,7 @@ import com.amazon.opendistroforelasticsearch.sql.monitor.ResourceMonitor;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.breaker.CircuitBreaker;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -50,6 +51,9 @@ public class ElasticsearchPluginConfig {
   @Autowired
   private Settings settings;
 
+  @Autowired
+  private CircuitBreaker circuitBreaker;
+
   @Bean
   public ElasticsearchClient client() {
     return new ElasticsearchNodeClient(clusterService, nodeClient);
@@ -67,11 +71,12 @@ public class ElasticsearchPluginConfig {
 
   @Bean
   public ResourceMonitor resourceMonitor() {
-    return new ElasticsearchResourceMonitor(settings, new ElasticsearchMemoryHealthy());
+    return new ElasticsearchResourceMonitor(settings, new ElasticsearchMemoryHealthy(),
+        circuitBreaker);
   }
 
   @Bean
   public ExecutionProtector protector() {
-    return new ElasticsearchExecutionProtector(resourceMonitor());
+    return new ElasticsearchExecutionProtector(resourceMonitor(), settings);
   }
 }
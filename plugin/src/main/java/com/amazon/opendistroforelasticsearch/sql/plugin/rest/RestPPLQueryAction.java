@@ -15,6 +15,7 @@
 
 package com.amazon.opendistroforelasticsearch.sql.plugin.rest;
 
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.COMPACT;
 import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
 import static org.elasticsearch.rest.RestStatus.BAD_REQUEST;
 import static org.elasticsearch.rest.RestStatus.OK;
@@ -35,14 +36,20 @@ import com.amazon.opendistroforelasticsearch.sql.ppl.config.PPLServiceConfig;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.format.SimpleJsonResponseFormatter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.security.PrivilegedExceptionAction;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.elasticsearch.client.node.NodeClient;
 import org.elasticsearch.cluster.service.ClusterService;
+import org.elasticsearch.common.breaker.CircuitBreaker;
+import org.elasticsearch.common.io.stream.BytesStreamOutput;
 import org.elasticsearch.index.IndexNotFoundException;
 import org.elasticsearch.rest.BaseRestHandler;
 import org.elasticsearch.rest.BytesRestResponse;
@@ -67,17 +74,32 @@ public class RestPPLQueryAction extends BaseRestHandler {
    */
   private final Settings pluginSettings;
 
+  /**
+   * PPLService and the node client it's built for. The service graph built by Spring context is
+   * immutable and node client passed in is the same instance on a node, so the service is built
+   * once and reused rather than built per request.
+   */
+  private final AtomicReference<Pair<NodeClient, PPLService>> cachedPPLService =
+      new AtomicReference<>();
+
   private final Supplier<Boolean> pplEnabled;
 
+  /**
+   * Circuit breaker accounting memory of all queries on the node.
+   */
+  private final CircuitBreaker circuitBreaker;
+
   /**
    * Constructor of RestPPLQueryAction.
    */
   public RestPPLQueryAction(RestController restController, ClusterService clusterService,
                             Settings pluginSettings,
-                            org.elasticsearch.common.settings.Settings clusterSettings) {
+                            org.elasticsearch.common.settings.Settings clusterSettings,
+                            CircuitBreaker circuitBreaker) {
     super();
     this.clusterService = clusterService;
     this.pluginSettings = pluginSettings;
+    this.circuitBreaker = circuitBreaker;
     this.pplEnabled =
         () -> MULTI_ALLOW_EXPLICIT_INDEX.get(clusterSettings)
             && (Boolean) pluginSettings.getSettingValue(Settings.Key.PPL_ENABLED);
@@ -102,11 +124,20 @@ public class RestPPLQueryAction extends BaseRestHandler {
           "Either opendistro.ppl.enabled or rest.action.multi.allow_explicit_index setting is false"
       ), BAD_REQUEST);
     }
-    PPLService pplService = createPPLService(nodeClient);
+    PPLService pplService = getOrCreatePPLService(nodeClient);
     return channel -> pplService.execute(
         PPLQueryRequestFactory.getPPLRequest(request), createListener(channel));
   }
 
+  private PPLService getOrCreatePPLService(NodeClient client) {
+    Pair<NodeClient, PPLService> cached = cachedPPLService.get();
+    if (cached == null || cached.getLeft() != client) {
+      cached = Pair.of(client, createPPLService(client));
+      cachedPPLService.set(cached);
+    }
+    return cached.getRight();
+  }
+
   /**
    * Ideally, the AnnotationConfigApplicationContext should be shared across Plugin. By default,
    * spring construct all the bean as singleton. Currently, there are no better solution to
@@ -117,7 +148,8 @@ public class RestPPLQueryAction extends BaseRestHandler {
    * to control.
    * alt-2, using ObjectFactory with @Autowired, it also works, but require add to all the
    * configuration.
-   * We will revisit the current solution if any major issue found.
+   * We will revisit the current solution if any major issue found. Because all beans are
+   * stateless, the service built is cached and only rebuilt if a different node client is given.
    */
   private PPLService createPPLService(NodeClient client) {
     return doPrivileged(() -> {
@@ -125,6 +157,7 @@ public class RestPPLQueryAction extends BaseRestHandler {
       context.registerBean(ClusterService.class, () -> clusterService);
       context.registerBean(NodeClient.class, () -> client);
       context.registerBean(Settings.class, () -> pluginSettings);
+      context.registerBean(CircuitBreaker.class, () -> circuitBreaker);
       context.register(ElasticsearchPluginConfig.class);
       context.register(PPLServiceConfig.class);
       context.refresh();
@@ -133,13 +166,21 @@ public class RestPPLQueryAction extends BaseRestHandler {
   }
 
   private ResponseListener<QueryResponse> createListener(RestChannel channel) {
-    SimpleJsonResponseFormatter formatter =
-        new SimpleJsonResponseFormatter(PRETTY); // TODO: decide format and pretty from URL param
+    SimpleJsonResponseFormatter formatter = new SimpleJsonResponseFormatter(
+        channel.request().paramAsBoolean("pretty", false) ? PRETTY : COMPACT);
     return new ResponseListener<QueryResponse>() {
       @Override
       public void onResponse(QueryResponse response) {
-        sendResponse(OK, formatter.format(new QueryResult(response.getSchema(),
-            response.getResults())));
+        try {
+          // Write to the channel's reusable output directly rather than an intermediate string
+          BytesStreamOutput output = channel.bytesOutput();
+          formatter.format(new QueryResult(response.getSchema(), response.getResults()),
+              new OutputStreamWriter(output, StandardCharsets.UTF_8));
+          channel.sendResponse(
+              new BytesRestResponse(OK, "application/json; charset=UTF-8", output.bytes()));
+        } catch (IOException e) {
+          onFailure(e);
+        }
       }
 
       @Override
@@ -147,11 +188,6 @@ public class RestPPLQueryAction extends BaseRestHandler {
         LOG.error("Error happened during query handling", e);
         reportError(channel, e, isClientError(e) ? BAD_REQUEST : SERVICE_UNAVAILABLE);
       }
-
-      private void sendResponse(RestStatus status, String content) {
-        channel.sendResponse(
-            new BytesRestResponse(status, "application/json; charset=UTF-8", content));
-      }
     };
   }
 
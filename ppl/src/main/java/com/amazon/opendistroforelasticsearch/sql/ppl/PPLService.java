@@ -24,6 +24,7 @@ import com.amazon.opendistroforelasticsearch.sql.common.response.ResponseListene
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.ppl.antlr.PPLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.ppl.domain.PPLQueryRequest;
@@ -40,6 +41,8 @@ public class PPLService {
 
   private final Analyzer analyzer;
 
+  private final LogicalPlanOptimizer logicalOptimizer;
+
   private final StorageEngine storageEngine;
 
   private final ExecutionEngine executionEngine;
@@ -59,8 +62,8 @@ public class PPLService {
       LogicalPlan logicalPlan = analyzer.analyze(UnresolvedPlanHelper.addSelectAll(ast),
           new AnalysisContext());
 
-      // 3.Generate optimal physical plan from logical plan
-      PhysicalPlan physicalPlan = new Planner(storageEngine).plan(logicalPlan);
+      // 3.Optimize logical plan and generate optimal physical plan from it
+      PhysicalPlan physicalPlan = new Planner(storageEngine, logicalOptimizer).plan(logicalPlan);
 
       // 4.Execute physical plan and send response
       executionEngine.execute(physicalPlan, listener);
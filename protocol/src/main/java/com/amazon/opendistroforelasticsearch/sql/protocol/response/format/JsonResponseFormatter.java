@@ -18,6 +18,7 @@ package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
 
 import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.json.JSONObject;
@@ -40,6 +41,7 @@ public abstract class JsonResponseFormatter<R> implements ResponseFormatter<R> {
   /**
    * JSON format style.
    */
+  @Getter(AccessLevel.PROTECTED)
   private final Style style;
 
 
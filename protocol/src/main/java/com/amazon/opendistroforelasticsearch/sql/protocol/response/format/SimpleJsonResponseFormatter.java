@@ -16,12 +16,20 @@
 
 package com.amazon.opendistroforelasticsearch.sql.protocol.response.format;
 
+import static com.amazon.opendistroforelasticsearch.sql.protocol.response.format.JsonResponseFormatter.Style.PRETTY;
+
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Singular;
+import org.json.JSONArray;
+import org.json.JSONObject;
 
 /**
  * JSON response format with schema header and data rows. For example,
@@ -45,6 +53,11 @@ import lombok.Singular;
  */
 public class SimpleJsonResponseFormatter extends JsonResponseFormatter<QueryResult> {
 
+  /**
+   * Indent factor of pretty style, the same as JSONObject uses in base class.
+   */
+  private static final int PRETTY_INDENT_FACTOR = 2;
+
   public SimpleJsonResponseFormatter(Style style) {
     super(style);
   }
@@ -62,6 +75,77 @@ public class SimpleJsonResponseFormatter extends JsonResponseFormatter<QueryResu
     return json.build();
   }
 
+  /**
+   * Write the response to the writer one data row at a time instead of building the whole JSON
+   * object and string in memory. The content written is the same as what format() returns.
+   *
+   * @param response  query result
+   * @param writer    writer that JSON content is written to
+   */
+  public void format(QueryResult response, Writer writer) throws IOException {
+    int indentFactor = (getStyle() == PRETTY) ? PRETTY_INDENT_FACTOR : 0;
+    List<Column> schema = new ArrayList<>();
+    response.columnNameTypes().forEach((name, type) -> schema.add(new Column(name, type)));
+
+    // Same key order as JSONObject generates for JsonResponse
+    writer.write('{');
+    writeKey(writer, "schema", indentFactor);
+    new JSONArray(schema).write(writer, indentFactor, indentFactor);
+    writer.write(',');
+    writeKey(writer, "total", indentFactor);
+    writer.write(String.valueOf(response.size()));
+    writer.write(',');
+    writeKey(writer, "datarows", indentFactor);
+    writeDataRows(writer, response, indentFactor);
+    writer.write(',');
+    writeKey(writer, "size", indentFactor);
+    writer.write(String.valueOf(response.size()));
+    writeNewLine(writer, indentFactor, 0);
+    writer.write('}');
+    writer.flush();
+  }
+
+  /**
+   * Write data rows in the same layout as JSONArray, which puts single element on the same line.
+   */
+  private void writeDataRows(Writer writer, QueryResult response, int indentFactor)
+      throws IOException {
+    boolean multiline = response.size() > 1;
+    int rowIndent = multiline ? indentFactor * 2 : indentFactor;
+    boolean first = true;
+
+    writer.write('[');
+    for (Object[] row : response) {
+      if (!first) {
+        writer.write(',');
+      }
+      if (multiline) {
+        writeNewLine(writer, indentFactor, rowIndent);
+      }
+      new JSONArray(Arrays.asList(row)).write(writer, indentFactor, rowIndent);
+      first = false;
+    }
+    if (multiline) {
+      writeNewLine(writer, indentFactor, indentFactor);
+    }
+    writer.write(']');
+  }
+
+  private void writeKey(Writer writer, String key, int indentFactor) throws IOException {
+    writeNewLine(writer, indentFactor, indentFactor);
+    writer.write(JSONObject.quote(key));
+    writer.write(indentFactor > 0 ? ": " : ":");
+  }
+
+  private void writeNewLine(Writer writer, int indentFactor, int indent) throws IOException {
+    if (indentFactor > 0) {
+      writer.write('\n');
+      for (int i = 0; i < indent; i++) {
+        writer.write(' ');
+      }
+    }
+  }
+
   private Object[][] fetchDataRows(QueryResult response) {
     Object[][] rows = new Object[response.size()][];
     int i = 0;
@@ -30,8 +30,13 @@ import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.protocol.response.QueryResult;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.Collections;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 class SimpleJsonResponseFormatterTest {
 
@@ -109,6 +114,37 @@ class SimpleJsonResponseFormatterTest {
         formatter.format(response));
   }
 
+  @ParameterizedTest
+  @EnumSource(JsonResponseFormatter.Style.class)
+  void formatResponseToWriter(JsonResponseFormatter.Style style) throws IOException {
+    QueryResult response =
+        new QueryResult(
+            schema,
+            Arrays.asList(
+                tupleValue(ImmutableMap.of("firstname", "John", "age", 20)),
+                tupleValue(ImmutableMap.of("firstname", "Smith", "age", 30))));
+    assertFormatToWriter(new SimpleJsonResponseFormatter(style), response);
+  }
+
+  @ParameterizedTest
+  @EnumSource(JsonResponseFormatter.Style.class)
+  void formatSingleRowResponseToWriter(JsonResponseFormatter.Style style) throws IOException {
+    QueryResult response =
+        new QueryResult(
+            schema,
+            Collections.singletonList(
+                ExprTupleValue.fromExprValueMap(
+                    ImmutableMap.of("firstname", stringValue("John"), "age", LITERAL_MISSING))));
+    assertFormatToWriter(new SimpleJsonResponseFormatter(style), response);
+  }
+
+  @ParameterizedTest
+  @EnumSource(JsonResponseFormatter.Style.class)
+  void formatEmptyResponseToWriter(JsonResponseFormatter.Style style) throws IOException {
+    QueryResult response = new QueryResult(schema, Collections.emptyList());
+    assertFormatToWriter(new SimpleJsonResponseFormatter(style), response);
+  }
+
   @Test
   void formatError() {
     SimpleJsonResponseFormatter formatter = new SimpleJsonResponseFormatter(COMPACT);
@@ -127,4 +163,11 @@ class SimpleJsonResponseFormatterTest {
             + "}",
         formatter.format(new RuntimeException("This is an exception")));
   }
+
+  private void assertFormatToWriter(SimpleJsonResponseFormatter formatter,
+                                    QueryResult response) throws IOException {
+    StringWriter writer = new StringWriter();
+    formatter.format(response, writer);
+    assertEquals(formatter.format(response), writer.toString());
+  }
 }
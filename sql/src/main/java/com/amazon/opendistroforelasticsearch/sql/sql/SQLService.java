@@ -24,6 +24,7 @@ import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine.QueryResponse;
 import com.amazon.opendistroforelasticsearch.sql.planner.Planner;
 import com.amazon.opendistroforelasticsearch.sql.planner.logical.LogicalPlan;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.planner.physical.PhysicalPlan;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.sql.domain.SQLQueryRequest;
@@ -40,6 +41,8 @@ public class SQLService {
 
   private final Analyzer analyzer;
 
+  private final LogicalPlanOptimizer logicalOptimizer;
+
   private final StorageEngine storageEngine;
 
   private final ExecutionEngine executionEngine;
@@ -48,13 +51,16 @@ public class SQLService {
    * Initialize SQL service.
    * @param parser              SQL syntax parser
    * @param analyzer            AST analyzer
+   * @param logicalOptimizer    logical plan optimizer
    * @param storageEngine       storage engine
    * @param executionEngine     execution engine
    */
   public SQLService(SQLSyntaxParser parser, Analyzer analyzer,
+                    LogicalPlanOptimizer logicalOptimizer,
                     StorageEngine storageEngine, ExecutionEngine executionEngine) {
     this.parser = parser;
     this.analyzer = analyzer;
+    this.logicalOptimizer = logicalOptimizer;
     this.storageEngine = storageEngine;
     this.executionEngine = executionEngine;
   }
@@ -107,7 +113,7 @@ public class SQLService {
    * Generate optimal physical plan from logical plan.
    */
   public PhysicalPlan plan(LogicalPlan logicalPlan) {
-    return new Planner(storageEngine).plan(logicalPlan);
+    return new Planner(storageEngine, logicalOptimizer).plan(logicalPlan);
   }
 
 }
@@ -21,6 +21,7 @@ import com.amazon.opendistroforelasticsearch.sql.analysis.ExpressionAnalyzer;
 import com.amazon.opendistroforelasticsearch.sql.executor.ExecutionEngine;
 import com.amazon.opendistroforelasticsearch.sql.expression.config.ExpressionConfig;
 import com.amazon.opendistroforelasticsearch.sql.expression.function.BuiltinFunctionRepository;
+import com.amazon.opendistroforelasticsearch.sql.planner.optimizer.LogicalPlanOptimizer;
 import com.amazon.opendistroforelasticsearch.sql.sql.SQLService;
 import com.amazon.opendistroforelasticsearch.sql.sql.antlr.SQLSyntaxParser;
 import com.amazon.opendistroforelasticsearch.sql.storage.StorageEngine;
@@ -45,6 +46,11 @@ public class SQLServiceConfig {
   @Autowired
   private BuiltinFunctionRepository functionRepository;
 
+  @Bean
+  public LogicalPlanOptimizer logicalOptimizer() {
+    return LogicalPlanOptimizer.create(functionRepository);
+  }
+
   @Bean
   public Analyzer analyzer() {
     return new Analyzer(new ExpressionAnalyzer(functionRepository), storageEngine);
@@ -52,7 +58,8 @@ public class SQLServiceConfig {
 
   @Bean
   public SQLService sqlService() {
-    return new SQLService(new SQLSyntaxParser(), analyzer(), storageEngine, executionEngine);
+    return new SQLService(new SQLSyntaxParser(), analyzer(), logicalOptimizer(),
+        storageEngine, executionEngine);
   }
 
 }